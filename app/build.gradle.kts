@@ -1,7 +1,269 @@
+import org.gradle.process.ExecOperations
+import java.io.ByteArrayOutputStream
+import java.util.Locale
+import javax.inject.Inject
+
 plugins {
     alias(libs.plugins.android.application)
 }
 
+/**
+ * Packages the demo animations from src/main/demo-animations as drawables.
+ * In "webp" format every gif_<slug>.gif becomes an animated gif_<slug>.webp at the configured
+ * quality, frame rate and size, plus a card-sized thumb_<slug>.webp for list cards (at most
+ * thumbnailMaxFrames frames spread over the whole clip, at no more than thumbnailFrameRate) and
+ * a still poster_<slug>.webp (first frame) shown while a card is not playing. In "gif" format,
+ * or when ffmpeg has no libwebp_anim encoder, the GIFs are packaged unchanged.
+ * A before/after size report is written to build/reports/demo-animations.txt.
+ */
+abstract class TranscodeDemoAnimationsTask : DefaultTask() {
+
+    @get:InputFiles
+    @get:PathSensitive(PathSensitivity.NAME_ONLY)
+    abstract val animations: ConfigurableFileCollection
+
+    @get:Input
+    abstract val format: Property<String>
+
+    @get:Input
+    abstract val quality: Property<Int>
+
+    @get:Input
+    abstract val frameRate: Property<Int>
+
+    @get:Input
+    abstract val maxEdge: Property<Int>
+
+    @get:Input
+    abstract val thumbnailEdge: Property<Int>
+
+    @get:Input
+    abstract val thumbnailFrameRate: Property<Int>
+
+    @get:Input
+    abstract val thumbnailMaxFrames: Property<Int>
+
+    @get:Input
+    abstract val ffmpeg: Property<String>
+
+    @get:Input
+    abstract val ffprobe: Property<String>
+
+    @get:OutputDirectory
+    abstract val outputDirectory: DirectoryProperty
+
+    @get:OutputFile
+    abstract val reportFile: RegularFileProperty
+
+    @get:Inject
+    abstract val execOperations: ExecOperations
+
+    @TaskAction
+    fun transcode() {
+        val outputDir = outputDirectory.get().asFile
+        outputDir.deleteRecursively()
+        val drawableDir = outputDir.resolve("drawable")
+        drawableDir.mkdirs()
+
+        val webp = format.get() == "webp"
+        val transcode = webp && hasWebpEncoder()
+        if (webp && !transcode) {
+            logger.warn("${ffmpeg.get()} with libwebp_anim not found; packaging demo animations as GIF")
+        }
+
+        val report = StringBuilder()
+        report.append("format=").append(if (transcode) "webp" else "gif")
+        if (transcode) {
+            report.append(" quality=").append(quality.get())
+                .append(" fps=").append(frameRate.get())
+                .append(" maxEdge=").append(maxEdge.get())
+                .append(" thumbnail=").append(thumbnailEdge.get()).append("px/")
+                .append("<=").append(thumbnailFrameRate.get()).append("fps/").append(thumbnailMaxFrames.get()).append(" frames")
+        }
+        report.append("\n\n")
+
+        var sourceTotal = 0L
+        var outputTotal = 0L
+        animations.files.filter { it.extension == "gif" }.sortedBy { it.name }.forEach { source ->
+            val slug = source.nameWithoutExtension.removePrefix("gif_")
+            val produced = if (transcode) {
+                val full = drawableDir.resolve("gif_$slug.webp")
+                val thumbnail = drawableDir.resolve("thumb_$slug.webp")
+                val poster = drawableDir.resolve("poster_$slug.webp")
+                encode(source, full, frameRate.get().toString(), fitInside(maxEdge.get()), null)
+                encode(source, thumbnail, thumbnailRateFor(source), coverEdge(thumbnailEdge.get()), thumbnailMaxFrames.get())
+                encodePoster(source, poster, coverEdge(thumbnailEdge.get()))
+                listOf(full, thumbnail, poster)
+            } else {
+                listOf(source.copyTo(drawableDir.resolve("gif_$slug.gif")))
+            }
+
+            val outputBytes = produced.sumOf { it.length() }
+            sourceTotal += source.length()
+            outputTotal += outputBytes
+            report.append(source.name).append(": ").append(source.length() / 1024).append("KB -> ")
+                .append(outputBytes / 1024).append("KB\n")
+        }
+
+        val summary = "Demo animations: ${sourceTotal / 1024}KB -> ${outputTotal / 1024}KB"
+        report.append("\n").append(summary).append("\n")
+        reportFile.get().asFile.apply { parentFile.mkdirs() }.writeText(report.toString())
+        logger.lifecycle(summary)
+    }
+
+    private fun hasWebpEncoder(): Boolean {
+        val output = ByteArrayOutputStream()
+        return try {
+            execOperations.exec {
+                commandLine(ffmpeg.get(), "-hide_banner", "-encoders")
+                standardOutput = output
+                errorOutput = ByteArrayOutputStream()
+                isIgnoreExitValue = true
+            }.exitValue == 0 && output.toString().contains("libwebp_anim")
+        } catch (e: Exception) {
+            false
+        }
+    }
+
+    // Spreads thumbnailMaxFrames over the clip's whole duration instead of its first seconds
+    private fun thumbnailRateFor(source: File): String {
+        val duration = probeDuration(source)
+        if (duration == null || duration <= 0.0) {
+            logger.warn("Could not read the duration of ${source.name}; its thumbnail covers only the start")
+            return thumbnailFrameRate.get().toString()
+        }
+        val rate = minOf(thumbnailFrameRate.get().toDouble(), thumbnailMaxFrames.get() / duration)
+        return String.format(Locale.ROOT, "%.4f", rate)
+    }
+
+    private fun probeDuration(source: File): Double? {
+        val output = ByteArrayOutputStream()
+        return try {
+            execOperations.exec {
+                commandLine(
+                    ffprobe.get(), "-v", "error", "-show_entries", "format=duration",
+                    "-of", "default=noprint_wrappers=1:nokey=1", source.absolutePath
+                )
+                standardOutput = output
+                errorOutput = ByteArrayOutputStream()
+                isIgnoreExitValue = true
+            }
+            output.toString().trim().toDoubleOrNull()
+        } catch (e: Exception) {
+            null
+        }
+    }
+
+    private fun encode(source: File, target: File, fps: String, scale: String, maxFrames: Int?) {
+        val arguments = mutableListOf(
+            ffmpeg.get(), "-y", "-loglevel", "error", "-i", source.absolutePath,
+            "-vf", "fps=$fps,$scale",
+            "-c:v", "libwebp_anim", "-lossless", "0", "-quality", quality.get().toString(),
+            "-compression_level", "6", "-loop", "0"
+        )
+        if (maxFrames != null) {
+            arguments += listOf("-frames:v", maxFrames.toString())
+        }
+        arguments += target.absolutePath
+        execOperations.exec { commandLine(arguments) }
+    }
+
+    private fun encodePoster(source: File, target: File, scale: String) {
+        execOperations.exec {
+            commandLine(
+                ffmpeg.get(), "-y", "-loglevel", "error", "-i", source.absolutePath,
+                "-vf", scale, "-frames:v", "1",
+                "-c:v", "libwebp", "-quality", quality.get().toString(),
+                target.absolutePath
+            )
+        }
+    }
+
+    // Longer side at most `edge`, never upscaled
+    private fun fitInside(edge: Int) =
+        "scale='min($edge,iw)':'min($edge,ih)':force_original_aspect_ratio=decrease"
+
+    // Shorter side at most `edge`, so centerCrop cards stay sharp without carrying the full frame
+    private fun coverEdge(edge: Int) =
+        "scale='if(lt(iw,ih),min($edge,iw),-1)':'if(lt(iw,ih),-1,min($edge,ih))'"
+}
+
+/**
+ * Generates com.example.moodfit.media.GifResourceTable from the packaged demo animations, so the
+ * app can map exercises to animations without Resources.getIdentifier() at runtime.
+ * THUMBNAIL_IDS and POSTER_IDS hold the matching thumb_* and poster_* drawables, or 0 when
+ * none was produced.
+ */
+abstract class GenerateGifResourceTableTask : DefaultTask() {
+
+    @get:InputFiles
+    @get:PathSensitive(PathSensitivity.NAME_ONLY)
+    abstract val animations: ConfigurableFileCollection
+
+    @get:OutputDirectory
+    abstract val outputDirectory: DirectoryProperty
+
+    @TaskAction
+    fun generate() {
+        val files = animations.asFileTree.files.map { it.nameWithoutExtension }.toSet()
+        val names = files.filter { it.startsWith("gif_") }.sorted()
+
+        val source = StringBuilder()
+        source.append("// Generated by the generateGifResourceTable task from the packaged demo animations. Do not edit.\n")
+        source.append("package com.example.moodfit.media;\n\n")
+        source.append("import com.example.moodfit.R;\n\n")
+        source.append("final class GifResourceTable {\n\n")
+        source.append("    private GifResourceTable() {}\n\n")
+        source.append("    static final String[] NAMES = {\n")
+        names.forEach { source.append("            \"").append(it).append("\",\n") }
+        source.append("    };\n\n")
+        source.append("    static final int[] RESOURCE_IDS = {\n")
+        names.forEach { source.append("            R.drawable.").append(it).append(",\n") }
+        source.append("    };\n\n")
+        appendVariantIds(source, "THUMBNAIL_IDS", "thumb_", names, files)
+        source.append("\n")
+        appendVariantIds(source, "POSTER_IDS", "poster_", names, files)
+        source.append("}\n")
+
+        val outputDir = outputDirectory.get().asFile
+        outputDir.deleteRecursively()
+        val packageDir = outputDir.resolve("com/example/moodfit/media")
+        packageDir.mkdirs()
+        packageDir.resolve("GifResourceTable.java").writeText(source.toString())
+    }
+
+    private fun appendVariantIds(source: StringBuilder, field: String, prefix: String,
+                                 names: List<String>, files: Set<String>) {
+        source.append("    static final int[] ").append(field).append(" = {\n")
+        names.forEach {
+            val variant = prefix + it.removePrefix("gif_")
+            source.append("            ").append(if (variant in files) "R.drawable.$variant" else "0").append(",\n")
+        }
+        source.append("    };\n")
+    }
+}
+
+fun demoAnimationProperty(name: String, default: Int) =
+    providers.gradleProperty("moodfit.demoAnimations.$name").map(String::toInt).orElse(default)
+
+val transcodeDemoAnimations = tasks.register<TranscodeDemoAnimationsTask>("transcodeDemoAnimations") {
+    animations.from(fileTree("src/main/demo-animations") { include("gif_*.gif") })
+    format.set(providers.gradleProperty("moodfit.demoAnimations.format").orElse("webp"))
+    quality.set(demoAnimationProperty("quality", 75))
+    frameRate.set(demoAnimationProperty("frameRate", 15))
+    maxEdge.set(demoAnimationProperty("maxEdge", 720))
+    thumbnailEdge.set(demoAnimationProperty("thumbnailEdge", 216))
+    thumbnailFrameRate.set(demoAnimationProperty("thumbnailFrameRate", 8))
+    thumbnailMaxFrames.set(demoAnimationProperty("thumbnailMaxFrames", 16))
+    ffmpeg.set(providers.gradleProperty("moodfit.demoAnimations.ffmpeg").orElse("ffmpeg"))
+    ffprobe.set(providers.gradleProperty("moodfit.demoAnimations.ffprobe").orElse("ffprobe"))
+    reportFile.set(layout.buildDirectory.file("reports/demo-animations.txt"))
+}
+
+val generateGifResourceTable = tasks.register<GenerateGifResourceTableTask>("generateGifResourceTable") {
+    animations.from(transcodeDemoAnimations.flatMap { it.outputDirectory })
+}
+
 android {
     namespace = "com.example.moodfit"
     compileSdk = 35
@@ -31,6 +293,17 @@ android {
     }
 }
 
+androidComponents {
+    onVariants { variant ->
+        variant.sources.java?.addGeneratedSourceDirectory(
+            generateGifResourceTable, GenerateGifResourceTableTask::outputDirectory
+        )
+        variant.sources.res?.addGeneratedSourceDirectory(
+            transcodeDemoAnimations, TranscodeDemoAnimationsTask::outputDirectory
+        )
+    }
+}
+
 dependencies {
 
     implementation(libs.appcompat)
@@ -43,6 +316,7 @@ dependencies {
     implementation("com.google.code.gson:gson:2.10.1")
     implementation("com.google.android.material:material:1.9.0")
     implementation("androidx.cardview:cardview:1.0.0")
+    implementation("androidx.recyclerview:recyclerview:1.3.2")
     implementation("com.github.bumptech.glide:glide:4.16.0")
     annotationProcessor("com.github.bumptech.glide:compiler:4.16.0")
 }
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.example.moodfit.audio;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * How precisely timer cues are triggered and heard, against the 20 ms target
+ *
+ * Cues are scheduled the way SecondTicker schedules ticks (main-thread postDelayed towards a
+ * monotonic deadline) and three numbers are logged per run, as mean / p50 / p95 / max:
+ * "wakeup" is how late the main thread woke after the deadline, "play" is the time spent in
+ * CueEngine.play(), and "output" is the time from play() to the first frame at the output, where
+ * the device reports audio timestamps. wakeup + play is the scheduling jitter; the target is that
+ * wakeup + play + output stays under 20 ms at p95. Devices that report no audio timestamps are
+ * only held to the scheduling part.
+ *
+ * Results are logged per run (logcat tag CueJitterBenchmark).
+ */
+@RunWith(AndroidJUnit4.class)
+public class CueJitterBenchmarkTest {
+
+    private static final String TAG = "CueJitterBenchmark";
+
+    private static final long TARGET_NANOS = 20L * 1000000;
+
+    private static final int TRIGGERS = 40;
+    private static final long INTERVAL_NANOS = 500L * 1000000;
+
+    // Give the output a moment of playback before asking for a timestamp
+    private static final long TIMESTAMP_DELAY_MS = 100;
+    private static final long LOAD_POLL_MS = 50;
+    private static final long LOAD_TIMEOUT_MS = 5000;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    private final long[] wakeupNanos = new long[TRIGGERS];
+    private final long[] playNanos = new long[TRIGGERS];
+    // -1 where the device reported no timestamp for that trigger
+    private final long[] outputNanos = new long[TRIGGERS];
+    private CueEngine engine;
+    private int trigger = 0;
+    private int failedPlays = 0;
+    private long firstDeadlineNanos;
+
+    @Test
+    public void cues_triggerAndReachOutputWithinTarget() throws InterruptedException {
+        // Runs on the instrumentation thread; every cue is played from the main thread
+        Context appContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        engine = new CueEngine(appContext);
+        Arrays.fill(outputNanos, -1);
+
+        try {
+            long loadStart = System.nanoTime();
+            while (!engine.isLoaded()) {
+                assertTrue("Cues did not load", System.nanoTime() - loadStart < LOAD_TIMEOUT_MS * 1000000);
+                Thread.sleep(LOAD_POLL_MS);
+            }
+
+            firstDeadlineNanos = System.nanoTime() + INTERVAL_NANOS;
+            handler.post(this::scheduleNext);
+            long runMs = TRIGGERS * INTERVAL_NANOS / 1000000 + TIMESTAMP_DELAY_MS * 2;
+            assertTrue("Run did not finish", done.await(runMs + LOAD_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        } finally {
+            engine.release();
+        }
+
+        assertEquals("Cues that did not play", 0, failedPlays);
+
+        long[] schedulingNanos = new long[TRIGGERS];
+        long[] totalNanos = new long[TRIGGERS];
+        int totalCount = 0;
+        for (int i = 0; i < TRIGGERS; i++) {
+            schedulingNanos[i] = wakeupNanos[i] + playNanos[i];
+            if (outputNanos[i] >= 0) {
+                totalNanos[totalCount++] = schedulingNanos[i] + outputNanos[i];
+            }
+        }
+
+        Log.i(TAG, TRIGGERS + " cues at " + engine.getSampleRate() + "Hz, every " + (INTERVAL_NANOS / 1000000) + "ms");
+        Log.i(TAG, "wakeup " + summarize(wakeupNanos, TRIGGERS));
+        Log.i(TAG, "play   " + summarize(playNanos, TRIGGERS));
+        Log.i(TAG, "sched  " + summarize(schedulingNanos, TRIGGERS));
+        if (totalCount > 0) {
+            long[] output = new long[totalCount];
+            int o = 0;
+            for (long sample : outputNanos) {
+                if (sample >= 0) output[o++] = sample;
+            }
+            Log.i(TAG, "output " + summarize(output, totalCount) + " (" + totalCount + " timestamps)");
+            Log.i(TAG, "total  " + summarize(totalNanos, totalCount) + " vs target " + millis(TARGET_NANOS));
+        } else {
+            Log.i(TAG, "output: device reported no audio timestamps; checking scheduling only");
+        }
+
+        assertTrue("Scheduling p95 " + millis(percentile95(schedulingNanos, TRIGGERS)),
+                percentile95(schedulingNanos, TRIGGERS) < TARGET_NANOS);
+        if (totalCount > 0) {
+            assertTrue("Trigger-to-output p95 " + millis(percentile95(totalNanos, totalCount)),
+                    percentile95(totalNanos, totalCount) < TARGET_NANOS);
+        }
+    }
+
+    // ==================== MAIN THREAD ====================
+
+    private void scheduleNext() {
+        long deadline = firstDeadlineNanos + trigger * INTERVAL_NANOS;
+        long delayMs = Math.max(0, (deadline - System.nanoTime()) / 1000000);
+        handler.postDelayed(() -> fire(deadline), delayMs);
+    }
+
+    private void fire(long deadline) {
+        long wokeAt = System.nanoTime();
+        // postDelayed has millisecond resolution and can wake a fraction early; SecondTicker adds slack for that
+        int index = trigger;
+        wakeupNanos[index] = Math.max(0, wokeAt - deadline);
+
+        CueEngine.Cue cue = index % 4 == 3 ? CueEngine.Cue.GO : CueEngine.Cue.TICK;
+        if (!engine.play(cue)) failedPlays++;
+        playNanos[index] = System.nanoTime() - wokeAt;
+
+        handler.postDelayed(() -> outputNanos[index] = engine.lastOutputLatencyNanos(cue), TIMESTAMP_DELAY_MS);
+
+        trigger++;
+        if (trigger < TRIGGERS) {
+            scheduleNext();
+        } else {
+            // Runs after the last timestamp read above
+            handler.postDelayed(done::countDown, TIMESTAMP_DELAY_MS * 2);
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private static long percentile95(long[] samples, int count) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return sorted[Math.min(count - 1, count * 95 / 100)];
+    }
+
+    private static String summarize(long[] samples, int count) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (long sample : sorted) sum += sample;
+        return "mean " + millis(sum / count) + " p50 " + millis(sorted[count / 2])
+                + " p95 " + millis(percentile95(sorted, count)) + " max " + millis(sorted[count - 1]);
+    }
+
+    private static String millis(long nanos) {
+        return (nanos / 100000) / 10.0 + "ms";
+    }
+}
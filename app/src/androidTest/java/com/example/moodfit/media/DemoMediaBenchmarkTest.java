@@ -0,0 +1,123 @@
+package com.example.moodfit.media;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.gifdecoder.GifDecoder;
+import com.bumptech.glide.gifdecoder.GifHeader;
+import com.bumptech.glide.gifdecoder.GifHeaderParser;
+import com.bumptech.glide.gifdecoder.StandardGifDecoder;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.resource.gif.GifBitmapProvider;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Per-card decode time and bitmap memory, before and after the thumbnail variant
+ *
+ * "source" is what a card paid when it played the GIF through asGif(): every frame of one loop
+ * decoded at full resolution, repeated each loop, holding about two full-size frames at once.
+ * "thumbnail" is the one-off DemoMediaPipeline decode, bounded to THUMBNAIL_DECODE_BUDGET frames,
+ * and the bytes it keeps for the card.
+ *
+ * Only GIF-packaged animations can be measured this way (build with
+ * -Pmoodfit.demoAnimations.format=gif); with WebP packaging every entry is skipped and the
+ * first-frame lines logged by DemoMediaPipeline are the comparison instead.
+ *
+ * Results are logged per card plus totals (logcat tag DemoMediaBenchmark).
+ */
+@RunWith(AndroidJUnit4.class)
+public class DemoMediaBenchmarkTest {
+
+    private static final String TAG = "DemoMediaBenchmark";
+
+    // Glide's GifFrameLoader keeps the current frame and the next one
+    private static final int STREAMED_FRAMES_HELD = 2;
+
+    @Test
+    public void thumbnails_coverWholeLoopWithLessMemory() {
+        // Runs on the instrumentation thread, off the main thread
+        Context appContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        DemoMediaPipeline pipeline = DemoMediaPipeline.getInstance(appContext);
+        BitmapPool bitmapPool = Glide.get(appContext).getBitmapPool();
+        int edgePx = pipeline.thumbnailEdgePx();
+
+        long sourceNanosTotal = 0;
+        long sourceBytesTotal = 0;
+        long thumbnailNanosTotal = 0;
+        long thumbnailBytesTotal = 0;
+        int measured = 0;
+
+        String[] names = GifResourceTable.NAMES;
+        int[] resourceIds = GifResourceTable.RESOURCE_IDS;
+
+        Log.i(TAG, "Thumbnail edge " + edgePx + "px, " + DemoMediaPipeline.THUMBNAIL_MAX_FRAMES
+                + " of at most " + DemoMediaPipeline.THUMBNAIL_DECODE_BUDGET + " decoded frames kept");
+
+        for (int i = 0; i < names.length; i++) {
+            ByteBuffer data = DemoMediaPipeline.readResource(appContext, resourceIds[i]);
+            if (data == null) continue;
+
+            GifHeader header = new GifHeaderParser().setData(data).parseHeader();
+            if (header.getStatus() != GifDecoder.STATUS_OK) {
+                Log.i(TAG, names[i] + ": not packaged as GIF, skipped");
+                continue;
+            }
+            long sourceNanos = decodeAllFrames(appContext, bitmapPool, header, data);
+            long sourceBytes = (long) header.getWidth() * header.getHeight() * 4 * STREAMED_FRAMES_HELD;
+
+            DemoMediaPipeline.ThumbnailFrames thumbnail = pipeline.decodeThumbnail(resourceIds[i], edgePx);
+            assertNotNull(names[i], thumbnail);
+
+            // Decoding stops at the budget however long the clip is
+            assertEquals(names[i], Math.min(header.getNumFrames(), DemoMediaPipeline.THUMBNAIL_DECODE_BUDGET),
+                    thumbnail.decodedFrameCount);
+            assertTrue(names[i], thumbnail.getFrameCount() <= DemoMediaPipeline.THUMBNAIL_MAX_FRAMES);
+            assertTrue(names[i], thumbnail.byteCount <= sourceBytes);
+
+            sourceNanosTotal += sourceNanos;
+            sourceBytesTotal += sourceBytes;
+            thumbnailNanosTotal += thumbnail.decodeNanos;
+            thumbnailBytesTotal += thumbnail.byteCount;
+            measured++;
+
+            Log.i(TAG, names[i] + " " + header.getWidth() + "x" + header.getHeight()
+                    + ": source " + header.getNumFrames() + " frames " + (sourceNanos / 1000000) + "ms/loop "
+                    + (sourceBytes / 1024) + "KB"
+                    + " | thumbnail " + thumbnail.getFrameCount() + "/" + thumbnail.decodedFrameCount + " frames "
+                    + (thumbnail.decodeNanos / 1000000) + "ms once " + (thumbnail.byteCount / 1024) + "KB");
+        }
+
+        Log.i(TAG, "Total over " + measured + " cards: source " + (sourceNanosTotal / 1000000) + "ms/loop "
+                + (sourceBytesTotal / 1024) + "KB | thumbnail " + (thumbnailNanosTotal / 1000000) + "ms once "
+                + (thumbnailBytesTotal / 1024) + "KB");
+    }
+
+    private static long decodeAllFrames(Context context, BitmapPool bitmapPool, GifHeader header, ByteBuffer data) {
+        StandardGifDecoder decoder = new StandardGifDecoder(
+                new GifBitmapProvider(bitmapPool, Glide.get(context).getArrayPool()), header, data, 1);
+
+        long startNanos = System.nanoTime();
+        try {
+            for (int i = 0; i < header.getNumFrames(); i++) {
+                decoder.advance();
+                Bitmap frame = decoder.getNextFrame();
+                if (frame == null) break;
+                bitmapPool.put(frame);
+            }
+        } finally {
+            decoder.clear();
+        }
+        return System.nanoTime() - startNanos;
+    }
+}
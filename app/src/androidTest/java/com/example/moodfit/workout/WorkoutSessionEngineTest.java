@@ -0,0 +1,124 @@
+package com.example.moodfit.workout;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.moodfit.models.Exercise;
+import com.example.moodfit.models.SessionTimeline;
+import com.example.moodfit.models.WorkoutSession;
+import com.example.moodfit.models.enums.DifficultyLevel;
+import com.example.moodfit.models.enums.MoodType;
+import com.example.moodfit.models.enums.WorkoutCategory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * WorkoutSessionEngine: an exercise's cancel is recorded once, and only for an attempt still open
+ *
+ * Instrumented because the engine records on SystemClock. No journal is set, so nothing is written.
+ */
+@RunWith(AndroidJUnit4.class)
+public class WorkoutSessionEngineTest {
+
+    private final WorkoutSessionEngine engine = WorkoutSessionEngine.getInstance();
+
+    @Before
+    public void setUp() {
+        onMain(() -> {
+            engine.end();
+            engine.setJournal(null);
+
+            List<Exercise> exercises = new ArrayList<>();
+            exercises.add(new Exercise("squats", "Squats", DifficultyLevel.BEGINNER, WorkoutCategory.STRENGTH));
+            exercises.add(new Exercise("plank", "Plank", DifficultyLevel.BEGINNER, WorkoutCategory.STRENGTH));
+
+            WorkoutSession session = new WorkoutSession("test", MoodType.NEUTRAL);
+            for (Exercise exercise : exercises) {
+                session.addExercise(exercise);
+            }
+            session.startWorkout();
+            engine.start(session, exercises, 10);
+        });
+    }
+
+    @After
+    public void tearDown() {
+        onMain(engine::end);
+    }
+
+    @Test
+    public void stopRunningExercise_recordsOneCancel() {
+        onMain(() -> {
+            engine.beginCurrentExercise();
+            assertTrue(engine.isAttemptOpen());
+
+            // Stop Exercise: the timer resets, then the screen returns to the demo
+            engine.cancelCurrentExercise();
+            engine.cancelCurrentExercise();
+
+            assertFalse(engine.isAttemptOpen());
+            assertEquals(1, countEvents(SessionTimeline.EXERCISE_CANCEL));
+            assertEquals(WorkoutSessionEngine.Outcome.PENDING, engine.getOutcome(0));
+        });
+    }
+
+    @Test
+    public void backToDemoAfterTimerRanOut_recordsNoCancel() {
+        onMain(() -> {
+            engine.beginCurrentExercise();
+            engine.completeCurrentExercise();
+
+            engine.cancelCurrentExercise();
+
+            assertEquals(0, countEvents(SessionTimeline.EXERCISE_CANCEL));
+            assertEquals(WorkoutSessionEngine.Outcome.COMPLETED, engine.getOutcome(0));
+            assertEquals(1, engine.getCompletedCount());
+        });
+    }
+
+    @Test
+    public void backWithoutStarting_recordsNoCancel() {
+        onMain(() -> {
+            engine.cancelCurrentExercise();
+
+            assertFalse(engine.isAttemptOpen());
+            assertEquals(0, engine.getSession().getTimeline().getEventCount());
+        });
+    }
+
+    @Test
+    public void restartAfterCancel_canBeCancelledAgain() {
+        onMain(() -> {
+            engine.beginCurrentExercise();
+            engine.cancelCurrentExercise();
+            engine.beginCurrentExercise();
+            engine.cancelCurrentExercise();
+
+            assertEquals(2, countEvents(SessionTimeline.EXERCISE_CANCEL));
+        });
+    }
+
+    // ==================== HELPERS ====================
+
+    // The engine is main thread only
+    private static void onMain(Runnable action) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(action);
+    }
+
+    private int countEvents(int type) {
+        SessionTimeline timeline = engine.getSession().getTimeline();
+        int count = 0;
+        for (int i = 0; i < timeline.getEventCount(); i++) {
+            if (timeline.getType(i) == type) count++;
+        }
+        return count;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.moodfit.activities;
 
 import android.content.Intent;
+import android.graphics.drawable.Animatable;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
@@ -11,16 +12,17 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 
 import com.example.moodfit.R;
+import com.example.moodfit.media.DemoMediaPipeline;
+import com.example.moodfit.media.ExerciseMediaResolver;
+import com.example.moodfit.media.WorkoutMediaPrefetcher;
 import com.example.moodfit.models.Exercise;
 import com.example.moodfit.models.User;
 import com.example.moodfit.models.WorkoutSession;
 import com.example.moodfit.models.enums.MoodType;
 import com.example.moodfit.utils.DataManager;
+import com.example.moodfit.workout.WorkoutSessionEngine;
 
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.engine.DiskCacheStrategy;
-import com.bumptech.glide.load.resource.gif.GifDrawable;
-import com.bumptech.glide.request.RequestOptions;
 
 import java.util.List;
 
@@ -35,6 +37,10 @@ public class ExerciseDemoActivity extends AppCompatActivity {
 
     // Data Management
     private DataManager dataManager;
+    private WorkoutSessionEngine sessionEngine;
+
+    // Part of a mood workout: the exercise, progress and results come from the session engine
+    private boolean inWorkoutSession = false;
 
     // UI Components
     private TextView tvExerciseName;
@@ -67,7 +73,9 @@ public class ExerciseDemoActivity extends AppCompatActivity {
     private String exerciseCategory;
     private String exerciseDifficulty;
     private String exerciseGifName; // NEW: GIF filename
+    private String nextExerciseGifName; // Next exercise in the workout, preloaded while this one is shown
 
+    // Tutorial mode results (a workout keeps its results in the session engine)
     private int exercisesCompleted = 0;
     private int totalCaloriesBurned = 0;
     private long workoutStartTime;
@@ -87,6 +95,13 @@ public class ExerciseDemoActivity extends AppCompatActivity {
         // Extract intent data
         extractIntentData();
 
+        // The workout it belonged to is gone (finished, or nothing left to resume)
+        if (getIntent().getBooleanExtra("workout_session", false) && !inWorkoutSession) {
+            android.util.Log.w(TAG, "Workout session no longer exists, closing demo");
+            finish();
+            return;
+        }
+
         // Initialize UI components
         initializeViews();
 
@@ -98,6 +113,11 @@ public class ExerciseDemoActivity extends AppCompatActivity {
 
         // Setup progress indicator
         updateProgressIndicator();
+
+        // Resumed workout whose timer was running: straight back into it
+        if (inWorkoutSession && savedInstanceState == null && sessionEngine.isExerciseInterrupted()) {
+            startExerciseTimer();
+        }
     }
 
     /**
@@ -105,6 +125,7 @@ public class ExerciseDemoActivity extends AppCompatActivity {
      */
     private void initializeDataManager() {
         dataManager = new DataManager(this);
+        sessionEngine = WorkoutSessionEngine.getInstance();
     }
 
     /**
@@ -112,7 +133,13 @@ public class ExerciseDemoActivity extends AppCompatActivity {
      */
     private void extractIntentData() {
         Intent intent = getIntent();
-        if (intent != null) {
+        if (intent != null && intent.getBooleanExtra("workout_session", false)) {
+            // After process death the workout is read back from its journal
+            inWorkoutSession = sessionEngine.resumeFromJournal(this);
+            if (inWorkoutSession) {
+                bindSessionExercise();
+            }
+        } else if (intent != null) {
             // Session data
             sessionId = intent.getStringExtra("session_id");
             String moodName = intent.getStringExtra("mood_type");
@@ -140,9 +167,49 @@ public class ExerciseDemoActivity extends AppCompatActivity {
 
             // NEW: Get GIF name
             exerciseGifName = intent.getStringExtra("exercise_gif");
+            nextExerciseGifName = intent.getStringExtra("next_exercise_gif");
         }
     }
 
+    /**
+     * Point the screen at the session engine's current exercise
+     */
+    private void bindSessionExercise() {
+        Exercise exercise = sessionEngine.getCurrentExercise();
+
+        sessionId = sessionEngine.getSession().getSessionId();
+        workoutMood = sessionEngine.getMood();
+        currentExerciseIndex = sessionEngine.getCurrentIndex();
+        totalExercises = sessionEngine.getExerciseCount();
+        estimatedDuration = sessionEngine.getEstimatedMinutes();
+
+        exerciseName = exercise.getName();
+        exerciseDescription = exercise.getDescription();
+        exerciseInstructions = exercise.getInstructions();
+        exerciseDuration = exercise.getEstimatedDurationMinutes();
+        exerciseCalories = exercise.getEstimatedCalories();
+        exerciseCategory = exercise.getCategory().getDisplayName();
+        exerciseDifficulty = exercise.getDifficulty().getDisplayName();
+        exerciseGifName = exercise.getImageUrl();
+
+        Exercise nextExercise = sessionEngine.getNextExercise();
+        nextExerciseGifName = nextExercise != null ? nextExercise.getImageUrl() : null;
+
+        WorkoutMediaPrefetcher.getInstance(this).onExerciseStarted(currentExerciseIndex);
+    }
+
+    /**
+     * Next workout exercise on this same screen: re-bind and replay the entrance animation
+     */
+    private void showNextSessionExercise() {
+        bindSessionExercise();
+        displayExerciseInfo();
+        updateProgressIndicator();
+
+        btnStartExercise.setEnabled(true);
+        btnStartExercise.setAlpha(1.0f);
+    }
+
     /**
      * Initialize all UI components - UPDATED to include category badge
      */
@@ -298,62 +365,42 @@ public class ExerciseDemoActivity extends AppCompatActivity {
             return;
         }
 
-        // Generate GIF name if not provided
-        if (exerciseGifName == null && exerciseName != null) {
-            exerciseGifName = generateGifName(exerciseName);
+        // Resolve from the build-time GIF table: the passed GIF name first, then the exercise name
+        ExerciseMediaResolver resolver = ExerciseMediaResolver.getInstance();
+        int gifResourceId = resolver.resolveResourceName(exerciseGifName);
+        if (gifResourceId == ExerciseMediaResolver.NO_MEDIA) {
+            gifResourceId = resolver.resolveName(exerciseName);
         }
 
-        // DEBUG: Log what we're looking for
-        android.util.Log.d("GIF_DEBUG", "Exercise: " + exerciseName);
-        android.util.Log.d("GIF_DEBUG", "Looking for GIF: " + exerciseGifName);
-
-        if (exerciseGifName != null && !exerciseGifName.isEmpty()) {
-            // Try to load GIF from drawable resources
-            int gifResourceId = getResources().getIdentifier(exerciseGifName, "drawable", getPackageName());
+        if (gifResourceId != ExerciseMediaResolver.NO_MEDIA) {
+            // Animation exists, stream it through Glide at the size of the demo view
+            DemoMediaPipeline.getInstance(this)
+                    .loadFull(ivExerciseGifDemo, gifResourceId, R.drawable.default_exercise_demo);
 
-            // DEBUG: Log if resource was found
-            android.util.Log.d("GIF_DEBUG", "Resource ID: " + gifResourceId + " (0 means not found)");
+            // Warm the next exercise once this one has had its first frame's head start
+            ivExerciseGifDemo.post(this::preloadNextExerciseGif);
 
-            if (gifResourceId != 0) {
-                // GIF exists, load it with Glide for animation
-                Glide.with(this)
-                        .asGif() // Explicitly load as GIF
-                        .load(gifResourceId)
-                        .apply(new RequestOptions()
-                                .diskCacheStrategy(DiskCacheStrategy.ALL)
-                                .placeholder(R.drawable.default_exercise_demo)
-                                .error(R.drawable.default_exercise_demo))
-                        .into(ivExerciseGifDemo);
+            ivExerciseGifDemo.setVisibility(View.VISIBLE);
 
-                ivExerciseGifDemo.setVisibility(View.VISIBLE);
-
-                // Hide the fallback icon since we have an animated GIF
-                ivExerciseIcon.setVisibility(View.GONE);
-
-                android.util.Log.d("GIF_DEBUG", "✅ Animated GIF loaded successfully with Glide!");
-            } else {
-                // GIF doesn't exist yet, show placeholder and icon
-                android.util.Log.d("GIF_DEBUG", "❌ GIF not found, showing placeholder");
-                showGifPlaceholder();
-            }
+            // Hide the fallback icon since we have an animated GIF
+            ivExerciseIcon.setVisibility(View.GONE);
         } else {
-            // No GIF name, show placeholder
-            android.util.Log.d("GIF_DEBUG", "❌ No GIF name provided");
+            // GIF doesn't exist yet, show placeholder and icon
+            android.util.Log.d("GIF_DEBUG", "No GIF for " + exerciseName + ", showing placeholder");
             showGifPlaceholder();
         }
     }
 
     /**
-     * NEW: Generate GIF filename from exercise name
+     * Decode the next workout exercise's demo into the memory cache so its screen opens instantly
      */
-    private String generateGifName(String exerciseName) {
-        if (exerciseName == null) return null;
-
-        // Convert exercise name to lowercase and replace spaces with underscores
-        return "gif_" + exerciseName.toLowerCase()
-                .replaceAll("[^a-z0-9\\s]", "") // Remove special characters
-                .replaceAll("\\s+", "_") // Replace spaces with underscores
-                .replaceAll("_+", "_"); // Replace multiple underscores with single
+    private void preloadNextExerciseGif() {
+        if (isFinishing() || nextExerciseGifName == null) return;
+
+        int nextResourceId = ExerciseMediaResolver.getInstance().resolveResourceName(nextExerciseGifName);
+        if (nextResourceId != ExerciseMediaResolver.NO_MEDIA) {
+            DemoMediaPipeline.getInstance(this).preloadFull(nextResourceId);
+        }
     }
 
     /**
@@ -374,16 +421,17 @@ public class ExerciseDemoActivity extends AppCompatActivity {
 
     /**
      * Control GIF animation (useful for performance)
+     * Animatable covers both GifDrawable and the AnimatedImageDrawable used for WebP demos
      */
     private void pauseGifAnimation() {
-        if (ivExerciseGifDemo != null && ivExerciseGifDemo.getDrawable() instanceof GifDrawable) {
-            ((GifDrawable) ivExerciseGifDemo.getDrawable()).stop();
+        if (ivExerciseGifDemo != null && ivExerciseGifDemo.getDrawable() instanceof Animatable) {
+            ((Animatable) ivExerciseGifDemo.getDrawable()).stop();
         }
     }
 
     private void resumeGifAnimation() {
-        if (ivExerciseGifDemo != null && ivExerciseGifDemo.getDrawable() instanceof GifDrawable) {
-            ((GifDrawable) ivExerciseGifDemo.getDrawable()).start();
+        if (ivExerciseGifDemo != null && ivExerciseGifDemo.getDrawable() instanceof Animatable) {
+            ((Animatable) ivExerciseGifDemo.getDrawable()).start();
         }
     }
 
@@ -482,6 +530,15 @@ public class ExerciseDemoActivity extends AppCompatActivity {
     private void startExerciseTimer() {
         Intent timerIntent = new Intent(this, WorkoutTimerActivity.class);
 
+        if (inWorkoutSession) {
+            // The timer reads the exercise from the session engine and records its start
+            timerIntent.putExtra("workout_session", true);
+            timerIntent.putExtra("resume_timer", sessionEngine.isExerciseInterrupted());
+            startActivityForResult(timerIntent, 2001);
+            overridePendingTransition(R.anim.slide_in_right, R.anim.slide_out_left);
+            return;
+        }
+
         // Pass session data
         timerIntent.putExtra("session_id", sessionId);
         timerIntent.putExtra("mood_type", workoutMood != null ? workoutMood.name() : "NEUTRAL");
@@ -508,7 +565,11 @@ public class ExerciseDemoActivity extends AppCompatActivity {
                 .setPositiveButton("Continue Exercise", (dialog, which) -> dialog.dismiss())
                 .setNegativeButton("Skip", (dialog, which) -> {
                     // Mark that exercises were skipped
-                    hasSkippedExercises = true;
+                    if (inWorkoutSession) {
+                        sessionEngine.skipCurrentExercise();
+                    } else {
+                        hasSkippedExercises = true;
+                    }
                     proceedToNextExercise();
                 })
                 .show();
@@ -518,6 +579,17 @@ public class ExerciseDemoActivity extends AppCompatActivity {
      * Proceed to next exercise in the routine - UPDATED to track skipped exercises
      */
     private void proceedToNextExercise() {
+        if (isFinishing()) return;
+
+        if (inWorkoutSession) {
+            if (sessionEngine.advance()) {
+                showNextSessionExercise();
+            } else {
+                showWorkoutCompletion();
+            }
+            return;
+        }
+
         int nextExerciseIndex = currentExerciseIndex + 1;
 
         if (nextExerciseIndex >= totalExercises) {
@@ -567,14 +639,16 @@ public class ExerciseDemoActivity extends AppCompatActivity {
      * Handle successful exercise completion - UPDATED to track completion data
      */
     private void handleExerciseCompletion(Intent data) {
-        // Increment completed exercises
-        exercisesCompleted++;
-
-        android.util.Log.d(TAG, "🔥 EXERCISE COMPLETED - exercisesCompleted now: " + exercisesCompleted);
+        // In a workout session the timer screen already recorded the completion when it ran out
+        if (!inWorkoutSession) {
+            // Increment completed exercises
+            exercisesCompleted++;
 
+            android.util.Log.d(TAG, "🔥 EXERCISE COMPLETED - exercisesCompleted now: " + exercisesCompleted);
 
-        // Add calories for this exercise
-        totalCaloriesBurned += exerciseCalories;
+            // Add calories for this exercise
+            totalCaloriesBurned += exerciseCalories;
+        }
 
         // Show completion feedback
         showExerciseCompletionFeedback();
@@ -589,6 +663,8 @@ public class ExerciseDemoActivity extends AppCompatActivity {
      * Handle exercise cancellation (back button from timer)
      */
     private void handleExerciseCancellation(Intent data) {
+        // In a workout session the timer screen already recorded the cancel, if an attempt was open
+
         // Show user-friendly message that they're back to exercise demo
         showExerciseCancellationFeedback();
 
@@ -681,6 +757,16 @@ public class ExerciseDemoActivity extends AppCompatActivity {
      * Show workout completion screen - UPDATED with real workout data
      */
     private void showWorkoutCompletion() {
+        if (inWorkoutSession) {
+            // The completion screen reads the results from the session engine
+            sessionEngine.finish();
+            Intent completionIntent = new Intent(this, WorkoutCompleteActivity.class);
+            completionIntent.putExtra("workout_session", true);
+            startActivity(completionIntent);
+            overridePendingTransition(R.anim.slide_in_right, R.anim.slide_out_left);
+            finishAffinity();
+            return;
+        }
 
         android.util.Log.d(TAG, "🔥 SHOW WORKOUT COMPLETION - exercisesCompleted: " + exercisesCompleted);
 
@@ -706,6 +792,7 @@ public class ExerciseDemoActivity extends AppCompatActivity {
         completionIntent.putExtra("exercises_completed", exercisesCompleted);
         completionIntent.putExtra("calories_burned", totalCaloriesBurned);
         completionIntent.putExtra("exercises_skipped", hasSkippedExercises);
+        completionIntent.putExtra("workout_start_time", workoutStartTime);
 
         android.util.Log.d(TAG, "🔥 Starting WorkoutCompleteActivity with exercises_completed: " + exercisesCompleted);
 
@@ -727,6 +814,11 @@ public class ExerciseDemoActivity extends AppCompatActivity {
                 .setMessage("Are you sure you want to go back? You can restart this exercise anytime.")
                 .setPositiveButton("Stay Here", (dialog, which) -> dialog.dismiss())
                 .setNegativeButton("Go Back", (dialog, which) -> {
+                    // Leaving abandons the workout; nothing to resume later
+                    if (inWorkoutSession) {
+                        sessionEngine.end();
+                    }
+
                     // Return to MoodWorkoutActivity instead of finishing completely
                     Intent resultIntent = new Intent();
                     resultIntent.putExtra("action", "exercise_cancelled");
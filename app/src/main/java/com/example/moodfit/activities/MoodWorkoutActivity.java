@@ -11,20 +11,29 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 
 import com.example.moodfit.R;
+import com.example.moodfit.media.WorkoutMediaPrefetcher;
 import com.example.moodfit.models.Exercise;
 import com.example.moodfit.models.User;
 import com.example.moodfit.models.WorkoutSession;
 import com.example.moodfit.models.enums.DifficultyLevel;
 import com.example.moodfit.models.enums.MoodType;
 import com.example.moodfit.models.enums.WorkoutCategory;
+import com.example.moodfit.recommendation.ExercisePreferenceModel;
+import com.example.moodfit.recommendation.MoodCandidatePools;
+import com.example.moodfit.recommendation.RecommendationExecutor;
+import com.example.moodfit.recommendation.RecommendationRandom;
+import com.example.moodfit.recommendation.WorkoutComposer;
 import com.example.moodfit.utils.DataManager;
+import com.example.moodfit.workout.WorkoutJournal;
+import com.example.moodfit.workout.WorkoutSessionEngine;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
 
 /**
  * MoodWorkoutActivity - Enhanced to use Tutorial Exercise Database
@@ -39,10 +48,29 @@ public class MoodWorkoutActivity extends AppCompatActivity {
     private static final int MIN_EXERCISES_PER_WORKOUT = 6;
     private static final int MAX_EXERCISES_PER_WORKOUT = 10;
 
+    // Share of the workout drawn from the user's own difficulty level
+    private static final float PRIMARY_DIFFICULTY_SHARE = 0.7f;
+    private static final int WORKOUT_MINUTES_TOLERANCE = 15;
+
     // Data Management
     private DataManager dataManager;
     private User currentUser;
-    private Random random;
+    private RecommendationRandom recommendationRandom;
+    private final WorkoutComposer workoutComposer = new WorkoutComposer();
+
+    // Candidate pools per (mood, difficulty), built once and reused across mood toggles
+    private MoodCandidatePools candidatePools;
+
+    // Workouts are composed off the UI thread; a new mood tap supersedes the one in progress
+    private final RecommendationExecutor recommendationExecutor = new RecommendationExecutor();
+
+    // Decodes the plan's demo animations in the background once a workout is generated
+    private WorkoutMediaPrefetcher mediaPrefetcher;
+
+    // Learned preferences, scored over the whole catalog once per recommendation
+    private ExercisePreferenceModel preferenceModel;
+    private ExercisePreferenceModel.FeatureTable catalogFeatures;
+    private double[] learnedAffinity;
 
     // Exercise Database (same as TutorialsActivity)
     private Map<DifficultyLevel, List<Exercise>> exercisesByDifficulty;
@@ -67,12 +95,7 @@ public class MoodWorkoutActivity extends AppCompatActivity {
     // Current State
     private MoodType selectedMood = null;
     private List<Exercise> recommendedExercises = new ArrayList<>();
-    private WorkoutSession currentSession = null;
-
-    private int totalExercisesCompleted = 0;
-    private int totalCaloriesBurned = 0;
-    private boolean anyExercisesSkipped = false;
-    private long workoutStartTime;
+    private final WorkoutSessionEngine sessionEngine = WorkoutSessionEngine.getInstance();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -85,6 +108,11 @@ public class MoodWorkoutActivity extends AppCompatActivity {
         // Build exercise database (same as TutorialsActivity)
         buildExerciseDatabase();
 
+        // Start building candidate pools while the user is still choosing a mood
+        initializeCandidatePools();
+        initializePreferenceModel();
+        mediaPrefetcher = WorkoutMediaPrefetcher.getInstance(this);
+
         // Initialize UI components
         initializeViews();
 
@@ -104,7 +132,34 @@ public class MoodWorkoutActivity extends AppCompatActivity {
     private void initializeDataManager() {
         dataManager = new DataManager(this);
         currentUser = dataManager.getCurrentUser();
-        random = new Random();
+        recommendationRandom = RecommendationRandom.getInstance(this, currentUser != null ? currentUser.getUserId() : null);
+    }
+
+    /**
+     * Create the candidate pool cache and prefetch every mood at the user's difficulty
+     */
+    private void initializeCandidatePools() {
+        candidatePools = new MoodCandidatePools((mood, difficulty) ->
+                filterExercisesByMood(getAvailableExercisesForDifficulty(difficulty), mood));
+        candidatePools.prefetchOtherMoods(null, getUserDifficulty());
+    }
+
+    /**
+     * Encode the catalog for the learned preference model
+     */
+    private void initializePreferenceModel() {
+        List<Exercise> catalog = new ArrayList<>();
+        for (List<Exercise> exercises : exercisesByDifficulty.values()) {
+            catalog.addAll(exercises);
+        }
+        preferenceModel = dataManager.getPreferenceModel();
+        catalogFeatures = new ExercisePreferenceModel.FeatureTable(catalog);
+        learnedAffinity = new double[catalogFeatures.size()];
+    }
+
+    private DifficultyLevel getUserDifficulty() {
+        return currentUser != null && currentUser.getPreferredDifficulty() != null ?
+                currentUser.getPreferredDifficulty() : DifficultyLevel.BEGINNER;
     }
 
     /**
@@ -431,36 +486,48 @@ public class MoodWorkoutActivity extends AppCompatActivity {
      * Generate GIF filename from exercise name (fallback method)
      */
     private String generateGifName(String exerciseName) {
-        return "gif_" + exerciseName.toLowerCase()
-                .replaceAll("[^a-z0-9\\s]", "")
-                .replaceAll("\\s+", "_")
-                .replaceAll("_+", "_");
+        return "gif_" + Exercise.toSlug(exerciseName);
     }
 
     // ==================== MOOD-SPECIFIC EXERCISE SELECTION ====================
 
     /**
      * Generate workout recommendations based on selected mood using tutorial exercises
+     * The workout is composed on the recommendation worker and shown when it arrives
      */
     private void generateWorkoutRecommendations() {
+        recommendedExercises = new ArrayList<>();
+        mediaPrefetcher.clearPlan();
         if (selectedMood == null) {
-            recommendedExercises.clear();
+            recommendationExecutor.cancel();
             return;
         }
 
-        DifficultyLevel userDifficulty = currentUser != null ?
-                currentUser.getPreferredDifficulty() : DifficultyLevel.BEGINNER;
+        final MoodType mood = selectedMood;
+        final DifficultyLevel userDifficulty = getUserDifficulty();
 
-        // Get all available exercises for user's difficulty and adjacent levels
-        List<Exercise> availableExercises = getAvailableExercisesForDifficulty(userDifficulty);
+        // One reproducible generator per recommendation (see RecommendationRandom for replay),
+        // drawn here so the draw order follows the taps
+        final SplittableRandom draw = recommendationRandom.nextGenerator(RecommendationRandom.Stream.MOOD_WORKOUT);
 
-        // Filter exercises based on mood preferences
-        List<Exercise> moodFilteredExercises = filterExercisesByMood(availableExercises, selectedMood);
-
-        // Randomly select exercises for the workout
-        recommendedExercises = selectRandomExercisesForWorkout(moodFilteredExercises, userDifficulty);
-
-        android.util.Log.d(TAG, "Generated " + recommendedExercises.size() + " exercises for " + selectedMood.getDisplayName() + " mood");
+        recommendationExecutor.submit(() -> {
+            // Available exercises for the user's difficulty and adjacent levels, filtered by mood
+            // (normally already built in the background; built here only on a cold miss)
+            if (!candidatePools.isReady(mood, userDifficulty)) {
+                android.util.Log.d(TAG, "Candidate pool for " + mood.getDisplayName() + " was not prefetched");
+            }
+            List<Exercise> moodFilteredExercises = candidatePools.get(mood, userDifficulty);
+
+            // Randomly select exercises for the workout
+            return selectRandomExercisesForWorkout(moodFilteredExercises, userDifficulty, mood, draw);
+        }, 0, exercises -> {
+            recommendedExercises = exercises;
+            mediaPrefetcher.setPlan(exercises);
+            android.util.Log.d(TAG, "Generated " + exercises.size() + " exercises for " + mood.getDisplayName() + " mood");
+
+            updateWorkoutSuggestion();
+            enableStartWorkoutButton();
+        });
     }
 
     /**
@@ -469,11 +536,10 @@ public class MoodWorkoutActivity extends AppCompatActivity {
     private List<Exercise> getAvailableExercisesForDifficulty(DifficultyLevel userDifficulty) {
         List<Exercise> availableExercises = new ArrayList<>();
 
-        // Primary difficulty level (70% weight)
+        // Primary difficulty level (weighted up by the composer's difficulty mix)
         List<Exercise> primaryExercises = exercisesByDifficulty.get(userDifficulty);
         if (primaryExercises != null) {
             availableExercises.addAll(primaryExercises);
-            availableExercises.addAll(primaryExercises); // Add twice for higher probability
         }
 
         // Add some exercises from adjacent difficulty levels for variety
@@ -515,9 +581,10 @@ public class MoodWorkoutActivity extends AppCompatActivity {
      */
     private List<Exercise> filterExercisesByMood(List<Exercise> exercises, MoodType mood) {
         List<Exercise> filteredExercises = new ArrayList<>();
+        Set<String> filteredIds = new HashSet<>();
 
         for (Exercise exercise : exercises) {
-            if (isExerciseSuitableForMood(exercise, mood)) {
+            if (isExerciseSuitableForMood(exercise, mood) && filteredIds.add(exercise.getExerciseId())) {
                 filteredExercises.add(exercise);
             }
         }
@@ -525,7 +592,7 @@ public class MoodWorkoutActivity extends AppCompatActivity {
         // If filtered list is too small, add some general exercises
         if (filteredExercises.size() < MIN_EXERCISES_PER_WORKOUT) {
             for (Exercise exercise : exercises) {
-                if (!filteredExercises.contains(exercise) && isGenerallyGoodExercise(exercise)) {
+                if (isGenerallyGoodExercise(exercise) && filteredIds.add(exercise.getExerciseId())) {
                     filteredExercises.add(exercise);
                     if (filteredExercises.size() >= MIN_EXERCISES_PER_WORKOUT * 2) break;
                 }
@@ -600,32 +667,95 @@ public class MoodWorkoutActivity extends AppCompatActivity {
     }
 
     /**
-     * Randomly select exercises for a complete workout with smart variety
+     * Compose a complete workout from the mood-filtered exercises with the constraint-based composer
      */
-    private List<Exercise> selectRandomExercisesForWorkout(List<Exercise> availableExercises, DifficultyLevel difficulty) {
+    private List<Exercise> selectRandomExercisesForWorkout(List<Exercise> availableExercises,
+                                                           DifficultyLevel difficulty, MoodType mood,
+                                                           SplittableRandom draw) {
         if (availableExercises.isEmpty()) {
             return new ArrayList<>();
         }
 
         // Determine workout size
-        int exerciseCount = determineWorkoutSize(difficulty);
+        int exerciseCount = determineWorkoutSize(difficulty, draw);
 
-        // Shuffle available exercises
-        Collections.shuffle(availableExercises, random);
+        WorkoutComposer.Constraints constraints = buildWorkoutConstraints(difficulty, mood, exerciseCount);
 
-        // Ensure variety by selecting from different categories
-        List<Exercise> selectedExercises = ensureExerciseVariety(availableExercises, exerciseCount);
+        long startNanos = System.nanoTime();
 
-        android.util.Log.d(TAG, "Selected " + selectedExercises.size() + " exercises from " + availableExercises.size() + " available");
+        // Learned affinity for this mood and time of day, one pass over the catalog
+        preferenceModel.scoreAll(catalogFeatures, mood,
+                ExercisePreferenceModel.timeBucketOf(System.currentTimeMillis()), learnedAffinity);
+
+        List<Exercise> selectedExercises = workoutComposer.compose(availableExercises, constraints,
+                exercise -> (exercise.getDifficulty() == difficulty ? 2.0 : 1.0) * learnedAffinityOf(exercise),
+                draw.nextLong());
+
+        android.util.Log.d(TAG, "Composed " + selectedExercises.size() + " exercises from " + availableExercises.size() +
+                " available in " + ((System.nanoTime() - startNanos) / 1000) + "us");
 
         return selectedExercises;
     }
 
+    private double learnedAffinityOf(Exercise exercise) {
+        int row = catalogFeatures.rowOf(exercise.getExerciseId());
+        return row >= 0 ? learnedAffinity[row] : 1.0;
+    }
+
+    /**
+     * Build composer constraints: duration and calorie budget by difficulty, category coverage by mood
+     */
+    private WorkoutComposer.Constraints buildWorkoutConstraints(DifficultyLevel difficulty, MoodType mood,
+                                                                int exerciseCount) {
+        WorkoutComposer.Constraints constraints = new WorkoutComposer.Constraints();
+        constraints.setExerciseCount(Math.max(MIN_EXERCISES_PER_WORKOUT, exerciseCount - 1),
+                Math.min(MAX_EXERCISES_PER_WORKOUT, exerciseCount + 1));
+        constraints.setDifficultyMix(difficulty, PRIMARY_DIFFICULTY_SHARE);
+
+        switch (difficulty) {
+            case BEGINNER:
+                constraints.setTargetMinutes(45, WORKOUT_MINUTES_TOLERANCE);
+                constraints.setCalorieRange(250, 600);
+                break;
+            case INTERMEDIATE:
+                constraints.setTargetMinutes(80, WORKOUT_MINUTES_TOLERANCE);
+                constraints.setCalorieRange(550, 1100);
+                break;
+            case ADVANCED:
+                constraints.setTargetMinutes(120, WORKOUT_MINUTES_TOLERANCE);
+                constraints.setCalorieRange(900, 1800);
+                break;
+        }
+
+        switch (mood) {
+            case HAPPY:
+                constraints.addRequiredCategory(WorkoutCategory.CARDIO);
+                constraints.addRequiredCategory(WorkoutCategory.HIIT);
+                break;
+            case NEUTRAL:
+                constraints.addRequiredCategory(WorkoutCategory.STRENGTH);
+                constraints.addRequiredCategory(WorkoutCategory.CARDIO);
+                constraints.addRequiredCategory(WorkoutCategory.FLEXIBILITY);
+                break;
+            case FRUSTRATED:
+                constraints.addRequiredCategory(WorkoutCategory.HIIT);
+                constraints.addRequiredCategory(WorkoutCategory.STRENGTH);
+                break;
+            case STRESSED:
+                constraints.addRequiredCategory(WorkoutCategory.YOGA);
+                constraints.addRequiredCategory(WorkoutCategory.BREATHING);
+                constraints.addRequiredCategory(WorkoutCategory.FLEXIBILITY);
+                break;
+        }
+
+        return constraints;
+    }
+
     /**
      * Determine workout size based on difficulty and mood
      */
-    private int determineWorkoutSize(DifficultyLevel difficulty) {
-        int baseSize = random.nextInt(MAX_EXERCISES_PER_WORKOUT - MIN_EXERCISES_PER_WORKOUT + 1) + MIN_EXERCISES_PER_WORKOUT;
+    private int determineWorkoutSize(DifficultyLevel difficulty, SplittableRandom draw) {
+        int baseSize = draw.nextInt(MAX_EXERCISES_PER_WORKOUT - MIN_EXERCISES_PER_WORKOUT + 1) + MIN_EXERCISES_PER_WORKOUT;
 
         // Adjust based on difficulty
         switch (difficulty) {
@@ -640,39 +770,6 @@ public class MoodWorkoutActivity extends AppCompatActivity {
         }
     }
 
-    /**
-     * Ensure variety in exercise selection by category
-     */
-    private List<Exercise> ensureExerciseVariety(List<Exercise> availableExercises, int targetCount) {
-        List<Exercise> selectedExercises = new ArrayList<>();
-        List<WorkoutCategory> usedCategories = new ArrayList<>();
-
-        // First pass: select one from each category when possible
-        for (Exercise exercise : availableExercises) {
-            if (selectedExercises.size() >= targetCount) break;
-
-            WorkoutCategory category = exercise.getCategory();
-            if (!usedCategories.contains(category)) {
-                selectedExercises.add(exercise);
-                usedCategories.add(category);
-            }
-        }
-
-        // Second pass: fill remaining slots
-        for (Exercise exercise : availableExercises) {
-            if (selectedExercises.size() >= targetCount) break;
-
-            if (!selectedExercises.contains(exercise)) {
-                selectedExercises.add(exercise);
-            }
-        }
-
-        // Final shuffle for random order
-        Collections.shuffle(selectedExercises, random);
-
-        return selectedExercises;
-    }
-
     // ==================== UI COMPONENTS (same as original) ====================
 
     /**
@@ -734,11 +831,17 @@ public class MoodWorkoutActivity extends AppCompatActivity {
     private void selectMood(MoodType mood) {
         selectedMood = mood;
         updateMoodButtonStates();
+
+        // Hold the start button until the new workout arrives
+        btnStartWorkout.setEnabled(false);
+        btnStartWorkout.setAlpha(0.5f);
         generateWorkoutRecommendations();
-        updateWorkoutSuggestion();
-        enableStartWorkoutButton();
+
         performHapticFeedback();
         addSelectionBounceEffect();
+
+        // Keep the other moods warm in case the user changes their mind
+        candidatePools.prefetchOtherMoods(mood, getUserDifficulty());
     }
 
     private void addSelectionBounceEffect() {
@@ -1011,34 +1114,23 @@ public class MoodWorkoutActivity extends AppCompatActivity {
             return;
         }
 
-        workoutStartTime = System.currentTimeMillis();
-
         try {
             String userId = currentUser != null ? currentUser.getUserId() : "anonymous";
-            currentSession = new WorkoutSession(userId, selectedMood);
+            WorkoutSession session = new WorkoutSession(userId, selectedMood);
 
             for (Exercise exercise : recommendedExercises) {
-                currentSession.addExercise(exercise);
+                session.addExercise(exercise);
             }
 
-            currentSession.startWorkout();
+            session.startWorkout();
+
+            // The demo, timer and completion screens all work off the session engine from here on;
+            // the journal lets the workout be resumed if the process dies
+            sessionEngine.setJournal(WorkoutJournal.getInstance(this));
+            sessionEngine.start(session, recommendedExercises, calculateTotalWorkoutDuration());
 
             Intent demoIntent = new Intent(this, ExerciseDemoActivity.class);
-            demoIntent.putExtra("mood_type", selectedMood.name());
-            demoIntent.putExtra("session_id", currentSession.getSessionId());
-            demoIntent.putExtra("current_exercise_index", 0);
-            demoIntent.putExtra("total_exercises", recommendedExercises.size());
-            demoIntent.putExtra("estimated_duration", calculateTotalWorkoutDuration());
-
-            Exercise firstExercise = recommendedExercises.get(0);
-            demoIntent.putExtra("exercise_name", firstExercise.getName());
-            demoIntent.putExtra("exercise_description", firstExercise.getDescription());
-            demoIntent.putExtra("exercise_instructions", firstExercise.getInstructions());
-            demoIntent.putExtra("exercise_duration", firstExercise.getEstimatedDurationMinutes());
-            demoIntent.putExtra("exercise_calories", firstExercise.getEstimatedCalories());
-            demoIntent.putExtra("exercise_category", firstExercise.getCategory().getDisplayName());
-            demoIntent.putExtra("exercise_difficulty", firstExercise.getDifficulty().getDisplayName());
-            demoIntent.putExtra("exercise_gif", firstExercise.getImageUrl());
+            demoIntent.putExtra("workout_session", true);
 
             startActivityForResult(demoIntent, 1001);
             overridePendingTransition(R.anim.slide_in_right, R.anim.slide_out_left);
@@ -1074,25 +1166,10 @@ public class MoodWorkoutActivity extends AppCompatActivity {
     protected void onActivityResult(int requestCode, int resultCode, Intent data) {
         super.onActivityResult(requestCode, resultCode, data);
 
-        if (requestCode == 1001) {
-            if (resultCode == RESULT_OK && data != null) {
-                String action = data.getStringExtra("action");
-                totalExercisesCompleted = data.getIntExtra("exercises_completed", totalExercisesCompleted);
-                totalCaloriesBurned = data.getIntExtra("calories_burned", totalCaloriesBurned);
-                anyExercisesSkipped = data.getBooleanExtra("exercises_skipped", anyExercisesSkipped);
-
-                if ("next_exercise".equals(action)) {
-                    int nextExerciseIndex = data.getIntExtra("current_exercise_index", 0);
-                    navigateToNextExercise(nextExerciseIndex);
-                } else if ("workout_complete".equals(action)) {
-                    completeWorkoutSession(data);
-                    setResult(RESULT_OK);
-                    showCompletionMessage();
-                    finish();
-                }
-            } else if (resultCode == RESULT_CANCELED) {
-                handleExerciseDemoReturn(data);
-            }
+        // The demo screen walks the whole workout itself and ends in WorkoutCompleteActivity;
+        // it only comes back here when the user leaves the workout
+        if (requestCode == 1001 && resultCode == RESULT_CANCELED) {
+            handleExerciseDemoReturn(data);
         }
     }
 
@@ -1140,93 +1217,25 @@ public class MoodWorkoutActivity extends AppCompatActivity {
                 android.widget.Toast.LENGTH_SHORT).show();
     }
 
-    private void navigateToNextExercise(int exerciseIndex) {
-        if (exerciseIndex >= recommendedExercises.size()) {
-            completeWorkoutSession(null);
-            setResult(RESULT_OK);
-            showCompletionMessage();
-            finish();
-            return;
-        }
-
-        Exercise nextExercise = recommendedExercises.get(exerciseIndex);
-
-        Intent demoIntent = new Intent(this, ExerciseDemoActivity.class);
-        demoIntent.putExtra("mood_type", selectedMood.name());
-        demoIntent.putExtra("session_id", currentSession.getSessionId());
-        demoIntent.putExtra("current_exercise_index", exerciseIndex);
-        demoIntent.putExtra("total_exercises", recommendedExercises.size());
-        demoIntent.putExtra("estimated_duration", calculateTotalWorkoutDuration());
-
-        demoIntent.putExtra("exercise_name", nextExercise.getName());
-        demoIntent.putExtra("exercise_description", nextExercise.getDescription());
-        demoIntent.putExtra("exercise_instructions", nextExercise.getInstructions());
-        demoIntent.putExtra("exercise_duration", nextExercise.getEstimatedDurationMinutes());
-        demoIntent.putExtra("exercise_calories", nextExercise.getEstimatedCalories());
-        demoIntent.putExtra("exercise_category", nextExercise.getCategory().getDisplayName());
-        demoIntent.putExtra("exercise_difficulty", nextExercise.getDifficulty().getDisplayName());
-        demoIntent.putExtra("exercise_gif", nextExercise.getImageUrl());
-
-        startActivityForResult(demoIntent, 1001);
-        overridePendingTransition(R.anim.slide_in_right, R.anim.slide_out_left);
-    }
-
-    private void completeWorkoutSession(Intent data) {
-        if (currentSession == null) return;
-
-        try {
-            currentSession.endWorkout();
-
-            long workoutEndTime = System.currentTimeMillis();
-            int actualDurationMinutes = (int) ((workoutEndTime - workoutStartTime) / (1000 * 60));
-            if (actualDurationMinutes < 1) {
-                actualDurationMinutes = 1;
-            }
-
-            if (data != null && data.hasExtra("actual_duration")) {
-                actualDurationMinutes = data.getIntExtra("actual_duration", actualDurationMinutes);
-            }
-
-            currentSession.setDurationMinutes(actualDurationMinutes);
-            dataManager.recordWorkoutCompletion(currentSession);
-
-            Intent completionIntent = new Intent(this, WorkoutCompleteActivity.class);
-            completionIntent.putExtra("session_id", currentSession.getSessionId());
-            completionIntent.putExtra("mood_type", selectedMood.name());
-            completionIntent.putExtra("total_exercises", recommendedExercises.size());
-            completionIntent.putExtra("estimated_duration", calculateTotalWorkoutDuration());
-            completionIntent.putExtra("actual_duration", actualDurationMinutes);
-            completionIntent.putExtra("exercises_completed", totalExercisesCompleted);
-            completionIntent.putExtra("calories_burned", totalCaloriesBurned);
-            completionIntent.putExtra("exercises_skipped", anyExercisesSkipped);
-
-            startActivity(completionIntent);
-            overridePendingTransition(R.anim.slide_in_right, R.anim.slide_out_left);
-            finish();
-
-        } catch (Exception e) {
-            android.util.Log.e(TAG, "Error completing workout session", e);
-        }
-    }
-
-    private void showCompletionMessage() {
-        String message = "Amazing! You've completed your " +
-                selectedMood.getDisplayName().toLowerCase() +
-                " mood workout with " + recommendedExercises.size() + " tutorial exercises! 🎉";
-        android.widget.Toast.makeText(this, message, android.widget.Toast.LENGTH_LONG).show();
-    }
-
     @Override
     public void onBackPressed() {
         super.onBackPressed();
         overridePendingTransition(R.anim.slide_in_left, R.anim.slide_out_right);
     }
 
+    @Override
+    protected void onPause() {
+        super.onPause();
+        // Persist today's draw counters before the process may be killed
+        if (recommendationRandom != null) {
+            recommendationRandom.flush();
+        }
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (currentSession != null && currentSession.isActive()) {
-            currentSession = null;
-        }
+        recommendationExecutor.cancel();
+        mediaPrefetcher.clearPlan();
     }
 }
\ No newline at end of file
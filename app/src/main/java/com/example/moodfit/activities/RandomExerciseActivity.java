@@ -18,12 +18,18 @@ import com.example.moodfit.models.WorkoutSession;
 import com.example.moodfit.models.enums.DifficultyLevel;
 import com.example.moodfit.models.enums.MoodType;
 import com.example.moodfit.models.enums.WorkoutCategory;
+import com.example.moodfit.recommendation.ExercisePreferenceModel;
+import com.example.moodfit.recommendation.RecommendationExecutor;
+import com.example.moodfit.recommendation.RecommendationRandom;
+import com.example.moodfit.recommendation.SelectionHistoryTracker;
 import com.example.moodfit.utils.DataManager;
+import com.example.moodfit.utils.DebouncedPrefsWriter;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * RandomExerciseActivity - Surprise workout generator with diverse exercise database
@@ -44,7 +50,11 @@ public class RandomExerciseActivity extends AppCompatActivity {
 
     // Exercise Database
     private List<Exercise> exerciseDatabase;
-    private Random random;
+    private RecommendationRandom recommendationRandom;
+
+    // Learned preferences, scored over the catalog once per selection
+    private ExercisePreferenceModel preferenceModel;
+    private ExercisePreferenceModel.FeatureTable catalogFeatures;
 
     // Current State
     private Exercise currentExercise;
@@ -53,11 +63,29 @@ public class RandomExerciseActivity extends AppCompatActivity {
     // Animation Handler
     private Handler animationHandler;
 
-    private List<String> recentExerciseNames = new ArrayList<>();
+    // Selections are computed off the UI thread; a new tap supersedes the one in progress
+    private final RecommendationExecutor selectionExecutor = new RecommendationExecutor();
+    private static final long MIN_GENERATING_ANIMATION_MS = 900;
+    private static final Object GENERATING_STAGES_TOKEN = new Object();
+
+    // Next selections computed ahead of time so a tap can reveal instantly
+    private static final int PREFETCH_DEPTH = 2;
+    private static final long QUICK_SESSION_MS = 300000; // 5 minutes
+    private final RecommendationExecutor prefetchExecutor = new RecommendationExecutor();
+    private final ArrayDeque<SurpriseSelection> prefetchedSelections = new ArrayDeque<>();
+    private int historyVersion = 0; // Incremented whenever the selection history changes
+
     private static final int MAX_RECENT_EXERCISES = 10; // Track last 10 exercises
+    private final SelectionHistoryTracker recentHistory = new SelectionHistoryTracker(MAX_RECENT_EXERCISES);
     private WorkoutCategory lastSelectedCategory = null;
     private long lastSelectionTime = 0;
 
+    // Selection history persistence (written in batches, not on every draw)
+    private static final String SELECTION_PREFS_NAME = "random_exercise_prefs";
+    private static final long HISTORY_FLUSH_IDLE_MS = 3000;
+    private static final int HISTORY_FLUSH_MAX_PENDING = 10;
+    private DebouncedPrefsWriter historyWriter;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -71,16 +99,23 @@ public class RandomExerciseActivity extends AppCompatActivity {
 
         // Build exercise database
         buildExerciseDatabase();
+        preferenceModel = dataManager.getPreferenceModel();
+        catalogFeatures = new ExercisePreferenceModel.FeatureTable(exerciseDatabase);
 
         // Load selection history for smart selection
         loadSelectionHistoryFromPrefs();
+        historyWriter = new DebouncedPrefsWriter(getSharedPreferences(SELECTION_PREFS_NAME, MODE_PRIVATE),
+                HISTORY_FLUSH_IDLE_MS, HISTORY_FLUSH_MAX_PENDING);
 
         // Setup event listeners
         setupEventListeners();
 
-        // Initialize random generator
-        random = new Random();
+        // Initialize reproducible per-user random streams
+        recommendationRandom = RecommendationRandom.getInstance(this, currentUser != null ? currentUser.getUserId() : null);
         animationHandler = new Handler(Looper.getMainLooper());
+
+        // Have the first surprise ready before the user taps
+        refillPrefetchedSelections();
     }
 
     /**
@@ -95,14 +130,38 @@ public class RandomExerciseActivity extends AppCompatActivity {
         DifficultyLevel userDifficulty;
         long timeSinceLastSelection;
         boolean needsCategoryVariety;
-        List<String> recentExerciseNames;
+        SelectionHistoryTracker recentHistory;
         boolean isFirstSelectionToday;
         boolean isQuickSession;
+        WorkoutCategory lastSelectedCategory;
+        double[] learnedAffinity; // Indexed like exerciseDatabase
 
         @Override
         public String toString() {
             return String.format("Context{hour=%d, weekend=%b, difficulty=%s, needsVariety=%b, recentCount=%d}",
-                    hourOfDay, isWeekend, userDifficulty, needsCategoryVariety, recentExerciseNames.size());
+                    hourOfDay, isWeekend, userDifficulty, needsCategoryVariety, recentHistory.size());
+        }
+    }
+
+    /**
+     * A computed selection plus the context it was computed for, so a prefetched one
+     * can be checked for staleness before it is revealed
+     */
+    private static class SurpriseSelection {
+        final Exercise exercise;
+        final SplittableRandom random; // Also drives the intro text
+        final RecommendationRandom.DrawSlot draw; // Counted only when revealed; null for fallbacks
+        final int hourKey;
+        final boolean assumedQuickSession;
+        int baseHistoryVersion;
+
+        SurpriseSelection(Exercise exercise, SplittableRandom random, RecommendationRandom.DrawSlot draw,
+                          int hourKey, boolean assumedQuickSession) {
+            this.exercise = exercise;
+            this.random = random;
+            this.draw = draw;
+            this.hourKey = hourKey;
+            this.assumedQuickSession = assumedQuickSession;
         }
     }
 
@@ -806,37 +865,155 @@ public class RandomExerciseActivity extends AppCompatActivity {
      * ENHANCED: Generate and display exercise with better context messaging
      */
     private void generateRandomExercise() {
-        if (isGenerating) return;
+        // Tapping again while generating restarts the selection (the executor drops the old one)
+        animationHandler.removeCallbacksAndMessages(GENERATING_STAGES_TOKEN);
+
+        // Reveal instantly if a still-valid selection was computed ahead of time
+        SurpriseSelection prefetched = takePrefetchedSelection();
+        if (prefetched != null) {
+            selectionExecutor.cancel();
+            revealExercise(prefetched);
+            return;
+        }
 
         isGenerating = true;
 
-        // Disable buttons during generation
-        btnSurpriseMe.setEnabled(false);
-        btnTryAgain.setEnabled(false);
-
-        // Start surprise animation
+        // Start surprise animation; it runs while the selection is computed
         startSurpriseAnimation();
 
-        // Generate exercise after animation delay
-        animationHandler.postDelayed(() -> {
-            currentExercise = selectRandomExercise();
-            displayExerciseWithContext(currentExercise);
-            showTryAgainButton();
-            isGenerating = false;
+        final SelectionHistoryTracker history = recentHistory.copy();
+        final WorkoutCategory lastCategory = lastSelectedCategory;
+        final long lastTime = lastSelectionTime;
+        final RecommendationRandom.DrawSlot draw = recommendationRandom.peekNextDraw(RecommendationRandom.Stream.RANDOM_EXERCISE);
+        selectionExecutor.submit(() -> computeSelection(history, lastCategory, lastTime, System.currentTimeMillis(), draw),
+                MIN_GENERATING_ANIMATION_MS,
+                new RecommendationExecutor.Callback<SurpriseSelection>() {
+                    @Override
+                    public void onResult(SurpriseSelection selection) {
+                        revealExercise(selection);
+                    }
 
-            // Re-enable buttons
-            btnSurpriseMe.setEnabled(true);
-            btnTryAgain.setEnabled(true);
+                    @Override
+                    public void onError(Exception error) {
+                        android.util.Log.e(TAG, "Error selecting exercise", error);
+                        revealExercise(new SurpriseSelection(createFallbackExercise(), new SplittableRandom(), null,
+                                hourKeyOf(System.currentTimeMillis()), false));
+                    }
+                });
+    }
 
-        }, 1500); // 1.5 second animation
+    /**
+     * Show the selected exercise and record it (main thread)
+     */
+    private void revealExercise(SurpriseSelection selection) {
+        animationHandler.removeCallbacksAndMessages(GENERATING_STAGES_TOKEN);
+
+        // Only selections the user actually sees advance the persisted draw counter
+        if (selection.draw != null) {
+            recommendationRandom.commitDraw(selection.draw);
+        }
+
+        // Update tracking for future selections
+        updateSelectionHistory(selection.exercise);
+
+        currentExercise = selection.exercise;
+        displayExerciseWithContext(currentExercise, selection.random);
+        showTryAgainButton();
+        isGenerating = false;
+
+        // Selections queued against the old history are useless now; top the queue back up
+        SurpriseSelection next = prefetchedSelections.peekFirst();
+        if (next != null && next.baseHistoryVersion != historyVersion) {
+            prefetchedSelections.clear();
+        }
+        refillPrefetchedSelections();
+    }
+
+    // ==================== AHEAD-OF-TIME SELECTION ====================
+
+    /**
+     * Next prefetched selection if it was computed for the current context, otherwise null.
+     * A selection is stale once the history moved on without it, the hour changed, or the
+     * 5-minute quick-session window it assumed no longer holds; the whole queue is then dropped.
+     */
+    private SurpriseSelection takePrefetchedSelection() {
+        SurpriseSelection head = prefetchedSelections.peekFirst();
+        if (head == null) return null;
+
+        long now = System.currentTimeMillis();
+        boolean quickSession = now - lastSelectionTime < QUICK_SESSION_MS;
+        if (head.baseHistoryVersion != historyVersion || head.hourKey != hourKeyOf(now) ||
+                head.assumedQuickSession != quickSession) {
+            android.util.Log.d(TAG, "Discarding " + prefetchedSelections.size() + " prefetched selection(s): context changed");
+            prefetchedSelections.clear();
+            prefetchExecutor.cancel();
+            return null;
+        }
+        return prefetchedSelections.pollFirst();
+    }
+
+    /**
+     * Compute selections in the background until PREFETCH_DEPTH are queued. Each one continues
+     * from the history the previous one would leave behind, assuming the next tap comes soon,
+     * and uses the draw slot after the previous one's; slots are only counted when revealed.
+     */
+    private void refillPrefetchedSelections() {
+        final int missing = PREFETCH_DEPTH - prefetchedSelections.size();
+        if (missing <= 0 || exerciseDatabase.isEmpty()) return;
+
+        long now = System.currentTimeMillis();
+        final SelectionHistoryTracker history = recentHistory.copy();
+        WorkoutCategory lastCategory = lastSelectedCategory;
+        long lastTime = lastSelectionTime;
+        int version = historyVersion;
+        RecommendationRandom.DrawSlot draw = recommendationRandom.peekNextDraw(RecommendationRandom.Stream.RANDOM_EXERCISE);
+        for (SurpriseSelection queued : prefetchedSelections) {
+            history.record(queued.exercise.getExerciseId(), queued.exercise.getCategory());
+            lastCategory = queued.exercise.getCategory();
+            lastTime = now;
+            version++;
+            draw = queued.draw.next();
+        }
+
+        final WorkoutCategory chainCategory = lastCategory;
+        final long chainTime = lastTime;
+        final int chainVersion = version;
+        final RecommendationRandom.DrawSlot chainDraw = draw;
+        prefetchExecutor.submit(() -> {
+            List<SurpriseSelection> chain = new ArrayList<>(missing);
+            WorkoutCategory category = chainCategory;
+            long time = chainTime;
+            long computeTime = System.currentTimeMillis();
+            RecommendationRandom.DrawSlot slot = chainDraw;
+            for (int i = 0; i < missing; i++) {
+                SurpriseSelection selection = computeSelection(history, category, time, computeTime, slot);
+                selection.baseHistoryVersion = chainVersion + i;
+                chain.add(selection);
+
+                history.record(selection.exercise.getExerciseId(), selection.exercise.getCategory());
+                category = selection.exercise.getCategory();
+                time = computeTime;
+                slot = slot.next();
+            }
+            return chain;
+        }, 0, chain -> {
+            prefetchedSelections.addAll(chain);
+            android.util.Log.d(TAG, "Prefetched " + chain.size() + " selection(s), " + prefetchedSelections.size() + " ready");
+        });
+    }
+
+    private static int hourKeyOf(long timeMillis) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(timeMillis);
+        return calendar.get(Calendar.DAY_OF_YEAR) * 24 + calendar.get(Calendar.HOUR_OF_DAY);
     }
 
     /**
      * ENHANCED: Display exercise with contextual messaging
      */
-    private void displayExerciseWithContext(Exercise exercise) {
+    private void displayExerciseWithContext(Exercise exercise, SplittableRandom random) {
         // Generate contextual intro message
-        String contextMessage = generateContextualIntro();
+        String contextMessage = generateContextualIntro(random);
 
         // Format exercise information with context
         String displayText = contextMessage + "\n\n" +
@@ -872,7 +1049,7 @@ public class RandomExerciseActivity extends AppCompatActivity {
     /**
      * Generate contextual intro message based on selection factors
      */
-    private String generateContextualIntro() {
+    private String generateContextualIntro(SplittableRandom random) {
         Calendar calendar = Calendar.getInstance();
         int hour = calendar.get(Calendar.HOUR_OF_DAY);
         int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
@@ -905,7 +1082,7 @@ public class RandomExerciseActivity extends AppCompatActivity {
         }
 
         // Variety messages
-        if (recentExerciseNames.size() > 3) {
+        if (recentHistory.size() > 3) {
             intros.add("🎲 Mixing things up for you!");
             intros.add("🔄 Keeping it fresh and varied!");
         } else {
@@ -954,14 +1131,16 @@ public class RandomExerciseActivity extends AppCompatActivity {
 
         int[] delays = {0, 500, 1000, 1400};
 
+        // Stages are cut short as soon as the selection is revealed
+        long now = android.os.SystemClock.uptimeMillis();
         for (int i = 0; i < generatingTexts.length; i++) {
             final int index = i;
-            animationHandler.postDelayed(() -> {
+            animationHandler.postAtTime(() -> {
                 if (index < generatingTexts.length - 1) {
                     tvRandomExercise.setText(generatingTexts[index]);
                     addTextBounceEffect();
                 }
-            }, delays[i]);
+            }, GENERATING_STAGES_TOKEN, now + delays[i]);
         }
     }
 
@@ -985,39 +1164,46 @@ public class RandomExerciseActivity extends AppCompatActivity {
 
     /**
      * ENHANCED: Select a random exercise with intelligent variety and preferences
+     * Runs on the recommendation worker against a private copy of the history;
+     * the selection and its draw are recorded by revealExercise()
      */
-    private Exercise selectRandomExercise() {
+    private SurpriseSelection computeSelection(SelectionHistoryTracker history, WorkoutCategory lastCategory,
+                                               long lastTime, long now, RecommendationRandom.DrawSlot draw) {
+        // Each selection (and its intro text) gets its own reproducible generator
+        SplittableRandom random = recommendationRandom.generatorFor(draw);
+        boolean quickSession = now - lastTime < QUICK_SESSION_MS;
+
         if (exerciseDatabase.isEmpty()) {
-            return createFallbackExercise();
+            return new SurpriseSelection(createFallbackExercise(), random, draw, hourKeyOf(now), quickSession);
         }
 
         // Get context for smart selection
-        SmartSelectionContext context = analyzeSelectionContext();
+        SmartSelectionContext context = analyzeSelectionContext(history, lastCategory, lastTime, now);
 
         // Create weighted exercise pool based on multiple factors
         List<WeightedExercise> weightedExercises = createWeightedExercisePool(context);
 
         // Select exercise using weighted random selection
-        Exercise selectedExercise = selectWeightedRandomExercise(weightedExercises);
-
-        // Update tracking for future selections
-        updateSelectionHistory(selectedExercise);
+        Exercise selectedExercise = selectWeightedRandomExercise(weightedExercises, random);
 
         android.util.Log.d(TAG, "Smart selection: " + selectedExercise.getName() +
                 " (Category: " + selectedExercise.getCategory().getDisplayName() +
                 ", Difficulty: " + selectedExercise.getDifficulty().getDisplayName() + ")");
 
-        return selectedExercise;
+        return new SurpriseSelection(selectedExercise, random, draw, hourKeyOf(now), quickSession);
     }
 
     /**
      * Analyze current context for smart exercise selection
      */
-    private SmartSelectionContext analyzeSelectionContext() {
+    private SmartSelectionContext analyzeSelectionContext(SelectionHistoryTracker history, WorkoutCategory lastCategory,
+                                                          long lastTime, long now) {
         SmartSelectionContext context = new SmartSelectionContext();
+        context.lastSelectedCategory = lastCategory;
 
         // Time-based factors
         Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(now);
         context.hourOfDay = calendar.get(Calendar.HOUR_OF_DAY);
         context.dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
         context.isWeekend = (context.dayOfWeek == Calendar.SATURDAY || context.dayOfWeek == Calendar.SUNDAY);
@@ -1029,13 +1215,18 @@ public class RandomExerciseActivity extends AppCompatActivity {
                 currentUser.getPreferredDifficulty() : DifficultyLevel.BEGINNER;
 
         // Variety factors
-        context.timeSinceLastSelection = System.currentTimeMillis() - lastSelectionTime;
-        context.needsCategoryVariety = shouldVariateCategory();
-        context.recentExerciseNames = new ArrayList<>(recentExerciseNames);
+        context.timeSinceLastSelection = now - lastTime;
+        context.needsCategoryVariety = shouldVariateCategory(history, lastCategory);
+        context.recentHistory = history;
 
         // Special occasion factors
-        context.isFirstSelectionToday = recentExerciseNames.isEmpty();
-        context.isQuickSession = context.timeSinceLastSelection < 300000; // Less than 5 minutes
+        context.isFirstSelectionToday = history.isEmpty();
+        context.isQuickSession = context.timeSinceLastSelection < QUICK_SESSION_MS;
+
+        // Learned preferences for this time of day, one pass over the catalog
+        context.learnedAffinity = new double[catalogFeatures.size()];
+        preferenceModel.scoreAll(catalogFeatures, null,
+                ExercisePreferenceModel.timeBucketOf(now), context.learnedAffinity);
 
         android.util.Log.d(TAG, "Selection context: " + context.toString());
         return context;
@@ -1044,24 +1235,11 @@ public class RandomExerciseActivity extends AppCompatActivity {
     /**
      * Check if we should vary the exercise category
      */
-    private boolean shouldVariateCategory() {
+    private boolean shouldVariateCategory(SelectionHistoryTracker history, WorkoutCategory lastCategory) {
         // Vary category if we've had the same category multiple times recently
-        if (lastSelectedCategory == null) return false;
+        if (lastCategory == null) return false;
 
-        int sameCategories = 0;
-        for (String exerciseName : recentExerciseNames) {
-            // Find exercise in database to check category
-            for (Exercise exercise : exerciseDatabase) {
-                if (exercise.getName().equals(exerciseName)) {
-                    if (exercise.getCategory() == lastSelectedCategory) {
-                        sameCategories++;
-                    }
-                    break;
-                }
-            }
-        }
-
-        return sameCategories >= 2; // Vary if last 2+ were same category
+        return history.countInCategory(lastCategory) >= 2; // Vary if last 2+ were same category
     }
 
     /**
@@ -1070,20 +1248,25 @@ public class RandomExerciseActivity extends AppCompatActivity {
     private List<WeightedExercise> createWeightedExercisePool(SmartSelectionContext context) {
         List<WeightedExercise> weightedPool = new ArrayList<>();
 
-        for (Exercise exercise : exerciseDatabase) {
-            double weight = calculateExerciseWeight(exercise, context);
+        for (int row = 0; row < exerciseDatabase.size(); row++) {
+            Exercise exercise = exerciseDatabase.get(row);
+            double weight = calculateExerciseWeight(exercise, row, context);
             if (weight > 0) {
                 weightedPool.add(new WeightedExercise(exercise, weight));
             }
         }
 
-        // Sort by weight for debugging
-        weightedPool.sort((a, b) -> Double.compare(b.weight, a.weight));
+        // Find the top weight for debugging (no sort needed for weighted selection)
+        WeightedExercise top = null;
+        for (WeightedExercise candidate : weightedPool) {
+            if (top == null || candidate.weight > top.weight) {
+                top = candidate;
+            }
+        }
 
         android.util.Log.d(TAG, "Created weighted pool with " + weightedPool.size() + " exercises");
-        if (!weightedPool.isEmpty()) {
-            android.util.Log.d(TAG, "Top weighted exercise: " + weightedPool.get(0).exercise.getName() +
-                    " (weight: " + String.format("%.2f", weightedPool.get(0).weight) + ")");
+        if (top != null) {
+            android.util.Log.d(TAG, "Top weighted exercise: " + top.exercise.getName() + " (weight: " + top.weight + ")");
         }
 
         return weightedPool;
@@ -1092,15 +1275,15 @@ public class RandomExerciseActivity extends AppCompatActivity {
     /**
      * Calculate weight for an exercise based on multiple factors
      */
-    private double calculateExerciseWeight(Exercise exercise, SmartSelectionContext context) {
+    private double calculateExerciseWeight(Exercise exercise, int row, SmartSelectionContext context) {
         double weight = 1.0; // Base weight
 
         // 1. DIFFICULTY MATCHING (Most Important Factor)
         weight *= calculateDifficultyWeight(exercise.getDifficulty(), context);
 
         // 2. RECENT EXERCISE PENALTY (Avoid Repetition)
-        if (context.recentExerciseNames.contains(exercise.getName())) {
-            int recentIndex = context.recentExerciseNames.indexOf(exercise.getName());
+        int recentIndex = context.recentHistory.recencyIndexOf(exercise.getExerciseId());
+        if (recentIndex >= 0) {
             double penalty = 1.0 - (0.8 - (recentIndex * 0.1)); // Recent = lower weight
             weight *= Math.max(penalty, 0.1); // Minimum 10% weight
         }
@@ -1124,6 +1307,9 @@ public class RandomExerciseActivity extends AppCompatActivity {
         // 7. DURATION APPROPRIATENESS
         weight *= calculateDurationWeight(exercise, context);
 
+        // 8. LEARNED PREFERENCE (from rated and completed sessions)
+        weight *= context.learnedAffinity[row];
+
         return Math.max(weight, 0.05); // Minimum weight to ensure variety
     }
 
@@ -1151,12 +1337,12 @@ public class RandomExerciseActivity extends AppCompatActivity {
         double weight = 1.0;
 
         // Boost different categories if we need variety
-        if (context.needsCategoryVariety && category != lastSelectedCategory) {
+        if (context.needsCategoryVariety && category != context.lastSelectedCategory) {
             weight *= 1.5; // 50% bonus for different category
         }
 
         // Slight penalty for same category to encourage variety
-        if (category == lastSelectedCategory) {
+        if (category == context.lastSelectedCategory) {
             weight *= 0.8;
         }
 
@@ -1259,7 +1445,7 @@ public class RandomExerciseActivity extends AppCompatActivity {
     /**
      * Select exercise using weighted random selection
      */
-    private Exercise selectWeightedRandomExercise(List<WeightedExercise> weightedPool) {
+    private Exercise selectWeightedRandomExercise(List<WeightedExercise> weightedPool, SplittableRandom random) {
         if (weightedPool.isEmpty()) {
             return createFallbackExercise();
         }
@@ -1290,44 +1476,40 @@ public class RandomExerciseActivity extends AppCompatActivity {
      * Update selection history for future smart selections
      */
     private void updateSelectionHistory(Exercise selectedExercise) {
-        // Add to recent exercises list
-        recentExerciseNames.add(0, selectedExercise.getName()); // Add to front
-
-        // Keep only recent exercises
-        while (recentExerciseNames.size() > MAX_RECENT_EXERCISES) {
-            recentExerciseNames.remove(recentExerciseNames.size() - 1);
-        }
+        // Add to recent exercises window (oldest entry is evicted automatically)
+        recentHistory.record(selectedExercise.getExerciseId(), selectedExercise.getCategory());
 
         // Update category tracking
         lastSelectedCategory = selectedExercise.getCategory();
         lastSelectionTime = System.currentTimeMillis();
+        historyVersion++;
 
-        // Save to preferences for persistence (optional)
+        // Queue for persistence; the writer batches rapid draws into one write
         saveSelectionHistoryToPrefs();
     }
 
     /**
-     * Save selection history to shared preferences for persistence
+     * Queue a snapshot of the selection history for the debounced preferences writer
      */
     private void saveSelectionHistoryToPrefs() {
-        try {
-            android.content.SharedPreferences prefs = getSharedPreferences("random_exercise_prefs", MODE_PRIVATE);
-            android.content.SharedPreferences.Editor editor = prefs.edit();
+        if (historyWriter == null) return;
+
+        // Snapshot on the UI thread; the writer applies it later on its own thread
+        final String encodedHistory = recentHistory.encode();
+        final WorkoutCategory category = lastSelectedCategory;
+        final long selectionTime = lastSelectionTime;
 
-            // Save recent exercise names as comma-separated string
-            String recentExercisesString = android.text.TextUtils.join(",", recentExerciseNames);
-            editor.putString("recent_exercises", recentExercisesString);
+        historyWriter.submit(editor -> {
+            // Save recent exercise IDs in the tracker's compact encoding
+            editor.putString("recent_history", encodedHistory);
+            editor.remove("recent_exercises"); // Legacy comma-joined names
 
             // Save last category and time
-            if (lastSelectedCategory != null) {
-                editor.putString("last_category", lastSelectedCategory.name());
+            if (category != null) {
+                editor.putString("last_category", category.name());
             }
-            editor.putLong("last_selection_time", lastSelectionTime);
-
-            editor.apply();
-        } catch (Exception e) {
-            android.util.Log.w(TAG, "Could not save selection history", e);
-        }
+            editor.putLong("last_selection_time", selectionTime);
+        });
     }
 
     /**
@@ -1335,18 +1517,14 @@ public class RandomExerciseActivity extends AppCompatActivity {
      */
     private void loadSelectionHistoryFromPrefs() {
         try {
-            android.content.SharedPreferences prefs = getSharedPreferences("random_exercise_prefs", MODE_PRIVATE);
+            android.content.SharedPreferences prefs = getSharedPreferences(SELECTION_PREFS_NAME, MODE_PRIVATE);
 
             // Load recent exercises
-            String recentExercisesString = prefs.getString("recent_exercises", "");
-            if (!recentExercisesString.isEmpty()) {
-                String[] exercises = recentExercisesString.split(",");
-                recentExerciseNames.clear();
-                for (String exercise : exercises) {
-                    if (!exercise.trim().isEmpty()) {
-                        recentExerciseNames.add(exercise.trim());
-                    }
-                }
+            String encodedHistory = prefs.getString("recent_history", null);
+            if (encodedHistory != null) {
+                recentHistory.decode(encodedHistory);
+            } else {
+                migrateLegacySelectionHistory(prefs.getString("recent_exercises", ""));
             }
 
             // Load last category
@@ -1362,13 +1540,35 @@ public class RandomExerciseActivity extends AppCompatActivity {
             // Load last selection time
             lastSelectionTime = prefs.getLong("last_selection_time", 0);
 
-            android.util.Log.d(TAG, "Loaded selection history: " + recentExerciseNames.size() + " recent exercises");
+            android.util.Log.d(TAG, "Loaded selection history: " + recentHistory.size() + " recent exercises");
 
         } catch (Exception e) {
             android.util.Log.w(TAG, "Could not load selection history", e);
         }
     }
 
+    /**
+     * Convert the old comma-joined name list (most recent first) into the ID-based tracker
+     */
+    private void migrateLegacySelectionHistory(String recentExercisesString) {
+        if (recentExercisesString == null || recentExercisesString.isEmpty()) return;
+
+        String[] names = recentExercisesString.split(",");
+
+        // Record oldest first so the most recent name ends up at the front of the window
+        for (int i = names.length - 1; i >= 0; i--) {
+            String name = names[i].trim();
+            if (name.isEmpty()) continue;
+
+            for (Exercise exercise : exerciseDatabase) {
+                if (exercise.getName().equals(name)) {
+                    recentHistory.record(exercise.getExerciseId(), exercise.getCategory());
+                    break;
+                }
+            }
+        }
+    }
+
     /**
      * Create fallback exercise for error cases
      */
@@ -1384,7 +1584,7 @@ public class RandomExerciseActivity extends AppCompatActivity {
     /**
      * Filter exercises by difficulty level with some variety
      */
-    private List<Exercise> filterExercisesByDifficulty(DifficultyLevel targetDifficulty) {
+    private List<Exercise> filterExercisesByDifficulty(DifficultyLevel targetDifficulty, SplittableRandom random) {
         List<Exercise> filtered = new ArrayList<>();
 
         for (Exercise exercise : exerciseDatabase) {
@@ -1393,16 +1593,16 @@ public class RandomExerciseActivity extends AppCompatActivity {
             // Include target difficulty (70% chance)
             if (exerciseDifficulty == targetDifficulty) {
                 filtered.add(exercise);
-                if (random.nextFloat() < 0.7f) {
+                if (random.nextDouble() < 0.7) {
                     filtered.add(exercise); // Add again for higher probability
                 }
             }
             // Include one level easier (20% chance)
-            else if (isOneLevelEasier(exerciseDifficulty, targetDifficulty) && random.nextFloat() < 0.2f) {
+            else if (isOneLevelEasier(exerciseDifficulty, targetDifficulty) && random.nextDouble() < 0.2) {
                 filtered.add(exercise);
             }
             // Include one level harder (10% chance)
-            else if (isOneLevelHarder(exerciseDifficulty, targetDifficulty) && random.nextFloat() < 0.1f) {
+            else if (isOneLevelHarder(exerciseDifficulty, targetDifficulty) && random.nextDouble() < 0.1) {
                 filtered.add(exercise);
             }
         }
@@ -1518,12 +1718,30 @@ public class RandomExerciseActivity extends AppCompatActivity {
         overridePendingTransition(R.anim.slide_in_left, R.anim.slide_out_right);
     }
 
+    /**
+     * Persist pending selection history when leaving the screen
+     */
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (recommendationRandom != null) {
+            recommendationRandom.flush();
+        }
+        if (historyWriter != null) {
+            historyWriter.flush();
+            android.util.Log.d(TAG, "History writes: " + historyWriter.getFlushCount() +
+                    " flushes for " + historyWriter.getSubmitCount() + " selections");
+        }
+    }
+
     /**
      * Clean up resources
      */
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        selectionExecutor.cancel();
+        prefetchExecutor.cancel();
         if (animationHandler != null) {
             animationHandler.removeCallbacksAndMessages(null);
         }
@@ -20,6 +20,7 @@ import com.example.moodfit.R;
 import com.example.moodfit.models.User;
 import com.example.moodfit.utils.DataManager;
 import com.example.moodfit.utils.SharedPreferencesHelper;
+import com.example.moodfit.workout.WorkoutSessionEngine;
 
 public class SplashActivity extends AppCompatActivity {
 
@@ -46,18 +47,31 @@ public class SplashActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+
         setContentView(R.layout.activity_splash);
 
         // Hide system UI for immersive splash experience
         hideSystemUI();
 
-        // Record start time
-        startTime = System.currentTimeMillis();
-
         // Initialize components
         initializeViews();
         initializeDataManagers();
 
+        // A workout was interrupted by process death: ask before going back to it
+        if (offerInterruptedWorkout()) {
+            return;
+        }
+
+        startSplash();
+    }
+
+    /**
+     * The normal start: animations, app initialization, then home or onboarding
+     */
+    private void startSplash() {
+        // Record start time
+        startTime = System.currentTimeMillis();
+
         // Start animations
         startSplashAnimations();
 
@@ -73,6 +87,49 @@ public class SplashActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Rebuild the interrupted workout from its journal, if there is a recent one, and ask whether
+     * to go back to it; false when there is nothing to offer
+     */
+    private boolean offerInterruptedWorkout() {
+        long recoverStart = android.os.SystemClock.elapsedRealtime();
+
+        WorkoutSessionEngine sessionEngine = WorkoutSessionEngine.getInstance();
+        if (!sessionEngine.resumeFromJournal(this)) {
+            return false;
+        }
+        android.util.Log.d(TAG, "Recovered workout at exercise " + (sessionEngine.getCurrentIndex() + 1)
+                + (sessionEngine.isExerciseInterrupted() ? " (timer running)" : "")
+                + " in " + (android.os.SystemClock.elapsedRealtime() - recoverStart) + "ms");
+
+        new androidx.appcompat.app.AlertDialog.Builder(this)
+                .setTitle("Resume workout?")
+                .setMessage("Your workout was interrupted at exercise " + (sessionEngine.getCurrentIndex() + 1)
+                        + " of " + sessionEngine.getExerciseCount() + ". Pick up where you left off?")
+                .setPositiveButton("Resume", (dialog, which) -> resumeInterruptedWorkout())
+                .setNegativeButton("Discard", (dialog, which) -> {
+                    // Deletes the journal, so it is not offered again
+                    sessionEngine.end();
+                    startSplash();
+                })
+                .setCancelable(false) // Force user to choose
+                .show();
+        return true;
+    }
+
+    /**
+     * Open the recovered workout's current exercise on top of home
+     */
+    private void resumeInterruptedWorkout() {
+        Intent homeIntent = new Intent(this, HomeActivity.class);
+        homeIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        Intent demoIntent = new Intent(this, ExerciseDemoActivity.class);
+        demoIntent.putExtra("workout_session", true);
+        startActivities(new Intent[] {homeIntent, demoIntent});
+        overridePendingTransition(0, 0);
+        finish();
+    }
+
     /**
      * Hide system UI for immersive splash screen
      */
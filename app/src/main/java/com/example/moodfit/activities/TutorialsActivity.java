@@ -4,17 +4,18 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.ImageView;
-import android.widget.LinearLayout;
-import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.cardview.widget.CardView;
-import androidx.core.widget.NestedScrollView;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.bumptech.glide.request.RequestOptions;
 
 import com.example.moodfit.R;
+import com.example.moodfit.adapters.TutorialListAdapter;
+import com.example.moodfit.media.DemoMediaPipeline;
+import com.example.moodfit.media.DemoPlaybackController;
+import com.example.moodfit.media.ExerciseMediaResolver;
 import com.example.moodfit.models.Exercise;
 import com.example.moodfit.models.enums.DifficultyLevel;
 import com.example.moodfit.models.enums.WorkoutCategory;
@@ -33,19 +34,9 @@ public class TutorialsActivity extends AppCompatActivity {
 
     private static final String TAG = "TutorialsActivity";
 
-    // UI Components
-    private NestedScrollView scrollView;
-    private LinearLayout contentContainer;
-
-    // Difficulty Section Headers
-    private CardView beginnerHeader;
-    private CardView intermediateHeader;
-    private CardView advancedHeader;
-
-    // Exercise Containers
-    private LinearLayout beginnerExercisesContainer;
-    private LinearLayout intermediateExercisesContainer;
-    private LinearLayout advancedExercisesContainer;
+    // UI Components: intro, section headers and exercise cards are rows of one recycled list
+    private RecyclerView rvTutorials;
+    private TutorialListAdapter tutorialAdapter;
 
     // Expand/Collapse states
     private boolean beginnerExpanded = true;
@@ -58,6 +49,9 @@ public class TutorialsActivity extends AppCompatActivity {
     // ADDED: GIF mapping system
     private Map<String, String> exerciseGifMap;
 
+    // Cards show poster frames; only a few on-screen cards animate at once
+    private DemoPlaybackController demoPlayback;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -65,19 +59,14 @@ public class TutorialsActivity extends AppCompatActivity {
 
         // Initialize UI components
         initializeViews();
+        initializeDemoPlayback();
 
         // Build exercise database
         buildExerciseDatabase();
 
-        // Setup event listeners
-        setupEventListeners();
-
         // Populate exercise lists
         populateExerciseLists();
 
-        // Setup initial state
-        updateSectionVisibility();
-
         // DEBUG: Enable this to debug GIF mapping issues (disable in production)
         debugGifMappingIssues();
     }
@@ -86,18 +75,31 @@ public class TutorialsActivity extends AppCompatActivity {
      * Initialize all UI components
      */
     private void initializeViews() {
-        scrollView = findViewById(R.id.scroll_view);
-        contentContainer = findViewById(R.id.content_container);
-
-        // Difficulty headers
-        beginnerHeader = findViewById(R.id.beginner_header);
-        intermediateHeader = findViewById(R.id.intermediate_header);
-        advancedHeader = findViewById(R.id.advanced_header);
-
-        // Exercise containers
-        beginnerExercisesContainer = findViewById(R.id.beginner_exercises_container);
-        intermediateExercisesContainer = findViewById(R.id.intermediate_exercises_container);
-        advancedExercisesContainer = findViewById(R.id.advanced_exercises_container);
+        rvTutorials = findViewById(R.id.rv_tutorials);
+        rvTutorials.setLayoutManager(new LinearLayoutManager(this));
+
+        tutorialAdapter = new TutorialListAdapter(new TutorialListAdapter.Listener() {
+            @Override
+            public void onSectionClicked(DifficultyLevel difficulty, View header) {
+                toggleSection(difficulty, header);
+            }
+
+            @Override
+            public void onExerciseClicked(Exercise exercise) {
+                showExerciseDetails(exercise);
+            }
+
+            @Override
+            public void onBindExerciseMedia(ImageView mediaView, Exercise exercise) {
+                loadExerciseGif(mediaView, exercise);
+            }
+
+            @Override
+            public void onRecycleExerciseMedia(ImageView mediaView) {
+                demoPlayback.unbind(mediaView);
+            }
+        });
+        rvTutorials.setAdapter(tutorialAdapter);
     }
 
     /**
@@ -430,26 +432,23 @@ public class TutorialsActivity extends AppCompatActivity {
      * Generate GIF filename from exercise name (fallback method)
      */
     private String generateGifName(String exerciseName) {
-        // Convert exercise name to lowercase and replace spaces with underscores
-        return "gif_" + exerciseName.toLowerCase()
-                .replaceAll("[^a-z0-9\\s]", "") // Remove special characters
-                .replaceAll("\\s+", "_") // Replace spaces with underscores
-                .replaceAll("_+", "_"); // Replace multiple underscores with single
+        // Same slug as the exercise ID and the generated GIF resource table
+        return "gif_" + Exercise.toSlug(exerciseName);
     }
 
     /**
-     * Setup event listeners for expand/collapse functionality
+     * Card animations are driven by scroll position instead of all starting at inflation
      */
-    private void setupEventListeners() {
-        beginnerHeader.setOnClickListener(v -> toggleSection(DifficultyLevel.BEGINNER));
-        intermediateHeader.setOnClickListener(v -> toggleSection(DifficultyLevel.INTERMEDIATE));
-        advancedHeader.setOnClickListener(v -> toggleSection(DifficultyLevel.ADVANCED));
+    private void initializeDemoPlayback() {
+        demoPlayback = new DemoPlaybackController(DemoMediaPipeline.getInstance(this),
+                DemoPlaybackController.DEFAULT_MAX_CONCURRENT, R.drawable.default_exercise_demo);
+        demoPlayback.attach(rvTutorials);
     }
 
     /**
      * Toggle section expand/collapse
      */
-    private void toggleSection(DifficultyLevel difficulty) {
+    private void toggleSection(DifficultyLevel difficulty, View header) {
         switch (difficulty) {
             case BEGINNER:
                 beginnerExpanded = !beginnerExpanded;
@@ -461,243 +460,97 @@ public class TutorialsActivity extends AppCompatActivity {
                 advancedExpanded = !advancedExpanded;
                 break;
         }
-        updateSectionVisibility();
-        animateSectionToggle(difficulty);
-    }
-
-    /**
-     * Update section visibility based on expand/collapse state
-     */
-    private void updateSectionVisibility() {
-        beginnerExercisesContainer.setVisibility(beginnerExpanded ? View.VISIBLE : View.GONE);
-        intermediateExercisesContainer.setVisibility(intermediateExpanded ? View.VISIBLE : View.GONE);
-        advancedExercisesContainer.setVisibility(advancedExpanded ? View.VISIBLE : View.GONE);
-
-        // Update chevron icons
-        updateChevronIcon(beginnerHeader, beginnerExpanded);
-        updateChevronIcon(intermediateHeader, intermediateExpanded);
-        updateChevronIcon(advancedHeader, advancedExpanded);
+        populateExerciseLists();
+        animateSectionToggle(header);
     }
 
-    /**
-     * Update chevron icon for expand/collapse state
-     */
-    private void updateChevronIcon(CardView header, boolean expanded) {
-        ImageView chevron = null;
-
-        // Find the correct chevron based on the header
-        if (header == beginnerHeader) {
-            chevron = header.findViewById(R.id.chevron_icon_beginner);
-        } else if (header == intermediateHeader) {
-            chevron = header.findViewById(R.id.chevron_icon_intermediate);
-        } else if (header == advancedHeader) {
-            chevron = header.findViewById(R.id.chevron_icon_advanced);
-        }
-
-        if (chevron != null) {
-            chevron.setRotation(expanded ? 90f : 0f);
+    private boolean isExpanded(DifficultyLevel difficulty) {
+        switch (difficulty) {
+            case BEGINNER: return beginnerExpanded;
+            case INTERMEDIATE: return intermediateExpanded;
+            case ADVANCED: return advancedExpanded;
+            default: return false;
         }
     }
 
     /**
      * Animate section toggle
      */
-    private void animateSectionToggle(DifficultyLevel difficulty) {
-        CardView header = null;
-        switch (difficulty) {
-            case BEGINNER: header = beginnerHeader; break;
-            case INTERMEDIATE: header = intermediateHeader; break;
-            case ADVANCED: header = advancedHeader; break;
-        }
-
-        if (header != null) {
-            CardView finalHeader = header;
-            header.animate()
-                    .scaleX(1.02f)
-                    .scaleY(1.02f)
-                    .setDuration(100)
-                    .withEndAction(() -> {
-                        finalHeader.animate()
-                                .scaleX(1.0f)
-                                .scaleY(1.0f)
-                                .setDuration(100)
-                                .start();
-                    })
-                    .start();
-        }
+    private void animateSectionToggle(View header) {
+        header.animate()
+                .scaleX(1.02f)
+                .scaleY(1.02f)
+                .setDuration(100)
+                .withEndAction(() -> {
+                    header.animate()
+                            .scaleX(1.0f)
+                            .scaleY(1.0f)
+                            .setDuration(100)
+                            .start();
+                })
+                .start();
     }
 
     /**
      * Populate exercise lists in the UI
+     * Submits the rows for the current expand/collapse state; the adapter diffs them against the
+     * previous rows, so only the toggled section's cards are inserted or removed
      */
     private void populateExerciseLists() {
-        populateExerciseContainer(beginnerExercisesContainer, DifficultyLevel.BEGINNER);
-        populateExerciseContainer(intermediateExercisesContainer, DifficultyLevel.INTERMEDIATE);
-        populateExerciseContainer(advancedExercisesContainer, DifficultyLevel.ADVANCED);
-    }
+        List<TutorialListAdapter.Row> rows = new ArrayList<>();
+        rows.add(TutorialListAdapter.Row.intro());
 
-    /**
-     * Populate specific exercise container
-     */
-    private void populateExerciseContainer(LinearLayout container, DifficultyLevel difficulty) {
-        List<Exercise> exercises = exercisesByDifficulty.get(difficulty);
-        if (exercises == null) return;
-
-        container.removeAllViews();
-
-        for (Exercise exercise : exercises) {
-            View exerciseCard = createExerciseCard(exercise);
-            container.addView(exerciseCard);
-        }
-    }
+        for (DifficultyLevel difficulty : DifficultyLevel.values()) {
+            boolean expanded = isExpanded(difficulty);
+            rows.add(TutorialListAdapter.Row.sectionHeader(difficulty, expanded));
 
-    /**
-     * Create exercise card view - UPDATED with enhanced GIF loading
-     */
-    private View createExerciseCard(Exercise exercise) {
-        View cardView = getLayoutInflater().inflate(R.layout.item_exercise_card, null);
-
-        // Find views in the card
-        TextView tvExerciseName = cardView.findViewById(R.id.tv_exercise_name);
-        TextView tvExerciseDescription = cardView.findViewById(R.id.tv_exercise_description);
-        TextView tvExerciseDuration = cardView.findViewById(R.id.tv_exercise_duration);
-        TextView tvExerciseCalories = cardView.findViewById(R.id.tv_exercise_calories);
-        TextView tvExerciseCategory = cardView.findViewById(R.id.tv_exercise_category);
-        ImageView ivExerciseGif = cardView.findViewById(R.id.iv_exercise_gif);
-        CardView exerciseCardContainer = cardView.findViewById(R.id.exercise_card_container);
-
-        // Set exercise data with null checks
-        if (tvExerciseName != null) {
-            tvExerciseName.setText(exercise.getName());
-        }
-        if (tvExerciseDescription != null) {
-            tvExerciseDescription.setText(exercise.getDescription());
-        }
-        if (tvExerciseDuration != null) {
-            tvExerciseDuration.setText(exercise.getEstimatedDurationMinutes() + " min");
-        }
-        if (tvExerciseCalories != null) {
-            tvExerciseCalories.setText("~" + exercise.getEstimatedCalories() + " cal");
-        }
-        if (tvExerciseCategory != null) {
-            tvExerciseCategory.setText(exercise.getCategory().getDisplayName());
-        }
-
-        // Load exercise GIF with enhanced error handling
-        if (ivExerciseGif != null) {
-            loadExerciseGif(ivExerciseGif, exercise);
-        }
-
-        // Set click listener to view exercise details
-        if (exerciseCardContainer != null) {
-            exerciseCardContainer.setOnClickListener(v -> showExerciseDetails(exercise));
+            List<Exercise> exercises = exercisesByDifficulty.get(difficulty);
+            if (expanded && exercises != null) {
+                for (Exercise exercise : exercises) {
+                    rows.add(TutorialListAdapter.Row.exercise(exercise));
+                }
+            }
         }
 
-        // Set margin
-        LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
-                LinearLayout.LayoutParams.MATCH_PARENT,
-                LinearLayout.LayoutParams.WRAP_CONTENT);
-        params.setMargins(0, 0, 0, 16);
-        cardView.setLayoutParams(params);
-
-        return cardView;
+        // Cards that scrolled in or out give up or may claim animation slots
+        tutorialAdapter.submitList(rows, demoPlayback::scheduleRefresh);
     }
 
     /**
      * Enhanced GIF loading with better error handling and mapping
+     * The drawable comes from the build-time GIF table; no resource lookups by name
      */
     private void loadExerciseGif(ImageView gifView, Exercise exercise) {
-        String gifName = exercise.getImageUrl(); // GIF filename from mapping
-
-        // DEBUG: Enhanced logging
-        android.util.Log.d("GIF_DEBUG", "=== Loading GIF for Exercise ===");
-        android.util.Log.d("GIF_DEBUG", "Exercise: " + exercise.getName());
-        android.util.Log.d("GIF_DEBUG", "Expected GIF: " + gifName);
-
-        if (gifName != null && !gifName.isEmpty()) {
-            // Try to load GIF from drawable resources
-            int gifResourceId = getResources().getIdentifier(gifName, "drawable", getPackageName());
-
-            android.util.Log.d("GIF_DEBUG", "Resource ID: " + gifResourceId + " (0 means not found)");
-
-            if (gifResourceId != 0) {
-                // GIF exists, load it with Glide for animation
-                Glide.with(this)
-                        .asGif() // Explicitly load as GIF
-                        .load(gifResourceId)
-                        .apply(new RequestOptions()
-                                .diskCacheStrategy(DiskCacheStrategy.ALL)
-                                .placeholder(R.drawable.default_exercise_demo)
-                                .error(R.drawable.default_exercise_demo)
-                                .centerCrop()) // Fit nicely in the card
-                        .into(gifView);
-
-                gifView.setVisibility(View.VISIBLE);
-                android.util.Log.d("GIF_DEBUG", "✅ Animated GIF loaded successfully!");
-            } else {
-                // GIF doesn't exist, try alternative approaches
-                android.util.Log.w("GIF_DEBUG", "❌ GIF not found: " + gifName);
-
-                // Try without "gif_" prefix
-                String alternativeGifName = gifName.replace("gif_", "");
-                int altResourceId = getResources().getIdentifier(alternativeGifName, "drawable", getPackageName());
-
-                if (altResourceId != 0) {
-                    android.util.Log.d("GIF_DEBUG", "✅ Found alternative GIF: " + alternativeGifName);
-                    loadGifResource(gifView, altResourceId);
+        int gifResourceId = ExerciseMediaResolver.getInstance().resolve(exercise);
+
+        if (gifResourceId != ExerciseMediaResolver.NO_MEDIA) {
+            // GIF exists: poster frame now, animation when the card gets a playback slot
+            loadGifResource(gifView, gifResourceId);
+
+            // Tapping a still card plays it; tapping a playing card opens the details
+            gifView.setOnClickListener(v -> {
+                if (demoPlayback.isPlaying(gifView)) {
+                    showExerciseDetails(exercise);
                 } else {
-                    // Try common alternative names
-                    tryAlternativeGifNames(gifView, exercise.getName());
+                    demoPlayback.play(gifView);
                 }
-            }
+            });
         } else {
-            android.util.Log.d("GIF_DEBUG", "❌ No GIF name provided");
+            // Recycled card views may still be registered from a previous exercise
+            demoPlayback.unbind(gifView);
+            gifView.setOnClickListener(null);
+            gifView.setClickable(false);
             showGifPlaceholder(gifView, exercise);
         }
     }
 
     /**
-     * Try alternative GIF names for common variations
-     */
-    private void tryAlternativeGifNames(ImageView gifView, String exerciseName) {
-        // Common alternative naming patterns
-        String[] alternativePatterns = {
-                exerciseName.toLowerCase().replaceAll("[^a-z0-9]", ""), // Remove all special chars
-                exerciseName.toLowerCase().replaceAll("\\s+", "_"), // Simple underscore replacement
-                exerciseName.toLowerCase().replaceAll("[^a-z0-9\\s]", "").replaceAll("\\s+", "_"), // Your current pattern
-                "exercise_" + exerciseName.toLowerCase().replaceAll("\\s+", "_"),
-                "demo_" + exerciseName.toLowerCase().replaceAll("\\s+", "_")
-        };
-
-        for (String pattern : alternativePatterns) {
-            int resourceId = getResources().getIdentifier(pattern, "drawable", getPackageName());
-            if (resourceId != 0) {
-                android.util.Log.d("GIF_DEBUG", "✅ Found alternative pattern: " + pattern);
-                loadGifResource(gifView, resourceId);
-                return;
-            }
-        }
-
-        // If no alternatives found, show placeholder
-        android.util.Log.w("GIF_DEBUG", "❌ No alternative GIFs found for: " + exerciseName);
-        showGifPlaceholder(gifView, exerciseName);
-    }
-
-    /**
-     * Load GIF resource with Glide
+     * Register the card with the playback controller, which shows its poster frame
      */
     private void loadGifResource(ImageView gifView, int resourceId) {
-        Glide.with(this)
-                .asGif()
-                .load(resourceId)
-                .apply(new RequestOptions()
-                        .diskCacheStrategy(DiskCacheStrategy.ALL)
-                        .placeholder(R.drawable.default_exercise_demo)
-                        .error(R.drawable.default_exercise_demo)
-                        .centerCrop())
-                .into(gifView);
-
+        demoPlayback.bind(gifView, resourceId);
         gifView.setVisibility(View.VISIBLE);
+        gifView.setAlpha(1.0f);
     }
 
     /**
@@ -750,6 +603,34 @@ public class TutorialsActivity extends AppCompatActivity {
         overridePendingTransition(R.anim.slide_in_right, R.anim.slide_out_left);
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        demoPlayback.resume();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        demoPlayback.pause();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        demoPlayback.detach();
+        demoPlayback.clear();
+    }
+
+    /**
+     * Decoded card thumbnails are cheap to rebuild; give the memory back
+     */
+    @Override
+    public void onLowMemory() {
+        super.onLowMemory();
+        DemoMediaPipeline.getInstance(this).trimMemory();
+    }
+
     /**
      * Handle back button press
      */
@@ -765,49 +646,22 @@ public class TutorialsActivity extends AppCompatActivity {
 
     /**
      * Debug method to identify GIF mapping issues
-     * DISABLE THIS IN PRODUCTION by commenting out the call in onCreate()
+     * Lists catalog exercises that have no bundled demo animation
      */
     private void debugGifMappingIssues() {
-        android.util.Log.d("GIF_DEBUG", "=== DEBUGGING GIF MAPPING ISSUES ===");
-
-        // Test the problematic exercises specifically
-        String[] problematicExercises = {
-                "Marching in Place",
-                "Modified Planks",
-                "Wall Push-Ups",
-                "Chair Squats",
-                "Jumping Jacks",
-                "Burpees"
-        };
-
-        for (String exerciseName : problematicExercises) {
-            android.util.Log.d("GIF_DEBUG", "\n--- Testing: " + exerciseName + " ---");
-
-            // 1. Check what your current mapping generates
-            String currentGifName = getCorrectGifName(exerciseName);
-            android.util.Log.d("GIF_DEBUG", "Current mapping result: " + currentGifName);
-
-            // 2. Check if that resource exists
-            int resourceId = getResources().getIdentifier(currentGifName, "drawable", getPackageName());
-            android.util.Log.d("GIF_DEBUG", "Resource exists: " + (resourceId != 0) + " (ID: " + resourceId + ")");
-
-            // 3. Try alternative names
-            String[] alternatives = {
-                    exerciseName.toLowerCase().replaceAll("\\s+", "_"),
-                    exerciseName.toLowerCase().replaceAll("[^a-z0-9]", ""),
-                    "gif_" + exerciseName.toLowerCase().replaceAll("\\s+", "_"),
-                    "exercise_" + exerciseName.toLowerCase().replaceAll("\\s+", "_"),
-                    "demo_" + exerciseName.toLowerCase().replaceAll("\\s+", "_")
-            };
-
-            android.util.Log.d("GIF_DEBUG", "Trying alternatives:");
-            for (String alt : alternatives) {
-                int altId = getResources().getIdentifier(alt, "drawable", getPackageName());
-                android.util.Log.d("GIF_DEBUG", "  " + alt + ": " + (altId != 0 ? "✅ EXISTS" : "❌ missing"));
+        ExerciseMediaResolver resolver = ExerciseMediaResolver.getInstance();
+        int missing = 0;
+
+        for (List<Exercise> exercises : exercisesByDifficulty.values()) {
+            for (Exercise exercise : exercises) {
+                if (!resolver.hasMedia(exercise)) {
+                    missing++;
+                    android.util.Log.d("GIF_DEBUG", "No GIF for: " + exercise.getName() + " (" + exercise.getImageUrl() + ")");
+                }
             }
         }
 
-        android.util.Log.d("GIF_DEBUG", "=== END DEBUG ===");
+        android.util.Log.d("GIF_DEBUG", resolver.size() + " GIFs bundled, " + missing + " exercises without one");
     }
 
     /**
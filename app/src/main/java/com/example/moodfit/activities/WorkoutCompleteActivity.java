@@ -14,6 +14,7 @@ import com.example.moodfit.models.User;
 import com.example.moodfit.models.WorkoutSession;
 import com.example.moodfit.models.enums.MoodType;
 import com.example.moodfit.utils.DataManager;
+import com.example.moodfit.workout.WorkoutSessionEngine;
 
 /**
  * WorkoutCompleteActivity - Celebrates workout completion and shows summary
@@ -39,7 +40,7 @@ public class WorkoutCompleteActivity extends AppCompatActivity {
     private Button btnBackToHome;
     private Button btnShareAchievement;
 
-    // Workout Data - from intent
+    // Workout Data - from the session engine, or from intent
     private String sessionId;
     private MoodType workoutMood;
     private int totalExercises;
@@ -48,6 +49,10 @@ public class WorkoutCompleteActivity extends AppCompatActivity {
     private int exercisesCompleted;
     private int totalCaloriesBurned;
     private boolean wasSkipped;
+    private long workoutStartTime;
+
+    // The mood workout's own session (real timings and timeline), when there is one
+    private WorkoutSession engineSession;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -92,7 +97,10 @@ public class WorkoutCompleteActivity extends AppCompatActivity {
      */
     private void extractIntentData() {
         Intent intent = getIntent();
-        if (intent != null) {
+        WorkoutSessionEngine sessionEngine = WorkoutSessionEngine.getInstance();
+        if (intent != null && intent.getBooleanExtra("workout_session", false) && sessionEngine.isActive()) {
+            readSessionEngine(sessionEngine);
+        } else if (intent != null) {
             sessionId = intent.getStringExtra("session_id");
             String moodName = intent.getStringExtra("mood_type");
             if (moodName != null) {
@@ -112,6 +120,7 @@ public class WorkoutCompleteActivity extends AppCompatActivity {
             exercisesCompleted = intent.getIntExtra("exercises_completed", totalExercises);
             totalCaloriesBurned = intent.getIntExtra("calories_burned", calculateEstimatedCalories());
             wasSkipped = intent.getBooleanExtra("exercises_skipped", false);
+            workoutStartTime = intent.getLongExtra("workout_start_time", 0);
 
             android.util.Log.d(TAG, "🔥 WORKOUT COMPLETE - extracted exercisesCompleted: " + exercisesCompleted);
             android.util.Log.d(TAG, "🔥 WORKOUT COMPLETE - totalExercises: " + totalExercises);
@@ -119,6 +128,22 @@ public class WorkoutCompleteActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Results of the mood workout that just finished
+     */
+    private void readSessionEngine(WorkoutSessionEngine sessionEngine) {
+        engineSession = sessionEngine.getSession();
+        sessionId = engineSession.getSessionId();
+        workoutMood = sessionEngine.getMood();
+        totalExercises = sessionEngine.getExerciseCount();
+        estimatedDuration = sessionEngine.getEstimatedMinutes();
+
+        actualDuration = sessionEngine.getActualDurationMinutes();
+        exercisesCompleted = sessionEngine.getCompletedCount();
+        totalCaloriesBurned = sessionEngine.getCaloriesBurned();
+        wasSkipped = sessionEngine.hasSkippedExercises();
+    }
+
     /**
      * Calculate estimated calories if not provided
      */
@@ -189,6 +214,14 @@ public class WorkoutCompleteActivity extends AppCompatActivity {
      * Create WorkoutSession object from intent data
      */
     private WorkoutSession createWorkoutSession() {
+        // A mood workout recorded its own session, with real start/end times and its timeline
+        if (engineSession != null) {
+            engineSession.setCaloriesBurned(totalCaloriesBurned);
+            engineSession.setCompleted(exercisesCompleted > 0);
+            engineSession.setNotes(completionNotes());
+            return engineSession;
+        }
+
         // Get current user ID
         String userId = (currentUser != null) ? currentUser.getUserId() : "anonymous";
 
@@ -200,21 +233,24 @@ public class WorkoutCompleteActivity extends AppCompatActivity {
         session.setCaloriesBurned(totalCaloriesBurned);
         session.setCompleted(exercisesCompleted > 0);
 
-        // Set timing
+        // Set timing; the start is only estimated when the caller did not pass it
         long currentTime = System.currentTimeMillis();
         session.setEndTime(currentTime);
-        session.setStartTime(currentTime - (actualDuration * 60 * 1000L)); // Calculate start time
+        session.setStartTime(workoutStartTime > 0 ? workoutStartTime : currentTime - (actualDuration * 60 * 1000L));
 
         // Add notes about completion
-        if (wasSkipped) {
-            session.setNotes("Partial completion: " + exercisesCompleted + "/" + totalExercises + " exercises");
-        } else {
-            session.setNotes("Full completion: All " + totalExercises + " exercises completed");
-        }
+        session.setNotes(completionNotes());
 
         return session;
     }
 
+    private String completionNotes() {
+        if (wasSkipped) {
+            return "Partial completion: " + exercisesCompleted + "/" + totalExercises + " exercises";
+        }
+        return "Full completion: All " + totalExercises + " exercises completed";
+    }
+
     /**
      * Initialize all UI components
      */
@@ -600,4 +636,13 @@ public class WorkoutCompleteActivity extends AppCompatActivity {
     public void onBackPressed() {
         returnToHome();
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // Kept across rotation; the workout is over once this screen is left
+        if (isFinishing()) {
+            WorkoutSessionEngine.getInstance().end();
+        }
+    }
 }
\ No newline at end of file
@@ -1,11 +1,19 @@
 package com.example.moodfit.activities;
 
+import android.Manifest;
+import android.app.AlarmManager;
+import android.content.ComponentName;
 import android.content.Intent;
+import android.content.ServiceConnection;
+import android.content.pm.PackageManager;
 import android.graphics.Color;
-import android.media.MediaPlayer;
+import android.net.Uri;
+import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.IBinder;
 import android.os.Looper;
+import android.provider.Settings;
 import android.view.View;
 import android.widget.Button;
 import android.widget.Switch;
@@ -14,17 +22,25 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 
 import com.example.moodfit.R;
+import com.example.moodfit.models.Exercise;
 import com.example.moodfit.models.WorkoutTimer;
 import com.example.moodfit.models.WorkoutSession;
 import com.example.moodfit.models.enums.MoodType;
+import com.example.moodfit.timer.IntervalSchedule;
+import com.example.moodfit.timer.IntervalTimer;
+import com.example.moodfit.timer.TimerCheckpointStore;
+import com.example.moodfit.timer.WorkoutTimerService;
+import com.example.moodfit.views.CountdownView;
 import com.example.moodfit.utils.DataManager;
+import com.example.moodfit.utils.SharedPreferencesHelper;
+import com.example.moodfit.workout.WorkoutSessionEngine;
 
 /**
  * WorkoutTimerActivity - Comprehensive workout timer with customizable durations
  * Integrates with workout sessions and provides audio/visual feedback
  * FIXED: Duration sync with exercises and proper navigation flow
  */
-public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTimer.TimerListener {
+public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTimerService.Client {
 
     private static final String TAG = "WorkoutTimerActivity";
 
@@ -32,9 +48,15 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
     private static final int TIMER_30_SEC = 30;
     private static final int TIMER_60_SEC = 60;
 
+    private static final int REQUEST_NOTIFICATIONS = 2101;
+
     // Data Management
     private DataManager dataManager;
+    // Owned by WorkoutTimerService, which keeps it (and its cues) running with the screen off
+    private WorkoutTimerService timerService;
     private WorkoutTimer workoutTimer;
+    // Set for interval exercises (Tabata, EMOM, ...); one countdown covers the whole program
+    private IntervalSchedule intervalSchedule;
     private WorkoutSession currentSession;
 
     // UI Components - Timer Selection
@@ -43,8 +65,9 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
 
     // UI Components - Timer Display
     private CardView timerCard;
-    private TextView tvTimerDisplay;
+    private CountdownView countdownDisplay;
     private TextView tvExerciseNameTimer; // NEW: For showing exercise name
+    private TextView tvTimerStatus;
 
     // UI Components - Controls
     private Button btnStart;
@@ -52,6 +75,12 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
     private Button btnReset;
     private Switch switchSound;
 
+    // Card colors, resolved once; the card is only recolored when its phase changes
+    private int colorTimerBackground;
+    private int colorWarning;
+    private int colorError;
+    private int currentCardColor;
+
     // Current State
     private int selectedDuration = TIMER_30_SEC;
     private boolean soundEnabled = true;
@@ -66,11 +95,35 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
     private int estimatedDuration;
     private String exerciseName;
     private boolean isFromExerciseDemo = false;
+    private boolean inWorkoutSession = false;
+
+    // Continue the countdown the service (or its checkpoint) holds instead of starting over
+    private boolean resumeTimer = false;
+    private boolean screenVisible = false;
+
+    // The screen-off countdown needs its notification and exact alarms; asked before the first start
+    private boolean notificationsRequested = false;
+    private boolean startAfterSettings = false;
 
-    // Audio
-    private MediaPlayer completionSound;
     private Handler uiHandler;
 
+    private final ServiceConnection timerConnection = new ServiceConnection() {
+        @Override
+        public void onServiceConnected(ComponentName name, IBinder binder) {
+            timerService = ((WorkoutTimerService.LocalBinder) binder).getService();
+            timerService.setClient(WorkoutTimerActivity.this);
+            timerService.setSoundEnabled(soundEnabled);
+            timerService.setScreenIntent(new Intent(getIntent()).putExtra("resume_timer", true));
+            initializeTimer(resumeTimer);
+            timerService.setScreenVisible(screenVisible);
+        }
+
+        @Override
+        public void onServiceDisconnected(ComponentName name) {
+            timerService = null;
+        }
+    };
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -88,11 +141,11 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
         // Setup event listeners
         setupEventListeners();
 
-        // Initialize timer - UPDATED to use exercise duration
-        initializeTimer();
+        // Recreated (rotation or process death), or a resumed workout: continue the timer that was running
+        resumeTimer = savedInstanceState != null || getIntent().getBooleanExtra("resume_timer", false);
 
-        // Setup audio
-        setupAudio();
+        // Timer and audio cues live in the service; the timer is set up once it is connected
+        bindService(new Intent(this, WorkoutTimerService.class), timerConnection, BIND_AUTO_CREATE);
 
         // Initialize UI state
         updateTimerDisplay();
@@ -113,24 +166,39 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
     private void extractIntentData() {
         Intent intent = getIntent();
         if (intent != null) {
-            // Get mood type if passed from MoodWorkoutActivity
-            String moodName = intent.getStringExtra("mood_type");
-            if (moodName != null) {
-                try {
-                    workoutMood = MoodType.valueOf(moodName);
-                } catch (IllegalArgumentException e) {
-                    workoutMood = null;
+            int exerciseDuration;
+            WorkoutSessionEngine sessionEngine = WorkoutSessionEngine.getInstance();
+
+            if (intent.getBooleanExtra("workout_session", false) && sessionEngine.resumeFromJournal(this)) {
+                // Mood workout: time the session engine's current exercise
+                Exercise exercise = sessionEngine.getCurrentExercise();
+                workoutMood = sessionEngine.getMood();
+                sessionId = sessionEngine.getSession().getSessionId();
+                estimatedDuration = sessionEngine.getEstimatedMinutes();
+                exerciseName = exercise.getName();
+                exerciseDuration = exercise.getEstimatedDurationMinutes();
+                isFromExerciseDemo = true;
+                inWorkoutSession = true;
+            } else {
+                // Get mood type if passed from MoodWorkoutActivity
+                String moodName = intent.getStringExtra("mood_type");
+                if (moodName != null) {
+                    try {
+                        workoutMood = MoodType.valueOf(moodName);
+                    } catch (IllegalArgumentException e) {
+                        workoutMood = null;
+                    }
                 }
-            }
 
-            // Get session ID and estimated duration
-            sessionId = intent.getStringExtra("session_id");
-            estimatedDuration = intent.getIntExtra("estimated_duration", 30);
+                // Get session ID and estimated duration
+                sessionId = intent.getStringExtra("session_id");
+                estimatedDuration = intent.getIntExtra("estimated_duration", 30);
 
-            // NEW: Get exercise-specific data
-            exerciseName = intent.getStringExtra("exercise_name");
-            int exerciseDuration = intent.getIntExtra("exercise_duration", 0);
-            isFromExerciseDemo = intent.getBooleanExtra("single_exercise_mode", false);
+                // NEW: Get exercise-specific data
+                exerciseName = intent.getStringExtra("exercise_name");
+                exerciseDuration = intent.getIntExtra("exercise_duration", 0);
+                isFromExerciseDemo = intent.getBooleanExtra("single_exercise_mode", false);
+            }
 
             // Use exercise duration if available
             if (exerciseDuration > 0) {
@@ -141,6 +209,13 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
                     showExerciseTimerMode();
                 }
             }
+
+            // Interval exercises run their real program length instead of the estimate
+            intervalSchedule = IntervalSchedule.forExercise(exerciseName);
+            if (intervalSchedule != null) {
+                selectedDuration = intervalSchedule.getTotalSeconds();
+                showIntervalPreview();
+            }
         }
 
         // Record session start time
@@ -157,7 +232,13 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
 
         // Timer display
         timerCard = findViewById(R.id.timer_card);
-        tvTimerDisplay = findViewById(R.id.tv_timer_display);
+        countdownDisplay = findViewById(R.id.countdown_display);
+        tvTimerStatus = findViewById(R.id.tv_timer_status);
+
+        colorTimerBackground = getResources().getColor(R.color.timer_background);
+        colorWarning = getResources().getColor(R.color.warning);
+        colorError = getResources().getColor(R.color.error);
+        currentCardColor = colorTimerBackground;
 
         // NEW: Exercise name display (may be null if not in layout)
         tvExerciseNameTimer = findViewById(R.id.tv_exercise_name_timer);
@@ -191,29 +272,39 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
         // Sound toggle
         switchSound.setOnCheckedChangeListener((buttonView, isChecked) -> {
             soundEnabled = isChecked;
+            if (timerService != null) {
+                timerService.setSoundEnabled(isChecked);
+            }
         });
     }
 
     /**
-     * Initialize the workout timer - UPDATED to use exercise duration
+     * Get the workout timer from the service - UPDATED to use exercise duration
+     * With resume, the countdown that was running (held by the service, or its checkpoint after
+     * process death) is continued; remaining time is derived, not replayed.
      */
-    private void initializeTimer() {
-        workoutTimer = new WorkoutTimer(selectedDuration);
-        workoutTimer.setListener(this);
-    }
+    private void initializeTimer(boolean resume) {
+        workoutTimer = timerService.load(selectedDuration, intervalSchedule, exerciseName, resume);
+        selectedDuration = workoutTimer.getTotalSeconds();
+        countdownDisplay.setRingSource(workoutTimer);
+        countdownDisplay.setRingAnimating(workoutTimer.getState() == WorkoutTimer.State.RUNNING);
 
-    /**
-     * Setup audio components
-     */
-    private void setupAudio() {
-        try {
-            // Use system notification sound for completion
-            completionSound = MediaPlayer.create(this, android.provider.Settings.System.DEFAULT_NOTIFICATION_URI);
-            if (completionSound != null) {
-                completionSound.setLooping(false);
-            }
-        } catch (Exception e) {
-            android.util.Log.w(TAG, "Could not initialize completion sound", e);
+        isTimerRunning = workoutTimer.isRunning();
+        isTimerPaused = workoutTimer.isPaused();
+        btnPause.setText(isTimerPaused ? "Resume" : "Pause");
+
+        IntervalTimer intervalTimer = timerService.getIntervalTimer();
+        if (intervalTimer != null && isTimerRunning && intervalTimer.getCurrentSegmentIndex() >= 0) {
+            showSegmentStatus(intervalTimer.getCurrentSegmentIndex());
+        }
+
+        updateTimerSelectionButtons();
+        updateTimerDisplay();
+        updateControlButtonStates();
+
+        if (workoutTimer.getState() == WorkoutTimer.State.FINISHED) {
+            // Ran out while the screen was gone
+            onTimerFinished();
         }
     }
 
@@ -255,8 +346,8 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
                 tvExerciseNameTimer.setText(exerciseName);
                 tvExerciseNameTimer.setVisibility(View.VISIBLE);
             } else {
-                // Create dynamically if not in layout - but only if tvTimerDisplay exists
-                if (tvTimerDisplay == null) {
+                // Create dynamically if not in layout - but only if countdownDisplay exists
+                if (countdownDisplay == null) {
                     android.util.Log.w(TAG, "Timer display not initialized yet, skipping exercise name display");
                     return;
                 }
@@ -270,9 +361,9 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
                 exerciseNameView.setBackground(getResources().getDrawable(R.drawable.secondary_button_background));
 
                 // Add above timer display
-                android.view.ViewGroup parent = (android.view.ViewGroup) tvTimerDisplay.getParent();
+                android.view.ViewGroup parent = (android.view.ViewGroup) countdownDisplay.getParent();
                 if (parent instanceof android.widget.LinearLayout) {
-                    int timerIndex = ((android.widget.LinearLayout) parent).indexOfChild(tvTimerDisplay);
+                    int timerIndex = ((android.widget.LinearLayout) parent).indexOfChild(countdownDisplay);
                     parent.addView(exerciseNameView, timerIndex);
                 }
             }
@@ -292,7 +383,9 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
 
         // Reset and reinitialize timer with new duration
         resetTimer();
-        initializeTimer();
+        if (timerService != null) {
+            initializeTimer(false);
+        }
 
         // Update UI
         updateTimerSelectionButtons();
@@ -362,13 +455,20 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
      * Start the workout timer
      */
     private void startTimer() {
-        if (workoutTimer != null) {
-            workoutTimer.start();
+        if (requestBackgroundTimerPermissions()) {
+            // Started once the user has answered
+            return;
+        }
+        if (timerService != null && workoutTimer != null) {
+            // Second-boundary updates while visible, alarms at the cues while not
+            timerService.start();
+            if (inWorkoutSession) {
+                WorkoutSessionEngine.getInstance().beginCurrentExercise();
+            }
             isTimerRunning = true;
             isTimerPaused = false;
 
-            // Start UI update loop
-            startTimerLoop();
+            countdownDisplay.setRingAnimating(true);
 
             // Update button states
             updateControlButtonStates();
@@ -378,17 +478,78 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
         }
     }
 
+    /**
+     * Ask for what keeps the countdown on time with the screen off: the notification (API 33+)
+     * and exact alarms (API 31+), without which cues drift while the device dozes.
+     * Returns true while a prompt is showing; the timer starts when it is answered either way.
+     */
+    private boolean requestBackgroundTimerPermissions() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU && !notificationsRequested
+                && checkSelfPermission(Manifest.permission.POST_NOTIFICATIONS) != PackageManager.PERMISSION_GRANTED) {
+            notificationsRequested = true;
+            requestPermissions(new String[]{Manifest.permission.POST_NOTIFICATIONS}, REQUEST_NOTIFICATIONS);
+            return true;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+            AlarmManager alarmManager = getSystemService(AlarmManager.class);
+            SharedPreferencesHelper prefsHelper = new SharedPreferencesHelper(this);
+            if (alarmManager != null && !alarmManager.canScheduleExactAlarms()
+                    && !prefsHelper.hasAskedForExactAlarms()) {
+                prefsHelper.setAskedForExactAlarms();
+                showExactAlarmDialog();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Explain the exact-alarm setting before opening it
+     */
+    private void showExactAlarmDialog() {
+        new androidx.appcompat.app.AlertDialog.Builder(this)
+                .setTitle("Keep cues on time?")
+                .setMessage("With the screen off, interval cues can arrive late unless MoodFit may set exact alarms.")
+                .setPositiveButton("Allow", (dialog, which) -> {
+                    // Started from onResume when the user comes back from settings
+                    startAfterSettings = true;
+                    startActivity(new Intent(Settings.ACTION_REQUEST_SCHEDULE_EXACT_ALARM,
+                            Uri.fromParts("package", getPackageName(), null)));
+                })
+                .setNegativeButton("Not Now", (dialog, which) -> startTimer())
+                .setCancelable(false) // Force user to choose
+                .show();
+    }
+
+    @Override
+    public void onRequestPermissionsResult(int requestCode, String[] permissions, int[] grantResults) {
+        super.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        if (requestCode == REQUEST_NOTIFICATIONS) {
+            // Without the notification the countdown still runs, just without it
+            startTimer();
+        }
+    }
+
     /**
      * Pause or resume the timer
      */
     private void pauseResumeTimer() {
-        if (workoutTimer != null) {
+        if (timerService != null && workoutTimer != null) {
             if (isTimerPaused) {
-                workoutTimer.resume();
+                timerService.resume();
+                if (inWorkoutSession) {
+                    WorkoutSessionEngine.getInstance().resumeCurrentExercise();
+                }
+                countdownDisplay.setRingAnimating(true);
                 isTimerPaused = false;
                 btnPause.setText("Pause");
             } else {
-                workoutTimer.pause();
+                timerService.pause();
+                if (inWorkoutSession) {
+                    WorkoutSessionEngine.getInstance().pauseCurrentExercise();
+                }
+                countdownDisplay.setRingAnimating(false);
                 isTimerPaused = true;
                 btnPause.setText("Resume");
             }
@@ -401,14 +562,20 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
      * Reset the timer to initial state
      */
     private void resetTimer() {
-        if (workoutTimer != null) {
-            workoutTimer.reset();
+        if (timerService != null && workoutTimer != null) {
+            timerService.reset();
         }
+        cancelExerciseAttempt();
+        countdownDisplay.setRingAnimating(false);
 
         isTimerRunning = false;
         isTimerPaused = false;
         btnPause.setText("Pause");
 
+        if (intervalSchedule != null) {
+            showIntervalPreview();
+        }
+
         // Update UI
         updateTimerDisplay();
         updateControlButtonStates();
@@ -416,14 +583,12 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
     }
 
     /**
-     * Start the timer update loop
+     * The one place a workout exercise's cancel is recorded; the engine ignores it when no attempt is
+     * open (never started, already ended by the timer running out, or already cancelled)
      */
-    private void startTimerLoop() {
-        if (isTimerRunning && !isTimerPaused) {
-            workoutTimer.tick();
-
-            // Schedule next update
-            uiHandler.postDelayed(this::startTimerLoop, 100); // Update every 100ms for smooth display
+    private void cancelExerciseAttempt() {
+        if (inWorkoutSession) {
+            WorkoutSessionEngine.getInstance().cancelCurrentExercise();
         }
     }
 
@@ -432,10 +597,13 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
      */
     private void updateTimerDisplay() {
         if (workoutTimer != null) {
-            tvTimerDisplay.setText(workoutTimer.getFormattedTime());
+            countdownDisplay.setTime(workoutTimer.getRemainingSeconds());
 
             // Update timer card color based on progress
             updateTimerCardProgress();
+        } else {
+            // Until the timer service is connected
+            countdownDisplay.setTime(selectedDuration);
         }
     }
 
@@ -445,26 +613,25 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
     private void updateTimerCardProgress() {
         if (workoutTimer == null) return;
 
-        float progress = workoutTimer.getProgress();
         int remainingSeconds = workoutTimer.getRemainingSeconds();
 
         // Change color as timer progresses
         int cardColor;
         if (remainingSeconds <= 5 && isTimerRunning) {
             // Final countdown - red
-            cardColor = getResources().getColor(R.color.error);
+            cardColor = colorError;
         } else if (remainingSeconds <= 10 && isTimerRunning) {
             // Warning phase - orange
-            cardColor = getResources().getColor(R.color.warning);
-        } else if (isTimerRunning) {
-            // Active phase - primary color
-            cardColor = getResources().getColor(R.color.timer_background);
+            cardColor = colorWarning;
         } else {
-            // Inactive phase - default
-            cardColor = getResources().getColor(R.color.timer_background);
+            // Active or inactive phase - default
+            cardColor = colorTimerBackground;
         }
 
-        timerCard.setCardBackgroundColor(cardColor);
+        if (cardColor != currentCardColor) {
+            currentCardColor = cardColor;
+            timerCard.setCardBackgroundColor(cardColor);
+        }
 
         // Pulse effect for final countdown
         if (remainingSeconds <= 3 && remainingSeconds > 0 && isTimerRunning) {
@@ -539,22 +706,29 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
      * Reset timer card appearance
      */
     private void resetTimerCardAppearance() {
-        timerCard.setCardBackgroundColor(getResources().getColor(R.color.timer_background));
+        currentCardColor = colorTimerBackground;
+        timerCard.setCardBackgroundColor(colorTimerBackground);
         timerCard.setScaleX(1.0f);
         timerCard.setScaleY(1.0f);
     }
 
-    // ==================== WorkoutTimer.TimerListener Implementation ====================
+    // ==================== WorkoutTimerService.Client Implementation ====================
 
     @Override
-    public void onTick(int remainingSeconds) {
-        uiHandler.post(this::updateTimerDisplay);
+    public void onTimerTick(int remainingSeconds) {
+        // Called by the service on the main thread, once per displayed second while visible;
+        // the countdown cues are played there
+        updateTimerDisplay();
     }
 
     @Override
-    public void onFinish() {
+    public void onTimerFinished() {
         uiHandler.post(() -> {
-            // Timer completed
+            // Timer completed; the service already played the completion cue and vibration
+            if (inWorkoutSession) {
+                // The exercise is done when its timer runs out, whichever option is picked below
+                WorkoutSessionEngine.getInstance().completeCurrentExercise();
+            }
             isTimerRunning = false;
             isTimerPaused = false;
             completedCycles++;
@@ -562,9 +736,6 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
 
             android.util.Log.d(TAG, "🔥 TIMER FINISHED - completedCycles: " + completedCycles);
 
-            // Play completion sound
-            playCompletionSound();
-
             // Show completion feedback with options - NEW
             showTimerCompletionDialog();
 
@@ -577,63 +748,40 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
         });
     }
 
-    @Override
-    public void onTimerStart() {
-        // Timer started - already handled in startTimer()
-    }
+    // ==================== Interval Programs ====================
 
+    /**
+     * Segment changes and completion of an interval program; their cues are played by the service
+     */
     @Override
-    public void onTimerPause() {
-        // Timer paused - already handled in pauseResumeTimer()
+    public void onIntervalEvent(IntervalTimer.EventType type, int segmentIndex, int secondsLeft) {
+        switch (type) {
+            case SEGMENT_STARTED:
+                showSegmentStatus(segmentIndex);
+                break;
+            case COUNTDOWN:
+                break;
+            case FINISHED:
+                setTimerStatus("All " + intervalSchedule.getRounds() + " rounds done");
+                break;
+        }
     }
 
-    @Override
-    public void onTimerResume() {
-        // Timer resumed - already handled in pauseResumeTimer()
-        uiHandler.post(() -> startTimerLoop());
+    private void showSegmentStatus(int segmentIndex) {
+        IntervalSchedule.Segment segment = intervalSchedule.getSegment(segmentIndex);
+        setTimerStatus("Round " + segment.round + "/" + intervalSchedule.getRounds() + " · " + segment.label);
     }
 
-    // ==================== Audio and Haptic Feedback ====================
-
     /**
-     * Play completion sound if enabled
+     * Show the program's shape before it starts
      */
-    private void playCompletionSound() {
-        if (soundEnabled && completionSound != null) {
-            try {
-                if (completionSound.isPlaying()) {
-                    completionSound.stop();
-                    completionSound.prepare();
-                }
-                completionSound.start();
-            } catch (Exception e) {
-                android.util.Log.w(TAG, "Could not play completion sound", e);
-            }
-        }
-
-        // Haptic feedback
-        performHapticFeedback();
+    private void showIntervalPreview() {
+        setTimerStatus(intervalSchedule.getRounds() + " rounds · " + intervalSchedule.getSegmentCount() + " intervals");
     }
 
-    /**
-     * Provide haptic feedback
-     */
-    private void performHapticFeedback() {
-        try {
-            android.os.Vibrator vibrator = (android.os.Vibrator) getSystemService(VIBRATOR_SERVICE);
-            if (vibrator != null && vibrator.hasVibrator()) {
-                if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.O) {
-                    // Create a pattern: short-long-short vibration
-                    long[] pattern = {0, 100, 100, 200, 100, 100};
-                    int[] amplitudes = {0, 255, 0, 255, 0, 255};
-                    vibrator.vibrate(android.os.VibrationEffect.createWaveform(pattern, amplitudes, -1));
-                } else {
-                    long[] pattern = {0, 100, 100, 200, 100, 100};
-                    vibrator.vibrate(pattern, -1);
-                }
-            }
-        } catch (Exception e) {
-            android.util.Log.w(TAG, "Haptic feedback failed", e);
+    private void setTimerStatus(String status) {
+        if (tvTimerStatus != null) {
+            tvTimerStatus.setText(status);
         }
     }
 
@@ -706,6 +854,8 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
      * NEW: Return to exercise demo screen
      */
     private void returnToExerciseDemo() {
+        cancelExerciseAttempt();
+
         // Calculate time spent
         long totalTime = System.currentTimeMillis() - sessionStartTime;
         int actualDurationMinutes = (int) (totalTime / (1000 * 60));
@@ -767,7 +917,12 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
     @Override
     protected void onPause() {
         super.onPause();
-        // Timer continues running in background
+
+        // Nothing ticks in the background; the service wakes up for the next cue only
+        screenVisible = false;
+        if (timerService != null) {
+            timerService.setScreenVisible(false);
+        }
     }
 
     /**
@@ -777,9 +932,16 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
     protected void onResume() {
         super.onResume();
 
-        // Resume UI updates if timer is running
-        if (isTimerRunning && !isTimerPaused) {
-            startTimerLoop();
+        // Resume UI updates if timer is running; the remaining time catches up in the first tick
+        screenVisible = true;
+        if (timerService != null) {
+            timerService.setScreenVisible(true);
+        }
+
+        // Back from the exact-alarm setting, granted or not
+        if (startAfterSettings) {
+            startAfterSettings = false;
+            startTimer();
         }
 
         // Update display
@@ -793,20 +955,21 @@ public class WorkoutTimerActivity extends AppCompatActivity implements WorkoutTi
     protected void onDestroy() {
         super.onDestroy();
 
-        // Clean up timer
-        if (workoutTimer != null) {
-            workoutTimer.stop();
-        }
-
-        // Clean up audio
-        if (completionSound != null) {
-            completionSound.release();
-            completionSound = null;
+        // Keep the countdown and its checkpoint unless the user actually left the screen
+        if (timerService != null) {
+            timerService.setClient(null);
+            if (isFinishing()) {
+                timerService.discard();
+            }
+            timerService = null;
+        } else if (isFinishing()) {
+            new TimerCheckpointStore(this).clear();
         }
+        unbindService(timerConnection);
 
         // Clean up handler
         if (uiHandler != null) {
             uiHandler.removeCallbacksAndMessages(null);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,302 @@
+package com.example.moodfit.adapters;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.cardview.widget.CardView;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.moodfit.R;
+import com.example.moodfit.models.Exercise;
+import com.example.moodfit.models.enums.DifficultyLevel;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TutorialListAdapter - Exercise library rows: intro card, difficulty section headers and exercise cards
+ * Rows are diffed by key, so expanding or collapsing a section only inserts or removes that
+ * section's cards and rotates its chevron. Views are recycled; media loading is left to the Listener.
+ */
+public class TutorialListAdapter extends ListAdapter<TutorialListAdapter.Row, RecyclerView.ViewHolder> {
+
+    /**
+     * Row interactions and media binding, implemented by the hosting screen
+     */
+    public interface Listener {
+        void onSectionClicked(DifficultyLevel difficulty, View header);
+        void onExerciseClicked(Exercise exercise);
+        void onBindExerciseMedia(ImageView mediaView, Exercise exercise);
+        void onRecycleExerciseMedia(ImageView mediaView);
+    }
+
+    private static final int TYPE_INTRO = 0;
+    private static final int TYPE_SECTION_HEADER = 1;
+    private static final int TYPE_EXERCISE = 2;
+
+    // Partial rebind when only a section's expanded state changed
+    private static final Object PAYLOAD_EXPANSION = new Object();
+
+    private static final int CARD_SIDE_MARGIN_DP = 8;
+    private static final int CARD_BOTTOM_MARGIN_DP = 16;
+
+    private final Listener listener;
+
+    // Row key -> stable ID, assigned in first-seen order so IDs never collide
+    private final Map<String, Long> stableIds = new HashMap<>();
+
+    // ==================== ROWS ====================
+
+    /**
+     * One list row; immutable so DiffUtil can compare old and new lists safely
+     */
+    public static final class Row {
+        final int type;
+        final String key;
+        final DifficultyLevel difficulty;
+        final boolean expanded;
+        final Exercise exercise;
+
+        private Row(int type, String key, DifficultyLevel difficulty, boolean expanded, Exercise exercise) {
+            this.type = type;
+            this.key = key;
+            this.difficulty = difficulty;
+            this.expanded = expanded;
+            this.exercise = exercise;
+        }
+
+        public static Row intro() {
+            return new Row(TYPE_INTRO, "intro", null, false, null);
+        }
+
+        public static Row sectionHeader(DifficultyLevel difficulty, boolean expanded) {
+            return new Row(TYPE_SECTION_HEADER, "section:" + difficulty.name(), difficulty, expanded, null);
+        }
+
+        public static Row exercise(Exercise exercise) {
+            return new Row(TYPE_EXERCISE, "exercise:" + exercise.getExerciseId(),
+                    exercise.getDifficulty(), false, exercise);
+        }
+    }
+
+    private static final DiffUtil.ItemCallback<Row> DIFF_CALLBACK = new DiffUtil.ItemCallback<Row>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Row oldRow, @NonNull Row newRow) {
+            return oldRow.key.equals(newRow.key);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Row oldRow, @NonNull Row newRow) {
+            // Catalog exercises are not edited in place, so identity means unchanged
+            return oldRow.expanded == newRow.expanded && oldRow.exercise == newRow.exercise;
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull Row oldRow, @NonNull Row newRow) {
+            return oldRow.exercise == newRow.exercise ? PAYLOAD_EXPANSION : null;
+        }
+    };
+
+    public TutorialListAdapter(Listener listener) {
+        super(DIFF_CALLBACK);
+        this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return getItem(position).type;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String key = getItem(position).key;
+        Long id = stableIds.get(key);
+        if (id == null) {
+            id = (long) stableIds.size();
+            stableIds.put(key, id);
+        }
+        return id;
+    }
+
+    // ==================== VIEW HOLDERS ====================
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        LayoutInflater inflater = LayoutInflater.from(parent.getContext());
+        switch (viewType) {
+            case TYPE_INTRO:
+                return new IntroViewHolder(inflater.inflate(R.layout.item_tutorial_intro, parent, false));
+            case TYPE_SECTION_HEADER:
+                return new SectionHeaderViewHolder(
+                        inflater.inflate(R.layout.item_tutorial_section_header, parent, false));
+            default:
+                View card = inflater.inflate(R.layout.item_exercise_card, parent, false);
+                applyCardMargins(card);
+                return new ExerciseViewHolder(card);
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        Row row = getItem(position);
+        if (holder instanceof SectionHeaderViewHolder) {
+            ((SectionHeaderViewHolder) holder).bind(row);
+        } else if (holder instanceof ExerciseViewHolder) {
+            ((ExerciseViewHolder) holder).bind(row.exercise);
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        if (holder instanceof SectionHeaderViewHolder && payloads.contains(PAYLOAD_EXPANSION)) {
+            ((SectionHeaderViewHolder) holder).bindExpanded(getItem(position).expanded);
+            return;
+        }
+        onBindViewHolder(holder, position);
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull RecyclerView.ViewHolder holder) {
+        super.onViewRecycled(holder);
+        if (holder instanceof ExerciseViewHolder) {
+            ImageView mediaView = ((ExerciseViewHolder) holder).ivExerciseGif;
+            if (mediaView != null) {
+                listener.onRecycleExerciseMedia(mediaView);
+            }
+        }
+    }
+
+    private static void applyCardMargins(View card) {
+        float density = card.getResources().getDisplayMetrics().density;
+        RecyclerView.LayoutParams params = new RecyclerView.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+        int side = Math.round(CARD_SIDE_MARGIN_DP * density);
+        params.setMargins(side, 0, side, Math.round(CARD_BOTTOM_MARGIN_DP * density));
+        card.setLayoutParams(params);
+    }
+
+    static final class IntroViewHolder extends RecyclerView.ViewHolder {
+        IntroViewHolder(View itemView) {
+            super(itemView);
+        }
+    }
+
+    final class SectionHeaderViewHolder extends RecyclerView.ViewHolder {
+        private final CardView card;
+        private final ImageView ivIcon;
+        private final TextView tvTitle;
+        private final TextView tvSubtitle;
+        private final ImageView ivChevron;
+        private DifficultyLevel difficulty;
+
+        SectionHeaderViewHolder(View itemView) {
+            super(itemView);
+            card = (CardView) itemView;
+            ivIcon = itemView.findViewById(R.id.iv_section_icon);
+            tvTitle = itemView.findViewById(R.id.tv_section_title);
+            tvSubtitle = itemView.findViewById(R.id.tv_section_subtitle);
+            ivChevron = itemView.findViewById(R.id.iv_section_chevron);
+
+            itemView.setOnClickListener(v -> {
+                if (difficulty != null) {
+                    listener.onSectionClicked(difficulty, itemView);
+                }
+            });
+        }
+
+        void bind(Row row) {
+            difficulty = row.difficulty;
+            Context context = itemView.getContext();
+
+            switch (row.difficulty) {
+                case BEGINNER:
+                    bindStyle(context, R.drawable.ic_beginner, R.color.success,
+                            "Perfect for starting your fitness journey");
+                    break;
+                case INTERMEDIATE:
+                    bindStyle(context, R.drawable.ic_intermediate, R.color.warning,
+                            "Ready to challenge yourself further");
+                    break;
+                case ADVANCED:
+                    bindStyle(context, R.drawable.ic_advanced, R.color.error,
+                            "For experienced athletes seeking mastery");
+                    break;
+            }
+            tvTitle.setText(row.difficulty.getDisplayName() + " Level");
+            bindExpanded(row.expanded);
+        }
+
+        private void bindStyle(Context context, int iconRes, int colorRes, String subtitle) {
+            ivIcon.setImageResource(iconRes);
+            card.setCardBackgroundColor(ContextCompat.getColor(context, colorRes));
+            tvSubtitle.setText(subtitle);
+        }
+
+        void bindExpanded(boolean expanded) {
+            ivChevron.setRotation(expanded ? 90f : 0f);
+        }
+    }
+
+    final class ExerciseViewHolder extends RecyclerView.ViewHolder {
+        private final TextView tvExerciseName;
+        private final TextView tvExerciseDescription;
+        private final TextView tvExerciseDuration;
+        private final TextView tvExerciseCalories;
+        private final TextView tvExerciseCategory;
+        private final ImageView ivExerciseGif;
+        private Exercise exercise;
+
+        ExerciseViewHolder(View itemView) {
+            super(itemView);
+            tvExerciseName = itemView.findViewById(R.id.tv_exercise_name);
+            tvExerciseDescription = itemView.findViewById(R.id.tv_exercise_description);
+            tvExerciseDuration = itemView.findViewById(R.id.tv_exercise_duration);
+            tvExerciseCalories = itemView.findViewById(R.id.tv_exercise_calories);
+            tvExerciseCategory = itemView.findViewById(R.id.tv_exercise_category);
+            ivExerciseGif = itemView.findViewById(R.id.iv_exercise_gif);
+
+            itemView.setOnClickListener(v -> {
+                if (exercise != null) {
+                    listener.onExerciseClicked(exercise);
+                }
+            });
+        }
+
+        void bind(Exercise exercise) {
+            this.exercise = exercise;
+
+            // Set exercise data with null checks
+            if (tvExerciseName != null) {
+                tvExerciseName.setText(exercise.getName());
+            }
+            if (tvExerciseDescription != null) {
+                tvExerciseDescription.setText(exercise.getDescription());
+            }
+            if (tvExerciseDuration != null) {
+                tvExerciseDuration.setText(exercise.getEstimatedDurationMinutes() + " min");
+            }
+            if (tvExerciseCalories != null) {
+                tvExerciseCalories.setText("~" + exercise.getEstimatedCalories() + " cal");
+            }
+            if (tvExerciseCategory != null) {
+                tvExerciseCategory.setText(exercise.getCategory().getDisplayName());
+            }
+
+            if (ivExerciseGif != null) {
+                listener.onBindExerciseMedia(ivExerciseGif, exercise);
+            }
+        }
+    }
+}
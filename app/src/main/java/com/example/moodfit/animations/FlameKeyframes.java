@@ -0,0 +1,427 @@
+package com.example.moodfit.animations;
+
+import java.util.Random;
+
+/**
+ * FlameKeyframes - One loop of a streak tier's flame animation, sampled into a table
+ * Every effect of a tier (dance, flicker, sway, glow, micro-movements, bursts, ...) is evaluated
+ * once, at build time, into one float row per 20 ms of the loop. Periods are rounded so that each
+ * effect repeats a whole number of times per loop, which makes the loop seamless. Random details
+ * (micro-movement targets, burst times) are drawn from a fixed seed, so a table is built once per
+ * tier and process and then shared.
+ *
+ * At runtime a frame is a lookup and a linear blend between two rows.
+ *
+ * Main thread only.
+ */
+final class FlameKeyframes {
+
+    // Streak tiers
+    static final int TIER_NONE = 0;
+    static final int TIER_NEWBIE = 1;
+    static final int TIER_GROWING = 2;
+    static final int TIER_STRONG = 3;
+    static final int TIER_RAGING = 4;
+    static final int TIER_INFERNO = 5;
+    static final int TIER_LEGENDARY = 6;
+    private static final int TIER_COUNT = 7;
+
+    // Row layout; flame properties, then glow properties
+    static final int SCALE_X = 0;
+    static final int SCALE_Y = 1;
+    static final int ALPHA = 2;
+    static final int ROTATION = 3;
+    static final int ROTATION_Y = 4;
+    static final int TRANSLATION_X = 5;
+    static final int TRANSLATION_Y = 6;
+    static final int GLOW_ALPHA = 7;
+    static final int GLOW_SCALE = 8;
+    // Position in the color cycle, 0..1; not blended
+    static final int COLOR = 9;
+    static final int PROPERTY_COUNT = 10;
+
+    private static final int FRAME_MS = 20;
+
+    private static final FlameKeyframes[] CACHE = new FlameKeyframes[TIER_COUNT];
+
+    private final int cycleMillis;
+    private final int frameCount;
+    private final float[] table;
+    // Bit per property the tier animates; the others keep their styled value
+    private int animated;
+
+    static FlameKeyframes forTier(int tier) {
+        FlameKeyframes keyframes = CACHE[tier];
+        if (keyframes == null) {
+            keyframes = build(tier);
+            CACHE[tier] = keyframes;
+        }
+        return keyframes;
+    }
+
+    private FlameKeyframes(int cycleMillis) {
+        this.cycleMillis = cycleMillis;
+        this.frameCount = cycleMillis / FRAME_MS;
+        this.table = new float[frameCount * PROPERTY_COUNT];
+
+        for (int frame = 0; frame < frameCount; frame++) {
+            int row = frame * PROPERTY_COUNT;
+            table[row + SCALE_X] = 1f;
+            table[row + SCALE_Y] = 1f;
+            table[row + ALPHA] = 1f;
+            table[row + GLOW_SCALE] = 1f;
+        }
+    }
+
+    // ==================== PLAYBACK ====================
+
+    boolean animates(int property) {
+        return (animated & (1 << property)) != 0;
+    }
+
+    /**
+     * Property values at a time into the animation (any length; the loop repeats)
+     */
+    void sample(long timeMillis, float[] out) {
+        long loopTime = timeMillis % cycleMillis;
+        int frame = (int) (loopTime / FRAME_MS);
+        float blend = (loopTime - (long) frame * FRAME_MS) / (float) FRAME_MS;
+        int row = frame * PROPERTY_COUNT;
+        int nextRow = frame + 1 < frameCount ? row + PROPERTY_COUNT : 0;
+
+        for (int property = 0; property < PROPERTY_COUNT; property++) {
+            float from = table[row + property];
+            float to = table[nextRow + property];
+            if (property == ROTATION) {
+                // Whole turns are stored as a jump of 360; blend the short way round
+                if (to - from > 180f) to -= 360f;
+                else if (from - to > 180f) to += 360f;
+            } else if (property == COLOR) {
+                to = from;
+            }
+            out[property] = from + (to - from) * blend;
+        }
+    }
+
+    // ==================== TIERS ====================
+
+    private static FlameKeyframes build(int tier) {
+        Random random = new Random(0x464C414DL + tier);
+        FlameKeyframes k;
+
+        switch (tier) {
+            case TIER_NONE:
+                // No streak - gentle dormant breathing
+                k = new FlameKeyframes(6000);
+                k.pingPong(ALPHA, 3000, 0.3f, 0.5f, Curve.ACCELERATE_DECELERATE);
+                break;
+
+            case TIER_NEWBIE:
+                // Day 1 - gentle awakening flame
+                k = new FlameKeyframes(20000);
+                k.pingPong(SCALE_X, 2000, 1.0f, 1.08f, Curve.ACCELERATE_DECELERATE);
+                k.pingPong(SCALE_Y, 2000, 1.0f, 1.08f, Curve.ACCELERATE_DECELERATE);
+                k.pingPong(ALPHA, 2000, 0.7f, 0.9f, Curve.ACCELERATE_DECELERATE);
+                k.pingPong(GLOW_ALPHA, 2500, 0.2f, 0.4f, Curve.ACCELERATE_DECELERATE);
+                break;
+
+            case TIER_GROWING:
+                // Days 2-3 - growing flame with more movement
+                k = new FlameKeyframes(12000);
+                k.dance(1500, 1.0f, 1.12f, random);
+                k.flicker(800, 0.7f, 1.0f);
+                k.pingPong(GLOW_ALPHA, 2000, 0.3f, 0.5f, Curve.ACCELERATE_DECELERATE);
+                k.wander(500, 2f, random);
+                break;
+
+            case TIER_STRONG:
+                // Days 4-7 - strong flame with confident movement and occasional bursts
+                k = new FlameKeyframes(12000);
+                k.dance(1200, 1.0f, 1.18f, random);
+                k.flicker(600, 0.8f, 1.0f);
+                k.pingPong(ROTATION, 2000, -4f, 4f, Curve.ACCELERATE_DECELERATE);
+                k.pingPong(GLOW_ALPHA, 1800, 0.4f, 0.6f, Curve.ACCELERATE_DECELERATE);
+                k.wander(300, 3f, random);
+                k.intensityBursts(5000, random);
+                break;
+
+            case TIER_RAGING:
+                // Days 8-14 - raging flame with a heat wave
+                k = new FlameKeyframes(12000);
+                k.dance(1000, 0.95f, 1.25f, random);
+                k.flicker(400, 0.85f, 1.0f);
+                k.loop(ROTATION, 1500, -12f, 6f, -4f, 12f, -12f);
+                k.loop(GLOW_ALPHA, 1200, 0.3f, 0.7f, 0.4f, 0.8f, 0.3f);
+                k.wander(200, 4f, random);
+                k.intensityBursts(3000, random);
+                k.heatWave(2500);
+                break;
+
+            case TIER_INFERNO:
+                // Days 15-30 - inferno flame: spin, sway, dramatic glow and shimmer
+                k = new FlameKeyframes(12000);
+                k.dance(800, 0.9f, 1.3f, random);
+                k.flicker(300, 0.9f, 1.0f);
+                k.loop(ROTATION, 3600, 0f, 360f);
+                k.pingPong(ROTATION_Y, 1200, -10f, 10f, Curve.ACCELERATE_DECELERATE);
+                k.loop(GLOW_ALPHA, 1000, 0.2f, 0.9f, 0.1f, 0.8f, 0.2f);
+                k.loop(GLOW_SCALE, 1000, 1.0f, 1.3f, 0.9f, 1.2f, 1.0f);
+                k.wander(150, 5f, random);
+                k.intensityBursts(2000, random);
+                k.heatWave(2000);
+                k.shimmer(1800);
+                break;
+
+            default:
+                // 30+ days - legendary flame: everything, plus color shifts and explosive bursts
+                k = new FlameKeyframes(12000);
+                k.dance(600, 0.85f, 1.35f, random);
+                k.flicker(200, 0.95f, 1.0f);
+                k.sequence(ROTATION, Curve.OVERSHOOT, new float[] {0f, 120f, -60f, 360f}, new int[] {1000, 1000, 2000});
+                k.sequence(GLOW_ALPHA, Curve.ACCELERATE_DECELERATE, new float[] {0.2f, 0.9f, 0.3f, 1.0f}, new int[] {800, 400, 800});
+                k.wander(100, 6f, random);
+                k.intensityBursts(1500, random);
+                k.heatWave(1500);
+                k.shimmer(1200);
+                k.colorShift(3000);
+                k.explosiveBursts(8000, random);
+                break;
+        }
+
+        k.clamp(ALPHA, 0f, 1f);
+        k.clamp(GLOW_ALPHA, 0f, 1f);
+        return k;
+    }
+
+    // ==================== EFFECTS ====================
+
+    /**
+     * Organic scaling; X and Y run at slightly different, randomized periods and peaks
+     */
+    private void dance(int duration, float minScale, float maxScale, Random random) {
+        loop(SCALE_X, duration + (int) (random.nextFloat() * 400),
+                minScale, maxScale * (0.95f + random.nextFloat() * 0.1f), minScale);
+        loop(SCALE_Y, duration + (int) (random.nextFloat() * 300),
+                minScale, maxScale * (0.98f + random.nextFloat() * 0.04f), minScale);
+    }
+
+    private void flicker(int duration, float minAlpha, float maxAlpha) {
+        pingPong(ALPHA, duration, minAlpha, maxAlpha, Curve.FLICKER);
+    }
+
+    /**
+     * Micro-movements: glide to a new random offset every interval
+     */
+    private void wander(int interval, float maxOffset, Random random) {
+        int steps = repeats(interval);
+        float[] targetsX = new float[steps];
+        float[] targetsY = new float[steps];
+        for (int i = 0; i < steps; i++) {
+            targetsX[i] = (random.nextFloat() - 0.5f) * maxOffset;
+            targetsY[i] = (random.nextFloat() - 0.5f) * maxOffset;
+        }
+
+        for (int frame = 0; frame < frameCount; frame++) {
+            float position = frame * FRAME_MS * (float) steps / cycleMillis;
+            int step = (int) position;
+            int next = (step + 1) % steps;
+            float x = Curve.ACCELERATE_DECELERATE.at(position - step);
+            set(frame, TRANSLATION_X, targetsX[step] + (targetsX[next] - targetsX[step]) * x);
+            set(frame, TRANSLATION_Y, targetsY[step] + (targetsY[next] - targetsY[step]) * x);
+        }
+    }
+
+    /**
+     * Vertical heat shimmer on top of the dance
+     */
+    private void heatWave(int duration) {
+        int repeats = repeats(duration);
+        for (int frame = 0; frame < frameCount; frame++) {
+            float phase = phase(frame, repeats);
+            multiply(frame, SCALE_Y, 1f + 0.05f * (float) Math.sin(2 * Math.PI * 2 * phase));
+        }
+    }
+
+    private void shimmer(int duration) {
+        int repeats = repeats(duration);
+        for (int frame = 0; frame < frameCount; frame++) {
+            float phase = phase(frame, repeats);
+            multiply(frame, ALPHA, 0.95f + 0.05f * (float) Math.sin(2 * Math.PI * 3 * phase));
+        }
+    }
+
+    private void colorShift(int duration) {
+        int repeats = repeats(duration);
+        for (int frame = 0; frame < frameCount; frame++) {
+            set(frame, COLOR, phase(frame, repeats));
+        }
+    }
+
+    /**
+     * Brief swell to full brightness, every interval plus up to 2 s
+     */
+    private void intensityBursts(int interval, Random random) {
+        final int rise = 300;
+        final int fall = 400;
+        for (int start = random.nextInt(interval); start + rise + fall <= cycleMillis;
+                start += interval + random.nextInt(2000)) {
+            for (int frame = firstFrameAt(start); frame < (start + rise + fall) / FRAME_MS; frame++) {
+                float e = envelope(frame * FRAME_MS - start, rise, fall, Curve.OVERSHOOT, Curve.ACCELERATE_DECELERATE);
+                blendTo(frame, SCALE_X, 1.3f, e);
+                blendTo(frame, SCALE_Y, 1.3f, e);
+                blendTo(frame, ALPHA, 1.0f, Math.min(1f, e));
+            }
+        }
+    }
+
+    /**
+     * Flare with a full spin and a glow flash, every interval plus up to 5 s
+     */
+    private void explosiveBursts(int interval, Random random) {
+        final int rise = 200;
+        final int fall = 800;
+        final int glowFall = 600;
+        for (int start = random.nextInt(interval); start + rise + fall <= cycleMillis;
+                start += interval + random.nextInt(5000)) {
+            for (int frame = firstFrameAt(start); frame < (start + rise + fall) / FRAME_MS; frame++) {
+                int t = frame * FRAME_MS - start;
+                float e = envelope(t, rise, fall, Curve.OVERSHOOT, Curve.BOUNCE);
+                blendTo(frame, SCALE_X, 1.6f, e);
+                blendTo(frame, SCALE_Y, 1.6f, e);
+                blendTo(frame, ALPHA, 1.0f, Math.min(1f, e));
+                add(frame, ROTATION, 360f * Curve.ACCELERATE_DECELERATE.at(t / (float) (rise + fall)));
+
+                if (t < rise + glowFall) {
+                    float glow = envelope(t, rise, glowFall, Curve.ACCELERATE_DECELERATE, Curve.ACCELERATE_DECELERATE);
+                    blendTo(frame, GLOW_SCALE, 1.7f, glow);
+                    blendTo(frame, GLOW_ALPHA, 1.0f, glow);
+                }
+            }
+        }
+    }
+
+    // ==================== PRIMITIVES ====================
+
+    /**
+     * Back and forth between two values; one way takes halfPeriod
+     */
+    private void pingPong(int property, int halfPeriod, float from, float to, Curve curve) {
+        int repeats = repeats(halfPeriod * 2);
+        for (int frame = 0; frame < frameCount; frame++) {
+            float phase = phase(frame, repeats);
+            float x = phase < 0.5f ? phase * 2f : 2f - phase * 2f;
+            set(frame, property, from + (to - from) * curve.at(x));
+        }
+    }
+
+    /**
+     * Through evenly spaced values once per period, eased over the whole period
+     */
+    private void loop(int property, int period, float... values) {
+        int repeats = repeats(period);
+        int spans = values.length - 1;
+        for (int frame = 0; frame < frameCount; frame++) {
+            float position = Curve.ACCELERATE_DECELERATE.at(phase(frame, repeats)) * spans;
+            int span = Math.min((int) position, spans - 1);
+            set(frame, property, values[span] + (values[span + 1] - values[span]) * (position - span));
+        }
+    }
+
+    /**
+     * Through values with their own durations, each step eased with the curve
+     */
+    private void sequence(int property, Curve curve, float[] values, int[] durations) {
+        int total = 0;
+        for (int duration : durations) total += duration;
+
+        int repeats = repeats(total);
+        for (int frame = 0; frame < frameCount; frame++) {
+            float t = phase(frame, repeats) * total;
+            int step = 0;
+            while (step < durations.length - 1 && t >= durations[step]) {
+                t -= durations[step];
+                step++;
+            }
+            float x = curve.at(Math.min(1f, t / durations[step]));
+            set(frame, property, values[step] + (values[step + 1] - values[step]) * x);
+        }
+    }
+
+    /**
+     * 0 to 1 over rise, back to 0 over fall
+     */
+    private static float envelope(int t, int rise, int fall, Curve riseCurve, Curve fallCurve) {
+        if (t < rise) return riseCurve.at(t / (float) rise);
+        return 1f - fallCurve.at(Math.min(1f, (t - rise) / (float) fall));
+    }
+
+    private static int firstFrameAt(int millis) {
+        return (millis + FRAME_MS - 1) / FRAME_MS;
+    }
+
+    /**
+     * How often an effect with this nominal period repeats per loop
+     */
+    private int repeats(int period) {
+        return Math.max(1, Math.round(cycleMillis / (float) period));
+    }
+
+    private float phase(int frame, int repeats) {
+        return ((long) frame * FRAME_MS * repeats % cycleMillis) / (float) cycleMillis;
+    }
+
+    private void set(int frame, int property, float value) {
+        table[frame * PROPERTY_COUNT + property] = value;
+        animated |= 1 << property;
+    }
+
+    private void multiply(int frame, int property, float factor) {
+        set(frame, property, table[frame * PROPERTY_COUNT + property] * factor);
+    }
+
+    private void add(int frame, int property, float delta) {
+        set(frame, property, table[frame * PROPERTY_COUNT + property] + delta);
+    }
+
+    private void blendTo(int frame, int property, float target, float amount) {
+        float value = table[frame * PROPERTY_COUNT + property];
+        set(frame, property, value + (target - value) * amount);
+    }
+
+    private void clamp(int property, float min, float max) {
+        for (int i = property; i < table.length; i += PROPERTY_COUNT) {
+            table[i] = Math.max(min, Math.min(max, table[i]));
+        }
+    }
+
+    // ==================== CURVES ====================
+
+    /**
+     * The platform interpolators the animations used, evaluated at build time only
+     */
+    private interface Curve {
+        float at(float x);
+
+        Curve ACCELERATE_DECELERATE = x -> (float) (Math.cos((x + 1) * Math.PI) / 2.0) + 0.5f;
+
+        Curve OVERSHOOT = x -> {
+            float t = x - 1f;
+            return t * t * (3f * t + 2f) + 1f;
+        };
+
+        // CycleInterpolator(1.5)
+        Curve FLICKER = x -> (float) Math.sin(2 * Math.PI * 1.5 * x);
+
+        Curve BOUNCE = x -> {
+            float t = x * 1.1226f;
+            if (t < 0.3535f) return bounce(t);
+            if (t < 0.7408f) return bounce(t - 0.54719f) + 0.7f;
+            if (t < 0.9644f) return bounce(t - 0.8526f) + 0.9f;
+            return bounce(t - 1.0435f) + 0.95f;
+        };
+
+        static float bounce(float t) {
+            return t * t * 8f;
+        }
+    }
+}
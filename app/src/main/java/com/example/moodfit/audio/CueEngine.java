@@ -0,0 +1,252 @@
+package com.example.moodfit.audio;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioManager;
+import android.media.AudioTimestamp;
+import android.media.AudioTrack;
+import android.util.Log;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * CueEngine - Short workout sound cues with low, steady trigger latency
+ * Every cue is synthesized once into 16-bit PCM and loaded into static AudioTrack buffers on the
+ * low-latency output path, so triggering one is a rewind and play() with no decoding or prepare().
+ * Each cue has a few voices, which lets cues overlap each other and themselves; the mixer sums them.
+ *
+ * play() is meant for the main thread; loading happens on a background thread.
+ */
+public final class CueEngine {
+
+    private static final String TAG = "CueEngine";
+
+    private static final int FALLBACK_SAMPLE_RATE = 48000;
+    private static final int VOICES_PER_CUE = 2;
+
+    // Linear ramps at both ends keep the tones from clicking
+    private static final int FADE_MS = 5;
+    private static final float AMPLITUDE = 0.6f;
+
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MoodFitAudioCues");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The cues used by the workout timers: a tone sequence, each step frequency in Hz and length in ms
+     */
+    public enum Cue {
+        // Last seconds of a countdown
+        TICK(new int[] {880}, new int[] {70}),
+        // Work segment starts
+        GO(new int[] {1320, 1760}, new int[] {90, 160}),
+        // Rest segment starts
+        REST(new int[] {660, 523}, new int[] {120, 200}),
+        // Whole timer done
+        FINISH(new int[] {523, 659, 784, 1047}, new int[] {110, 110, 110, 320});
+
+        final int[] frequencies;
+        final int[] durationsMs;
+
+        Cue(int[] frequencies, int[] durationsMs) {
+            this.frequencies = frequencies;
+            this.durationsMs = durationsMs;
+        }
+    }
+
+    /**
+     * One static track for one cue; remembers when it was last triggered for latency measurement
+     */
+    private static final class Voice {
+        final AudioTrack track;
+        long triggerNanos;
+
+        Voice(AudioTrack track) {
+            this.track = track;
+        }
+    }
+
+    private final int sampleRate;
+    private final Map<Cue, Voice[]> voices = new EnumMap<>(Cue.class);
+    private final int[] nextVoice = new int[Cue.values().length];
+    private final Map<Cue, Voice> lastVoice = new EnumMap<>(Cue.class);
+    private final AudioTimestamp timestamp = new AudioTimestamp();
+
+    private volatile boolean loaded = false;
+    private volatile boolean released = false;
+    private boolean enabled = true;
+
+    public CueEngine(Context context) {
+        this.sampleRate = nativeSampleRate(context);
+        LOADER.execute(this::load);
+    }
+
+    // ==================== PLAYBACK ====================
+
+    /**
+     * Start a cue now; returns false if cues are disabled or not loaded yet
+     */
+    public boolean play(Cue cue) {
+        if (!enabled || !loaded || released) return false;
+
+        Voice[] cueVoices = voices.get(cue);
+        if (cueVoices == null) return false;
+
+        int index = nextVoice[cue.ordinal()];
+        nextVoice[cue.ordinal()] = (index + 1) % cueVoices.length;
+        Voice voice = cueVoices[index];
+
+        try {
+            // Same clock as AudioTimestamp.nanoTime
+            voice.triggerNanos = System.nanoTime();
+            AudioTrack track = voice.track;
+            if (track.getPlayState() != AudioTrack.PLAYSTATE_STOPPED) {
+                track.stop();
+            }
+            // A stopped static track resumes where it ended; rewind to the first frame
+            track.reloadStaticData();
+            track.play();
+            lastVoice.put(cue, voice);
+            return true;
+        } catch (IllegalStateException e) {
+            Log.w(TAG, "Could not play cue " + cue, e);
+            return false;
+        }
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Time from the last play() of this cue to its first frame reaching the output, or -1 if the
+     * device cannot report it yet (it needs a moment of playback to produce a timestamp)
+     */
+    long lastOutputLatencyNanos(Cue cue) {
+        Voice voice = lastVoice.get(cue);
+        if (voice == null || !voice.track.getTimestamp(timestamp)) return -1;
+
+        long firstFrameNanos = timestamp.nanoTime - timestamp.framePosition * 1000000000L / sampleRate;
+        return firstFrameNanos - voice.triggerNanos;
+    }
+
+    /**
+     * Free every track; the engine cannot be used afterwards
+     */
+    public void release() {
+        released = true;
+        LOADER.execute(() -> releaseAll(voices));
+    }
+
+    private static void releaseAll(Map<Cue, Voice[]> cueVoices) {
+        for (Voice[] voicesOfCue : cueVoices.values()) {
+            for (Voice voice : voicesOfCue) {
+                voice.track.release();
+            }
+        }
+    }
+
+    // ==================== LOADING ====================
+
+    private void load() {
+        long startNanos = System.nanoTime();
+        Map<Cue, Voice[]> built = new EnumMap<>(Cue.class);
+        try {
+            for (Cue cue : Cue.values()) {
+                short[] pcm = synthesize(cue, sampleRate);
+                Voice[] cueVoices = new Voice[VOICES_PER_CUE];
+                for (int i = 0; i < cueVoices.length; i++) {
+                    cueVoices[i] = new Voice(buildTrack(pcm));
+                }
+                built.put(cue, cueVoices);
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Could not load audio cues", e);
+            releaseAll(built);
+            return;
+        }
+
+        if (released) {
+            releaseAll(built);
+            return;
+        }
+
+        voices.putAll(built);
+        loaded = true;
+        Log.d(TAG, "Loaded " + built.size() + " cues at " + sampleRate + "Hz in "
+                + ((System.nanoTime() - startNanos) / 1000000) + "ms");
+    }
+
+    private AudioTrack buildTrack(short[] pcm) {
+        AudioTrack track = new AudioTrack.Builder()
+                .setAudioAttributes(new AudioAttributes.Builder()
+                        .setUsage(AudioAttributes.USAGE_ASSISTANCE_SONIFICATION)
+                        .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                        .build())
+                .setAudioFormat(new AudioFormat.Builder()
+                        .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+                        .setSampleRate(sampleRate)
+                        .setChannelMask(AudioFormat.CHANNEL_OUT_MONO)
+                        .build())
+                .setTransferMode(AudioTrack.MODE_STATIC)
+                .setBufferSizeInBytes(pcm.length * 2)
+                .setPerformanceMode(AudioTrack.PERFORMANCE_MODE_LOW_LATENCY)
+                .build();
+        track.write(pcm, 0, pcm.length);
+        return track;
+    }
+
+    /**
+     * Sine tone sequence with short fades at every step boundary
+     */
+    static short[] synthesize(Cue cue, int sampleRate) {
+        int totalFrames = 0;
+        for (int durationMs : cue.durationsMs) {
+            totalFrames += sampleRate * durationMs / 1000;
+        }
+
+        short[] pcm = new short[totalFrames];
+        int fadeFrames = sampleRate * FADE_MS / 1000;
+        int offset = 0;
+        for (int step = 0; step < cue.frequencies.length; step++) {
+            int frames = sampleRate * cue.durationsMs[step] / 1000;
+            double phaseStep = 2 * Math.PI * cue.frequencies[step] / sampleRate;
+            for (int i = 0; i < frames; i++) {
+                float envelope = Math.min(1f, Math.min(i, frames - 1 - i) / (float) fadeFrames);
+                pcm[offset + i] = (short) (Math.sin(phaseStep * i) * envelope * AMPLITUDE * Short.MAX_VALUE);
+            }
+            offset += frames;
+        }
+        return pcm;
+    }
+
+    /**
+     * The output's native rate keeps tracks on the fast mixer path (no resampling)
+     */
+    private static int nativeSampleRate(Context context) {
+        AudioManager audioManager = (AudioManager) context.getSystemService(Context.AUDIO_SERVICE);
+        if (audioManager != null) {
+            try {
+                String rate = audioManager.getProperty(AudioManager.PROPERTY_OUTPUT_SAMPLE_RATE);
+                if (rate != null) return Integer.parseInt(rate);
+            } catch (NumberFormatException e) {
+                Log.w(TAG, "Unexpected output sample rate", e);
+            }
+        }
+        return FALLBACK_SAMPLE_RATE;
+    }
+}
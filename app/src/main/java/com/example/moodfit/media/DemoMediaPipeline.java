@@ -0,0 +1,427 @@
+package com.example.moodfit.media;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.drawable.AnimationDrawable;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.gifdecoder.GifDecoder;
+import com.bumptech.glide.gifdecoder.GifHeader;
+import com.bumptech.glide.gifdecoder.GifHeaderParser;
+import com.bumptech.glide.gifdecoder.StandardGifDecoder;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.resource.gif.GifBitmapProvider;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.RequestOptions;
+import com.bumptech.glide.request.target.Target;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * DemoMediaPipeline - Size-appropriate variants of the exercise demo animations
+ *
+ * THUMBNAIL: list cards. When the build transcoded the animations it also produced a
+ * card-sized thumb_* WebP sampled across the whole clip, which is loaded as is. For GIF packaging
+ * the pipeline decodes at most THUMBNAIL_DECODE_BUDGET frames at a reduced sample size, keeps
+ * THUMBNAIL_MAX_FRAMES of them spread evenly over that window, scaled to the card edge, and plays
+ * them as an AnimationDrawable. Decoding happens once per animation on a background thread;
+ * results live in a byte-bounded cache.
+ *
+ * POSTER: a still first frame for cards that are not currently allowed to animate.
+ *
+ * FULL: the demo screen. Streams the animation (animated WebP or GIF) through Glide, downsampled
+ * to the screen width instead of the source resolution. preloadFull() warms it ahead of time.
+ *
+ * Glide loads log their first-frame latency, for comparing packaging formats on a device.
+ */
+public final class DemoMediaPipeline {
+
+    private static final String TAG = "DemoMediaPipeline";
+
+    /** Card image edge in item_exercise_card (80dp frame minus margins) */
+    public static final int THUMBNAIL_EDGE_DP = 72;
+
+    /** Frames kept per thumbnail, and frames decoded at most to produce them */
+    static final int THUMBNAIL_MAX_FRAMES = 8;
+    static final int THUMBNAIL_DECODE_BUDGET = 24;
+
+    // Thumbnails get a slice of the heap (smaller on low-memory devices); frames are shared by every card showing them
+    private static final int THUMBNAIL_CACHE_DIVISOR = 16;
+    private static final int LOW_MEMORY_THUMBNAIL_CACHE_DIVISOR = 32;
+
+    // Full variant edge cap; the demo view spans the screen width, but sources are rarely larger
+    private static final int FULL_MAX_EDGE_PX = 1080;
+
+    private static final ExecutorService DECODER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MoodFitDemoDecode");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static DemoMediaPipeline instance;
+
+    private final Context appContext;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final LruCache<Long, ThumbnailFrames> thumbnailCache;
+
+    // Main thread only: the request each view is currently waiting for
+    private final Map<ImageView, Long> pendingThumbnails = new WeakHashMap<>();
+
+    /**
+     * Decoded thumbnail frames plus what it cost to produce them
+     */
+    public static final class ThumbnailFrames {
+        final Bitmap[] frames;
+        final int[] durationsMs;
+        public final int sourceFrameCount;
+        public final int decodedFrameCount;
+        public final long decodeNanos;
+        public final int byteCount;
+
+        ThumbnailFrames(Bitmap[] frames, int[] durationsMs, int sourceFrameCount,
+                        int decodedFrameCount, long decodeNanos) {
+            this.frames = frames;
+            this.durationsMs = durationsMs;
+            this.sourceFrameCount = sourceFrameCount;
+            this.decodedFrameCount = decodedFrameCount;
+            this.decodeNanos = decodeNanos;
+
+            int bytes = 0;
+            for (Bitmap frame : frames) {
+                bytes += frame.getAllocationByteCount();
+            }
+            this.byteCount = bytes;
+        }
+
+        public int getFrameCount() {
+            return frames.length;
+        }
+
+        AnimationDrawable toDrawable(Resources resources) {
+            AnimationDrawable animation = new AnimationDrawable();
+            for (int i = 0; i < frames.length; i++) {
+                animation.addFrame(new BitmapDrawable(resources, frames[i]), durationsMs[i]);
+            }
+            animation.setOneShot(false);
+            return animation;
+        }
+    }
+
+    private DemoMediaPipeline(Context context) {
+        this.appContext = context.getApplicationContext();
+
+        int divisor = MoodFitGlideModule.deviceClassOf(appContext) == MoodFitGlideModule.DeviceClass.LOW
+                ? LOW_MEMORY_THUMBNAIL_CACHE_DIVISOR : THUMBNAIL_CACHE_DIVISOR;
+        int cacheBytes = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / divisor);
+        this.thumbnailCache = new LruCache<Long, ThumbnailFrames>(cacheBytes) {
+            @Override
+            protected int sizeOf(Long key, ThumbnailFrames value) {
+                return value.byteCount;
+            }
+        };
+    }
+
+    public static synchronized DemoMediaPipeline getInstance(Context context) {
+        if (instance == null) {
+            instance = new DemoMediaPipeline(context);
+        }
+        return instance;
+    }
+
+    // ==================== THUMBNAIL VARIANT ====================
+
+    /**
+     * Show the thumbnail variant of a demo animation in a card image. Must be called on the main thread.
+     */
+    public void loadThumbnail(ImageView view, int resourceId, int placeholderResId) {
+        int edgePx = thumbnailEdgePx();
+        final long key = cacheKey(resourceId, edgePx);
+
+        int prebuiltThumbnail = ExerciseMediaResolver.getInstance().resolveThumbnail(resourceId);
+        if (prebuiltThumbnail != ExerciseMediaResolver.NO_MEDIA) {
+            pendingThumbnails.remove(view);
+            Glide.with(view)
+                    .load(prebuiltThumbnail)
+                    .apply(new RequestOptions()
+                            .placeholder(placeholderResId)
+                            .error(placeholderResId))
+                    .listener(firstFrameLogger("thumbnail", prebuiltThumbnail))
+                    .into(view);
+            return;
+        }
+
+        // A previous Glide load may still own this view
+        Glide.with(view).clear(view);
+
+        ThumbnailFrames cached = thumbnailCache.get(key);
+        if (cached != null) {
+            pendingThumbnails.remove(view);
+            showThumbnail(view, cached);
+            return;
+        }
+
+        view.setImageResource(placeholderResId);
+        pendingThumbnails.put(view, key);
+
+        DECODER.execute(() -> {
+            ThumbnailFrames frames = thumbnailCache.get(key);
+            if (frames == null) {
+                frames = decodeThumbnail(resourceId, edgePx);
+                if (frames != null) {
+                    thumbnailCache.put(key, frames);
+                }
+            }
+
+            final ThumbnailFrames result = frames;
+            mainHandler.post(() -> {
+                Long pending = pendingThumbnails.get(view);
+                if (pending == null || pending != key) return; // view was rebound meanwhile
+                pendingThumbnails.remove(view);
+                if (result != null) {
+                    showThumbnail(view, result);
+                }
+            });
+        });
+    }
+
+    private void showThumbnail(ImageView view, ThumbnailFrames frames) {
+        AnimationDrawable animation = frames.toDrawable(view.getResources());
+        view.setImageDrawable(animation);
+        animation.start();
+    }
+
+    /**
+     * Decode the bounded thumbnail variant on the calling thread, or null if the resource can't be read
+     */
+    ThumbnailFrames decodeThumbnail(int resourceId, int edgePx) {
+        long startNanos = System.nanoTime();
+
+        ByteBuffer data = readResource(appContext, resourceId);
+        if (data == null) return null;
+
+        GifHeader header = new GifHeaderParser().setData(data).parseHeader();
+        int sourceFrameCount = header.getNumFrames();
+        if (header.getStatus() != GifDecoder.STATUS_OK || sourceFrameCount <= 0) {
+            Log.w(TAG, "Not a readable GIF: " + resourceId);
+            return null;
+        }
+
+        BitmapPool bitmapPool = Glide.get(appContext).getBitmapPool();
+        StandardGifDecoder decoder = new StandardGifDecoder(
+                new GifBitmapProvider(bitmapPool, Glide.get(appContext).getArrayPool()),
+                header, data, sampleSizeFor(header.getWidth(), header.getHeight(), edgePx));
+
+        // GIF frames are deltas, so frames can't be skipped; only the first THUMBNAIL_DECODE_BUDGET
+        // are decoded. Each slot keeps its first frame and the time of all frames it covers, so the
+        // card plays that window at its real speed. The prebuilt thumb_* variants cover the whole clip.
+        int decodeCount = Math.min(sourceFrameCount, THUMBNAIL_DECODE_BUDGET);
+        int keptCount = Math.min(decodeCount, THUMBNAIL_MAX_FRAMES);
+
+        Bitmap[] frames = new Bitmap[keptCount];
+        int[] durations = new int[keptCount];
+        int kept = 0;
+        int decoded = 0;
+
+        try {
+            for (int i = 0; i < decodeCount; i++) {
+                decoder.advance();
+                int delay = decoder.getNextDelay();
+                Bitmap frame = decoder.getNextFrame();
+                if (frame == null) break;
+                decoded++;
+
+                int slot = i * keptCount / decodeCount;
+                durations[slot] += delay;
+                if (frames[slot] == null) {
+                    frames[slot] = scaleToEdge(frame, edgePx, bitmapPool);
+                    kept = slot + 1;
+                } else {
+                    bitmapPool.put(frame);
+                }
+            }
+        } finally {
+            decoder.clear();
+        }
+
+        if (kept == 0) return null;
+        if (kept < keptCount) {
+            frames = Arrays.copyOf(frames, kept);
+            durations = Arrays.copyOf(durations, kept);
+        }
+
+        ThumbnailFrames result = new ThumbnailFrames(frames, durations, sourceFrameCount,
+                decoded, System.nanoTime() - startNanos);
+        Log.d(TAG, "Thumbnail " + resourceId + ": " + kept + "/" + sourceFrameCount + " frames, "
+                + (result.byteCount / 1024) + "KB in " + (result.decodeNanos / 1000000) + "ms");
+        return result;
+    }
+
+    int thumbnailEdgePx() {
+        return Math.round(THUMBNAIL_EDGE_DP * appContext.getResources().getDisplayMetrics().density);
+    }
+
+    // ==================== POSTER VARIANT ====================
+
+    /**
+     * Show a still first frame: the prebuilt poster_* drawable, or the first frame of the
+     * animation decoded by Glide at card size when the build packaged plain GIFs
+     */
+    public void loadPoster(ImageView view, int resourceId, int placeholderResId) {
+        pendingThumbnails.remove(view);
+
+        int poster = ExerciseMediaResolver.getInstance().resolvePoster(resourceId);
+        int edgePx = thumbnailEdgePx();
+
+        Glide.with(view)
+                .asBitmap()
+                .load(poster != ExerciseMediaResolver.NO_MEDIA ? poster : resourceId)
+                .apply(new RequestOptions()
+                        .override(edgePx)
+                        .placeholder(placeholderResId)
+                        .error(placeholderResId))
+                .into(view);
+    }
+
+    // ==================== FULL VARIANT ====================
+
+    /**
+     * Show the full variant: the animation streamed by Glide, decoded no larger than the screen width
+     */
+    public void loadFull(ImageView view, int resourceId, int placeholderResId) {
+        pendingThumbnails.remove(view);
+
+        // Not asGif(): animated WebP decodes to an AnimatedImageDrawable, GIF to a GifDrawable
+        fullRequest(Glide.with(view), resourceId)
+                .apply(new RequestOptions()
+                        .placeholder(placeholderResId)
+                        .error(placeholderResId))
+                .listener(firstFrameLogger("full", resourceId))
+                .into(view);
+    }
+
+    /**
+     * Decode the full variant into Glide's memory cache ahead of time, e.g. the next exercise of a
+     * workout, so that the later loadFull() is a memory-cache hit
+     */
+    public void preloadFull(int resourceId) {
+        int edgePx = fullEdgePx();
+        fullRequest(Glide.with(appContext), resourceId).preload(edgePx, edgePx);
+    }
+
+    /**
+     * The full-variant request every caller shares, so loads, preloads and prefetches all produce
+     * the same memory cache key; the explicit optionalCenterCrop() stops into(ImageView) from
+     * adding its own transformation
+     */
+    RequestBuilder<Drawable> fullRequest(RequestManager requestManager, int resourceId) {
+        return requestManager
+                .load(resourceId)
+                .apply(new RequestOptions()
+                        .override(fullEdgePx())
+                        .optionalCenterCrop());
+    }
+
+    // From the display rather than the view, so it is known before layout and identical for preloads
+    int fullEdgePx() {
+        return Math.min(appContext.getResources().getDisplayMetrics().widthPixels, FULL_MAX_EDGE_PX);
+    }
+
+    private static RequestListener<Drawable> firstFrameLogger(String variant, int resourceId) {
+        final long startMs = SystemClock.uptimeMillis();
+        return new RequestListener<Drawable>() {
+            @Override
+            public boolean onLoadFailed(GlideException e, Object model, Target<Drawable> target,
+                                        boolean isFirstResource) {
+                Log.w(TAG, "Failed to load " + variant + " animation " + resourceId, e);
+                return false;
+            }
+
+            @Override
+            public boolean onResourceReady(Drawable resource, Object model, Target<Drawable> target,
+                                           DataSource dataSource, boolean isFirstResource) {
+                Log.d(TAG, "First frame of " + variant + " " + resourceId + " ("
+                        + resource.getClass().getSimpleName() + ") in "
+                        + (SystemClock.uptimeMillis() - startMs) + "ms from " + dataSource);
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Drop decoded thumbnails, e.g. on memory pressure
+     */
+    public void trimMemory() {
+        thumbnailCache.evictAll();
+    }
+
+    // ==================== DECODING HELPERS ====================
+
+    /**
+     * Largest power-of-two sample size that keeps the shorter side at or above the target edge
+     */
+    static int sampleSizeFor(int width, int height, int edgePx) {
+        int shortSide = Math.min(width, height);
+        int sampleSize = 1;
+        while (edgePx > 0 && shortSide / (sampleSize * 2) >= edgePx) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    private static Bitmap scaleToEdge(Bitmap frame, int edgePx, BitmapPool bitmapPool) {
+        int shortSide = Math.min(frame.getWidth(), frame.getHeight());
+        if (shortSide <= edgePx) return frame;
+
+        float scale = (float) edgePx / shortSide;
+        Bitmap scaled = Bitmap.createScaledBitmap(frame,
+                Math.max(1, Math.round(frame.getWidth() * scale)),
+                Math.max(1, Math.round(frame.getHeight() * scale)), true);
+        if (scaled != frame) {
+            bitmapPool.put(frame);
+        }
+        return scaled;
+    }
+
+    /**
+     * Raw bytes of an animation resource, or null if it can't be read
+     */
+    static ByteBuffer readResource(Context context, int resourceId) {
+        try (InputStream input = context.getResources().openRawResource(resourceId)) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream(64 * 1024);
+            byte[] buffer = new byte[16 * 1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return ByteBuffer.wrap(output.toByteArray());
+        } catch (IOException | Resources.NotFoundException e) {
+            Log.e(TAG, "Failed to read animation " + resourceId, e);
+            return null;
+        }
+    }
+
+    private static long cacheKey(int resourceId, int edgePx) {
+        return ((long) resourceId << 32) | (edgePx & 0xffffffffL);
+    }
+}
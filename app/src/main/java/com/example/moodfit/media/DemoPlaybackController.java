@@ -0,0 +1,262 @@
+package com.example.moodfit.media;
+
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import android.widget.ImageView;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DemoPlaybackController - Decides which demo cards are allowed to animate
+ * Every bound card shows its still poster frame. Only cards that are on screen may play, and at
+ * most maxConcurrent at a time: cards the user tapped first, then the ones closest to the middle
+ * of the scrolling viewport. Playback is re-evaluated once scrolling settles.
+ *
+ * Main thread only.
+ */
+public final class DemoPlaybackController {
+
+    private static final String TAG = "DemoPlaybackController";
+
+    public static final int DEFAULT_MAX_CONCURRENT = 2;
+
+    // Wait for scrolling to settle before swapping posters and animations
+    private static final long SETTLE_DELAY_MS = 150;
+
+    // A card counts as on screen once this much of it is visible
+    private static final float MIN_VISIBLE_FRACTION = 0.6f;
+
+    private final DemoMediaPipeline pipeline;
+    private final int maxConcurrent;
+    private final int placeholderResId;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Bound card image -> animation resource
+    private final Map<ImageView, Integer> boundViews = new LinkedHashMap<>();
+    private final Set<ImageView> playing = new HashSet<>();
+
+    // Tapped cards, most recent last; they keep priority while on screen
+    private final ArrayDeque<ImageView> tapped = new ArrayDeque<>();
+
+    private View viewport;
+    private boolean paused = false;
+
+    private final Rect viewportRect = new Rect();
+    private final Rect viewRect = new Rect();
+
+    private final Runnable settledRefresh = this::refresh;
+    private final ViewTreeObserver.OnScrollChangedListener scrollListener = this::scheduleRefresh;
+
+    public DemoPlaybackController(DemoMediaPipeline pipeline, int maxConcurrent, int placeholderResId) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        }
+        this.pipeline = pipeline;
+        this.maxConcurrent = maxConcurrent;
+        this.placeholderResId = placeholderResId;
+    }
+
+    // ==================== VIEWPORT ====================
+
+    /**
+     * Track scrolling of the container whose visible area decides which cards may play
+     */
+    public void attach(View scrollingViewport) {
+        detach();
+        viewport = scrollingViewport;
+        viewport.getViewTreeObserver().addOnScrollChangedListener(scrollListener);
+        scheduleRefresh();
+    }
+
+    public void detach() {
+        mainHandler.removeCallbacks(settledRefresh);
+        if (viewport != null) {
+            ViewTreeObserver observer = viewport.getViewTreeObserver();
+            if (observer.isAlive()) {
+                observer.removeOnScrollChangedListener(scrollListener);
+            }
+            viewport = null;
+        }
+    }
+
+    // ==================== CARDS ====================
+
+    /**
+     * Show a card's poster frame and make it eligible for playback
+     */
+    public void bind(ImageView view, int resourceId) {
+        boundViews.put(view, resourceId);
+        playing.remove(view);
+        tapped.remove(view);
+        pipeline.loadPoster(view, resourceId, placeholderResId);
+        scheduleRefresh();
+    }
+
+    /**
+     * Forget a card, e.g. when its view is recycled or removed
+     */
+    public void unbind(ImageView view) {
+        if (boundViews.remove(view) == null) return;
+        playing.remove(view);
+        tapped.remove(view);
+        scheduleRefresh();
+    }
+
+    public void clear() {
+        boundViews.clear();
+        playing.clear();
+        tapped.clear();
+        mainHandler.removeCallbacks(settledRefresh);
+    }
+
+    /**
+     * Start a tapped card now, taking over the slot of the least recently tapped card if needed
+     */
+    public void play(ImageView view) {
+        if (!boundViews.containsKey(view)) return;
+
+        tapped.remove(view);
+        tapped.addLast(view);
+        while (tapped.size() > maxConcurrent) {
+            tapped.removeFirst();
+        }
+        refresh();
+    }
+
+    public boolean isPlaying(ImageView view) {
+        return playing.contains(view);
+    }
+
+    // ==================== LIFECYCLE ====================
+
+    /**
+     * Stop every animation and show posters, e.g. while the screen is in the background
+     */
+    public void pause() {
+        paused = true;
+        mainHandler.removeCallbacks(settledRefresh);
+        for (ImageView view : new ArrayList<>(playing)) {
+            stop(view);
+        }
+    }
+
+    public void resume() {
+        paused = false;
+        scheduleRefresh();
+    }
+
+    // ==================== PLAYBACK DECISION ====================
+
+    /**
+     * Re-evaluate after the visible area stops changing
+     */
+    public void scheduleRefresh() {
+        mainHandler.removeCallbacks(settledRefresh);
+        mainHandler.postDelayed(settledRefresh, SETTLE_DELAY_MS);
+    }
+
+    /**
+     * Start the chosen on-screen cards and return every other card to its poster
+     */
+    public void refresh() {
+        mainHandler.removeCallbacks(settledRefresh);
+        if (paused || viewport == null) return;
+
+        List<ImageView> chosen = new ArrayList<>(maxConcurrent);
+        if (viewport.getGlobalVisibleRect(viewportRect)) {
+            chooseTapped(chosen);
+            chooseCentered(chosen);
+        }
+
+        for (ImageView view : new ArrayList<>(playing)) {
+            if (!chosen.contains(view)) {
+                stop(view);
+            }
+        }
+        for (ImageView view : chosen) {
+            if (!playing.contains(view)) {
+                start(view);
+            }
+        }
+
+        Log.d(TAG, playing.size() + "/" + maxConcurrent + " playing of " + boundViews.size() + " cards");
+    }
+
+    private void chooseTapped(List<ImageView> chosen) {
+        Iterator<ImageView> mostRecentFirst = tapped.descendingIterator();
+        while (mostRecentFirst.hasNext() && chosen.size() < maxConcurrent) {
+            ImageView view = mostRecentFirst.next();
+            if (isOnScreen(view)) {
+                chosen.add(view);
+            } else {
+                // Scrolled away: the tap no longer holds a slot
+                mostRecentFirst.remove();
+            }
+        }
+    }
+
+    private void chooseCentered(List<ImageView> chosen) {
+        int centerY = viewportRect.centerY();
+
+        while (chosen.size() < maxConcurrent) {
+            ImageView closest = null;
+            int closestDistance = Integer.MAX_VALUE;
+
+            for (ImageView view : boundViews.keySet()) {
+                if (chosen.contains(view) || !isOnScreen(view)) continue;
+                int distance = Math.abs(viewRect.centerY() - centerY);
+                if (distance < closestDistance) {
+                    closestDistance = distance;
+                    closest = view;
+                }
+            }
+
+            if (closest == null) return;
+            chosen.add(closest);
+        }
+    }
+
+    /**
+     * Mostly visible inside the viewport; leaves the visible bounds in viewRect
+     */
+    private boolean isOnScreen(ImageView view) {
+        if (!view.isShown() || view.getHeight() == 0 || !view.getGlobalVisibleRect(viewRect)) {
+            return false;
+        }
+        return viewRect.height() >= view.getHeight() * MIN_VISIBLE_FRACTION
+                && Rect.intersects(viewRect, viewportRect);
+    }
+
+    private void start(ImageView view) {
+        Integer resourceId = boundViews.get(view);
+        if (resourceId == null) return;
+        playing.add(view);
+        pipeline.loadThumbnail(view, resourceId, placeholderResId);
+    }
+
+    private void stop(ImageView view) {
+        playing.remove(view);
+        Integer resourceId = boundViews.get(view);
+        if (resourceId != null) {
+            pipeline.loadPoster(view, resourceId, placeholderResId);
+        }
+    }
+
+    /**
+     * Number of cards currently animating (never above maxConcurrent)
+     */
+    public int getPlayingCount() {
+        return playing.size();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.moodfit.media;
+
+import android.util.Log;
+
+import com.example.moodfit.models.Exercise;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ExerciseMediaResolver - Maps exercises to their demo animation drawables
+ * The table comes from GifResourceTable, which the build generates from the packaged demo
+ * animations (animated WebP or GIF, see transcodeDemoAnimations), so lookups are plain map reads:
+ * no Resources.getIdentifier() and no regex per bind.
+ * Name lookups are cached including misses, so a missing animation is only worked out once.
+ */
+public final class ExerciseMediaResolver {
+
+    private static final String TAG = "ExerciseMediaResolver";
+
+    /** Returned when an exercise has no demo animation */
+    public static final int NO_MEDIA = 0;
+
+    private static final String RESOURCE_PREFIX = "gif_";
+    private static final String EXERCISE_ID_PREFIX = "ex_";
+
+    private static final ExerciseMediaResolver INSTANCE = new ExerciseMediaResolver();
+
+    // Exercise ID ("ex_" + slug) -> drawable; built once and read-only afterwards
+    private final Map<String, Integer> resourceByExerciseId;
+
+    // Full drawable -> card-sized thumbnail / still poster drawable, when the build produced one
+    private final Map<Integer, Integer> thumbnailByResource;
+    private final Map<Integer, Integer> posterByResource;
+
+    // Exercise name -> drawable or NO_MEDIA (negative entries included)
+    private final ConcurrentHashMap<String, Integer> resourceByName = new ConcurrentHashMap<>();
+
+    private ExerciseMediaResolver() {
+        String[] names = GifResourceTable.NAMES;
+        int[] resourceIds = GifResourceTable.RESOURCE_IDS;
+        int[] thumbnailIds = GifResourceTable.THUMBNAIL_IDS;
+        int[] posterIds = GifResourceTable.POSTER_IDS;
+
+        resourceByExerciseId = new HashMap<>(names.length * 2);
+        thumbnailByResource = new HashMap<>(names.length * 2);
+        posterByResource = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            String slug = names[i].substring(RESOURCE_PREFIX.length());
+            resourceByExerciseId.put(EXERCISE_ID_PREFIX + slug, resourceIds[i]);
+            if (thumbnailIds[i] != NO_MEDIA) {
+                thumbnailByResource.put(resourceIds[i], thumbnailIds[i]);
+            }
+            if (posterIds[i] != NO_MEDIA) {
+                posterByResource.put(resourceIds[i], posterIds[i]);
+            }
+        }
+    }
+
+    public static ExerciseMediaResolver getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Drawable for an exercise, or NO_MEDIA
+     */
+    public int resolve(Exercise exercise) {
+        if (exercise == null) return NO_MEDIA;
+
+        Integer resourceId = resourceByExerciseId.get(exercise.getExerciseId());
+        if (resourceId != null) return resourceId;
+
+        // Exercises created without a name-derived ID
+        return resolveName(exercise.getName());
+    }
+
+    /**
+     * Drawable for an exercise name, or NO_MEDIA
+     */
+    public int resolveName(String exerciseName) {
+        if (exerciseName == null || exerciseName.isEmpty()) return NO_MEDIA;
+
+        Integer cached = resourceByName.get(exerciseName);
+        if (cached != null) return cached;
+
+        Integer resourceId = resourceByExerciseId.get(EXERCISE_ID_PREFIX + Exercise.toSlug(exerciseName));
+        int resolved = resourceId != null ? resourceId : NO_MEDIA;
+        if (resolved == NO_MEDIA) {
+            Log.d(TAG, "No demo animation for '" + exerciseName + "'");
+        }
+        resourceByName.put(exerciseName, resolved);
+        return resolved;
+    }
+
+    /**
+     * Drawable for a resource name such as "gif_wall_pushups", or NO_MEDIA
+     */
+    public int resolveResourceName(String resourceName) {
+        if (resourceName == null || !resourceName.startsWith(RESOURCE_PREFIX)) return NO_MEDIA;
+
+        Integer resourceId = resourceByExerciseId.get(
+                EXERCISE_ID_PREFIX + resourceName.substring(RESOURCE_PREFIX.length()));
+        return resourceId != null ? resourceId : NO_MEDIA;
+    }
+
+    /**
+     * Prebuilt thumbnail drawable for a resolved animation, or NO_MEDIA if only the full one is bundled
+     */
+    public int resolveThumbnail(int resourceId) {
+        Integer thumbnailId = thumbnailByResource.get(resourceId);
+        return thumbnailId != null ? thumbnailId : NO_MEDIA;
+    }
+
+    /**
+     * Prebuilt still first frame for a resolved animation, or NO_MEDIA if none is bundled
+     */
+    public int resolvePoster(int resourceId) {
+        Integer posterId = posterByResource.get(resourceId);
+        return posterId != null ? posterId : NO_MEDIA;
+    }
+
+    public boolean hasMedia(Exercise exercise) {
+        return resolve(exercise) != NO_MEDIA;
+    }
+
+    /**
+     * Number of bundled demo animations
+     */
+    public int size() {
+        return resourceByExerciseId.size();
+    }
+}
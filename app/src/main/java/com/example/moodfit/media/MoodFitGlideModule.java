@@ -0,0 +1,88 @@
+package com.example.moodfit.media;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+
+/**
+ * MoodFitGlideModule - Cache policy for exercise demo media
+ * Memory cache and bitmap pool are sized by device class instead of Glide's one-size defaults.
+ * Demo animations are bundled resources, so nothing is copied into the disk cache by default;
+ * the small disk cache only exists for requests that opt in.
+ */
+@GlideModule
+public final class MoodFitGlideModule extends AppGlideModule {
+
+    private static final String TAG = "MoodFitGlideModule";
+
+    private static final String DISK_CACHE_NAME = "demo_media";
+    private static final long DISK_CACHE_BYTES = 16L * 1024 * 1024;
+
+    /**
+     * Coarse device memory class used by the demo media caches
+     */
+    public enum DeviceClass {
+        // memoryCacheScreens, bitmapPoolScreens, share of the app's memory class
+        LOW(1.0f, 0.5f, 0.25f),
+        MID(2.0f, 1.0f, 0.4f),
+        HIGH(3.0f, 2.0f, 0.4f);
+
+        final float memoryCacheScreens;
+        final float bitmapPoolScreens;
+        final float maxSizeMultiplier;
+
+        DeviceClass(float memoryCacheScreens, float bitmapPoolScreens, float maxSizeMultiplier) {
+            this.memoryCacheScreens = memoryCacheScreens;
+            this.bitmapPoolScreens = bitmapPoolScreens;
+            this.maxSizeMultiplier = maxSizeMultiplier;
+        }
+    }
+
+    // Per-app heap limits (ActivityManager.getMemoryClass) separating the classes, in MB
+    private static final int LOW_MEMORY_CLASS_MB = 128;
+    private static final int MID_MEMORY_CLASS_MB = 256;
+
+    public static DeviceClass deviceClassOf(Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        if (activityManager == null || activityManager.isLowRamDevice()
+                || activityManager.getMemoryClass() <= LOW_MEMORY_CLASS_MB) {
+            return DeviceClass.LOW;
+        }
+        return activityManager.getMemoryClass() <= MID_MEMORY_CLASS_MB ? DeviceClass.MID : DeviceClass.HIGH;
+    }
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        DeviceClass deviceClass = deviceClassOf(context);
+
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(deviceClass.memoryCacheScreens)
+                .setBitmapPoolScreens(deviceClass.bitmapPoolScreens)
+                .setMaxSizeMultiplier(deviceClass.maxSizeMultiplier)
+                .build();
+        builder.setMemorySizeCalculator(calculator);
+
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_NAME, DISK_CACHE_BYTES));
+
+        // Bundled resources are already local; caching them on disk only duplicates them
+        builder.setDefaultRequestOptions(new RequestOptions().diskCacheStrategy(DiskCacheStrategy.NONE));
+
+        Log.d(TAG, deviceClass + " device: memory cache " + (calculator.getMemoryCacheSize() / 1024) + "KB, bitmap pool "
+                + (calculator.getBitmapPoolSize() / 1024) + "KB");
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
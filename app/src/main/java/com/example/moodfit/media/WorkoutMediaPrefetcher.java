@@ -0,0 +1,234 @@
+package com.example.moodfit.media;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.util.Log;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.resource.gif.GifDrawable;
+import com.bumptech.glide.request.FutureTarget;
+import com.bumptech.glide.request.RequestOptions;
+
+import com.example.moodfit.models.Exercise;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WorkoutMediaPrefetcher - Keeps the demo animations of a workout plan decoded ahead of the user
+ * As soon as a plan exists, a low-priority background thread walks it in order and has Glide decode
+ * each exercise's full demo variant (header plus first frame; later frames decode during playback).
+ * The decoded resources are held, so opening the demo screen is an active-resource hit instead of a
+ * cold decode. Held media stays within a byte budget; exercises already completed are released first.
+ */
+public final class WorkoutMediaPrefetcher {
+
+    private static final String TAG = "WorkoutMediaPrefetcher";
+
+    // Upper bound for one decode; a slow or broken animation must not stall the rest of the plan
+    private static final long DECODE_TIMEOUT_MS = 5000;
+
+    // Held media budget as a share of the heap, and an absolute cap
+    private static final int BUDGET_HEAP_DIVISOR = 8;
+    private static final int LOW_MEMORY_BUDGET_HEAP_DIVISOR = 16;
+    private static final long MAX_BUDGET_BYTES = 32L * 1024 * 1024;
+
+    private static final ExecutorService PREFETCHER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MoodFitMediaPrefetch");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private static WorkoutMediaPrefetcher instance;
+
+    private final Context appContext;
+    private final DemoMediaPipeline pipeline;
+    private final long budgetBytes;
+
+    /**
+     * A decoded plan entry kept alive until released
+     */
+    private static final class HeldMedia {
+        final FutureTarget<Drawable> target;
+        final long bytes;
+
+        HeldMedia(FutureTarget<Drawable> target, long bytes) {
+            this.target = target;
+            this.bytes = bytes;
+        }
+    }
+
+    // Guarded by this
+    private int[] planResourceIds = new int[0];
+    private long planGeneration = 0;
+    private int currentIndex = 0;
+    private final TreeMap<Integer, HeldMedia> heldByIndex = new TreeMap<>();
+    private final Set<Integer> failedIndices = new HashSet<>();
+    private long heldBytes = 0;
+
+    private WorkoutMediaPrefetcher(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.pipeline = DemoMediaPipeline.getInstance(appContext);
+
+        int divisor = MoodFitGlideModule.deviceClassOf(appContext) == MoodFitGlideModule.DeviceClass.LOW
+                ? LOW_MEMORY_BUDGET_HEAP_DIVISOR : BUDGET_HEAP_DIVISOR;
+        this.budgetBytes = Math.min(MAX_BUDGET_BYTES, Runtime.getRuntime().maxMemory() / divisor);
+    }
+
+    public static synchronized WorkoutMediaPrefetcher getInstance(Context context) {
+        if (instance == null) {
+            instance = new WorkoutMediaPrefetcher(context);
+        }
+        return instance;
+    }
+
+    // ==================== PLAN ====================
+
+    /**
+     * Start prefetching a newly generated plan, dropping anything held for the previous one
+     */
+    public synchronized void setPlan(List<Exercise> exercises) {
+        releaseAllLocked();
+        planGeneration++;
+        currentIndex = 0;
+
+        ExerciseMediaResolver resolver = ExerciseMediaResolver.getInstance();
+        planResourceIds = new int[exercises.size()];
+        for (int i = 0; i < planResourceIds.length; i++) {
+            planResourceIds[i] = resolver.resolve(exercises.get(i));
+        }
+
+        scheduleFillLocked();
+    }
+
+    /**
+     * The user moved on to the exercise at this index: release earlier exercises and refill the budget
+     */
+    public synchronized void onExerciseStarted(int index) {
+        currentIndex = Math.max(0, index);
+
+        while (!heldByIndex.isEmpty() && heldByIndex.firstKey() < currentIndex) {
+            releaseLocked(heldByIndex.firstKey());
+        }
+
+        scheduleFillLocked();
+    }
+
+    /**
+     * Forget the plan, e.g. when the workout ends or a new one is being generated
+     */
+    public synchronized void clearPlan() {
+        releaseAllLocked();
+        planGeneration++;
+        planResourceIds = new int[0];
+        currentIndex = 0;
+    }
+
+    // ==================== PREFETCHING ====================
+
+    private void scheduleFillLocked() {
+        final long generation = planGeneration;
+        PREFETCHER.execute(() -> fill(generation));
+    }
+
+    /**
+     * Decode upcoming plan entries in order until the budget is used or the plan is covered.
+     * The decode itself runs on Glide's threads at low priority; this thread only waits for it.
+     */
+    private void fill(long generation) {
+        while (true) {
+            int index;
+            int resourceId;
+            synchronized (this) {
+                if (generation != planGeneration) return;
+
+                index = nextIndexToFetchLocked();
+                if (index < 0) return;
+                resourceId = planResourceIds[index];
+            }
+
+            int edgePx = pipeline.fullEdgePx();
+            FutureTarget<Drawable> target = pipeline.fullRequest(Glide.with(appContext), resourceId)
+                    .apply(new RequestOptions().priority(Priority.LOW))
+                    .submit(edgePx, edgePx);
+
+            long startNanos = System.nanoTime();
+            Drawable drawable;
+            try {
+                drawable = target.get(DECODE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                Log.w(TAG, "Prefetch failed for plan entry " + index, e);
+                Glide.with(appContext).clear(target);
+                synchronized (this) {
+                    if (generation == planGeneration) failedIndices.add(index);
+                }
+                continue;
+            }
+
+            long bytes = estimateBytes(drawable);
+            synchronized (this) {
+                if (generation != planGeneration || index < currentIndex) {
+                    // Plan replaced or exercise finished while decoding
+                    Glide.with(appContext).clear(target);
+                    continue;
+                }
+                heldByIndex.put(index, new HeldMedia(target, bytes));
+                heldBytes += bytes;
+            }
+
+            Log.d(TAG, "Prefetched plan entry " + index + " (" + (bytes / 1024) + "KB) in "
+                    + ((System.nanoTime() - startNanos) / 1000000) + "ms, holding " + (heldBytes / 1024) + "KB");
+        }
+    }
+
+    /**
+     * First upcoming entry not yet held, or -1 when done or over budget.
+     * The current exercise and the next one are always fetched, even past the budget.
+     */
+    private int nextIndexToFetchLocked() {
+        for (int i = currentIndex; i < planResourceIds.length; i++) {
+            if (planResourceIds[i] == ExerciseMediaResolver.NO_MEDIA
+                    || heldByIndex.containsKey(i) || failedIndices.contains(i)) {
+                continue;
+            }
+            if (heldBytes >= budgetBytes && i > currentIndex + 1) {
+                return -1;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static long estimateBytes(Drawable drawable) {
+        if (drawable instanceof GifDrawable) {
+            return ((GifDrawable) drawable).getSize();
+        }
+        // Animated WebP: one ARGB frame buffer at the decoded size
+        return 4L * Math.max(1, drawable.getIntrinsicWidth()) * Math.max(1, drawable.getIntrinsicHeight());
+    }
+
+    // ==================== RELEASE ====================
+
+    private void releaseLocked(int index) {
+        HeldMedia held = heldByIndex.remove(index);
+        if (held == null) return;
+        heldBytes -= held.bytes;
+        // Returns the resource to Glide's memory cache, where normal LRU eviction applies
+        Glide.with(appContext).clear(held.target);
+    }
+
+    private void releaseAllLocked() {
+        while (!heldByIndex.isEmpty()) {
+            releaseLocked(heldByIndex.firstKey());
+        }
+        failedIndices.clear();
+        heldBytes = 0;
+    }
+}
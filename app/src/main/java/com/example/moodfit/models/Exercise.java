@@ -34,6 +34,7 @@ public class Exercise {
 
     public Exercise(String name, String description, DifficultyLevel difficulty, WorkoutCategory category) {
         this();
+        this.exerciseId = generateExerciseId(name);
         this.name = name;
         this.description = description;
         this.difficulty = difficulty;
@@ -45,6 +46,39 @@ public class Exercise {
         return "ex_" + System.currentTimeMillis();
     }
 
+    /**
+     * Stable ID derived from the exercise name, so the same catalog entry keeps
+     * its ID across app launches (e.g. "Wall Push-Ups" -> "ex_wall_pushups")
+     */
+    private static String generateExerciseId(String name) {
+        if (name == null || name.isEmpty()) {
+            return "ex_" + System.currentTimeMillis();
+        }
+        return "ex_" + toSlug(name);
+    }
+
+    /**
+     * Lowercase slug used for IDs and demo media names: special characters are
+     * dropped and runs of whitespace become a single underscore
+     */
+    public static String toSlug(String name) {
+        StringBuilder slug = new StringBuilder(name.length());
+        boolean pendingSeparator = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = Character.toLowerCase(name.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (pendingSeparator && slug.length() > 0) {
+                    slug.append('_');
+                }
+                pendingSeparator = false;
+                slug.append(c);
+            } else if (Character.isWhitespace(c)) {
+                pendingSeparator = true;
+            }
+        }
+        return slug.toString();
+    }
+
     public boolean isSuitableForMood(MoodType mood) {
         return suitableForMoods.contains(mood);
     }
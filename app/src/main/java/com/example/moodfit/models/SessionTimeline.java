@@ -0,0 +1,234 @@
+package com.example.moodfit.models;
+
+import android.os.SystemClock;
+
+import java.util.Arrays;
+
+/**
+ * SessionTimeline - What happened during a workout, as a compact delta-encoded event list
+ * Each event is one int: the event type (4 bits), the exercise index (8 bits) and the time since
+ * the previous event (20 bits, in 100 ms units, so up to ~29 hours between two events). Times come
+ * from the monotonic clock, so wall-clock changes during a workout do not distort them. The array
+ * is stored as part of the WorkoutSession JSON, so recording it costs no extra I/O.
+ */
+public class SessionTimeline {
+
+    // Event types
+    public static final int EXERCISE_START = 1;
+    public static final int EXERCISE_END = 2;
+    public static final int EXERCISE_CANCEL = 3;
+    public static final int EXERCISE_SKIP = 4;
+    public static final int PAUSE = 5;
+    public static final int RESUME = 6;
+    public static final int WORKOUT_END = 7;
+
+    public static final int MAX_EXERCISES = 256;
+
+    private static final int TYPE_BITS = 4;
+    private static final int INDEX_BITS = 8;
+    private static final int DELTA_SHIFT = TYPE_BITS + INDEX_BITS;
+    private static final int MAX_DELTA_UNITS = (1 << (32 - DELTA_SHIFT)) - 1;
+    private static final int UNIT_MS = 100;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] events = new int[INITIAL_CAPACITY];
+    private int count;
+
+    // Monotonic anchors of the recording process; not persisted
+    private transient long startElapsed;
+    private transient long lastEventUnits;
+
+    /**
+     * Anchor the timeline at the start of the workout
+     */
+    public void start() {
+        startAt(SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * Anchor the timeline at a given SystemClock.elapsedRealtime(), e.g. when rebuilding it from a journal
+     */
+    public void startAt(long startElapsed) {
+        this.startElapsed = startElapsed;
+        lastEventUnits = 0;
+        count = 0;
+    }
+
+    public boolean isRecording() {
+        return startElapsed != 0;
+    }
+
+    public long getStartElapsed() {
+        return startElapsed;
+    }
+
+    /**
+     * Append an event at the current time; ignored if the timeline was not started in this process
+     */
+    public void record(int type, int exerciseIndex) {
+        recordAt(type, exerciseIndex, SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * Append an event that happened at a given SystemClock.elapsedRealtime(); events must come in order
+     */
+    public void recordAt(int type, int exerciseIndex, long elapsedRealtime) {
+        if (!isRecording() || exerciseIndex < 0 || exerciseIndex >= MAX_EXERCISES) return;
+
+        long units = Math.max(lastEventUnits, (elapsedRealtime - startElapsed) / UNIT_MS);
+        int delta = (int) Math.min(MAX_DELTA_UNITS, units - lastEventUnits);
+        lastEventUnits = units;
+
+        if (count == events.length) {
+            events = Arrays.copyOf(events, count * 2);
+        }
+        events[count++] = (delta << DELTA_SHIFT) | (exerciseIndex << TYPE_BITS) | type;
+    }
+
+    /**
+     * Drop spare capacity before the session is stored
+     */
+    public void trim() {
+        if (events.length != count) {
+            events = Arrays.copyOf(events, count);
+        }
+    }
+
+    // ==================== DECODING ====================
+
+    public int getEventCount() {
+        return count;
+    }
+
+    public int getType(int event) {
+        return events[event] & ((1 << TYPE_BITS) - 1);
+    }
+
+    public int getExerciseIndex(int event) {
+        return (events[event] >>> TYPE_BITS) & ((1 << INDEX_BITS) - 1);
+    }
+
+    private long getDeltaMillis(int event) {
+        return (long) (events[event] >>> DELTA_SHIFT) * UNIT_MS;
+    }
+
+    /**
+     * Time of the event since the start of the workout
+     */
+    public long getOffsetMillis(int event) {
+        long offset = 0;
+        for (int i = 0; i <= event; i++) {
+            offset += getDeltaMillis(i);
+        }
+        return offset;
+    }
+
+    /**
+     * Time of the last event (WORKOUT_END once the workout is over) since the start
+     */
+    public long getLengthMillis() {
+        return count == 0 ? 0 : getOffsetMillis(count - 1);
+    }
+
+    /**
+     * Time spent on an exercise's completed attempt, pauses excluded; 0 if it was never completed
+     */
+    public long getExerciseActiveMillis(int exerciseIndex) {
+        long offset = 0;
+        long attemptStart = -1;
+        long pausedAt = -1;
+        long paused = 0;
+
+        for (int i = 0; i < count; i++) {
+            offset += getDeltaMillis(i);
+            if (getExerciseIndex(i) != exerciseIndex) continue;
+
+            switch (getType(i)) {
+                case EXERCISE_START:
+                    attemptStart = offset;
+                    pausedAt = -1;
+                    paused = 0;
+                    break;
+                case PAUSE:
+                    if (attemptStart >= 0 && pausedAt < 0) pausedAt = offset;
+                    break;
+                case RESUME:
+                    if (pausedAt >= 0) {
+                        paused += offset - pausedAt;
+                        pausedAt = -1;
+                    }
+                    break;
+                case EXERCISE_CANCEL:
+                    attemptStart = -1;
+                    break;
+                case EXERCISE_END:
+                    if (attemptStart >= 0) {
+                        if (pausedAt >= 0) paused += offset - pausedAt;
+                        return Math.max(0, offset - attemptStart - paused);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Total time the timers were paused during the workout
+     */
+    public long getPausedMillis() {
+        long offset = 0;
+        long pausedAt = -1;
+        long paused = 0;
+
+        for (int i = 0; i < count; i++) {
+            offset += getDeltaMillis(i);
+            int type = getType(i);
+            if (type == PAUSE && pausedAt < 0) {
+                pausedAt = offset;
+            } else if (pausedAt >= 0 && type != PAUSE) {
+                // Resumed, or the attempt ended while paused
+                paused += offset - pausedAt;
+                pausedAt = -1;
+            }
+        }
+        return paused;
+    }
+
+    public boolean wasSkipped(int exerciseIndex) {
+        return hasEvent(EXERCISE_SKIP, exerciseIndex);
+    }
+
+    public boolean wasCompleted(int exerciseIndex) {
+        return hasEvent(EXERCISE_END, exerciseIndex);
+    }
+
+    /**
+     * An attempt at the exercise was started and has not ended, been cancelled or skipped since
+     */
+    public boolean isAttemptOpen(int exerciseIndex) {
+        for (int i = count - 1; i >= 0; i--) {
+            if (getExerciseIndex(i) != exerciseIndex) continue;
+            switch (getType(i)) {
+                case EXERCISE_START:
+                    return true;
+                case EXERCISE_END:
+                case EXERCISE_CANCEL:
+                case EXERCISE_SKIP:
+                    return false;
+                default:
+                    break;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasEvent(int type, int exerciseIndex) {
+        for (int i = 0; i < count; i++) {
+            if (getType(i) == type && getExerciseIndex(i) == exerciseIndex) return true;
+        }
+        return false;
+    }
+}
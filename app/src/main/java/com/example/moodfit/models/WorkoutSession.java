@@ -4,6 +4,7 @@ import com.example.moodfit.models.enums.MoodType;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 public class WorkoutSession {
     private String sessionId;
@@ -17,12 +18,14 @@ public class WorkoutSession {
     private boolean completed;
     private String notes;
     private int userRating; // 1-5 stars
+    private SessionTimeline timeline; // Empty for sessions stored before timelines existed
 
     // Constructors
     public WorkoutSession() {
         this.sessionId = generateSessionId();
         this.exercises = new ArrayList<>();
         this.startTime = System.currentTimeMillis();
+        this.timeline = new SessionTimeline();
     }
 
     public WorkoutSession(String userId, MoodType selectedMood) {
@@ -33,19 +36,75 @@ public class WorkoutSession {
 
     // Utility Methods
     private String generateSessionId() {
-        return "session_" + System.currentTimeMillis();
+        // Random, so sessions created in the same millisecond never share an id
+        return "session_" + UUID.randomUUID();
     }
 
     public void startWorkout() {
         this.startTime = System.currentTimeMillis();
+        if (timeline == null) {
+            timeline = new SessionTimeline();
+        }
+        timeline.start();
     }
 
     public void endWorkout() {
-        this.endTime = System.currentTimeMillis();
-        this.durationMinutes = (int) ((endTime - startTime) / (1000 * 60));
+        if (timeline != null && timeline.isRecording()) {
+            timeline.record(SessionTimeline.WORKOUT_END, 0);
+            timeline.trim();
+            // Monotonic length, so a clock change during the workout does not distort it
+            this.endTime = startTime + timeline.getLengthMillis();
+        } else {
+            this.endTime = System.currentTimeMillis();
+        }
+        this.durationMinutes = roundToMinutes(endTime - startTime);
         this.completed = true;
     }
 
+    /**
+     * Record a timeline event for an exercise of this session
+     */
+    public void recordEvent(int type, int exerciseIndex) {
+        if (timeline != null) {
+            timeline.record(type, exerciseIndex);
+        }
+    }
+
+    /**
+     * Workout time without the pauses
+     */
+    public long getActiveMillis() {
+        long paused = timeline != null ? timeline.getPausedMillis() : 0;
+        return Math.max(0, getDurationInMillis() - paused);
+    }
+
+    /**
+     * Calories for the time actually spent on each completed exercise, at that exercise's
+     * estimated rate; the stored total when there is no timeline
+     */
+    public int estimateCaloriesBurned() {
+        if (timeline == null || timeline.getEventCount() == 0) return caloriesBurned;
+
+        double calories = 0;
+        for (int i = 0; i < exercises.size(); i++) {
+            Exercise exercise = exercises.get(i);
+            long activeMillis = timeline.getExerciseActiveMillis(i);
+            int estimatedMinutes = exercise.getEstimatedDurationMinutes();
+            if (activeMillis == 0 || estimatedMinutes <= 0) continue;
+
+            calories += exercise.getEstimatedCalories() * (activeMillis / 60000.0) / estimatedMinutes;
+        }
+        return (int) Math.round(calories);
+    }
+
+    /**
+     * Nearest whole minute; anything under a minute counts as one
+     */
+    private static int roundToMinutes(long millis) {
+        if (millis <= 0) return 0;
+        return (int) Math.max(1, (millis + 30 * 1000) / (60 * 1000));
+    }
+
     public void addExercise(Exercise exercise) {
         exercises.add(exercise);
         // Update estimated calories
@@ -96,6 +155,8 @@ public class WorkoutSession {
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
 
+    public SessionTimeline getTimeline() { return timeline; }
+
     public int getUserRating() { return userRating; }
     public void setUserRating(int userRating) { this.userRating = Math.max(1, Math.min(5, userRating)); }
 }
@@ -1,13 +1,28 @@
 package com.example.moodfit.models;
 
+import android.os.SystemClock;
+
+import com.example.moodfit.timer.TimerText;
+
+/**
+ * WorkoutTimer - Countdown state machine on the monotonic clock
+ * Only the start time, the start of the current pause and the total paused time are stored;
+ * remaining time is always derived from them, so a timer restored from a checkpoint after
+ * backgrounding or process death is exact without having ticked in between.
+ */
 public class WorkoutTimer {
+
+    public enum State { IDLE, RUNNING, PAUSED, FINISHED }
+
     private int totalSeconds;
     private int remainingSeconds;
-    private boolean isRunning;
-    private boolean isPaused;
+    private State state = State.IDLE;
+    // SystemClock.elapsedRealtime() values: monotonic, unaffected by wall-clock changes
     private long startTime;
     private long pausedTime;
+    private long pausedTotalMs;
     private TimerListener listener;
+    private Checkpointer checkpointer;
 
     public interface TimerListener {
         void onTick(int remainingSeconds);
@@ -17,62 +32,114 @@ public class WorkoutTimer {
         void onTimerResume();
     }
 
+    /**
+     * Receives a snapshot after every state transition (never per tick)
+     */
+    public interface Checkpointer {
+        void save(Snapshot snapshot);
+    }
+
+    /**
+     * Everything needed to rebuild the timer; immutable
+     */
+    public static final class Snapshot {
+        public final State state;
+        public final int totalSeconds;
+        public final long startTime;
+        public final long pausedTime;
+        public final long pausedTotalMs;
+
+        public Snapshot(State state, int totalSeconds, long startTime, long pausedTime, long pausedTotalMs) {
+            this.state = state;
+            this.totalSeconds = totalSeconds;
+            this.startTime = startTime;
+            this.pausedTime = pausedTime;
+            this.pausedTotalMs = pausedTotalMs;
+        }
+    }
+
     // Constructors
     public WorkoutTimer(int seconds) {
         this.totalSeconds = seconds;
         this.remainingSeconds = seconds;
-        this.isRunning = false;
-        this.isPaused = false;
+        TimerText.prepare(seconds);
+    }
+
+    /**
+     * Rebuild a timer from a checkpoint; a running timer keeps counting from its original start
+     */
+    public static WorkoutTimer restore(Snapshot snapshot) {
+        WorkoutTimer timer = new WorkoutTimer(snapshot.totalSeconds);
+        timer.state = snapshot.state;
+        timer.startTime = snapshot.startTime;
+        timer.pausedTime = snapshot.pausedTime;
+        timer.pausedTotalMs = snapshot.pausedTotalMs;
+        timer.remainingSeconds = timer.computeRemainingSeconds(SystemClock.elapsedRealtime());
+        return timer;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(state, totalSeconds, startTime, pausedTime, pausedTotalMs);
     }
 
     // Timer Control Methods
     public void start() {
-        if (!isRunning && !isPaused) {
-            isRunning = true;
-            startTime = System.currentTimeMillis();
+        if (state == State.IDLE || state == State.FINISHED) {
+            state = State.RUNNING;
+            startTime = SystemClock.elapsedRealtime();
+            pausedTotalMs = 0;
+            checkpoint();
             if (listener != null) listener.onTimerStart();
         }
     }
 
     public void pause() {
-        if (isRunning && !isPaused) {
-            isPaused = true;
-            pausedTime = System.currentTimeMillis();
+        if (state == State.RUNNING) {
+            state = State.PAUSED;
+            pausedTime = SystemClock.elapsedRealtime();
+            checkpoint();
             if (listener != null) listener.onTimerPause();
         }
     }
 
     public void resume() {
-        if (isPaused) {
-            isPaused = false;
-            // Adjust start time to account for pause duration
-            long pauseDuration = System.currentTimeMillis() - pausedTime;
-            startTime += pauseDuration;
+        if (state == State.PAUSED) {
+            state = State.RUNNING;
+            pausedTotalMs += SystemClock.elapsedRealtime() - pausedTime;
+            pausedTime = 0;
+            checkpoint();
             if (listener != null) listener.onTimerResume();
         }
     }
 
     public void reset() {
-        isRunning = false;
-        isPaused = false;
+        state = State.IDLE;
         remainingSeconds = totalSeconds;
         startTime = 0;
         pausedTime = 0;
+        pausedTotalMs = 0;
+        checkpoint();
     }
 
     public void stop() {
-        isRunning = false;
-        isPaused = false;
+        state = State.FINISHED;
+        checkpoint();
         if (listener != null) listener.onFinish();
     }
 
     // Utility Methods
+
+    /**
+     * Recompute the remaining time; onTick fires only when the displayed second changes
+     */
     public void tick() {
-        if (isRunning && !isPaused) {
-            long elapsed = (System.currentTimeMillis() - startTime) / 1000;
-            remainingSeconds = Math.max(0, totalSeconds - (int) elapsed);
+        if (state == State.RUNNING) {
+            int remaining = computeRemainingSeconds(SystemClock.elapsedRealtime());
 
-            if (listener != null) listener.onTick(remainingSeconds);
+            if (remaining != remainingSeconds) {
+                remainingSeconds = remaining;
+                if (listener != null) listener.onTick(remainingSeconds);
+            }
 
             if (remainingSeconds <= 0) {
                 stop();
@@ -80,27 +147,89 @@ public class WorkoutTimer {
         }
     }
 
+    /**
+     * Counted (unpaused) time at the given elapsedRealtime
+     */
+    private long getActiveMillis(long now) {
+        switch (state) {
+            case RUNNING:
+                return now - startTime - pausedTotalMs;
+            case PAUSED:
+                return pausedTime - startTime - pausedTotalMs;
+            case FINISHED:
+                return totalSeconds * 1000L;
+            default:
+                return 0;
+        }
+    }
+
+    private int computeRemainingSeconds(long now) {
+        long elapsed = getActiveMillis(now) / 1000;
+        return (int) Math.max(0, totalSeconds - elapsed);
+    }
+
+    /**
+     * Milliseconds until remainingSeconds next changes, or -1 when the timer is not counting down
+     */
+    public long getMillisUntilNextSecond() {
+        if (state != State.RUNNING) return -1;
+        return 1000 - (getActiveMillis(SystemClock.elapsedRealtime()) % 1000);
+    }
+
+    /**
+     * elapsedRealtime at which a running timer reaches zero, or -1 when it is not running
+     */
+    public long getCompletionTime() {
+        return getTimeAtElapsed(totalSeconds);
+    }
+
+    /**
+     * elapsedRealtime at which a running timer will have counted the given seconds, or -1 when it
+     * is not running
+     */
+    public long getTimeAtElapsed(int elapsedSeconds) {
+        if (state != State.RUNNING) return -1;
+        return startTime + pausedTotalMs + elapsedSeconds * 1000L;
+    }
+
+    private void checkpoint() {
+        if (checkpointer != null) checkpointer.save(snapshot());
+    }
+
     public String getFormattedTime() {
-        int minutes = remainingSeconds / 60;
-        int seconds = remainingSeconds % 60;
-        return String.format("%02d:%02d", minutes, seconds);
+        return TimerText.format(remainingSeconds);
     }
 
     public float getProgress() {
         return (float) (totalSeconds - remainingSeconds) / totalSeconds;
     }
 
+    /**
+     * Progress from the clock rather than the last whole second, for smooth animations
+     */
+    public float getPreciseProgress() {
+        if (totalSeconds <= 0) return 0f;
+        long activeMs = getActiveMillis(SystemClock.elapsedRealtime());
+        return Math.min(1f, activeMs / (totalSeconds * 1000f));
+    }
+
     // Getters and Setters
     public int getTotalSeconds() { return totalSeconds; }
     public void setTotalSeconds(int totalSeconds) {
         this.totalSeconds = totalSeconds;
         this.remainingSeconds = totalSeconds;
+        TimerText.prepare(totalSeconds);
     }
 
     public int getRemainingSeconds() { return remainingSeconds; }
-    public boolean isRunning() { return isRunning; }
-    public boolean isPaused() { return isPaused; }
+    public State getState() { return state; }
+    // Paused timers still count as running, as before
+    public boolean isRunning() { return state == State.RUNNING || state == State.PAUSED; }
+    public boolean isPaused() { return state == State.PAUSED; }
 
     public TimerListener getListener() { return listener; }
     public void setListener(TimerListener listener) { this.listener = listener; }
-}
\ No newline at end of file
+
+    public Checkpointer getCheckpointer() { return checkpointer; }
+    public void setCheckpointer(Checkpointer checkpointer) { this.checkpointer = checkpointer; }
+}
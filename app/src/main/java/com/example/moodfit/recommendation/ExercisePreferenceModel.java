@@ -0,0 +1,385 @@
+package com.example.moodfit.recommendation;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.moodfit.models.Exercise;
+import com.example.moodfit.models.SessionTimeline;
+import com.example.moodfit.models.WorkoutSession;
+import com.example.moodfit.models.enums.DifficultyLevel;
+import com.example.moodfit.models.enums.MoodType;
+import com.example.moodfit.models.enums.WorkoutCategory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ExercisePreferenceModel - On-device online logistic model of what the user enjoys
+ * Learns from each completed WorkoutSession (rating, completion, mood, time of day) with one
+ * SGD step per exercise, so an update costs O(active features) and never rescans history.
+ *
+ * Features are sparse and binary: category, difficulty, duration bucket, a hashed exercise
+ * slot, and mood x category, mood x difficulty and time-of-day x category crosses.
+ * Scoring a catalog is a single pass over a FeatureTable built once per catalog.
+ *
+ * Without a saved model, the first use trains on the recorded history once (bootstrap) on a
+ * background thread. Until that finishes every exercise scores 1.0, i.e. the prior.
+ */
+public class ExercisePreferenceModel {
+
+    private static final String TAG = "ExercisePreferenceModel";
+
+    private static final String PREFS_NAME = "recommendation_model_prefs";
+    private static final String KEY_MODEL = "preference_model";
+    private static final char ENCODING_VERSION = '1';
+
+    // Learning configuration
+    private static final float LEARNING_RATE = 0.15f;
+    private static final float L2_REGULARIZATION = 0.002f;
+    private static final double MAX_LOG_ODDS_SHIFT = 1.5; // Affinity stays within [0.22x, 4.5x]
+
+    // Feature layout
+    private static final int CATEGORIES = WorkoutCategory.values().length;
+    private static final int DIFFICULTIES = DifficultyLevel.values().length;
+    private static final int MOODS = MoodType.values().length;
+    private static final int DURATION_BUCKETS = 4;
+    private static final int TIME_BUCKETS = 4;
+    private static final int EXERCISE_SLOTS = 128;
+
+    private static final int BIAS = 0;
+    private static final int CATEGORY_BASE = BIAS + 1;
+    private static final int DIFFICULTY_BASE = CATEGORY_BASE + CATEGORIES;
+    private static final int DURATION_BASE = DIFFICULTY_BASE + DIFFICULTIES;
+    private static final int EXERCISE_BASE = DURATION_BASE + DURATION_BUCKETS;
+    private static final int MOOD_CATEGORY_BASE = EXERCISE_BASE + EXERCISE_SLOTS;
+    private static final int MOOD_DIFFICULTY_BASE = MOOD_CATEGORY_BASE + MOODS * CATEGORIES;
+    private static final int TIME_CATEGORY_BASE = MOOD_DIFFICULTY_BASE + MOODS * DIFFICULTIES;
+    private static final int FEATURE_COUNT = TIME_CATEGORY_BASE + TIME_BUCKETS * CATEGORIES;
+
+    // Mood- and time-independent features stored per catalog row (bias excluded)
+    private static final int STATIC_FEATURES = 4;
+
+    /** Hour bucket value meaning "time of day unknown" */
+    public static final int NO_TIME_BUCKET = -1;
+
+    private static ExercisePreferenceModel instance;
+
+    private final SharedPreferences prefs;
+    private final float[] weights = new float[FEATURE_COUNT];
+    private int updateCount = 0;
+    private boolean restored;
+    private boolean bootstrapStarted;
+    // Sessions recorded while the bootstrap was running; learned afterwards unless its history had them
+    private List<WorkoutSession> pendingSessions;
+
+    private ExercisePreferenceModel(SharedPreferences prefs) {
+        this.prefs = prefs;
+        this.restored = prefs != null && restore();
+    }
+
+    /**
+     * Shared model for this process, restored from preferences on first use
+     */
+    public static synchronized ExercisePreferenceModel getInstance(Context context) {
+        if (instance == null) {
+            instance = new ExercisePreferenceModel(context.getApplicationContext()
+                    .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE));
+        }
+        return instance;
+    }
+
+    // ==================== LEARNING ====================
+
+    /**
+     * Claim the one-time bootstrap: true for exactly one caller, and only if no model was saved
+     */
+    public synchronized boolean beginBootstrap() {
+        if (restored || bootstrapStarted) return false;
+        bootstrapStarted = true;
+        return true;
+    }
+
+    /**
+     * One-time catch-up over previously recorded sessions, used when no model was saved yet.
+     * Trains outside the lock so scoring meanwhile is never blocked; call it off the main thread.
+     */
+    public void bootstrap(List<WorkoutSession> history) {
+        float[] trained = new float[FEATURE_COUNT];
+        int updates = 0;
+        Set<String> learnedIds = new HashSet<>();
+        if (history != null) {
+            for (WorkoutSession session : history) {
+                updates += learn(session, trained);
+                if (session != null) learnedIds.add(session.getSessionId());
+            }
+        }
+
+        synchronized (this) {
+            if (restored) return;
+            System.arraycopy(trained, 0, weights, 0, FEATURE_COUNT);
+            updateCount = updates;
+            if (pendingSessions != null) {
+                for (WorkoutSession session : pendingSessions) {
+                    if (!learnedIds.contains(session.getSessionId())) {
+                        updateCount += learn(session, weights);
+                    }
+                }
+                pendingSessions = null;
+            }
+            restored = true;
+            save();
+        }
+        Log.d(TAG, "Bootstrapped from " + (history != null ? history.size() : 0) + " sessions");
+    }
+
+    /**
+     * Update the model with one finished session and persist it
+     */
+    public synchronized void learnFrom(WorkoutSession session) {
+        if (session == null) return;
+
+        if (!restored) {
+            // The running bootstrap may or may not find this session in the history
+            if (pendingSessions == null) pendingSessions = new ArrayList<>();
+            pendingSessions.add(session);
+            return;
+        }
+
+        int updates = learn(session, weights);
+        if (updates > 0) {
+            updateCount += updates;
+            save();
+        }
+    }
+
+    /**
+     * One SGD step per exercise of the session on w; returns the number of steps taken
+     */
+    private static int learn(WorkoutSession session, float[] w) {
+        if (session == null) return 0;
+
+        List<Exercise> exercises = session.getExercises();
+        if (exercises.isEmpty()) return 0;
+
+        float sessionTarget = targetFor(session);
+        SessionTimeline timeline = session.getTimeline();
+        boolean hasTimeline = timeline != null && timeline.getEventCount() > 0;
+        int mood = session.getSelectedMood() != null ? session.getSelectedMood().ordinal() : -1;
+        int timeBucket = timeBucketOf(session.getStartTime());
+
+        int[] active = new int[STATIC_FEATURES + 4];
+        int updates = 0;
+        for (int i = 0; i < exercises.size(); i++) {
+            Exercise exercise = exercises.get(i);
+            if (exercise == null || exercise.getCategory() == null || exercise.getDifficulty() == null) continue;
+
+            float target = hasTimeline ? targetFor(session, timeline, i) : sessionTarget;
+            int count = activeFeatures(exercise, mood, timeBucket, active);
+            double z = 0;
+            for (int k = 0; k < count; k++) {
+                z += w[active[k]];
+            }
+            float gradient = (float) (sigmoid(z) - target);
+            for (int k = 0; k < count; k++) {
+                int feature = active[k];
+                w[feature] -= LEARNING_RATE * (gradient + L2_REGULARIZATION * w[feature]);
+            }
+            updates++;
+        }
+        return updates;
+    }
+
+    /**
+     * Soft label in [0, 1]: the star rating if given, otherwise completion
+     */
+    private static float targetFor(WorkoutSession session) {
+        int rating = session.getUserRating();
+        if (rating >= 1 && rating <= 5) {
+            return (rating - 1) / 4f;
+        }
+        return session.isCompleted() ? 0.8f : 0.2f;
+    }
+
+    /**
+     * Per exercise when the session has a timeline: a skipped exercise is a clear "no" whatever
+     * the session's rating, a completed one gets the session's label
+     */
+    private static float targetFor(WorkoutSession session, SessionTimeline timeline, int exerciseIndex) {
+        if (timeline.wasSkipped(exerciseIndex)) return 0.1f;
+        if (timeline.wasCompleted(exerciseIndex)) return targetFor(session);
+        return 0.2f;
+    }
+
+    private static int activeFeatures(Exercise exercise, int mood, int timeBucket, int[] out) {
+        int category = exercise.getCategory().ordinal();
+        int difficulty = exercise.getDifficulty().ordinal();
+
+        int count = 0;
+        out[count++] = BIAS;
+        out[count++] = CATEGORY_BASE + category;
+        out[count++] = DIFFICULTY_BASE + difficulty;
+        out[count++] = DURATION_BASE + durationBucketOf(exercise.getEstimatedDurationMinutes());
+        out[count++] = EXERCISE_BASE + exerciseSlotOf(exercise.getExerciseId());
+        if (mood >= 0) {
+            out[count++] = MOOD_CATEGORY_BASE + mood * CATEGORIES + category;
+            out[count++] = MOOD_DIFFICULTY_BASE + mood * DIFFICULTIES + difficulty;
+        }
+        if (timeBucket >= 0) {
+            out[count++] = TIME_CATEGORY_BASE + timeBucket * CATEGORIES + category;
+        }
+        return count;
+    }
+
+    // ==================== SCORING ====================
+
+    /**
+     * Score every row of the table into out[] as a multiplicative affinity around 1.0
+     * (1.0 = no learned preference). Mood may be null and timeBucket NO_TIME_BUCKET.
+     */
+    public synchronized void scoreAll(FeatureTable table, MoodType mood, int timeBucket, double[] out) {
+        int rows = table.size;
+        int[] features = table.staticFeatures;
+        byte[] categories = table.categories;
+        byte[] difficulties = table.difficulties;
+        float[] w = weights;
+
+        int moodCategoryBase = mood != null ? MOOD_CATEGORY_BASE + mood.ordinal() * CATEGORIES : -1;
+        int moodDifficultyBase = mood != null ? MOOD_DIFFICULTY_BASE + mood.ordinal() * DIFFICULTIES : -1;
+        int timeCategoryBase = timeBucket >= 0 ? TIME_CATEGORY_BASE + timeBucket * CATEGORIES : -1;
+
+        for (int row = 0, f = 0; row < rows; row++, f += STATIC_FEATURES) {
+            // Log-odds relative to the bias, so an untrained model scores exactly 1.0
+            double z = w[features[f]] + w[features[f + 1]] + w[features[f + 2]] + w[features[f + 3]];
+            if (moodCategoryBase >= 0) {
+                z += w[moodCategoryBase + categories[row]] + w[moodDifficultyBase + difficulties[row]];
+            }
+            if (timeCategoryBase >= 0) {
+                z += w[timeCategoryBase + categories[row]];
+            }
+            out[row] = Math.exp(Math.max(-MAX_LOG_ODDS_SHIFT, Math.min(MAX_LOG_ODDS_SHIFT, z)));
+        }
+    }
+
+    public synchronized int getUpdateCount() { return updateCount; }
+
+    /**
+     * Time-of-day bucket for a timestamp: night, morning, afternoon or evening
+     */
+    public static int timeBucketOf(long timeMillis) {
+        if (timeMillis <= 0) return NO_TIME_BUCKET;
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(timeMillis);
+        int hour = calendar.get(Calendar.HOUR_OF_DAY);
+        if (hour < 6) return 0;
+        if (hour < 12) return 1;
+        if (hour < 18) return 2;
+        return 3;
+    }
+
+    private static int durationBucketOf(int minutes) {
+        if (minutes <= 2) return 0;
+        if (minutes <= 5) return 1;
+        if (minutes <= 10) return 2;
+        return 3;
+    }
+
+    private static int exerciseSlotOf(String exerciseId) {
+        int hash = exerciseId != null ? exerciseId.hashCode() : 0;
+        hash ^= (hash >>> 16);
+        return (hash & 0x7fffffff) % EXERCISE_SLOTS;
+    }
+
+    private static double sigmoid(double z) {
+        return 1.0 / (1.0 + Math.exp(-z));
+    }
+
+    // ==================== FEATURE TABLE ====================
+
+    /**
+     * Catalog encoded once into flat primitive arrays for scoring
+     */
+    public static class FeatureTable {
+        final int size;
+        final int[] staticFeatures;
+        final byte[] categories;
+        final byte[] difficulties;
+        private final Map<String, Integer> rowById;
+
+        public FeatureTable(List<Exercise> catalog) {
+            this.size = catalog.size();
+            this.staticFeatures = new int[size * STATIC_FEATURES];
+            this.categories = new byte[size];
+            this.difficulties = new byte[size];
+            this.rowById = new HashMap<>(size * 2);
+
+            int[] active = new int[STATIC_FEATURES + 4];
+            for (int row = 0; row < size; row++) {
+                Exercise exercise = catalog.get(row);
+                activeFeatures(exercise, -1, NO_TIME_BUCKET, active);
+                // Skip the bias at active[0]
+                System.arraycopy(active, 1, staticFeatures, row * STATIC_FEATURES, STATIC_FEATURES);
+                categories[row] = (byte) exercise.getCategory().ordinal();
+                difficulties[row] = (byte) exercise.getDifficulty().ordinal();
+                if (!rowById.containsKey(exercise.getExerciseId())) {
+                    rowById.put(exercise.getExerciseId(), row);
+                }
+            }
+        }
+
+        public int size() { return size; }
+
+        /**
+         * Row of the first exercise with this ID, or -1
+         */
+        public int rowOf(String exerciseId) {
+            Integer row = rowById.get(exerciseId);
+            return row != null ? row : -1;
+        }
+    }
+
+    // ==================== PERSISTENCE ====================
+
+    private boolean restore() {
+        try {
+            String encoded = prefs.getString(KEY_MODEL, null);
+            if (encoded == null || encoded.length() < 3 || encoded.charAt(0) != ENCODING_VERSION) {
+                return false;
+            }
+            int separator = encoded.indexOf(':', 2);
+            int savedUpdates = Integer.parseInt(encoded.substring(2, separator));
+            byte[] bytes = Base64.getDecoder().decode(encoded.substring(separator + 1));
+            if (bytes.length != FEATURE_COUNT * 4) {
+                Log.w(TAG, "Saved model has a different feature layout, starting over");
+                return false;
+            }
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(weights);
+            updateCount = savedUpdates;
+            return true;
+        } catch (Exception e) {
+            Log.w(TAG, "Could not restore preference model", e);
+            return false;
+        }
+    }
+
+    private void save() {
+        if (prefs == null) return;
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(FEATURE_COUNT * 4).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.asFloatBuffer().put(weights);
+            String encoded = ENCODING_VERSION + ":" + updateCount + ":" +
+                    Base64.getEncoder().encodeToString(buffer.array());
+            prefs.edit().putString(KEY_MODEL, encoded).apply();
+        } catch (Exception e) {
+            Log.w(TAG, "Could not save preference model", e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.moodfit.recommendation;
+
+import com.example.moodfit.models.Exercise;
+import com.example.moodfit.models.enums.DifficultyLevel;
+import com.example.moodfit.models.enums.MoodType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+/**
+ * MoodCandidatePools - Per-(mood, difficulty) candidate lists computed at most once
+ * Pools can be requested lazily on the calling thread or prefetched in the background;
+ * a pool that is already being built is waited for instead of built twice.
+ */
+public class MoodCandidatePools {
+
+    /**
+     * Builds the candidate list for one mood at one difficulty (must be safe to call off the UI thread)
+     */
+    public interface PoolBuilder {
+        List<Exercise> build(MoodType mood, DifficultyLevel difficulty);
+    }
+
+    private static final int DIFFICULTY_COUNT = DifficultyLevel.values().length;
+
+    // Shared low-priority thread for speculative pool building
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MoodFitPoolPrefetch");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private final PoolBuilder builder;
+    private final ConcurrentHashMap<Integer, FutureTask<List<Exercise>>> pools = new ConcurrentHashMap<>();
+
+    public MoodCandidatePools(PoolBuilder builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * Get the pool for a mood and difficulty, building it on the calling thread if nobody has yet
+     */
+    public List<Exercise> get(MoodType mood, DifficultyLevel difficulty) {
+        FutureTask<List<Exercise>> task = taskFor(mood, difficulty);
+        task.run(); // No-op if the task already ran or is running on the prefetch thread
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return builder.build(mood, difficulty);
+        } catch (ExecutionException e) {
+            // Drop the failed entry so the next request retries
+            pools.remove(keyOf(mood, difficulty), task);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * True if the pool has finished building and get() will not block
+     */
+    public boolean isReady(MoodType mood, DifficultyLevel difficulty) {
+        FutureTask<List<Exercise>> task = pools.get(keyOf(mood, difficulty));
+        return task != null && task.isDone();
+    }
+
+    /**
+     * Build the pool in the background if it is not built or building already
+     */
+    public void prefetch(MoodType mood, DifficultyLevel difficulty) {
+        FutureTask<List<Exercise>> task = taskFor(mood, difficulty);
+        if (!task.isDone()) {
+            PREFETCH_EXECUTOR.execute(task);
+        }
+    }
+
+    /**
+     * Speculatively prefetch every mood except the given one (which may be null)
+     */
+    public void prefetchOtherMoods(MoodType currentMood, DifficultyLevel difficulty) {
+        for (MoodType mood : MoodType.values()) {
+            if (mood != currentMood) {
+                prefetch(mood, difficulty);
+            }
+        }
+    }
+
+    /**
+     * Forget all pools, e.g. after the catalog or the user's difficulty changes
+     */
+    public void invalidate() {
+        pools.clear();
+    }
+
+    private FutureTask<List<Exercise>> taskFor(MoodType mood, DifficultyLevel difficulty) {
+        return pools.computeIfAbsent(keyOf(mood, difficulty), key -> new FutureTask<>(
+                () -> Collections.unmodifiableList(new ArrayList<>(builder.build(mood, difficulty)))));
+    }
+
+    private static int keyOf(MoodType mood, DifficultyLevel difficulty) {
+        return mood.ordinal() * DIFFICULTY_COUNT + difficulty.ordinal();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.moodfit.recommendation;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * RecommendationExecutor - Runs recommendation work off the UI thread, latest request wins
+ * Each instance is one channel: submitting new work cancels the previous request, and only
+ * the latest request's result is delivered, through a single post to the main thread.
+ *
+ * All instances share one background thread, so recommendation jobs never run concurrently
+ * with each other. submit() and cancel() must be called on the main thread.
+ */
+public class RecommendationExecutor {
+
+    private static final String TAG = "RecommendationExecutor";
+
+    /**
+     * Receives the result of the latest request on the main thread
+     */
+    public interface Callback<T> {
+        void onResult(T result);
+
+        default void onError(Exception error) {
+            Log.e(TAG, "Recommendation failed", error);
+        }
+    }
+
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MoodFitRecommendation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Main thread only
+    private long latestRequest = 0;
+    private Future<?> inFlight;
+
+    /**
+     * Compute on the worker and deliver the result no earlier than minDeliveryDelayMs after
+     * this call, so a "generating" animation overlaps the computation instead of adding to it
+     */
+    public <T> void submit(Callable<T> work, long minDeliveryDelayMs, Callback<T> callback) {
+        cancel();
+
+        final long request = ++latestRequest;
+        final long deliverAt = SystemClock.uptimeMillis() + Math.max(0, minDeliveryDelayMs);
+
+        inFlight = WORKER.submit(() -> {
+            long startNanos = System.nanoTime();
+            T result = null;
+            Exception error = null;
+            try {
+                result = work.call();
+            } catch (Exception e) {
+                error = e;
+            }
+            if (Thread.currentThread().isInterrupted()) return;
+
+            Log.d(TAG, "Request " + request + " computed in " + ((System.nanoTime() - startNanos) / 1000) + "us");
+
+            // The single hop to the main thread; a stale request is dropped on arrival
+            final T finalResult = result;
+            final Exception finalError = error;
+            mainHandler.postAtTime(() -> {
+                if (request != latestRequest) return;
+                inFlight = null;
+                if (finalError != null) {
+                    callback.onError(finalError);
+                } else {
+                    callback.onResult(finalResult);
+                }
+            }, this, Math.max(deliverAt, SystemClock.uptimeMillis()));
+        });
+    }
+
+    /**
+     * Run one-off background work (e.g. warming up a model) on the shared thread. Requests
+     * submitted afterwards run after it. Safe to call from any thread.
+     */
+    public static void runInBackground(Runnable work) {
+        WORKER.execute(() -> {
+            try {
+                work.run();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Background work failed", e);
+            }
+        });
+    }
+
+    /**
+     * Drop the current request; its result will never be delivered
+     */
+    public void cancel() {
+        latestRequest++;
+        if (inFlight != null) {
+            inFlight.cancel(true);
+            inFlight = null;
+        }
+        mainHandler.removeCallbacksAndMessages(this);
+    }
+
+    /**
+     * True while a request is computing or waiting to be delivered
+     */
+    public boolean isBusy() {
+        return inFlight != null;
+    }
+}
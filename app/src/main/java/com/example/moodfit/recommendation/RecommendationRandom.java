@@ -0,0 +1,245 @@
+package com.example.moodfit.recommendation;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.moodfit.utils.DebouncedPrefsWriter;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * RecommendationRandom - Reproducible randomness for recommendations
+ * Every draw is seeded from (user, day, stream, draw index), so a day's recommendations
+ * can be replayed exactly for debugging or experiment analysis. Draw counters are
+ * persisted so reopening a screen continues the day's sequence instead of repeating it.
+ *
+ * Callers take a fresh SplittableRandom per recommendation via nextGenerator() and keep it
+ * confined to one thread; issuing generators is thread-safe. Speculative work (e.g. selections
+ * computed ahead of time) takes a DrawSlot instead and commits it only once the result is shown,
+ * so discarded speculation never advances the persisted counter.
+ */
+public class RecommendationRandom {
+
+    private static final String TAG = "RecommendationRandom";
+
+    private static final String PREFS_NAME = "recommendation_random_prefs";
+    private static final String KEY_DAY = "day";
+    private static final String KEY_USER = "user";
+    private static final String KEY_COUNTER_PREFIX = "draws_";
+    private static final long COUNTER_FLUSH_IDLE_MS = 1000;
+    private static final int COUNTER_FLUSH_MAX_PENDING = 20;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Independent random streams; adding a stream never shifts the sequence of another
+     */
+    public enum Stream {
+        MOOD_WORKOUT,
+        RANDOM_EXERCISE,
+        QUOTE
+    }
+
+    /**
+     * A position in a day's sequence of one stream, reserved without being counted
+     */
+    public static final class DrawSlot {
+        public final Stream stream;
+        public final long epochDay;
+        public final long index;
+
+        DrawSlot(Stream stream, long epochDay, long index) {
+            this.stream = stream;
+            this.epochDay = epochDay;
+            this.index = index;
+        }
+
+        /**
+         * The slot right after this one, e.g. for a chain of speculative draws
+         */
+        public DrawSlot next() {
+            return new DrawSlot(stream, epochDay, index + 1);
+        }
+    }
+
+    private static RecommendationRandom instance;
+
+    private final String userId;
+    private final boolean replay;
+    private final DebouncedPrefsWriter counterWriter;
+
+    // Guarded by this
+    private long epochDay;
+    private final long[] drawCounts = new long[Stream.values().length];
+
+    private RecommendationRandom(String userId, long epochDay, boolean replay, SharedPreferences prefs) {
+        this.userId = userId != null ? userId : "";
+        this.epochDay = epochDay;
+        this.replay = replay;
+        this.counterWriter = prefs != null ?
+                new DebouncedPrefsWriter(prefs, COUNTER_FLUSH_IDLE_MS, COUNTER_FLUSH_MAX_PENDING) : null;
+
+        if (prefs != null) {
+            restoreCounters(prefs);
+        }
+    }
+
+    /**
+     * Shared live instance for the given user, continuing today's persisted sequence
+     */
+    public static synchronized RecommendationRandom getInstance(Context context, String userId) {
+        String id = userId != null ? userId : "";
+        if (instance == null || !instance.userId.equals(id)) {
+            SharedPreferences prefs = context.getApplicationContext()
+                    .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+            instance = new RecommendationRandom(id, LocalDate.now().toEpochDay(), false, prefs);
+        }
+        return instance;
+    }
+
+    /**
+     * Detached instance that replays a user's draws for a given day from the first draw.
+     * Nothing is persisted and the live sequence is unaffected.
+     */
+    public static RecommendationRandom forReplay(String userId, long epochDay) {
+        return new RecommendationRandom(userId, epochDay, true, null);
+    }
+
+    // ==================== DRAWS ====================
+
+    /**
+     * Issue the generator for the next recommendation on the given stream
+     */
+    public SplittableRandom nextGenerator(Stream stream) {
+        long day;
+        long drawIndex;
+        synchronized (this) {
+            rollOverIfNewDay();
+            day = epochDay;
+            drawIndex = drawCounts[stream.ordinal()]++;
+            persistCountersLocked();
+        }
+
+        return new SplittableRandom(seedFor(userId, day, stream, drawIndex));
+    }
+
+    /**
+     * Slot of the next uncounted draw on the given stream; nothing is counted until commitDraw()
+     */
+    public synchronized DrawSlot peekNextDraw(Stream stream) {
+        rollOverIfNewDay();
+        return new DrawSlot(stream, epochDay, drawCounts[stream.ordinal()]);
+    }
+
+    /**
+     * Generator of a reserved draw; the same slot always gives the same sequence
+     */
+    public SplittableRandom generatorFor(DrawSlot slot) {
+        return new SplittableRandom(seedFor(userId, slot.epochDay, slot.stream, slot.index));
+    }
+
+    /**
+     * Count a reserved draw as used: the stream continues after it. Slots from another day,
+     * or behind the counter already, change nothing.
+     */
+    public synchronized void commitDraw(DrawSlot slot) {
+        rollOverIfNewDay();
+        int stream = slot.stream.ordinal();
+        if (slot.epochDay != epochDay || slot.index < drawCounts[stream]) return;
+        drawCounts[stream] = slot.index + 1;
+        persistCountersLocked();
+    }
+
+    /**
+     * Stable experiment bucket in [0, buckets) for this user, independent of the day
+     */
+    public int bucketFor(String experiment, int buckets) {
+        if (buckets <= 0) return 0;
+        long hash = mix64(hashString(userId) ^ mix64(hashString(experiment)));
+        return (int) Long.remainderUnsigned(hash, buckets);
+    }
+
+    /**
+     * Seed of a single draw; public so tools can reproduce a logged draw directly
+     */
+    public static long seedFor(String userId, long epochDay, Stream stream, long drawIndex) {
+        long seed = hashString(userId != null ? userId : "");
+        seed = mix64(seed + epochDay * GOLDEN_GAMMA);
+        seed = mix64(seed + (stream.ordinal() + 1) * GOLDEN_GAMMA);
+        return mix64(seed + drawIndex * GOLDEN_GAMMA);
+    }
+
+    public synchronized long getEpochDay() { return epochDay; }
+    public String getUserId() { return userId; }
+    public boolean isReplay() { return replay; }
+
+    // ==================== PERSISTENCE ====================
+
+    private void rollOverIfNewDay() {
+        if (replay) return;
+        long today = LocalDate.now().toEpochDay();
+        if (today != epochDay) {
+            epochDay = today;
+            for (int i = 0; i < drawCounts.length; i++) {
+                drawCounts[i] = 0;
+            }
+        }
+    }
+
+    private void restoreCounters(SharedPreferences prefs) {
+        try {
+            if (prefs.getLong(KEY_DAY, -1) != epochDay || !userId.equals(prefs.getString(KEY_USER, null))) {
+                return; // Another day or user: start the sequence over
+            }
+            for (Stream stream : Stream.values()) {
+                drawCounts[stream.ordinal()] = prefs.getLong(KEY_COUNTER_PREFIX + stream.name(), 0);
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Could not restore draw counters", e);
+        }
+    }
+
+    private void persistCountersLocked() {
+        if (counterWriter == null) return;
+
+        // Snapshot under the lock so a newer count is never overwritten by an older one
+        final long day = epochDay;
+        final long[] counts = drawCounts.clone();
+        counterWriter.submit(editor -> {
+            editor.putLong(KEY_DAY, day);
+            editor.putString(KEY_USER, userId);
+            for (Stream stream : Stream.values()) {
+                editor.putLong(KEY_COUNTER_PREFIX + stream.name(), counts[stream.ordinal()]);
+            }
+        });
+    }
+
+    /**
+     * Write pending draw counters now (e.g. from onPause)
+     */
+    public void flush() {
+        if (counterWriter != null) {
+            counterWriter.flush();
+        }
+    }
+
+    // ==================== HASHING ====================
+
+    private static long hashString(String value) {
+        // 64-bit FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
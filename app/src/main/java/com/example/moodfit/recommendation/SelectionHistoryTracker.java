@@ -0,0 +1,176 @@
+package com.example.moodfit.recommendation;
+
+import com.example.moodfit.models.enums.WorkoutCategory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SelectionHistoryTracker - Fixed-size recency window over recently selected exercises
+ * Keeps a ring buffer of exercise IDs with an ID -> sequence map and per-category counts,
+ * so recency penalties and category variety checks are O(1) per candidate
+ */
+public class SelectionHistoryTracker {
+
+    private static final char ENCODING_VERSION = '1';
+    private static final char ENTRY_SEPARATOR = ';';
+
+    private static final WorkoutCategory[] CATEGORIES = WorkoutCategory.values();
+
+    private final int capacity;
+
+    // Ring buffer, oldest entry at head
+    private final String[] ids;
+    private final byte[] categories;
+    private final long[] sequences;
+    private int head = 0;
+    private int size = 0;
+
+    // Sequence number of the most recent entry; increases by one per record()
+    private long latestSequence = -1;
+
+    // Latest sequence number for every ID still inside the window
+    private final Map<String, Long> sequenceById;
+    private final int[] categoryCounts = new int[CATEGORIES.length];
+
+    public SelectionHistoryTracker(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.ids = new String[capacity];
+        this.categories = new byte[capacity];
+        this.sequences = new long[capacity];
+        this.sequenceById = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Record a new selection as the most recent entry, evicting the oldest when full
+     */
+    public void record(String exerciseId, WorkoutCategory category) {
+        if (exerciseId == null || category == null) return;
+
+        if (size == capacity) {
+            evictOldest();
+        }
+
+        int slot = (head + size) % capacity;
+        latestSequence++;
+        ids[slot] = exerciseId;
+        categories[slot] = (byte) category.ordinal();
+        sequences[slot] = latestSequence;
+        size++;
+
+        sequenceById.put(exerciseId, latestSequence);
+        categoryCounts[category.ordinal()]++;
+    }
+
+    private void evictOldest() {
+        String evictedId = ids[head];
+        long evictedSequence = sequences[head];
+
+        // Only drop the map entry if no newer occurrence of the same ID exists
+        Long current = sequenceById.get(evictedId);
+        if (current != null && current == evictedSequence) {
+            sequenceById.remove(evictedId);
+        }
+        categoryCounts[categories[head]]--;
+
+        ids[head] = null;
+        head = (head + 1) % capacity;
+        size--;
+    }
+
+    /**
+     * Position of the exercise in the recency window (0 = most recent), or -1 if absent
+     */
+    public int recencyIndexOf(String exerciseId) {
+        Long sequence = sequenceById.get(exerciseId);
+        return sequence != null ? (int) (latestSequence - sequence) : -1;
+    }
+
+    public boolean contains(String exerciseId) {
+        return sequenceById.containsKey(exerciseId);
+    }
+
+    /**
+     * Number of entries in the window that belong to the given category
+     */
+    public int countInCategory(WorkoutCategory category) {
+        return category != null ? categoryCounts[category.ordinal()] : 0;
+    }
+
+    /**
+     * Independent copy of the window, e.g. to extend speculatively on another thread
+     */
+    public SelectionHistoryTracker copy() {
+        SelectionHistoryTracker copy = new SelectionHistoryTracker(capacity);
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) % capacity;
+            copy.record(ids[slot], CATEGORIES[categories[slot]]);
+        }
+        return copy;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public int getCapacity() { return capacity; }
+
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            ids[i] = null;
+        }
+        head = 0;
+        size = 0;
+        latestSequence = -1;
+        sequenceById.clear();
+        for (int i = 0; i < categoryCounts.length; i++) {
+            categoryCounts[i] = 0;
+        }
+    }
+
+    // ==================== PERSISTENCE ====================
+
+    /**
+     * Encode the window oldest-first as "1" followed by one entry per selection,
+     * each entry being the category ordinal (single char) immediately followed by the ID
+     */
+    public String encode() {
+        StringBuilder builder = new StringBuilder(1 + size * 24);
+        builder.append(ENCODING_VERSION);
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) % capacity;
+            if (i > 0) builder.append(ENTRY_SEPARATOR);
+            builder.append((char) ('0' + categories[slot]));
+            builder.append(ids[slot]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Replace the current window with a previously encoded one.
+     * Returns false (leaving the tracker empty) if the data is not in a known format.
+     */
+    public boolean decode(String encoded) {
+        clear();
+        if (encoded == null || encoded.isEmpty() || encoded.charAt(0) != ENCODING_VERSION) {
+            return false;
+        }
+
+        int start = 1;
+        int length = encoded.length();
+        while (start < length) {
+            int end = encoded.indexOf(ENTRY_SEPARATOR, start);
+            if (end < 0) end = length;
+
+            if (end - start >= 2) {
+                int ordinal = encoded.charAt(start) - '0';
+                if (ordinal >= 0 && ordinal < CATEGORIES.length) {
+                    record(encoded.substring(start + 1, end), CATEGORIES[ordinal]);
+                }
+            }
+            start = end + 1;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,460 @@
+package com.example.moodfit.recommendation;
+
+import com.example.moodfit.models.Exercise;
+import com.example.moodfit.models.enums.DifficultyLevel;
+import com.example.moodfit.models.enums.WorkoutCategory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * WorkoutComposer - Builds an ordered workout plan from a candidate list under constraints
+ * (exercise count, target minutes, calorie range, category coverage, difficulty mix).
+ *
+ * Candidates are drawn by weighted sampling without replacement, then refined by a bounded
+ * local search over a small reserve of sampled candidates. The same seed always produces
+ * the same plan for the same input.
+ */
+public class WorkoutComposer {
+
+    private static final int DEFAULT_MAX_ITERATIONS = 300;
+
+    // Reserve of sampled candidates the local search may swap in
+    private static final int MIN_RESERVE_SIZE = 32;
+    private static final int RESERVE_PER_SLOT = 4;
+
+    // Penalty weights
+    private static final double MISSING_CATEGORY_PENALTY = 1000.0;
+    private static final double CALORIE_PENALTY_PER_UNIT = 0.1;
+    private static final double DIFFICULTY_MIX_PENALTY = 5.0;
+
+    private static final WorkoutCategory[] CATEGORIES = WorkoutCategory.values();
+
+    /**
+     * Relative preference for an exercise; values <= 0 are treated as very unlikely
+     */
+    public interface WeightFunction {
+        double weightOf(Exercise exercise);
+    }
+
+    /**
+     * Constraints for a single composed workout
+     */
+    public static class Constraints {
+        private int minExercises = 1;
+        private int maxExercises = 10;
+        private int targetMinutes = 0; // 0 = no duration target
+        private int minutesTolerance = 5;
+        private int minCalories = 0;
+        private int maxCalories = Integer.MAX_VALUE;
+        private final Set<WorkoutCategory> requiredCategories = EnumSet.noneOf(WorkoutCategory.class);
+        private DifficultyLevel primaryDifficulty;
+        private float primaryDifficultyShare = 0f;
+
+        public void setExerciseCount(int minExercises, int maxExercises) {
+            this.minExercises = Math.max(1, minExercises);
+            this.maxExercises = Math.max(this.minExercises, maxExercises);
+        }
+
+        public void setTargetMinutes(int targetMinutes, int tolerance) {
+            this.targetMinutes = Math.max(0, targetMinutes);
+            this.minutesTolerance = Math.max(0, tolerance);
+        }
+
+        public void setCalorieRange(int minCalories, int maxCalories) {
+            this.minCalories = Math.max(0, minCalories);
+            this.maxCalories = Math.max(this.minCalories, maxCalories);
+        }
+
+        public void addRequiredCategory(WorkoutCategory category) {
+            if (category != null) requiredCategories.add(category);
+        }
+
+        /**
+         * Aim for the given share (0-1) of exercises at the primary difficulty
+         */
+        public void setDifficultyMix(DifficultyLevel primaryDifficulty, float primaryShare) {
+            this.primaryDifficulty = primaryDifficulty;
+            this.primaryDifficultyShare = Math.max(0f, Math.min(1f, primaryShare));
+        }
+
+        public int getMinExercises() { return minExercises; }
+        public int getMaxExercises() { return maxExercises; }
+        public int getTargetMinutes() { return targetMinutes; }
+        public int getMinutesTolerance() { return minutesTolerance; }
+        public int getMinCalories() { return minCalories; }
+        public int getMaxCalories() { return maxCalories; }
+        public Set<WorkoutCategory> getRequiredCategories() { return EnumSet.copyOf(requiredCategories); }
+        public DifficultyLevel getPrimaryDifficulty() { return primaryDifficulty; }
+        public float getPrimaryDifficultyShare() { return primaryDifficultyShare; }
+    }
+
+    private final int maxIterations;
+
+    public WorkoutComposer() {
+        this(DEFAULT_MAX_ITERATIONS);
+    }
+
+    public WorkoutComposer(int maxIterations) {
+        this.maxIterations = Math.max(0, maxIterations);
+    }
+
+    /**
+     * Compose an ordered plan without duplicates. Returns an empty list if there are no candidates.
+     */
+    public List<Exercise> compose(List<Exercise> candidates, Constraints constraints,
+                                  WeightFunction weights, long seed) {
+        List<Exercise> pool = deduplicate(candidates);
+        int n = pool.size();
+        if (n == 0) return new ArrayList<>();
+
+        Random random = new Random(seed);
+
+        // Primitive feature arrays so the search never touches Exercise objects
+        int[] minutes = new int[n];
+        int[] calories = new int[n];
+        int[] categories = new int[n];
+        boolean[] primary = new boolean[n];
+        double[] weight = new double[n];
+        double[] keys = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            Exercise exercise = pool.get(i);
+            minutes[i] = exercise.getEstimatedDurationMinutes();
+            calories[i] = exercise.getEstimatedCalories();
+            categories[i] = exercise.getCategory() != null ? exercise.getCategory().ordinal() : 0;
+            primary[i] = exercise.getDifficulty() == constraints.primaryDifficulty;
+            weight[i] = weights != null ? Math.max(weights.weightOf(exercise), 1e-6) : 1.0;
+
+            // Exponential race: smaller key = drawn earlier (weighted sampling without replacement)
+            keys[i] = -Math.log(1.0 - random.nextDouble()) / weight[i];
+        }
+
+        int[] reserve = buildReserve(keys, categories, constraints, n);
+        int reserveSize = reserve.length;
+
+        int minCount = Math.min(constraints.minExercises, reserveSize);
+        int maxCount = Math.min(constraints.maxExercises, reserveSize);
+        int targetCount = chooseInitialCount(reserve, minutes, constraints, minCount, maxCount);
+
+        SearchState state = new SearchState(reserve, minutes, calories, categories, primary, weight,
+                constraints, maxCount);
+
+        // Seed the plan with the best-keyed exercise of each required category, then fill in key order
+        for (WorkoutCategory category : constraints.requiredCategories) {
+            if (state.count >= targetCount) break;
+            int position = state.firstUnselectedInCategory(category.ordinal());
+            if (position >= 0) state.add(position);
+        }
+        for (int position = 0; position < reserveSize && state.count < targetCount; position++) {
+            if (!state.selected[position]) state.add(position);
+        }
+
+        localSearch(state, random, minCount, maxCount);
+
+        return orderPlan(pool, state);
+    }
+
+    private List<Exercise> deduplicate(List<Exercise> candidates) {
+        List<Exercise> pool = new ArrayList<>();
+        if (candidates == null) return pool;
+
+        Set<String> seenIds = new HashSet<>(candidates.size() * 2);
+        for (Exercise exercise : candidates) {
+            if (exercise != null && seenIds.add(exercise.getExerciseId())) {
+                pool.add(exercise);
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Reserve = the lowest-keyed candidates (ascending key order), plus the best candidate of each
+     * required category so coverage stays reachable even when a category samples poorly
+     */
+    private int[] buildReserve(double[] keys, int[] categories, Constraints constraints, int n) {
+        int reserveTarget = Math.min(n, Math.max(MIN_RESERVE_SIZE, constraints.maxExercises * RESERVE_PER_SLOT));
+
+        // Bounded max-heap keeps the reserveTarget smallest keys in O(n log k)
+        PriorityQueue<Integer> heap = new PriorityQueue<>(reserveTarget + 1,
+                (a, b) -> Double.compare(keys[b], keys[a]));
+        int[] bestInCategory = new int[CATEGORIES.length];
+        Arrays.fill(bestInCategory, -1);
+
+        for (int i = 0; i < n; i++) {
+            heap.offer(i);
+            if (heap.size() > reserveTarget) heap.poll();
+
+            int category = categories[i];
+            if (bestInCategory[category] < 0 || keys[i] < keys[bestInCategory[category]]) {
+                bestInCategory[category] = i;
+            }
+        }
+
+        Set<Integer> members = new HashSet<>(heap);
+        for (WorkoutCategory category : constraints.requiredCategories) {
+            int best = bestInCategory[category.ordinal()];
+            if (best >= 0 && members.add(best)) {
+                heap.offer(best);
+            }
+        }
+
+        int[] reserve = new int[heap.size()];
+        for (int i = reserve.length - 1; i >= 0; i--) {
+            reserve[i] = heap.poll(); // Largest key first, so fill from the back
+        }
+        return reserve;
+    }
+
+    private int chooseInitialCount(int[] reserve, int[] minutes, Constraints constraints,
+                                   int minCount, int maxCount) {
+        if (constraints.targetMinutes <= 0 || maxCount == 0) {
+            return maxCount;
+        }
+
+        long total = 0;
+        int sampled = Math.min(reserve.length, Math.max(maxCount, 1));
+        for (int i = 0; i < sampled; i++) {
+            total += minutes[reserve[i]];
+        }
+        double averageMinutes = Math.max(1.0, (double) total / sampled);
+        int count = (int) Math.round(constraints.targetMinutes / averageMinutes);
+        return Math.max(minCount, Math.min(maxCount, count));
+    }
+
+    /**
+     * Bounded hill-climb: random swap/add/remove moves, kept only if they lower the penalty
+     * (or keep it equal while raising total weight)
+     */
+    private void localSearch(SearchState state, Random random, int minCount, int maxCount) {
+        int reserveSize = state.reserve.length;
+        double penalty = state.penalty();
+
+        for (int iteration = 0; iteration < maxIterations && penalty > 0; iteration++) {
+            int moveType = random.nextInt(10);
+            boolean canAdd = state.count < maxCount && state.count < reserveSize;
+            boolean canRemove = state.count > minCount;
+
+            if (moveType == 0 && canAdd) {
+                int incoming = state.randomUnselected(random);
+                if (incoming < 0) continue;
+                state.add(incoming);
+                double candidate = state.penalty();
+                if (candidate < penalty) {
+                    penalty = candidate;
+                } else {
+                    state.remove(incoming);
+                }
+            } else if (moveType == 1 && canRemove) {
+                int outgoing = state.chosen[random.nextInt(state.count)];
+                state.remove(outgoing);
+                double candidate = state.penalty();
+                if (candidate < penalty) {
+                    penalty = candidate;
+                } else {
+                    state.add(outgoing);
+                }
+            } else if (state.count > 0) {
+                int outgoing = state.chosen[random.nextInt(state.count)];
+                int incoming = state.randomUnselected(random);
+                if (incoming < 0) continue;
+
+                state.remove(outgoing);
+                state.add(incoming);
+                double candidate = state.penalty();
+                boolean better = candidate < penalty ||
+                        (candidate == penalty && state.weightAt(incoming) > state.weightAt(outgoing));
+                if (better) {
+                    penalty = candidate;
+                } else {
+                    state.remove(incoming);
+                    state.add(outgoing);
+                }
+            }
+        }
+    }
+
+    /**
+     * Order the plan as an intensity arch: gentle exercises at both ends, the hardest in the middle
+     */
+    private List<Exercise> orderPlan(List<Exercise> pool, SearchState state) {
+        int count = state.count;
+        int[] positions = new int[count];
+        int index = 0;
+        // Walk in reserve (sample) order so ties keep a deterministic, weight-driven order
+        for (int position = 0; position < state.reserve.length; position++) {
+            if (state.selected[position]) positions[index++] = position;
+        }
+
+        Integer[] byIntensity = new Integer[count];
+        for (int i = 0; i < count; i++) byIntensity[i] = positions[i];
+        Arrays.sort(byIntensity, (a, b) -> Integer.compare(
+                intensityOf(pool.get(state.reserve[a])), intensityOf(pool.get(state.reserve[b]))));
+
+        Exercise[] ordered = new Exercise[count];
+        int front = 0;
+        int back = count - 1;
+        for (int i = 0; i < count; i++) {
+            Exercise exercise = pool.get(state.reserve[byIntensity[i]]);
+            if (i % 2 == 0) {
+                ordered[front++] = exercise;
+            } else {
+                ordered[back--] = exercise;
+            }
+        }
+
+        List<Exercise> plan = new ArrayList<>(count);
+        for (Exercise exercise : ordered) plan.add(exercise);
+        return plan;
+    }
+
+    private static int intensityOf(Exercise exercise) {
+        int level = exercise.getDifficulty() != null ? exercise.getDifficulty().getLevel() : 1;
+        int categoryIntensity;
+        WorkoutCategory category = exercise.getCategory();
+        if (category == WorkoutCategory.HIIT) {
+            categoryIntensity = 3;
+        } else if (category == WorkoutCategory.CARDIO || category == WorkoutCategory.STRENGTH) {
+            categoryIntensity = 2;
+        } else if (category == WorkoutCategory.YOGA) {
+            categoryIntensity = 1;
+        } else {
+            categoryIntensity = 0;
+        }
+        return level * 2 + categoryIntensity;
+    }
+
+    /**
+     * Mutable selection over the reserve with running totals, so every move is O(categories)
+     */
+    private static class SearchState {
+        final int[] reserve;
+        final int[] minutes;
+        final int[] calories;
+        final int[] categories;
+        final boolean[] primary;
+        final double[] weight;
+        final Constraints constraints;
+
+        final boolean[] selected;
+        final int[] chosen;
+        final int[] chosenIndex;
+        int count = 0;
+
+        long totalMinutes = 0;
+        long totalCalories = 0;
+        int primaryCount = 0;
+        final int[] categoryCounts = new int[CATEGORIES.length];
+
+        // Required categories that exist in the reserve; others cannot be satisfied
+        final boolean[] requiredReachable = new boolean[CATEGORIES.length];
+
+        SearchState(int[] reserve, int[] minutes, int[] calories, int[] categories, boolean[] primary,
+                    double[] weight, Constraints constraints, int maxCount) {
+            this.reserve = reserve;
+            this.minutes = minutes;
+            this.calories = calories;
+            this.categories = categories;
+            this.primary = primary;
+            this.weight = weight;
+            this.constraints = constraints;
+            this.selected = new boolean[reserve.length];
+            this.chosen = new int[Math.max(1, Math.min(reserve.length, Math.max(maxCount, 1)) + 1)];
+            this.chosenIndex = new int[reserve.length];
+
+            for (int candidate : reserve) {
+                WorkoutCategory category = CATEGORIES[categories[candidate]];
+                if (constraints.requiredCategories.contains(category)) {
+                    requiredReachable[category.ordinal()] = true;
+                }
+            }
+        }
+
+        void add(int position) {
+            int candidate = reserve[position];
+            selected[position] = true;
+            chosenIndex[position] = count;
+            chosen[count++] = position;
+            totalMinutes += minutes[candidate];
+            totalCalories += calories[candidate];
+            categoryCounts[categories[candidate]]++;
+            if (primary[candidate]) primaryCount++;
+        }
+
+        void remove(int position) {
+            int candidate = reserve[position];
+            selected[position] = false;
+
+            int slot = chosenIndex[position];
+            int last = chosen[--count];
+            chosen[slot] = last;
+            chosenIndex[last] = slot;
+
+            totalMinutes -= minutes[candidate];
+            totalCalories -= calories[candidate];
+            categoryCounts[categories[candidate]]--;
+            if (primary[candidate]) primaryCount--;
+        }
+
+        double weightAt(int position) {
+            return weight[reserve[position]];
+        }
+
+        int firstUnselectedInCategory(int category) {
+            for (int position = 0; position < reserve.length; position++) {
+                if (!selected[position] && categories[reserve[position]] == category) return position;
+            }
+            return -1;
+        }
+
+        int randomUnselected(Random random) {
+            int unselected = reserve.length - count;
+            if (unselected <= 0) return -1;
+
+            // Rejection sampling is cheap because the reserve is several times the plan size
+            for (int attempt = 0; attempt < 8; attempt++) {
+                int position = random.nextInt(reserve.length);
+                if (!selected[position]) return position;
+            }
+            int skip = random.nextInt(unselected);
+            for (int position = 0; position < reserve.length; position++) {
+                if (!selected[position] && skip-- == 0) return position;
+            }
+            return -1;
+        }
+
+        double penalty() {
+            double penalty = 0;
+
+            if (constraints.targetMinutes > 0) {
+                long deviation = Math.abs(totalMinutes - constraints.targetMinutes) - constraints.minutesTolerance;
+                if (deviation > 0) penalty += deviation;
+            }
+
+            if (totalCalories < constraints.minCalories) {
+                penalty += (constraints.minCalories - totalCalories) * CALORIE_PENALTY_PER_UNIT;
+            } else if (totalCalories > constraints.maxCalories) {
+                penalty += (totalCalories - constraints.maxCalories) * CALORIE_PENALTY_PER_UNIT;
+            }
+
+            for (int category = 0; category < CATEGORIES.length; category++) {
+                if (requiredReachable[category] && categoryCounts[category] == 0) {
+                    penalty += MISSING_CATEGORY_PENALTY;
+                }
+            }
+
+            if (constraints.primaryDifficulty != null && constraints.primaryDifficultyShare > 0f) {
+                int desiredPrimary = Math.round(constraints.primaryDifficultyShare * count);
+                penalty += Math.abs(primaryCount - desiredPrimary) * DIFFICULTY_MIX_PENALTY;
+            }
+
+            return penalty;
+        }
+    }
+}
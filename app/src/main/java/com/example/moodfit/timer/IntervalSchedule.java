@@ -0,0 +1,219 @@
+package com.example.moodfit.timer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IntervalSchedule - A compiled work/rest program for interval workouts (Tabata, EMOM, circuits)
+ * Segments are laid out once into a boundary array (end second of each segment) and a per-second
+ * table, so finding the segment for any elapsed second is a single array read and a running timer
+ * needs nothing more than one countdown for the whole program.
+ */
+public final class IntervalSchedule {
+
+    public enum Kind { WORK, REST }
+
+    // Longest program accepted; keeps the per-second table small
+    private static final int MAX_TOTAL_SECONDS = 2 * 60 * 60;
+
+    /**
+     * One contiguous stretch of work or rest; immutable
+     */
+    public static final class Segment {
+        public final Kind kind;
+        public final int seconds;
+        public final int round;
+        public final String label;
+        public final int startSecond;
+
+        Segment(Kind kind, int seconds, int round, String label, int startSecond) {
+            this.kind = kind;
+            this.seconds = seconds;
+            this.round = round;
+            this.label = label;
+            this.startSecond = startSecond;
+        }
+
+        public int getEndSecond() {
+            return startSecond + seconds;
+        }
+    }
+
+    private final Segment[] segments;
+    private final int[] boundaries;
+    private final short[] segmentAtSecond;
+    private final int rounds;
+
+    private IntervalSchedule(Segment[] segments, int rounds) {
+        this.segments = segments;
+        this.rounds = rounds;
+
+        boundaries = new int[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            boundaries[i] = segments[i].getEndSecond();
+        }
+
+        int total = getTotalSeconds();
+        segmentAtSecond = new short[total];
+        for (int i = 0; i < segments.length; i++) {
+            for (int second = segments[i].startSecond; second < boundaries[i]; second++) {
+                segmentAtSecond[second] = (short) i;
+            }
+        }
+    }
+
+    // ==================== LOOKUP ====================
+
+    public int getTotalSeconds() {
+        return boundaries.length == 0 ? 0 : boundaries[boundaries.length - 1];
+    }
+
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public Segment getSegment(int index) {
+        return segments[index];
+    }
+
+    /**
+     * Index of the segment running at this elapsed second; the last segment once the program is over
+     */
+    public int segmentIndexAt(int elapsedSecond) {
+        if (elapsedSecond <= 0) return 0;
+        if (elapsedSecond >= segmentAtSecond.length) return segments.length - 1;
+        return segmentAtSecond[elapsedSecond];
+    }
+
+    /**
+     * Seconds until the segment running at this elapsed second ends
+     */
+    public int secondsLeftInSegment(int elapsedSecond) {
+        int index = segmentIndexAt(elapsedSecond);
+        return Math.max(0, boundaries[index] - Math.max(0, elapsedSecond));
+    }
+
+    // ==================== PRESETS ====================
+
+    /**
+     * Program for a catalog exercise that is run as intervals, or null for a plain countdown
+     */
+    public static IntervalSchedule forExercise(String exerciseName) {
+        if (exerciseName == null) return null;
+        switch (exerciseName) {
+            case "Classic Tabata":
+                return tabata(8, 20, 10);
+            case "Tabata Walking":
+                return new Builder().repeat(8, 20, "Fast walk", 10, "Slow walk").build();
+            case "EMOM Challenge":
+                return emom(10);
+            case "Death by Burpees":
+                return deathByBurpees(20);
+            case "Fight Gone Bad":
+                return fightGoneBad();
+            default:
+                return null;
+        }
+    }
+
+    public static IntervalSchedule tabata(int rounds, int workSeconds, int restSeconds) {
+        return new Builder().repeat(rounds, workSeconds, "Max effort", restSeconds, "Rest").build();
+    }
+
+    /**
+     * Every minute on the minute: the reps and the rest share each minute
+     */
+    public static IntervalSchedule emom(int minutes) {
+        Builder builder = new Builder();
+        for (int minute = 1; minute <= minutes; minute++) {
+            builder.nextRound().work(60, "Minute " + minute);
+        }
+        return builder.build();
+    }
+
+    /**
+     * One more burpee each minute, for at most maxMinutes
+     */
+    public static IntervalSchedule deathByBurpees(int maxMinutes) {
+        Builder builder = new Builder();
+        for (int minute = 1; minute <= maxMinutes; minute++) {
+            builder.nextRound().work(60, minute + (minute == 1 ? " burpee" : " burpees"));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Three rounds of five one-minute stations followed by a minute of rest
+     */
+    public static IntervalSchedule fightGoneBad() {
+        String[] stations = {"Wall balls", "Sumo deadlift high pull", "Box jumps", "Push press", "Row"};
+        Builder builder = new Builder();
+        for (int round = 1; round <= 3; round++) {
+            builder.nextRound();
+            for (String station : stations) {
+                builder.work(60, station);
+            }
+            builder.rest(60, "Rest");
+        }
+        return builder.build();
+    }
+
+    // ==================== BUILDER ====================
+
+    /**
+     * Appends segments in order; nextRound() starts a new round number
+     */
+    public static final class Builder {
+        private final List<Segment> segments = new ArrayList<>();
+        private int round = 0;
+        private int totalSeconds = 0;
+
+        public Builder nextRound() {
+            round++;
+            return this;
+        }
+
+        public Builder work(int seconds, String label) {
+            return add(Kind.WORK, seconds, label);
+        }
+
+        public Builder rest(int seconds, String label) {
+            return add(Kind.REST, seconds, label);
+        }
+
+        /**
+         * rounds x (work then rest), each pair counted as one round
+         */
+        public Builder repeat(int rounds, int workSeconds, String workLabel, int restSeconds, String restLabel) {
+            for (int i = 0; i < rounds; i++) {
+                nextRound();
+                work(workSeconds, workLabel);
+                rest(restSeconds, restLabel);
+            }
+            return this;
+        }
+
+        private Builder add(Kind kind, int seconds, String label) {
+            if (seconds <= 0) {
+                throw new IllegalArgumentException("Segment length must be positive");
+            }
+            if (totalSeconds + seconds > MAX_TOTAL_SECONDS) {
+                throw new IllegalArgumentException("Interval program longer than " + MAX_TOTAL_SECONDS + "s");
+            }
+            segments.add(new Segment(kind, seconds, Math.max(1, round), label, totalSeconds));
+            totalSeconds += seconds;
+            return this;
+        }
+
+        public IntervalSchedule build() {
+            if (segments.isEmpty()) {
+                throw new IllegalStateException("Interval program has no segments");
+            }
+            return new IntervalSchedule(segments.toArray(new Segment[0]), Math.max(1, round));
+        }
+    }
+}
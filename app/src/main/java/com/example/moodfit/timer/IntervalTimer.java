@@ -0,0 +1,92 @@
+package com.example.moodfit.timer;
+
+/**
+ * IntervalTimer - Turns the elapsed seconds of one countdown into interval events
+ * A single WorkoutTimer runs the whole program; this class is fed the elapsed second on every
+ * tick and emits one event stream: segment changes, the last-seconds countdown cues of each
+ * segment and completion. Seconds skipped while the screen was in the background produce only
+ * the segment change, never stale cues.
+ *
+ * Main thread only.
+ */
+public final class IntervalTimer {
+
+    // Cue the last seconds of every segment
+    public static final int COUNTDOWN_CUE_SECONDS = 3;
+
+    public enum EventType { SEGMENT_STARTED, COUNTDOWN, FINISHED }
+
+    public interface Listener {
+        /**
+         * @param segmentIndex index into the schedule
+         * @param secondsLeft seconds left in the segment (0 for FINISHED)
+         */
+        void onIntervalEvent(EventType type, int segmentIndex, int secondsLeft);
+    }
+
+    private final IntervalSchedule schedule;
+    private Listener listener;
+
+    private int lastElapsedSecond = -1;
+    private int lastSegmentIndex = -1;
+    private boolean finished = false;
+
+    public IntervalTimer(IntervalSchedule schedule) {
+        this.schedule = schedule;
+    }
+
+    public IntervalSchedule getSchedule() {
+        return schedule;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Report the current elapsed second of the program's countdown
+     */
+    public void onElapsed(int elapsedSecond) {
+        if (finished || elapsedSecond == lastElapsedSecond) return;
+        boolean contiguous = elapsedSecond == lastElapsedSecond + 1;
+        lastElapsedSecond = elapsedSecond;
+
+        if (elapsedSecond >= schedule.getTotalSeconds()) {
+            finished = true;
+            emit(EventType.FINISHED, schedule.getSegmentCount() - 1, 0);
+            return;
+        }
+
+        int index = schedule.segmentIndexAt(elapsedSecond);
+        int secondsLeft = schedule.secondsLeftInSegment(elapsedSecond);
+
+        if (index != lastSegmentIndex) {
+            lastSegmentIndex = index;
+            emit(EventType.SEGMENT_STARTED, index, secondsLeft);
+        } else if (contiguous && secondsLeft <= COUNTDOWN_CUE_SECONDS) {
+            emit(EventType.COUNTDOWN, index, secondsLeft);
+        }
+    }
+
+    /**
+     * Back to the start, e.g. when the countdown is reset
+     */
+    public void reset() {
+        lastElapsedSecond = -1;
+        lastSegmentIndex = -1;
+        finished = false;
+    }
+
+    /**
+     * Index of the segment last reported, or -1 before the program started
+     */
+    public int getCurrentSegmentIndex() {
+        return lastSegmentIndex;
+    }
+
+    private void emit(EventType type, int segmentIndex, int secondsLeft) {
+        if (listener != null) {
+            listener.onIntervalEvent(type, segmentIndex, secondsLeft);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.moodfit.timer;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.moodfit.models.WorkoutTimer;
+
+/**
+ * SecondTicker - Drives a WorkoutTimer with one main-thread wakeup per displayed second
+ * Instead of polling, each wakeup asks the timer how long until its remaining-seconds value next
+ * changes and sleeps exactly that long. The delay is recomputed from the monotonic clock every
+ * time, so late wakeups never accumulate into drift.
+ *
+ * Main thread only.
+ */
+public final class SecondTicker {
+
+    // Wake slightly after the boundary so the timer has definitely crossed it
+    private static final long BOUNDARY_SLACK_MS = 2;
+
+    private final WorkoutTimer timer;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable wakeup = this::onWakeup;
+    private boolean active = false;
+
+    public SecondTicker(WorkoutTimer timer) {
+        this.timer = timer;
+    }
+
+    /**
+     * Tick now and keep ticking on second boundaries until the timer stops or pauses
+     */
+    public void start() {
+        active = true;
+        handler.removeCallbacks(wakeup);
+        onWakeup();
+    }
+
+    public void stop() {
+        active = false;
+        handler.removeCallbacks(wakeup);
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    private void onWakeup() {
+        if (!active) return;
+
+        timer.tick();
+
+        long delayMs = timer.getMillisUntilNextSecond();
+        if (delayMs < 0) {
+            // Finished, paused or reset: nothing left to wake up for
+            active = false;
+            return;
+        }
+        handler.postDelayed(wakeup, delayMs + BOUNDARY_SLACK_MS);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.moodfit.timer;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.provider.Settings;
+import android.util.Log;
+
+import com.example.moodfit.models.WorkoutTimer;
+
+/**
+ * TimerCheckpointStore - Persists the workout timer's state machine across process death
+ * A checkpoint is five numbers and the exercise name, written with apply() on each start, pause,
+ * resume, reset or finish, never per tick. Times are elapsedRealtime values, which only make sense
+ * within one boot, so the boot count is stored alongside and a checkpoint from an earlier boot is
+ * discarded.
+ */
+public final class TimerCheckpointStore implements WorkoutTimer.Checkpointer {
+
+    private static final String TAG = "TimerCheckpointStore";
+
+    private static final String PREFS_NAME = "MoodFitTimer";
+    private static final String KEY_STATE = "state";
+    private static final String KEY_TOTAL_SECONDS = "total_seconds";
+    private static final String KEY_START_TIME = "start_time";
+    private static final String KEY_PAUSED_TIME = "paused_time";
+    private static final String KEY_PAUSED_TOTAL_MS = "paused_total_ms";
+    private static final String KEY_BOOT_COUNT = "boot_count";
+    private static final String KEY_LABEL = "label";
+
+    private final SharedPreferences prefs;
+    private final int bootCount;
+    private String label;
+
+    public TimerCheckpointStore(Context context) {
+        this.prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.bootCount = Settings.Global.getInt(context.getContentResolver(), Settings.Global.BOOT_COUNT, -1);
+    }
+
+    @Override
+    public void save(WorkoutTimer.Snapshot snapshot) {
+        if (snapshot.state == WorkoutTimer.State.IDLE) {
+            clear();
+            return;
+        }
+
+        // apply() commits to memory now and to disk in the background; the platform waits for
+        // pending applies before the process can be frozen or killed after onPause/onReceive
+        prefs.edit()
+                .putString(KEY_STATE, snapshot.state.name())
+                .putInt(KEY_TOTAL_SECONDS, snapshot.totalSeconds)
+                .putLong(KEY_START_TIME, snapshot.startTime)
+                .putLong(KEY_PAUSED_TIME, snapshot.pausedTime)
+                .putLong(KEY_PAUSED_TOTAL_MS, snapshot.pausedTotalMs)
+                .putInt(KEY_BOOT_COUNT, bootCount)
+                .putString(KEY_LABEL, label)
+                .apply();
+    }
+
+    /**
+     * Exercise the timer counts down, saved with every following checkpoint
+     */
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Exercise of the last saved checkpoint, or null
+     */
+    public String loadLabel() {
+        return prefs.getString(KEY_LABEL, null);
+    }
+
+    /**
+     * Last saved checkpoint, or null if there is none or it predates the current boot
+     */
+    public WorkoutTimer.Snapshot load() {
+        String stateName = prefs.getString(KEY_STATE, null);
+        if (stateName == null) return null;
+
+        if (prefs.getInt(KEY_BOOT_COUNT, -1) != bootCount) {
+            Log.d(TAG, "Discarding timer checkpoint from an earlier boot");
+            clear();
+            return null;
+        }
+
+        try {
+            return new WorkoutTimer.Snapshot(
+                    WorkoutTimer.State.valueOf(stateName),
+                    prefs.getInt(KEY_TOTAL_SECONDS, 0),
+                    prefs.getLong(KEY_START_TIME, 0),
+                    prefs.getLong(KEY_PAUSED_TIME, 0),
+                    prefs.getLong(KEY_PAUSED_TOTAL_MS, 0));
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "Unreadable timer checkpoint", e);
+            clear();
+            return null;
+        }
+    }
+
+    public void clear() {
+        prefs.edit().clear().apply();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.moodfit.timer;
+
+/**
+ * TimerText - "MM:SS" labels for countdown displays, built once per second value and reused
+ * The label for a given second never changes, so each one is created on first use (or ahead of
+ * time with prepare) and every later tick only does an array lookup.
+ */
+public final class TimerText {
+
+    // Largest value that fits the two-digit minutes field
+    public static final int MAX_CACHED_SECONDS = 99 * 60 + 59;
+
+    // Index = seconds; entries are immutable, so a racing double fill is harmless
+    private static final String[] LABELS = new String[MAX_CACHED_SECONDS + 1];
+
+    private TimerText() {}
+
+    /**
+     * Fill the table for 0..maxSeconds so a timer of that length never builds a label while ticking
+     */
+    public static void prepare(int maxSeconds) {
+        int last = Math.min(Math.max(0, maxSeconds), MAX_CACHED_SECONDS);
+        for (int seconds = 0; seconds <= last; seconds++) {
+            if (LABELS[seconds] == null) {
+                LABELS[seconds] = build(seconds);
+            }
+        }
+    }
+
+    /**
+     * Label for a remaining time in whole seconds, e.g. 75 -> "01:15"
+     */
+    public static String format(int seconds) {
+        if (seconds < 0) seconds = 0;
+        if (seconds > MAX_CACHED_SECONDS) {
+            return build(seconds);
+        }
+
+        String label = LABELS[seconds];
+        if (label == null) {
+            label = build(seconds);
+            LABELS[seconds] = label;
+        }
+        return label;
+    }
+
+    private static String build(int seconds) {
+        int minutes = seconds / 60;
+        int secs = seconds % 60;
+        if (minutes > 99) {
+            return minutes + ":" + (char) ('0' + secs / 10) + (char) ('0' + secs % 10);
+        }
+        return new String(new char[] {
+                (char) ('0' + minutes / 10), (char) ('0' + minutes % 10), ':',
+                (char) ('0' + secs / 10), (char) ('0' + secs % 10)
+        });
+    }
+}
@@ -0,0 +1,525 @@
+package com.example.moodfit.timer;
+
+import android.app.AlarmManager;
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Intent;
+import android.content.pm.ServiceInfo;
+import android.os.Binder;
+import android.os.Build;
+import android.os.IBinder;
+import android.os.SystemClock;
+import android.os.VibrationEffect;
+import android.os.Vibrator;
+import android.util.Log;
+
+import com.example.moodfit.R;
+import com.example.moodfit.audio.CueEngine;
+import com.example.moodfit.models.WorkoutTimer;
+
+import java.util.Objects;
+
+/**
+ * WorkoutTimerService - Keeps a workout countdown and its sound cues on time with the screen off
+ * The service owns the WorkoutTimer, its IntervalTimer and the CueEngine, so the countdown no
+ * longer depends on the timer screen being alive. While that screen is visible a SecondTicker
+ * drives the display once per second. Otherwise nothing ticks: one exact alarm is set for the
+ * next moment a cue is due (the next segment boundary, or completion), and each wakeup plays it
+ * and sets the following one. The notification counts down on its own with a chronometer.
+ *
+ * The screen binds to it (LocalBinder) and receives ticks and interval events as its Client.
+ * If the process dies, the alarm starts the service again and the timer is restored from its
+ * checkpoint. Only exact alarms may start it in the foreground from the background; without the
+ * exact-alarm grant the alarm is inexact and starts it as a plain service, which handles the cue
+ * and sets the next alarm without a notification.
+ *
+ * Main thread only.
+ */
+public class WorkoutTimerService extends Service implements WorkoutTimer.TimerListener, IntervalTimer.Listener {
+
+    private static final String TAG = "WorkoutTimerService";
+
+    private static final String ACTION_WAKEUP = "com.example.moodfit.timer.action.WAKEUP";
+    private static final String CHANNEL_ID = "workout_timer";
+    private static final int NOTIFICATION_ID = 4102;
+    private static final int WAKEUP_REQUEST_CODE = 4101;
+    private static final int SCREEN_REQUEST_CODE = 4103;
+    private static final int BACKGROUND_WAKEUP_REQUEST_CODE = 4104;
+
+    // Wake slightly after the boundary so the timer has definitely crossed it
+    private static final long BOUNDARY_SLACK_MS = 2;
+
+    /**
+     * The timer screen; called on the main thread
+     */
+    public interface Client {
+        void onTimerTick(int remainingSeconds);
+        void onIntervalEvent(IntervalTimer.EventType type, int segmentIndex, int secondsLeft);
+        void onTimerFinished();
+    }
+
+    public final class LocalBinder extends Binder {
+        public WorkoutTimerService getService() {
+            return WorkoutTimerService.this;
+        }
+    }
+
+    private final IBinder binder = new LocalBinder();
+
+    private TimerCheckpointStore checkpoints;
+    private CueEngine cueEngine;
+    // Exact alarms start the service in the foreground; inexact ones may only start it plainly
+    private PendingIntent wakeupIntent;
+    private PendingIntent backgroundWakeupIntent;
+
+    private WorkoutTimer timer;
+    private IntervalTimer intervalTimer;
+    private SecondTicker ticker;
+    private String timerLabel;
+
+    private Client client;
+    private Intent screenIntent;
+    private boolean screenVisible = false;
+    private boolean foreground = false;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        checkpoints = new TimerCheckpointStore(this);
+        cueEngine = new CueEngine(this);
+
+        Intent intent = new Intent(this, WorkoutTimerService.class).setAction(ACTION_WAKEUP);
+        wakeupIntent = PendingIntent.getForegroundService(this, WAKEUP_REQUEST_CODE, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        backgroundWakeupIntent = PendingIntent.getService(this, BACKGROUND_WAKEUP_REQUEST_CODE, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        NotificationManager notificationManager = getSystemService(NotificationManager.class);
+        if (notificationManager != null) {
+            notificationManager.createNotificationChannel(new NotificationChannel(
+                    CHANNEL_ID, "Workout timer", NotificationManager.IMPORTANCE_LOW));
+        }
+    }
+
+    @Override
+    public IBinder onBind(Intent intent) {
+        return binder;
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        if (intent != null && ACTION_WAKEUP.equals(intent.getAction())) {
+            // Started by the alarm: go foreground right away, even if nothing turns out to be due.
+            // If that is refused, this wakeup still plays its cue and sets the next alarm, and the
+            // service stops once the countdown is over or the system ends it.
+            if (!enterForeground()) {
+                Log.w(TAG, "Handling timer wakeup without a foreground notification");
+            }
+            if (timer == null && !restoreFromCheckpoint(checkpoints.loadLabel(), null)) {
+                leaveForeground();
+                return START_NOT_STICKY;
+            }
+            onWakeup();
+        }
+        return START_NOT_STICKY;
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        // A running countdown keeps its alarm, which restarts the service from the checkpoint
+        if (ticker != null) {
+            ticker.stop();
+        }
+        if (timer != null) {
+            timer.setListener(null);
+        }
+        cueEngine.release();
+    }
+
+    // ==================== SCREEN ====================
+
+    public void setClient(Client client) {
+        this.client = client;
+    }
+
+    /**
+     * Screen to open from the notification
+     */
+    public void setScreenIntent(Intent screenIntent) {
+        this.screenIntent = screenIntent;
+    }
+
+    /**
+     * Per-second ticks while the timer screen is visible, alarms at the cues otherwise
+     */
+    public void setScreenVisible(boolean visible) {
+        screenVisible = visible;
+        updateWakeups();
+    }
+
+    public void setSoundEnabled(boolean enabled) {
+        cueEngine.setEnabled(enabled);
+    }
+
+    // ==================== TIMER CONTROL ====================
+
+    /**
+     * Hold a countdown of totalSeconds for the given exercise, run as intervals when schedule is set.
+     * With resume, the countdown already held for that exercise (or its checkpoint after process
+     * death) is continued instead of starting over.
+     */
+    public WorkoutTimer load(int totalSeconds, IntervalSchedule schedule, String label, boolean resume) {
+        if (resume && timer != null && timer.getState() != WorkoutTimer.State.IDLE
+                && Objects.equals(label, timerLabel)) {
+            return timer;
+        }
+
+        discardTimer();
+        if (!resume || !restoreFromCheckpoint(label, schedule)) {
+            timer = new WorkoutTimer(totalSeconds);
+            attachTimer(schedule, label);
+        }
+        if (timer.isRunning()) {
+            enterForeground();
+        } else {
+            leaveForeground();
+        }
+        updateWakeups();
+        return timer;
+    }
+
+    public void start() {
+        if (timer == null) return;
+        timer.start();
+        if (intervalTimer != null) {
+            intervalTimer.onElapsed(0);
+        }
+        enterForeground();
+        updateWakeups();
+    }
+
+    public void pause() {
+        if (timer == null) return;
+        timer.pause();
+        updateWakeups();
+    }
+
+    public void resume() {
+        if (timer == null) return;
+        timer.resume();
+        updateWakeups();
+    }
+
+    public void reset() {
+        if (timer == null) return;
+        timer.reset();
+        if (intervalTimer != null) {
+            intervalTimer.reset();
+        }
+        updateWakeups();
+        leaveForeground();
+    }
+
+    /**
+     * Drop the countdown and its checkpoint, e.g. when the user leaves the timer screen
+     */
+    public void discard() {
+        discardTimer();
+        checkpoints.clear();
+        updateWakeups();
+        leaveForeground();
+    }
+
+    public WorkoutTimer getTimer() {
+        return timer;
+    }
+
+    /**
+     * Interval events of the held countdown, or null for a plain countdown
+     */
+    public IntervalTimer getIntervalTimer() {
+        return intervalTimer;
+    }
+
+    private void attachTimer(IntervalSchedule schedule, String label) {
+        timerLabel = label;
+        checkpoints.setLabel(label);
+        timer.setListener(this);
+        timer.setCheckpointer(checkpoints);
+        ticker = new SecondTicker(timer);
+
+        intervalTimer = schedule != null ? new IntervalTimer(schedule) : null;
+        if (intervalTimer != null) {
+            intervalTimer.setListener(this);
+            if (timer.isRunning()) {
+                intervalTimer.onElapsed(timer.getTotalSeconds() - timer.getRemainingSeconds());
+            }
+        }
+    }
+
+    private void discardTimer() {
+        if (ticker != null) {
+            ticker.stop();
+        }
+        if (timer != null) {
+            timer.setListener(null);
+        }
+        timer = null;
+        ticker = null;
+        intervalTimer = null;
+    }
+
+    /**
+     * Rebuild the countdown from its last checkpoint if that was saved for the same exercise;
+     * remaining time is derived, not replayed
+     */
+    private boolean restoreFromCheckpoint(String label, IntervalSchedule schedule) {
+        WorkoutTimer.Snapshot snapshot = checkpoints.load();
+        if (snapshot == null || !Objects.equals(label, checkpoints.loadLabel())) return false;
+
+        timer = WorkoutTimer.restore(snapshot);
+        attachTimer(schedule != null ? schedule : IntervalSchedule.forExercise(label), label);
+        Log.d(TAG, "Restored " + snapshot.state + " timer with " + timer.getRemainingSeconds() + "s left");
+        return true;
+    }
+
+    // ==================== WAKEUPS ====================
+
+    /**
+     * Drive the countdown the cheapest way for the moment: per-second ticks while the screen shows
+     * it, one alarm at the next cue while it does not, nothing while it is not counting down
+     */
+    private void updateWakeups() {
+        boolean counting = timer != null && timer.getState() == WorkoutTimer.State.RUNNING;
+
+        if (counting && screenVisible) {
+            cancelWakeup();
+            if (!ticker.isActive()) {
+                // Catches up with anything that passed while the screen was away
+                ticker.start();
+            }
+        } else {
+            if (ticker != null) {
+                ticker.stop();
+            }
+            if (counting) {
+                scheduleWakeup(nextCueTime());
+            } else {
+                cancelWakeup();
+            }
+        }
+        updateNotification();
+    }
+
+    /**
+     * elapsedRealtime of the next segment boundary, or of completion for a plain countdown.
+     * The last-seconds countdown cues are only played while the screen is on.
+     */
+    private long nextCueTime() {
+        if (intervalTimer != null) {
+            IntervalSchedule schedule = intervalTimer.getSchedule();
+            int elapsed = timer.getTotalSeconds() - timer.getRemainingSeconds();
+            int boundary = schedule.getSegment(schedule.segmentIndexAt(elapsed)).getEndSecond();
+            return timer.getTimeAtElapsed(Math.min(boundary, timer.getTotalSeconds()));
+        }
+        return timer.getCompletionTime();
+    }
+
+    private void onWakeup() {
+        if (timer == null) return;
+        // Crosses the boundary: the segment change or completion plays its cue through the listeners
+        timer.tick();
+        updateWakeups();
+        if (timer != null && !timer.isRunning()) {
+            leaveForeground();
+        }
+    }
+
+    private void scheduleWakeup(long time) {
+        AlarmManager alarmManager = getSystemService(AlarmManager.class);
+        if (alarmManager == null || time < 0) return;
+
+        try {
+            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.S || alarmManager.canScheduleExactAlarms()) {
+                alarmManager.cancel(backgroundWakeupIntent);
+                alarmManager.setExactAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP,
+                        time + BOUNDARY_SLACK_MS, wakeupIntent);
+            } else {
+                // Without the exact-alarm grant (the timer screen asks for it) the system may deliver
+                // it late, and it may not start a foreground service from the background
+                alarmManager.cancel(wakeupIntent);
+                alarmManager.setAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP,
+                        time + BOUNDARY_SLACK_MS, backgroundWakeupIntent);
+            }
+        } catch (SecurityException e) {
+            Log.w(TAG, "Could not schedule timer wakeup", e);
+        }
+    }
+
+    private void cancelWakeup() {
+        AlarmManager alarmManager = getSystemService(AlarmManager.class);
+        if (alarmManager != null) {
+            alarmManager.cancel(wakeupIntent);
+            alarmManager.cancel(backgroundWakeupIntent);
+        }
+    }
+
+    // ==================== WorkoutTimer.TimerListener / IntervalTimer.Listener ====================
+
+    @Override
+    public void onTick(int remainingSeconds) {
+        if (intervalTimer != null) {
+            intervalTimer.onElapsed(timer.getTotalSeconds() - remainingSeconds);
+        } else if (remainingSeconds > 0 && remainingSeconds <= IntervalTimer.COUNTDOWN_CUE_SECONDS) {
+            cueEngine.play(CueEngine.Cue.TICK);
+        }
+        if (client != null) {
+            client.onTimerTick(remainingSeconds);
+        }
+    }
+
+    @Override
+    public void onIntervalEvent(IntervalTimer.EventType type, int segmentIndex, int secondsLeft) {
+        switch (type) {
+            case SEGMENT_STARTED:
+                IntervalSchedule.Kind kind = intervalTimer.getSchedule().getSegment(segmentIndex).kind;
+                cueEngine.play(kind == IntervalSchedule.Kind.WORK ? CueEngine.Cue.GO : CueEngine.Cue.REST);
+                break;
+            case COUNTDOWN:
+                cueEngine.play(CueEngine.Cue.TICK);
+                break;
+            case FINISHED:
+                break;
+        }
+        if (client != null) {
+            client.onIntervalEvent(type, segmentIndex, secondsLeft);
+        }
+    }
+
+    @Override
+    public void onFinish() {
+        Log.d(TAG, "Workout timer finished" + (screenVisible ? "" : " in the background"));
+        cueEngine.play(CueEngine.Cue.FINISH);
+        vibrate();
+
+        cancelWakeup();
+        leaveForeground();
+        if (client != null) {
+            client.onTimerFinished();
+        }
+    }
+
+    @Override
+    public void onTimerStart() {
+    }
+
+    @Override
+    public void onTimerPause() {
+    }
+
+    @Override
+    public void onTimerResume() {
+    }
+
+    private void vibrate() {
+        try {
+            Vibrator vibrator = getSystemService(Vibrator.class);
+            if (vibrator != null && vibrator.hasVibrator()) {
+                long[] pattern = {0, 100, 100, 200, 100, 100};
+                int[] amplitudes = {0, 255, 0, 255, 0, 255};
+                vibrator.vibrate(VibrationEffect.createWaveform(pattern, amplitudes, -1));
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Completion vibration failed", e);
+        }
+    }
+
+    // ==================== FOREGROUND ====================
+
+    /**
+     * Keep the process, and with it the countdown, alive while the timer screen is gone.
+     * False if the system refused, e.g. ForegroundServiceStartNotAllowedException when the app is
+     * in the background without an exemption; the countdown then only lives while the screen is bound.
+     */
+    private boolean enterForeground() {
+        if (foreground) return true;
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
+                startForeground(NOTIFICATION_ID, buildNotification(), ServiceInfo.FOREGROUND_SERVICE_TYPE_SPECIAL_USE);
+            } else {
+                startForeground(NOTIFICATION_ID, buildNotification());
+            }
+        } catch (IllegalStateException | SecurityException e) {
+            Log.w(TAG, "Could not run the workout timer in the foreground", e);
+            return false;
+        }
+        foreground = true;
+        // Started as well as bound, so unbinding does not end the countdown
+        startService(new Intent(this, WorkoutTimerService.class));
+        return true;
+    }
+
+    private void leaveForeground() {
+        if (foreground) {
+            stopForeground(STOP_FOREGROUND_REMOVE);
+            foreground = false;
+        }
+        // Lives on while the timer screen is bound
+        stopSelf();
+    }
+
+    /**
+     * Reposted on state changes and segment boundaries only; the chronometer counts by itself
+     */
+    private void updateNotification() {
+        if (!foreground) return;
+        NotificationManager notificationManager = getSystemService(NotificationManager.class);
+        if (notificationManager != null) {
+            notificationManager.notify(NOTIFICATION_ID, buildNotification());
+        }
+    }
+
+    private Notification buildNotification() {
+        Notification.Builder builder = new Notification.Builder(this, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_timer)
+                .setContentTitle(timerLabel != null ? timerLabel : "Workout timer")
+                .setOngoing(true)
+                .setOnlyAlertOnce(true)
+                .setContentIntent(screenPendingIntent());
+
+        if (timer != null && timer.getState() == WorkoutTimer.State.RUNNING) {
+            long completionWallTime = System.currentTimeMillis()
+                    + (timer.getCompletionTime() - SystemClock.elapsedRealtime());
+            builder.setUsesChronometer(true)
+                    .setChronometerCountDown(true)
+                    .setShowWhen(true)
+                    .setWhen(completionWallTime);
+
+            int segmentIndex = intervalTimer != null ? intervalTimer.getCurrentSegmentIndex() : -1;
+            if (segmentIndex >= 0) {
+                IntervalSchedule schedule = intervalTimer.getSchedule();
+                IntervalSchedule.Segment segment = schedule.getSegment(segmentIndex);
+                builder.setContentText("Round " + segment.round + "/" + schedule.getRounds() + " · " + segment.label);
+            }
+        } else if (timer != null && timer.isPaused()) {
+            builder.setShowWhen(false).setContentText("Paused · " + timer.getFormattedTime() + " left");
+        } else {
+            builder.setShowWhen(false);
+        }
+        return builder.build();
+    }
+
+    private PendingIntent screenPendingIntent() {
+        Intent intent = screenIntent != null
+                ? new Intent(screenIntent).addFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP)
+                // Process was restarted: the launcher screen picks an interrupted workout up again
+                : getPackageManager().getLaunchIntentForPackage(getPackageName());
+        if (intent == null) return null;
+        return PendingIntent.getActivity(this, SCREEN_REQUEST_CODE, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+}
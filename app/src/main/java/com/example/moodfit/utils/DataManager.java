@@ -10,9 +10,11 @@ import com.example.moodfit.models.Exercise;
 import com.example.moodfit.models.enums.MoodType;
 import com.example.moodfit.models.enums.DifficultyLevel;
 import com.example.moodfit.models.enums.WorkoutCategory;
+import com.example.moodfit.recommendation.ExercisePreferenceModel;
+import com.example.moodfit.recommendation.RecommendationExecutor;
+import com.example.moodfit.recommendation.RecommendationRandom;
 
 import java.util.List;
-import java.util.Random;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Calendar;
@@ -107,9 +109,15 @@ public class DataManager {
                 throw new IllegalArgumentException("Invalid or incomplete workout session");
             }
 
+            // Start the preference model's bootstrap (if needed) before this session joins the history
+            ExercisePreferenceModel preferenceModel = getPreferenceModel();
+
             // Save workout session
             prefsHelper.addWorkoutSession(session);
 
+            // Learn from this session incrementally (no history rescan)
+            preferenceModel.learnFrom(session);
+
             // Update user stats
             User user = getCurrentUser();
 
@@ -265,6 +273,18 @@ public class DataManager {
         }
     }
 
+    /**
+     * Learned exercise preferences. Without a saved model, training on past sessions is started
+     * on the recommendation thread and the model scores with its prior until that is done.
+     */
+    public ExercisePreferenceModel getPreferenceModel() {
+        ExercisePreferenceModel model = ExercisePreferenceModel.getInstance(context);
+        if (model.beginBootstrap()) {
+            RecommendationExecutor.runInBackground(() -> model.bootstrap(getAllWorkoutSessions()));
+        }
+        return model;
+    }
+
     // ==================== MOTIVATIONAL QUOTES ====================
 
     /**
@@ -286,44 +306,51 @@ public class DataManager {
         }
     }
 
+    // Expanded quote collection with mood categories (built once, not per call)
+    private static final QuoteData[] QUOTES = {
+            // General Motivation
+            new QuoteData("The only bad workout is the one that didn't happen.", "Daily Motivation", "general"),
+            new QuoteData("Your body can do it. It's your mind you need to convince.", "Fitness Wisdom", "general"),
+            new QuoteData("Fitness is not about being better than someone else. It's about being better than you used to be.", "Health Quote", "general"),
+
+            // Health & Wellness
+            new QuoteData("The groundwork for all happiness is good health.", "Emerson", "health"),
+            new QuoteData("Take care of your body. It's the only place you have to live.", "Jim Rohn", "health"),
+            new QuoteData("A healthy outside starts from the inside.", "Robert Urich", "health"),
+
+            // Motivation & Success
+            new QuoteData("Exercise is king. Nutrition is queen. Put them together and you've got a kingdom.", "Jack LaLanne", "success"),
+            new QuoteData("The first wealth is health.", "Emerson", "success"),
+            new QuoteData("Physical fitness is not only one of the most important keys to a healthy body, it is the basis of dynamic and creative intellectual activity.", "John F. Kennedy", "success"),
+
+            // Inspirational
+            new QuoteData("Success isn't always about greatness. It's about consistency. Consistent hard work leads to success.", "Dwayne Johnson", "inspiration"),
+            new QuoteData("The pain you feel today will be the strength you feel tomorrow.", "Fitness Wisdom", "inspiration"),
+            new QuoteData("Don't limit your challenges, challenge your limits.", "Daily Motivation", "inspiration"),
+
+            // Mind & Body
+            new QuoteData("To keep the body in good health is a duty... otherwise we shall not be able to keep our mind strong and clear.", "Buddha", "mindfulness"),
+            new QuoteData("A strong body makes the mind strong.", "Thomas Jefferson", "mindfulness"),
+            new QuoteData("Happiness is the highest form of health.", "Dalai Lama", "mindfulness")
+    };
+
     /**
      * Generate random motivational quote with mood-specific options
      */
     private MotivationalQuote generateRandomQuote() {
-        // Expanded quote collection with mood categories
-        QuoteData[] quotes = {
-                // General Motivation
-                new QuoteData("The only bad workout is the one that didn't happen.", "Daily Motivation", "general"),
-                new QuoteData("Your body can do it. It's your mind you need to convince.", "Fitness Wisdom", "general"),
-                new QuoteData("Fitness is not about being better than someone else. It's about being better than you used to be.", "Health Quote", "general"),
-
-                // Health & Wellness
-                new QuoteData("The groundwork for all happiness is good health.", "Emerson", "health"),
-                new QuoteData("Take care of your body. It's the only place you have to live.", "Jim Rohn", "health"),
-                new QuoteData("A healthy outside starts from the inside.", "Robert Urich", "health"),
-
-                // Motivation & Success
-                new QuoteData("Exercise is king. Nutrition is queen. Put them together and you've got a kingdom.", "Jack LaLanne", "success"),
-                new QuoteData("The first wealth is health.", "Emerson", "success"),
-                new QuoteData("Physical fitness is not only one of the most important keys to a healthy body, it is the basis of dynamic and creative intellectual activity.", "John F. Kennedy", "success"),
-
-                // Inspirational
-                new QuoteData("Success isn't always about greatness. It's about consistency. Consistent hard work leads to success.", "Dwayne Johnson", "inspiration"),
-                new QuoteData("The pain you feel today will be the strength you feel tomorrow.", "Fitness Wisdom", "inspiration"),
-                new QuoteData("Don't limit your challenges, challenge your limits.", "Daily Motivation", "inspiration"),
-
-                // Mind & Body
-                new QuoteData("To keep the body in good health is a duty... otherwise we shall not be able to keep our mind strong and clear.", "Buddha", "mindfulness"),
-                new QuoteData("A strong body makes the mind strong.", "Thomas Jefferson", "mindfulness"),
-                new QuoteData("Happiness is the highest form of health.", "Dalai Lama", "mindfulness")
-        };
-
-        Random random = new Random();
-        QuoteData selectedQuote = quotes[random.nextInt(quotes.length)];
+        QuoteData selectedQuote = QUOTES[getRecommendationRandom()
+                .nextGenerator(RecommendationRandom.Stream.QUOTE).nextInt(QUOTES.length)];
 
         return new MotivationalQuote(selectedQuote.text, selectedQuote.author, selectedQuote.category);
     }
 
+    /**
+     * Shared reproducible random streams for the current user
+     */
+    private RecommendationRandom getRecommendationRandom() {
+        return RecommendationRandom.getInstance(context, getCurrentUser().getUserId());
+    }
+
     /**
      * Helper class for quote data
      */
@@ -0,0 +1,146 @@
+package com.example.moodfit.utils;
+
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DebouncedPrefsWriter - Coalesces frequent SharedPreferences updates into occasional writes
+ * Updates are kept in memory and flushed on a shared background thread after an idle
+ * period or after a number of pending updates. flush() (e.g. from onPause) hands the pending
+ * update to SharedPreferences.apply() on the calling thread, so the framework waits for it to
+ * reach disk before the process can be stopped.
+ *
+ * Every submitted update must be a complete snapshot of the state it persists,
+ * because only the most recent pending update is written.
+ */
+public class DebouncedPrefsWriter {
+
+    private static final String TAG = "DebouncedPrefsWriter";
+
+    /**
+     * Writes a snapshot of in-memory state into the editor
+     */
+    public interface PrefsUpdate {
+        void applyTo(SharedPreferences.Editor editor);
+    }
+
+    // One low-priority writer thread shared by every instance
+    private static final ScheduledExecutorService SHARED_WRITER =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "MoodFitPrefsWriter");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+
+    private final SharedPreferences prefs;
+    private final long idleDelayMs;
+    private final int maxPendingUpdates;
+
+    private final Object lock = new Object();
+    // Held while an update is taken and handed to an editor, so writes land in submit order
+    private final Object writeLock = new Object();
+    private PrefsUpdate pendingUpdate;
+    private int pendingCount = 0;
+    private ScheduledFuture<?> scheduledFlush;
+
+    // Metrics
+    private final AtomicInteger submitCount = new AtomicInteger();
+    private final AtomicInteger flushCount = new AtomicInteger();
+
+    public DebouncedPrefsWriter(SharedPreferences prefs, long idleDelayMs, int maxPendingUpdates) {
+        this.prefs = prefs;
+        this.idleDelayMs = idleDelayMs;
+        this.maxPendingUpdates = Math.max(1, maxPendingUpdates);
+    }
+
+    /**
+     * Queue a snapshot for writing, replacing any snapshot that has not been written yet
+     */
+    public void submit(PrefsUpdate update) {
+        if (update == null) return;
+
+        synchronized (lock) {
+            pendingUpdate = update;
+            pendingCount++;
+            submitCount.incrementAndGet();
+
+            cancelScheduledFlush();
+            long delay = pendingCount >= maxPendingUpdates ? 0 : idleDelayMs;
+            scheduledFlush = SHARED_WRITER.schedule(() -> writePending(true), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Write any pending snapshot now. The edit is applied on the calling thread with apply(),
+     * which the framework waits for in onPause/onStop handling, so it survives the process
+     * being killed right afterwards.
+     */
+    public void flush() {
+        synchronized (lock) {
+            if (pendingUpdate == null) return;
+            cancelScheduledFlush();
+        }
+        writePending(false);
+    }
+
+    private void cancelScheduledFlush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+    }
+
+    /**
+     * Take the pending snapshot and write it; commit() on the writer thread, apply() otherwise
+     */
+    private void writePending(boolean onWriterThread) {
+        synchronized (writeLock) {
+            PrefsUpdate update;
+            int coalesced;
+            synchronized (lock) {
+                update = pendingUpdate;
+                coalesced = pendingCount;
+                pendingUpdate = null;
+                pendingCount = 0;
+                if (onWriterThread) {
+                    scheduledFlush = null;
+                }
+            }
+            if (update == null) return;
+
+            try {
+                SharedPreferences.Editor editor = prefs.edit();
+                update.applyTo(editor);
+                if (onWriterThread) {
+                    editor.commit(); // Already off the main thread
+                } else {
+                    editor.apply();
+                }
+
+                int flushes = flushCount.incrementAndGet();
+                Log.d(TAG, "Flushed " + coalesced + " update(s); flushes=" + flushes + ", submits=" + submitCount.get());
+            } catch (Exception e) {
+                Log.w(TAG, "Could not write preferences", e);
+            }
+        }
+    }
+
+    // ==================== METRICS ====================
+
+    /**
+     * Number of updates submitted since creation
+     */
+    public int getSubmitCount() { return submitCount.get(); }
+
+    /**
+     * Number of actual preference writes performed since creation
+     */
+    public int getFlushCount() { return flushCount.get(); }
+}
@@ -37,6 +37,7 @@ public class SharedPreferencesHelper {
     private static final String KEY_WORKOUT_SESSIONS = "workout_sessions";
     private static final String KEY_DAILY_QUOTE = "daily_quote";
     private static final String KEY_LAST_QUOTE_DATE = "last_quote_date";
+    private static final String KEY_EXACT_ALARMS_ASKED = "exact_alarms_asked";
 
     private final SharedPreferences prefs;
     private final Gson gson;
@@ -487,6 +488,20 @@ public class SharedPreferencesHelper {
         return prefs.getLong(KEY_LAST_OPEN_DATE, 0);
     }
 
+    /**
+     * Check if the user was already asked to allow exact alarms for the workout timer
+     */
+    public boolean hasAskedForExactAlarms() {
+        return prefs.getBoolean(KEY_EXACT_ALARMS_ASKED, false);
+    }
+
+    /**
+     * Remember that the user was asked to allow exact alarms, whatever the answer
+     */
+    public void setAskedForExactAlarms() {
+        prefs.edit().putBoolean(KEY_EXACT_ALARMS_ASKED, true).apply();
+    }
+
     // ==================== UTILITY METHODS ====================
 
     /**
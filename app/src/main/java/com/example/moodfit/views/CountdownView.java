@@ -0,0 +1,265 @@
+package com.example.moodfit.views;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RecordingCanvas;
+import android.graphics.RectF;
+import android.graphics.RenderNode;
+import android.graphics.Typeface;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+
+import com.example.moodfit.models.WorkoutTimer;
+import com.example.moodfit.timer.TimerText;
+
+/**
+ * CountdownView - MM:SS countdown with a progress ring, drawn without text layout
+ * The digit and colon glyphs are measured once into a fixed cell grid. Each of the five cells is
+ * its own RenderNode and is only re-recorded when its glyph changes, so a new second re-records
+ * one or two cells and no String or relayout is involved. The ring is interpolated from the
+ * timer's monotonic clock and only redrawn once its arc has grown by a pixel, which for longer
+ * timers is far less often than every frame; redraws are only requested while it is running and
+ * on screen. The remaining time is the view's content description, set when the second changes.
+ */
+public class CountdownView extends View {
+
+    private static final char[] GLYPHS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', ':'};
+    private static final int COLON = 10;
+    private static final int CELLS = 5;
+
+    private static final float TEXT_SIZE_SP = 64f;
+    private static final float RING_STROKE_DP = 6f;
+    private static final int RING_TRACK_COLOR = 0x33FFFFFF;
+
+    private final Paint glyphPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint ringTrackPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint ringPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    // Glyph cache: measured once per text size
+    private float digitCellWidth;
+    private float colonCellWidth;
+    private final float[] glyphOffsets = new float[GLYPHS.length];
+    private float cellHeight;
+    private float baseline;
+
+    // Cell layout and content
+    private final RenderNode[] cellNodes = new RenderNode[CELLS];
+    private final float[] cellLefts = new float[CELLS];
+    private final int[] cellGlyphs = {-1, -1, COLON, -1, -1};
+    private final boolean[] cellDirty = new boolean[CELLS];
+    private float cellTop;
+
+    // Ring
+    private final RectF ringBounds = new RectF();
+    private float ringCircumference;
+    private WorkoutTimer ringSource;
+    private boolean ringAnimating = false;
+    private final Runnable ringRedraw = this::invalidate;
+
+    public CountdownView(Context context) {
+        this(context, null);
+    }
+
+    public CountdownView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+
+        glyphPaint.setColor(Color.WHITE);
+        glyphPaint.setTypeface(Typeface.create(Typeface.MONOSPACE, Typeface.BOLD));
+        glyphPaint.setShadowLayer(4f, 2f, 2f, Color.BLACK);
+        glyphPaint.setTextSize(TypedValue.applyDimension(
+                TypedValue.COMPLEX_UNIT_SP, TEXT_SIZE_SP, getResources().getDisplayMetrics()));
+
+        float ringStroke = TypedValue.applyDimension(
+                TypedValue.COMPLEX_UNIT_DIP, RING_STROKE_DP, getResources().getDisplayMetrics());
+        ringTrackPaint.setStyle(Paint.Style.STROKE);
+        ringTrackPaint.setStrokeWidth(ringStroke);
+        ringTrackPaint.setColor(RING_TRACK_COLOR);
+        ringPaint.set(ringTrackPaint);
+        ringPaint.setColor(Color.WHITE);
+        ringPaint.setStrokeCap(Paint.Cap.ROUND);
+
+        for (int i = 0; i < CELLS; i++) {
+            cellNodes[i] = new RenderNode("CountdownCell" + i);
+            cellDirty[i] = true;
+        }
+        // Read out like the TextView this replaces
+        setImportantForAccessibility(IMPORTANT_FOR_ACCESSIBILITY_YES);
+        measureGlyphs();
+        setTime(0);
+    }
+
+    // ==================== CONTENT ====================
+
+    /**
+     * Show a remaining time; only cells whose glyph changed are redrawn
+     */
+    public void setTime(int remainingSeconds) {
+        int shown = Math.max(0, Math.min(remainingSeconds, TimerText.MAX_CACHED_SECONDS));
+        int minutes = shown / 60;
+        int seconds = shown % 60;
+
+        boolean changed = setCell(0, minutes / 10);
+        changed |= setCell(1, minutes % 10);
+        changed |= setCell(3, seconds / 10);
+        changed |= setCell(4, seconds % 10);
+        if (changed) {
+            // Cached label, so no String is built per second
+            setContentDescription(TimerText.format(shown));
+            invalidate();
+        }
+    }
+
+    /**
+     * Timer whose clock drives the progress ring, or null for no ring
+     */
+    public void setRingSource(WorkoutTimer timer) {
+        ringSource = timer;
+        invalidate();
+    }
+
+    /**
+     * Interpolate the ring every frame (while running) or hold it still (paused, stopped)
+     */
+    public void setRingAnimating(boolean animating) {
+        if (ringAnimating == animating) return;
+        ringAnimating = animating;
+        removeCallbacks(ringRedraw);
+        invalidate();
+    }
+
+    private boolean setCell(int cell, int glyph) {
+        if (cellGlyphs[cell] == glyph) return false;
+        cellGlyphs[cell] = glyph;
+        cellDirty[cell] = true;
+        return true;
+    }
+
+    // ==================== GLYPH CACHE ====================
+
+    private void measureGlyphs() {
+        float[] widths = new float[GLYPHS.length];
+        glyphPaint.getTextWidths(GLYPHS, 0, GLYPHS.length, widths);
+
+        digitCellWidth = 0;
+        for (int i = 0; i < COLON; i++) {
+            digitCellWidth = Math.max(digitCellWidth, widths[i]);
+        }
+        colonCellWidth = widths[COLON];
+
+        // Center every glyph in its cell so proportional fallbacks still line up
+        for (int i = 0; i < GLYPHS.length; i++) {
+            float cellWidth = i == COLON ? colonCellWidth : digitCellWidth;
+            glyphOffsets[i] = (cellWidth - widths[i]) / 2f;
+        }
+
+        Paint.FontMetrics metrics = glyphPaint.getFontMetrics();
+        // Room for the shadow below and to the right
+        float shadow = 2f + 4f;
+        cellHeight = metrics.descent - metrics.ascent + shadow;
+        baseline = -metrics.ascent;
+        digitCellWidth += shadow;
+        colonCellWidth += shadow;
+    }
+
+    private float contentWidth() {
+        return 4 * digitCellWidth + colonCellWidth;
+    }
+
+    // ==================== LAYOUT ====================
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = (int) Math.ceil(contentWidth()) + getPaddingLeft() + getPaddingRight();
+        int height = (int) Math.ceil(cellHeight) + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+
+        float left = (w - contentWidth()) / 2f;
+        cellTop = (h - cellHeight) / 2f;
+        for (int i = 0; i < CELLS; i++) {
+            cellLefts[i] = left;
+            float cellWidth = i == 2 ? colonCellWidth : digitCellWidth;
+            cellNodes[i].setPosition(Math.round(left), Math.round(cellTop),
+                    Math.round(left + cellWidth), Math.round(cellTop + cellHeight));
+            cellDirty[i] = true;
+            left += cellWidth;
+        }
+
+        float inset = ringPaint.getStrokeWidth() / 2f;
+        float radius = Math.min(w, h) / 2f - inset;
+        ringBounds.set(w / 2f - radius, h / 2f - radius, w / 2f + radius, h / 2f + radius);
+        ringCircumference = (float) (2 * Math.PI * Math.max(0f, radius));
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        removeCallbacks(ringRedraw);
+        super.onDetachedFromWindow();
+    }
+
+    // ==================== DRAWING ====================
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        float progress = drawRing(canvas);
+
+        boolean hardware = canvas.isHardwareAccelerated();
+        for (int i = 0; i < CELLS; i++) {
+            if (hardware) {
+                if (cellDirty[i] || !cellNodes[i].hasDisplayList()) {
+                    RecordingCanvas recording = cellNodes[i].beginRecording();
+                    drawGlyph(recording, cellGlyphs[i], 0f, 0f);
+                    cellNodes[i].endRecording();
+                    cellDirty[i] = false;
+                }
+                canvas.drawRenderNode(cellNodes[i]);
+            } else {
+                drawGlyph(canvas, cellGlyphs[i], cellLefts[i], cellTop);
+            }
+        }
+
+        if (ringAnimating && ringSource != null && isShown()) {
+            scheduleRingRedraw(progress);
+        }
+    }
+
+    /**
+     * Redraw when the arc's end will have moved by one more pixel: on the next frame for short
+     * timers, up to once a second or so for long ones
+     */
+    private void scheduleRingRedraw(float progress) {
+        removeCallbacks(ringRedraw);
+        if (progress >= 1f || ringCircumference <= 0f || ringSource.getTotalSeconds() <= 0) return;
+
+        float nextPixelProgress = (float) (Math.floor(progress * ringCircumference) + 1) / ringCircumference;
+        long delayMs = (long) Math.ceil((nextPixelProgress - progress) * ringSource.getTotalSeconds() * 1000f);
+        postOnAnimationDelayed(ringRedraw, delayMs);
+    }
+
+    private void drawGlyph(Canvas canvas, int glyph, float left, float top) {
+        if (glyph < 0) return;
+        canvas.drawText(GLYPHS, glyph, 1, left + glyphOffsets[glyph], top + baseline, glyphPaint);
+    }
+
+    /**
+     * Draw the ring and return the progress it shows
+     */
+    private float drawRing(Canvas canvas) {
+        if (ringSource == null) return 0f;
+        canvas.drawOval(ringBounds, ringTrackPaint);
+
+        float progress = ringSource.getPreciseProgress();
+        if (progress > 0f) {
+            canvas.drawArc(ringBounds, -90f, 360f * progress, false, ringPaint);
+        }
+        return progress;
+    }
+}
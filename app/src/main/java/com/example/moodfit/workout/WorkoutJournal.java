@@ -0,0 +1,526 @@
+package com.example.moodfit.workout;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.provider.Settings;
+import android.util.Log;
+
+import com.example.moodfit.models.Exercise;
+import com.example.moodfit.models.SessionTimeline;
+import com.example.moodfit.models.WorkoutSession;
+import com.example.moodfit.models.enums.DifficultyLevel;
+import com.example.moodfit.models.enums.MoodType;
+import com.example.moodfit.models.enums.WorkoutCategory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * WorkoutJournal - Write-ahead journal of the workout in progress, for resuming after process death
+ *
+ * File layout: a header written once when the workout starts (boot count, monotonic start, the
+ * session and its plan in a small binary form), then one fixed-size record per session event. A record is 16 bytes:
+ * type, exercise index, offset from the workout start in ms, sequence number and a CRC32, so a torn
+ * write at the tail is detected and dropped. Writes go through one background thread in order;
+ * only records at exercise boundaries (start, end, skip, advance) are fsynced. Pauses reach the
+ * page cache, which is enough to survive the process dying. The header is read without a JSON
+ * library, so recovery does not pay for Gson on cold start.
+ *
+ * A journal whose last event is older than RESUME_WINDOW_MS is dropped instead of recovered.
+ */
+public final class WorkoutJournal {
+
+    private static final String TAG = "WorkoutJournal";
+
+    private static final String FILE_NAME = "active_workout.journal";
+    private static final int MAGIC = 0x4D464A31; // "MFJ1"
+
+    static final int RECORD_SIZE = 16;
+
+    // Journal-only record type on top of the SessionTimeline event types
+    static final int ADVANCE = 8;
+
+    // Longer without a new event and the workout is treated as abandoned, not interrupted
+    static final long RESUME_WINDOW_MS = 2 * 60 * 60 * 1000L;
+
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MoodFitJournal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static WorkoutJournal instance;
+
+    private final File file;
+    private final int bootCount;
+
+    // Writer thread only
+    private FileChannel channel;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private int sequence;
+
+    // Main thread: monotonic start of the journaled workout
+    private long startElapsed;
+
+    /**
+     * What the journal knew about the interrupted workout
+     */
+    public static final class Recovery {
+        public final WorkoutSession session;
+        public final int estimatedMinutes;
+        public final int currentIndex;
+        public final int completedCount;
+        // The timer of the current exercise was running (or paused) when the process died
+        public final boolean exerciseInProgress;
+        public final boolean exercisePaused;
+        // Time since the last journaled event
+        public final long idleMillis;
+        public final boolean afterReboot;
+
+        // Monotonic start the timeline was replayed against, and where the intact part of the
+        // file ends, to continue appending there
+        final long startElapsed;
+        final int recordCount;
+        final long validLength;
+
+        Recovery(WorkoutSession session, int estimatedMinutes, int currentIndex, int completedCount,
+                 boolean exerciseInProgress, boolean exercisePaused, long idleMillis, boolean afterReboot,
+                 long startElapsed, int recordCount, long validLength) {
+            this.session = session;
+            this.estimatedMinutes = estimatedMinutes;
+            this.currentIndex = currentIndex;
+            this.completedCount = completedCount;
+            this.exerciseInProgress = exerciseInProgress;
+            this.exercisePaused = exercisePaused;
+            this.idleMillis = idleMillis;
+            this.afterReboot = afterReboot;
+            this.startElapsed = startElapsed;
+            this.recordCount = recordCount;
+            this.validLength = validLength;
+        }
+    }
+
+    private WorkoutJournal(Context context) {
+        file = new File(context.getFilesDir(), FILE_NAME);
+        bootCount = Settings.Global.getInt(context.getContentResolver(), Settings.Global.BOOT_COUNT, -1);
+    }
+
+    public static synchronized WorkoutJournal getInstance(Context context) {
+        if (instance == null) {
+            instance = new WorkoutJournal(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // ==================== WRITING ====================
+
+    /**
+     * Start a new journal for a session whose timeline was just started
+     */
+    void begin(WorkoutSession session, int estimatedMinutes) {
+        SessionTimeline timeline = session.getTimeline();
+        startElapsed = timeline != null && timeline.isRecording()
+                ? timeline.getStartElapsed() : SystemClock.elapsedRealtime();
+
+        ByteBuffer header;
+        try {
+            header = encodeHeader(session, bootCount, startElapsed, estimatedMinutes);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not encode workout for the journal", e);
+            return;
+        }
+
+        WRITER.execute(() -> {
+            try {
+                closeChannel();
+                channel = new RandomAccessFile(file, "rw").getChannel();
+                channel.truncate(0);
+                writeFully(header);
+                channel.force(false);
+                sequence = 0;
+            } catch (IOException e) {
+                Log.w(TAG, "Could not start workout journal", e);
+                closeChannel();
+            }
+        });
+    }
+
+    /**
+     * Append one event now; boundary events are fsynced before the next write
+     */
+    void append(int type, int exerciseIndex, boolean boundary) {
+        int offsetMs = (int) Math.min(Integer.MAX_VALUE, SystemClock.elapsedRealtime() - startElapsed);
+
+        WRITER.execute(() -> {
+            if (channel == null) return;
+            try {
+                encodeRecord(record, crc, type, exerciseIndex, offsetMs, sequence++);
+                writeFully(record);
+                if (boundary) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "Could not append to workout journal", e);
+            }
+        });
+    }
+
+    /**
+     * The workout is over or abandoned; nothing to resume
+     */
+    void clear() {
+        WRITER.execute(() -> {
+            closeChannel();
+            if (file.exists() && !file.delete()) {
+                Log.w(TAG, "Could not delete workout journal");
+            }
+        });
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            Log.w(TAG, "Could not close workout journal", e);
+        }
+        channel = null;
+    }
+
+    // ==================== RECOVERY ====================
+
+    /**
+     * Read an interrupted workout back, or null if none (or the journal is unusable).
+     * Small synchronous read meant for cold start; call before any workout is started.
+     */
+    public Recovery recover() {
+        if (!file.exists()) return null;
+
+        byte[] data;
+        try (FileInputStream in = new FileInputStream(file)) {
+            data = new byte[(int) file.length()];
+            int read = 0;
+            while (read < data.length) {
+                int n = in.read(data, read, data.length - read);
+                if (n < 0) break;
+                read += n;
+            }
+            if (read < data.length) {
+                data = Arrays.copyOf(data, read);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Could not read workout journal", e);
+            return null;
+        }
+
+        try {
+            Recovery recovery = parse(data, bootCount, SystemClock.elapsedRealtime(), System.currentTimeMillis());
+            if (recovery == null) {
+                clear();
+                return null;
+            }
+            Log.d(TAG, "Recovered workout " + recovery.session.getSessionId() + " at exercise "
+                    + recovery.currentIndex + " from " + recovery.recordCount + " records, idle "
+                    + (recovery.idleMillis / 1000) + "s" + (recovery.afterReboot ? " (after reboot)" : ""));
+            return recovery;
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Discarding unreadable workout journal", e);
+            clear();
+            return null;
+        }
+    }
+
+    /**
+     * The interrupted workout in a journal's bytes, or null if there is none to resume (not a journal,
+     * bad header, finished, or idle for longer than RESUME_WINDOW_MS)
+     *
+     * @param bootCount boot count of this boot, to tell whether the monotonic anchors still hold
+     * @param nowElapsed SystemClock.elapsedRealtime() now
+     * @param nowWallMillis System.currentTimeMillis() now, for the idle time after a reboot
+     */
+    static Recovery parse(byte[] data, int bootCount, long nowElapsed, long nowWallMillis) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.remaining() < 24 || buffer.getInt() != MAGIC) return null;
+
+        int journalBootCount = buffer.getInt();
+        long journalStartElapsed = buffer.getLong();
+        int estimatedMinutes = buffer.getInt();
+        int planLength = buffer.getInt();
+        if (planLength < 0 || buffer.remaining() - 4 < planLength) return null;
+
+        int planOffset = buffer.position();
+        buffer.position(planOffset + planLength);
+        CRC32 headerCrc = new CRC32();
+        headerCrc.update(data, 0, buffer.position());
+        if (buffer.getInt() != (int) headerCrc.getValue()) return null;
+
+        WorkoutSession session = decodeSession(data, planOffset, planLength);
+        if (session.getExercises().isEmpty()) return null;
+
+        // Read the intact records
+        int recordsStart = buffer.position();
+        int count = 0;
+        CRC32 recordCrc = new CRC32();
+        while (buffer.remaining() >= RECORD_SIZE) {
+            int start = buffer.position();
+            buffer.position(start + 12);
+            int expectedSequence = buffer.getInt(start + 8);
+            recordCrc.reset();
+            recordCrc.update(data, start, 12);
+            if (buffer.getInt() != (int) recordCrc.getValue() || expectedSequence != count) break;
+            count++;
+        }
+
+        // Same boot: the monotonic anchors still hold. After a reboot, continue from the last event
+        // as if no time had passed while the phone was off.
+        int lastOffset = count > 0 ? buffer.getInt(recordsStart + (count - 1) * RECORD_SIZE + 4) : 0;
+        boolean sameBoot = journalBootCount == bootCount && journalStartElapsed <= nowElapsed;
+        long anchor = sameBoot ? journalStartElapsed : nowElapsed - lastOffset;
+
+        // The monotonic clock on the same boot; the wall clock from the session start after a reboot
+        long idleMillis = sameBoot
+                ? nowElapsed - (journalStartElapsed + lastOffset)
+                : nowWallMillis - (session.getStartTime() + lastOffset);
+        if (idleMillis > RESUME_WINDOW_MS) return null;
+
+        // A decoded session has a fresh, empty timeline; replay the records into it
+        SessionTimeline timeline = session.getTimeline();
+        timeline.startAt(anchor);
+
+        int currentIndex = 0;
+        int completedCount = 0;
+        boolean inProgress = false;
+        boolean paused = false;
+        int exerciseCount = session.getExercises().size();
+
+        for (int i = 0; i < count; i++) {
+            int at = recordsStart + i * RECORD_SIZE;
+            int type = data[at];
+            int index = data[at + 1] & 0xFF;
+            int offset = buffer.getInt(at + 4);
+            if (index >= exerciseCount) return null;
+
+            switch (type) {
+                case ADVANCE:
+                    currentIndex = index;
+                    inProgress = false;
+                    paused = false;
+                    continue;
+                case SessionTimeline.WORKOUT_END:
+                    // Finished; the completion screen took over
+                    return null;
+                case SessionTimeline.EXERCISE_START:
+                    inProgress = true;
+                    paused = false;
+                    break;
+                case SessionTimeline.EXERCISE_END:
+                    completedCount++;
+                    inProgress = false;
+                    paused = false;
+                    break;
+                case SessionTimeline.EXERCISE_CANCEL:
+                case SessionTimeline.EXERCISE_SKIP:
+                    inProgress = false;
+                    paused = false;
+                    break;
+                case SessionTimeline.PAUSE:
+                    paused = true;
+                    break;
+                case SessionTimeline.RESUME:
+                    paused = false;
+                    break;
+                default:
+                    break;
+            }
+            timeline.recordAt(type, index, anchor + offset);
+        }
+
+        boolean resumeTimer = inProgress && sameBoot;
+        return new Recovery(session, estimatedMinutes, currentIndex, completedCount, resumeTimer,
+                resumeTimer && paused, Math.max(0, idleMillis), !sameBoot, anchor, count,
+                recordsStart + (long) count * RECORD_SIZE);
+    }
+
+    // ==================== FORMAT ====================
+
+    /**
+     * Magic, boot count, monotonic start, estimated minutes, session length, session, CRC32 of all before it
+     */
+    static ByteBuffer encodeHeader(WorkoutSession session, int bootCount, long startElapsed,
+                                   int estimatedMinutes) throws IOException {
+        byte[] plan = encodeSession(session);
+        ByteBuffer header = ByteBuffer.allocate(4 + 4 + 8 + 4 + 4 + plan.length + 4);
+        header.putInt(MAGIC).putInt(bootCount).putLong(startElapsed)
+                .putInt(estimatedMinutes).putInt(plan.length).put(plan);
+        CRC32 headerCrc = new CRC32();
+        headerCrc.update(header.array(), 0, header.position());
+        header.putInt((int) headerCrc.getValue());
+        header.flip();
+        return header;
+    }
+
+    /**
+     * Fill a RECORD_SIZE buffer, ready to write: type, index, 2 spare bytes, offset, sequence, CRC32
+     */
+    static void encodeRecord(ByteBuffer record, CRC32 crc, int type, int exerciseIndex, int offsetMs, int sequence) {
+        record.clear();
+        record.put((byte) type).put((byte) exerciseIndex).putShort((short) 0)
+                .putInt(offsetMs).putInt(sequence);
+        crc.reset();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        record.flip();
+    }
+
+    // ==================== SESSION ENCODING ====================
+
+    private static byte[] encodeSession(WorkoutSession session) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        writeString(out, session.getSessionId());
+        writeString(out, session.getUserId());
+        out.writeLong(session.getStartTime());
+        writeEnum(out, session.getSelectedMood());
+
+        List<Exercise> exercises = session.getExercises();
+        out.writeShort(exercises.size());
+        for (Exercise exercise : exercises) {
+            writeString(out, exercise.getExerciseId());
+            writeString(out, exercise.getName());
+            writeString(out, exercise.getDescription());
+            writeString(out, exercise.getInstructions());
+            writeEnum(out, exercise.getDifficulty());
+            writeEnum(out, exercise.getCategory());
+            out.writeInt(exercise.getEstimatedDurationMinutes());
+            out.writeInt(exercise.getEstimatedCalories());
+            writeString(out, exercise.getImageUrl());
+            writeString(out, exercise.getVideoUrl());
+            out.writeBoolean(exercise.isRequiresEquipment());
+            writeString(out, exercise.getEquipment());
+            out.writeInt(exercise.getRecommendedReps());
+            out.writeInt(exercise.getRecommendedSets());
+
+            List<String> muscles = exercise.getTargetMuscles();
+            out.writeShort(muscles.size());
+            for (String muscle : muscles) {
+                writeString(out, muscle);
+            }
+            List<MoodType> moods = exercise.getSuitableForMoods();
+            out.writeShort(moods.size());
+            for (MoodType mood : moods) {
+                writeEnum(out, mood);
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static WorkoutSession decodeSession(byte[] data, int offset, int length) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offset, length));
+
+        WorkoutSession session = new WorkoutSession(null, null);
+        session.setSessionId(readString(in));
+        session.setUserId(readString(in));
+        session.setStartTime(in.readLong());
+        session.setSelectedMood(readEnum(in, MoodType.class));
+
+        int exerciseCount = in.readUnsignedShort();
+        List<Exercise> exercises = new ArrayList<>(exerciseCount);
+        for (int i = 0; i < exerciseCount; i++) {
+            Exercise exercise = new Exercise();
+            exercise.setExerciseId(readString(in));
+            exercise.setName(readString(in));
+            exercise.setDescription(readString(in));
+            exercise.setInstructions(readString(in));
+            exercise.setDifficulty(readEnum(in, DifficultyLevel.class));
+            exercise.setCategory(readEnum(in, WorkoutCategory.class));
+            exercise.setEstimatedDurationMinutes(in.readInt());
+            exercise.setEstimatedCalories(in.readInt());
+            exercise.setImageUrl(readString(in));
+            exercise.setVideoUrl(readString(in));
+            exercise.setRequiresEquipment(in.readBoolean());
+            exercise.setEquipment(readString(in));
+            exercise.setRecommendedReps(in.readInt());
+            exercise.setRecommendedSets(in.readInt());
+
+            int muscleCount = in.readUnsignedShort();
+            List<String> muscles = new ArrayList<>(muscleCount);
+            for (int m = 0; m < muscleCount; m++) {
+                muscles.add(readString(in));
+            }
+            exercise.setTargetMuscles(muscles);
+
+            int moodCount = in.readUnsignedShort();
+            List<MoodType> moods = new ArrayList<>(moodCount);
+            for (int m = 0; m < moodCount; m++) {
+                moods.add(readEnum(in, MoodType.class));
+            }
+            exercise.setSuitableForMoods(moods);
+            exercises.add(exercise);
+        }
+        session.setExercises(exercises);
+        return session;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    // By name, so reordering an enum does not break a journal written by an older build
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        writeString(out, value != null ? value.name() : null);
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInputStream in, Class<E> type) throws IOException {
+        String name = readString(in);
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+
+    /**
+     * Reopen the recovered journal so the resumed workout keeps appending to it; a torn tail is cut off
+     */
+    void reopen(Recovery recovery) {
+        startElapsed = recovery.startElapsed;
+        WRITER.execute(() -> {
+            try {
+                closeChannel();
+                channel = new RandomAccessFile(file, "rw").getChannel();
+                channel.truncate(recovery.validLength);
+                channel.position(recovery.validLength);
+                sequence = recovery.recordCount;
+            } catch (IOException e) {
+                Log.w(TAG, "Could not reopen workout journal", e);
+                closeChannel();
+            }
+        });
+    }
+}
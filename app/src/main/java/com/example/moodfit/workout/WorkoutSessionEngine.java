@@ -0,0 +1,319 @@
+package com.example.moodfit.workout;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.moodfit.models.Exercise;
+import com.example.moodfit.models.SessionTimeline;
+import com.example.moodfit.models.WorkoutSession;
+import com.example.moodfit.models.enums.MoodType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * WorkoutSessionEngine - The one in-process owner of a running mood workout
+ * Holds the plan and the current exercise, and records starts, pauses, completions and skips
+ * into the session's timeline. The workout screens (demo, timer, completion) are views onto it:
+ * moving to the next exercise is an index change the demo screen re-binds to, not an activity
+ * result carrying the exercise through intent extras.
+ *
+ * Every transition is also appended to the WorkoutJournal, so a workout interrupted by process
+ * death can be picked up again (resumeFromJournal).
+ *
+ * Main thread only.
+ */
+public final class WorkoutSessionEngine {
+
+    private static final String TAG = "WorkoutSessionEngine";
+
+    private static final WorkoutSessionEngine INSTANCE = new WorkoutSessionEngine();
+
+    public enum Outcome { PENDING, COMPLETED, SKIPPED }
+
+    private WorkoutSession session;
+    private List<Exercise> plan = Collections.emptyList();
+    private int estimatedMinutes;
+    private int currentIndex;
+    private boolean exercisePaused;
+    private int completedCount;
+    private WorkoutJournal journal;
+    private boolean exerciseInterrupted;
+
+    private WorkoutSessionEngine() {
+    }
+
+    public static WorkoutSessionEngine getInstance() {
+        return INSTANCE;
+    }
+
+    // ==================== LIFECYCLE ====================
+
+    /**
+     * Journal to append transitions to; set before start()
+     */
+    public void setJournal(WorkoutJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Begin a workout on the first exercise of the plan; replaces any workout still held.
+     * The session must already be started (its timeline is running).
+     */
+    public void start(WorkoutSession session, List<Exercise> exercises, int estimatedMinutes) {
+        if (exercises == null || exercises.isEmpty()) {
+            throw new IllegalArgumentException("Workout plan has no exercises");
+        }
+        if (exercises.size() > SessionTimeline.MAX_EXERCISES) {
+            throw new IllegalArgumentException("Workout plan has more than " + SessionTimeline.MAX_EXERCISES + " exercises");
+        }
+        if (isActive()) {
+            Log.w(TAG, "Replacing unfinished workout " + this.session.getSessionId());
+        }
+
+        this.session = session;
+        this.plan = Collections.unmodifiableList(new ArrayList<>(exercises));
+        this.estimatedMinutes = estimatedMinutes;
+        currentIndex = 0;
+        exercisePaused = false;
+        completedCount = 0;
+
+        if (journal != null) {
+            journal.begin(session, estimatedMinutes);
+        }
+    }
+
+    /**
+     * Make sure a workout is held: true if one is active or an interrupted one was read back from
+     * the journal (after process death). Cheap when a workout is already active.
+     */
+    public boolean resumeFromJournal(Context context) {
+        if (isActive()) return true;
+
+        WorkoutJournal workoutJournal = WorkoutJournal.getInstance(context);
+        WorkoutJournal.Recovery recovery = workoutJournal.recover();
+        if (recovery == null) return false;
+
+        journal = workoutJournal;
+        session = recovery.session;
+        plan = Collections.unmodifiableList(session.getExercises());
+        estimatedMinutes = recovery.estimatedMinutes;
+        currentIndex = recovery.currentIndex;
+        exercisePaused = recovery.exercisePaused;
+        completedCount = recovery.completedCount;
+        exerciseInterrupted = recovery.exerciseInProgress;
+        journal.reopen(recovery);
+
+        // Died between finishing an exercise and showing the next one
+        if (!recovery.exerciseInProgress && getOutcome(currentIndex) != Outcome.PENDING) {
+            advance();
+        }
+        return true;
+    }
+
+    /**
+     * The current exercise's timer was running when the process died; its screen should pick it up
+     * again. Cleared by the next transition.
+     */
+    public boolean isExerciseInterrupted() {
+        return exerciseInterrupted;
+    }
+
+    /**
+     * End the session's clock and timeline; the results stay readable until end()
+     */
+    public void finish() {
+        if (session != null && session.getEndTime() == 0) {
+            session.endWorkout();
+            if (journal != null) {
+                journal.append(SessionTimeline.WORKOUT_END, 0, true);
+            }
+        }
+    }
+
+    /**
+     * Drop the workout (completed and read, or abandoned)
+     */
+    public void end() {
+        if (session != null && journal != null) {
+            journal.clear();
+        }
+        session = null;
+        plan = Collections.emptyList();
+        currentIndex = 0;
+        exercisePaused = false;
+        exerciseInterrupted = false;
+        completedCount = 0;
+    }
+
+    public boolean isActive() {
+        return session != null;
+    }
+
+    public boolean isFinished() {
+        return session != null && session.getEndTime() != 0;
+    }
+
+    // ==================== CURRENT EXERCISE ====================
+
+    /**
+     * The timer for the current exercise started; a restarted attempt replaces the earlier one
+     */
+    public void beginCurrentExercise() {
+        if (!isActive()) return;
+        exercisePaused = false;
+        record(SessionTimeline.EXERCISE_START, true);
+    }
+
+    public void pauseCurrentExercise() {
+        if (!isActive() || exercisePaused) return;
+        exercisePaused = true;
+        record(SessionTimeline.PAUSE, false);
+    }
+
+    public void resumeCurrentExercise() {
+        if (!isActive() || !exercisePaused) return;
+        exercisePaused = false;
+        record(SessionTimeline.RESUME, false);
+    }
+
+    /**
+     * The timer was left before the exercise was done; ignored unless an attempt is still open
+     * (started, and not ended or cancelled since)
+     */
+    public void cancelCurrentExercise() {
+        if (!isActive() || !isAttemptOpen()) return;
+        exercisePaused = false;
+        record(SessionTimeline.EXERCISE_CANCEL, false);
+    }
+
+    public void completeCurrentExercise() {
+        if (!isActive() || getOutcome(currentIndex) != Outcome.PENDING) return;
+        exercisePaused = false;
+        record(SessionTimeline.EXERCISE_END, true);
+        completedCount++;
+    }
+
+    public void skipCurrentExercise() {
+        if (!isActive() || getOutcome(currentIndex) != Outcome.PENDING) return;
+        record(SessionTimeline.EXERCISE_SKIP, true);
+    }
+
+    /**
+     * Move to the next exercise; false when the current one was the last
+     */
+    public boolean advance() {
+        if (!isActive() || currentIndex + 1 >= plan.size()) return false;
+        currentIndex++;
+        exercisePaused = false;
+        exerciseInterrupted = false;
+        if (journal != null) {
+            journal.append(WorkoutJournal.ADVANCE, currentIndex, true);
+        }
+        return true;
+    }
+
+    /**
+     * Into the session timeline and the journal; exercise boundaries are synced to disk
+     */
+    private void record(int type, boolean boundary) {
+        session.recordEvent(type, currentIndex);
+        if (journal != null) {
+            journal.append(type, currentIndex, boundary);
+        }
+        exerciseInterrupted = false;
+    }
+
+    // ==================== STATE ====================
+
+    public WorkoutSession getSession() {
+        return session;
+    }
+
+    public MoodType getMood() {
+        return session != null ? session.getSelectedMood() : null;
+    }
+
+    public List<Exercise> getPlan() {
+        return plan;
+    }
+
+    public int getExerciseCount() {
+        return plan.size();
+    }
+
+    public int getCurrentIndex() {
+        return currentIndex;
+    }
+
+    public Exercise getCurrentExercise() {
+        return isActive() ? plan.get(currentIndex) : null;
+    }
+
+    /**
+     * The exercise after the current one, or null on the last
+     */
+    public Exercise getNextExercise() {
+        return isActive() && currentIndex + 1 < plan.size() ? plan.get(currentIndex + 1) : null;
+    }
+
+    public boolean isLastExercise() {
+        return currentIndex + 1 >= plan.size();
+    }
+
+    public int getEstimatedMinutes() {
+        return estimatedMinutes;
+    }
+
+    public Outcome getOutcome(int index) {
+        SessionTimeline timeline = session != null ? session.getTimeline() : null;
+        if (timeline == null) return Outcome.PENDING;
+        if (timeline.wasCompleted(index)) return Outcome.COMPLETED;
+        if (timeline.wasSkipped(index)) return Outcome.SKIPPED;
+        return Outcome.PENDING;
+    }
+
+    /**
+     * The timer of the current exercise was started and its attempt has not ended yet
+     */
+    public boolean isAttemptOpen() {
+        SessionTimeline timeline = session != null ? session.getTimeline() : null;
+        return timeline != null && timeline.isAttemptOpen(currentIndex);
+    }
+
+    /**
+     * Time spent on the exercise's completed attempt without pauses, or 0 if it never was completed
+     */
+    public long getExerciseMillis(int index) {
+        SessionTimeline timeline = session != null ? session.getTimeline() : null;
+        return timeline != null ? timeline.getExerciseActiveMillis(index) : 0;
+    }
+
+    public int getCompletedCount() {
+        return completedCount;
+    }
+
+    /**
+     * Calories for the time actually spent on the completed exercises
+     */
+    public int getCaloriesBurned() {
+        return session != null ? session.estimateCaloriesBurned() : 0;
+    }
+
+    public boolean hasSkippedExercises() {
+        for (int i = 0; i < plan.size(); i++) {
+            if (getOutcome(i) == Outcome.SKIPPED) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whole minutes of the workout so far, or of the finished workout, at least 1
+     */
+    public int getActualDurationMinutes() {
+        if (!isActive()) return 0;
+        if (isFinished()) return Math.max(1, session.getDurationMinutes());
+        return (int) Math.max(1, session.getDurationInMillis() / (60 * 1000));
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.moodfit.models;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * SessionTimeline: event packing, 100 ms delta encoding and clamping, and the derived active and
+ * paused times
+ */
+public class SessionTimelineTest {
+
+    private static final long START = 50_000L;
+
+    // Largest 20-bit delta, in milliseconds
+    private static final long MAX_DELTA_MS = ((1L << 20) - 1) * 100;
+
+    private SessionTimeline timeline;
+
+    @Before
+    public void setUp() {
+        timeline = new SessionTimeline();
+        timeline.startAt(START);
+    }
+
+    // ==================== PACKING ====================
+
+    @Test
+    public void packing_typeAndIndexRoundTrip() {
+        timeline.recordAt(SessionTimeline.EXERCISE_START, 0, START);
+        timeline.recordAt(SessionTimeline.WORKOUT_END, 17, START + 100);
+        timeline.recordAt(SessionTimeline.EXERCISE_SKIP, SessionTimeline.MAX_EXERCISES - 1, START + 200);
+
+        assertEquals(3, timeline.getEventCount());
+        assertEquals(SessionTimeline.EXERCISE_START, timeline.getType(0));
+        assertEquals(0, timeline.getExerciseIndex(0));
+        assertEquals(SessionTimeline.WORKOUT_END, timeline.getType(1));
+        assertEquals(17, timeline.getExerciseIndex(1));
+        assertEquals(SessionTimeline.EXERCISE_SKIP, timeline.getType(2));
+        assertEquals(255, timeline.getExerciseIndex(2));
+    }
+
+    @Test
+    public void packing_largeDeltaDoesNotBleedIntoIndexOrType() {
+        timeline.recordAt(SessionTimeline.RESUME, 255, START + MAX_DELTA_MS);
+
+        assertEquals(SessionTimeline.RESUME, timeline.getType(0));
+        assertEquals(255, timeline.getExerciseIndex(0));
+        assertEquals(MAX_DELTA_MS, timeline.getOffsetMillis(0));
+    }
+
+    @Test
+    public void record_outOfRangeIndexIgnored() {
+        timeline.recordAt(SessionTimeline.EXERCISE_START, -1, START);
+        timeline.recordAt(SessionTimeline.EXERCISE_START, SessionTimeline.MAX_EXERCISES, START);
+
+        assertEquals(0, timeline.getEventCount());
+    }
+
+    @Test
+    public void record_ignoredUntilStarted() {
+        SessionTimeline notStarted = new SessionTimeline();
+        notStarted.recordAt(SessionTimeline.EXERCISE_START, 0, START);
+
+        assertFalse(notStarted.isRecording());
+        assertEquals(0, notStarted.getEventCount());
+    }
+
+    @Test
+    public void record_growsPastInitialCapacityAndTrims() {
+        for (int i = 0; i < 40; i++) {
+            timeline.recordAt(i % 2 == 0 ? SessionTimeline.PAUSE : SessionTimeline.RESUME, 3, START + i * 1000L);
+        }
+        timeline.trim();
+
+        assertEquals(40, timeline.getEventCount());
+        assertEquals(39_000, timeline.getLengthMillis());
+        assertEquals(SessionTimeline.RESUME, timeline.getType(39));
+    }
+
+    @Test
+    public void startAt_clearsEarlierEvents() {
+        timeline.recordAt(SessionTimeline.EXERCISE_START, 0, START + 500);
+        timeline.startAt(START + 10_000);
+
+        assertEquals(0, timeline.getEventCount());
+        assertEquals(START + 10_000, timeline.getStartElapsed());
+    }
+
+    // ==================== DELTAS ====================
+
+    @Test
+    public void offsets_roundDownToTenthsWithoutDrift() {
+        timeline.recordAt(SessionTimeline.EXERCISE_START, 0, START + 150);
+        timeline.recordAt(SessionTimeline.PAUSE, 0, START + 1049);
+        timeline.recordAt(SessionTimeline.RESUME, 0, START + 1100);
+        timeline.recordAt(SessionTimeline.EXERCISE_END, 0, START + 60_099);
+
+        assertEquals(100, timeline.getOffsetMillis(0));
+        assertEquals(1000, timeline.getOffsetMillis(1));
+        assertEquals(1100, timeline.getOffsetMillis(2));
+        assertEquals(60_000, timeline.getOffsetMillis(3));
+        assertEquals(60_000, timeline.getLengthMillis());
+    }
+
+    @Test
+    public void delta_clampedAtTwentyBits() {
+        long thirtyHours = 30L * 60 * 60 * 1000;
+        timeline.recordAt(SessionTimeline.EXERCISE_START, 0, START);
+        timeline.recordAt(SessionTimeline.EXERCISE_END, 0, START + thirtyHours);
+        // Measured from the real time of the clamped event, not from the clamped offset
+        timeline.recordAt(SessionTimeline.WORKOUT_END, 0, START + thirtyHours + 1000);
+
+        assertEquals(MAX_DELTA_MS, timeline.getOffsetMillis(1));
+        assertEquals(MAX_DELTA_MS + 1000, timeline.getOffsetMillis(2));
+    }
+
+    @Test
+    public void delta_eventBeforePreviousIsZero() {
+        timeline.recordAt(SessionTimeline.EXERCISE_START, 0, START + 5000);
+        timeline.recordAt(SessionTimeline.PAUSE, 0, START + 3000);
+        timeline.recordAt(SessionTimeline.RESUME, 0, START + 6000);
+
+        assertEquals(5000, timeline.getOffsetMillis(1));
+        assertEquals(6000, timeline.getOffsetMillis(2));
+    }
+
+    @Test
+    public void lengthMillis_emptyIsZero() {
+        assertEquals(0, timeline.getLengthMillis());
+    }
+
+    // ==================== ACTIVE AND PAUSED TIME ====================
+
+    @Test
+    public void activeMillis_excludesPauses() {
+        record(SessionTimeline.EXERCISE_START, 0, 0);
+        record(SessionTimeline.PAUSE, 0, 10);
+        record(SessionTimeline.RESUME, 0, 15);
+        record(SessionTimeline.EXERCISE_END, 0, 40);
+
+        assertEquals(35_000, timeline.getExerciseActiveMillis(0));
+    }
+
+    @Test
+    public void activeMillis_endedWhilePaused() {
+        record(SessionTimeline.EXERCISE_START, 0, 0);
+        record(SessionTimeline.PAUSE, 0, 10);
+        record(SessionTimeline.EXERCISE_END, 0, 20);
+
+        assertEquals(10_000, timeline.getExerciseActiveMillis(0));
+    }
+
+    @Test
+    public void activeMillis_onlyTheCompletedAttemptCounts() {
+        record(SessionTimeline.EXERCISE_START, 0, 0);
+        record(SessionTimeline.PAUSE, 0, 2);
+        record(SessionTimeline.EXERCISE_CANCEL, 0, 5);
+        record(SessionTimeline.EXERCISE_START, 0, 10);
+        record(SessionTimeline.EXERCISE_END, 0, 30);
+
+        assertEquals(20_000, timeline.getExerciseActiveMillis(0));
+    }
+
+    @Test
+    public void activeMillis_perExercise() {
+        record(SessionTimeline.EXERCISE_START, 0, 0);
+        record(SessionTimeline.EXERCISE_END, 0, 30);
+        record(SessionTimeline.EXERCISE_SKIP, 1, 35);
+        record(SessionTimeline.EXERCISE_START, 2, 40);
+        record(SessionTimeline.PAUSE, 2, 50);
+        record(SessionTimeline.RESUME, 2, 70);
+        record(SessionTimeline.EXERCISE_END, 2, 100);
+        record(SessionTimeline.EXERCISE_START, 3, 110);
+        record(SessionTimeline.WORKOUT_END, 0, 120);
+
+        assertEquals(30_000, timeline.getExerciseActiveMillis(0));
+        assertEquals(0, timeline.getExerciseActiveMillis(1));
+        assertEquals(40_000, timeline.getExerciseActiveMillis(2));
+        // Started but never completed
+        assertEquals(0, timeline.getExerciseActiveMillis(3));
+        assertEquals(0, timeline.getExerciseActiveMillis(4));
+    }
+
+    @Test
+    public void pausedMillis_sumsEveryPause() {
+        record(SessionTimeline.EXERCISE_START, 0, 0);
+        record(SessionTimeline.PAUSE, 0, 10);
+        record(SessionTimeline.RESUME, 0, 15);
+        record(SessionTimeline.EXERCISE_END, 0, 20);
+        record(SessionTimeline.EXERCISE_START, 1, 25);
+        record(SessionTimeline.PAUSE, 1, 30);
+        // A second PAUSE while paused does not restart the pause
+        record(SessionTimeline.PAUSE, 1, 35);
+        record(SessionTimeline.EXERCISE_CANCEL, 1, 45);
+
+        assertEquals(5_000 + 15_000, timeline.getPausedMillis());
+    }
+
+    @Test
+    public void pausedMillis_openPauseNotCounted() {
+        record(SessionTimeline.EXERCISE_START, 0, 0);
+        record(SessionTimeline.PAUSE, 0, 10);
+
+        assertEquals(0, timeline.getPausedMillis());
+    }
+
+    @Test
+    public void outcomes() {
+        record(SessionTimeline.EXERCISE_START, 0, 0);
+        record(SessionTimeline.EXERCISE_END, 0, 30);
+        record(SessionTimeline.EXERCISE_SKIP, 1, 35);
+
+        assertTrue(timeline.wasCompleted(0));
+        assertFalse(timeline.wasSkipped(0));
+        assertTrue(timeline.wasSkipped(1));
+        assertFalse(timeline.wasCompleted(1));
+        assertFalse(timeline.wasCompleted(2));
+    }
+
+    // ==================== OPEN ATTEMPTS ====================
+
+    @Test
+    public void attemptOpen_neverStarted() {
+        record(SessionTimeline.EXERCISE_START, 1, 0);
+
+        assertFalse(timeline.isAttemptOpen(0));
+    }
+
+    @Test
+    public void attemptOpen_untilCancelled() {
+        record(SessionTimeline.EXERCISE_START, 0, 0);
+        record(SessionTimeline.PAUSE, 0, 5);
+        assertTrue(timeline.isAttemptOpen(0));
+
+        record(SessionTimeline.EXERCISE_CANCEL, 0, 8);
+        assertFalse(timeline.isAttemptOpen(0));
+    }
+
+    @Test
+    public void attemptOpen_closedByEndOrSkip() {
+        record(SessionTimeline.EXERCISE_START, 0, 0);
+        record(SessionTimeline.EXERCISE_END, 0, 30);
+        record(SessionTimeline.EXERCISE_START, 1, 31);
+        record(SessionTimeline.EXERCISE_SKIP, 1, 32);
+
+        assertFalse(timeline.isAttemptOpen(0));
+        assertFalse(timeline.isAttemptOpen(1));
+    }
+
+    @Test
+    public void attemptOpen_restartAfterCancel() {
+        record(SessionTimeline.EXERCISE_START, 0, 0);
+        record(SessionTimeline.EXERCISE_CANCEL, 0, 5);
+        record(SessionTimeline.EXERCISE_START, 0, 10);
+
+        assertTrue(timeline.isAttemptOpen(0));
+    }
+
+    // ==================== HELPERS ====================
+
+    private void record(int type, int exerciseIndex, int atSecond) {
+        timeline.recordAt(type, exerciseIndex, START + atSecond * 1000L);
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.moodfit.recommendation;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * RecommendationRandom: FNV-1a/SplitMix seeding and replay of a day's draws
+ */
+public class RecommendationRandomTest {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long DAY = 20380L;
+
+    @Test
+    public void fnvReference_matchesPublishedVectors() {
+        assertEquals(0xcbf29ce484222325L, fnv1a(""));
+        assertEquals(0xaf63dc4c8601ec8cL, fnv1a("a"));
+        assertEquals(0x85944171f73967e8L, fnv1a("foobar"));
+    }
+
+    @Test
+    public void seedFor_chainsFnvHashThroughSplitMix() {
+        String user = "user_42";
+        for (RecommendationRandom.Stream stream : RecommendationRandom.Stream.values()) {
+            for (long draw = 0; draw < 5; draw++) {
+                long expected = fnv1a(user);
+                expected = mix64(expected + DAY * GOLDEN_GAMMA);
+                expected = mix64(expected + (stream.ordinal() + 1) * GOLDEN_GAMMA);
+                expected = mix64(expected + draw * GOLDEN_GAMMA);
+
+                assertEquals(expected, RecommendationRandom.seedFor(user, DAY, stream, draw));
+            }
+        }
+    }
+
+    @Test
+    public void seedFor_nullUserIsEmptyUser() {
+        assertEquals(RecommendationRandom.seedFor("", DAY, RecommendationRandom.Stream.QUOTE, 3),
+                RecommendationRandom.seedFor(null, DAY, RecommendationRandom.Stream.QUOTE, 3));
+    }
+
+    @Test
+    public void seedFor_everyInputChangesTheSeed() {
+        Set<Long> seeds = new HashSet<>();
+        String[] users = {"", "a", "b", "user_42"};
+        for (String user : users) {
+            for (long day = DAY; day < DAY + 3; day++) {
+                for (RecommendationRandom.Stream stream : RecommendationRandom.Stream.values()) {
+                    for (long draw = 0; draw < 10; draw++) {
+                        seeds.add(RecommendationRandom.seedFor(user, day, stream, draw));
+                    }
+                }
+            }
+        }
+        assertEquals(users.length * 3 * RecommendationRandom.Stream.values().length * 10, seeds.size());
+    }
+
+    @Test
+    public void replay_reproducesDrawsFromFirstIndex() {
+        RecommendationRandom replay = RecommendationRandom.forReplay("user_42", DAY);
+        assertTrue(replay.isReplay());
+        assertEquals(DAY, replay.getEpochDay());
+
+        for (long draw = 0; draw < 20; draw++) {
+            SplittableRandom generator = replay.nextGenerator(RecommendationRandom.Stream.RANDOM_EXERCISE);
+            SplittableRandom expected = new SplittableRandom(
+                    RecommendationRandom.seedFor("user_42", DAY, RecommendationRandom.Stream.RANDOM_EXERCISE, draw));
+            assertSameSequence(expected, generator);
+        }
+    }
+
+    @Test
+    public void replay_resumesAtPersistedDrawIndex() {
+        // A live screen that persisted a counter of 7 continues with draw 7
+        long persistedDraws = 7;
+
+        RecommendationRandom first = RecommendationRandom.forReplay("user_42", DAY);
+        SplittableRandom[] live = new SplittableRandom[10];
+        for (int i = 0; i < live.length; i++) {
+            live[i] = first.nextGenerator(RecommendationRandom.Stream.MOOD_WORKOUT);
+        }
+
+        RecommendationRandom second = RecommendationRandom.forReplay("user_42", DAY);
+        for (long i = 0; i < persistedDraws; i++) {
+            second.nextGenerator(RecommendationRandom.Stream.MOOD_WORKOUT);
+        }
+        for (int i = (int) persistedDraws; i < live.length; i++) {
+            assertSameSequence(live[i], second.nextGenerator(RecommendationRandom.Stream.MOOD_WORKOUT));
+        }
+    }
+
+    @Test
+    public void streams_doNotShiftEachOther() {
+        RecommendationRandom mixed = RecommendationRandom.forReplay("user_42", DAY);
+        RecommendationRandom single = RecommendationRandom.forReplay("user_42", DAY);
+
+        for (int i = 0; i < 5; i++) {
+            mixed.nextGenerator(RecommendationRandom.Stream.QUOTE);
+            mixed.nextGenerator(RecommendationRandom.Stream.RANDOM_EXERCISE);
+            assertSameSequence(single.nextGenerator(RecommendationRandom.Stream.MOOD_WORKOUT),
+                    mixed.nextGenerator(RecommendationRandom.Stream.MOOD_WORKOUT));
+        }
+    }
+
+    @Test
+    public void reservedDraws_countOnlyWhenCommitted() {
+        RecommendationRandom random = RecommendationRandom.forReplay("user_42", DAY);
+        RecommendationRandom.Stream stream = RecommendationRandom.Stream.RANDOM_EXERCISE;
+
+        // Three speculative draws, of which only the first is shown
+        RecommendationRandom.DrawSlot first = random.peekNextDraw(stream);
+        RecommendationRandom.DrawSlot second = first.next();
+        RecommendationRandom.DrawSlot third = second.next();
+        assertEquals(0, first.index);
+        assertEquals(2, third.index);
+        assertEquals(0, random.peekNextDraw(stream).index);
+
+        random.commitDraw(first);
+        assertEquals(1, random.peekNextDraw(stream).index);
+
+        // The discarded slots are handed out again, so shown draws stay consecutive
+        RecommendationRandom.DrawSlot retry = random.peekNextDraw(stream);
+        assertEquals(second.index, retry.index);
+        assertSameSequence(random.generatorFor(second), random.generatorFor(retry));
+
+        // A plain draw continues after the committed slot
+        SplittableRandom next = random.nextGenerator(stream);
+        assertSameSequence(new SplittableRandom(RecommendationRandom.seedFor("user_42", DAY, stream, 1)), next);
+    }
+
+    @Test
+    public void commitDraw_ignoresSlotsBehindTheCounter() {
+        RecommendationRandom random = RecommendationRandom.forReplay("user_42", DAY);
+        RecommendationRandom.Stream stream = RecommendationRandom.Stream.RANDOM_EXERCISE;
+
+        RecommendationRandom.DrawSlot stale = random.peekNextDraw(stream);
+        random.nextGenerator(stream);
+        random.nextGenerator(stream);
+        random.commitDraw(stale);
+
+        assertEquals(2, random.peekNextDraw(stream).index);
+    }
+
+    @Test
+    public void generatorFor_matchesSeedOfSlot() {
+        RecommendationRandom random = RecommendationRandom.forReplay("user_42", DAY);
+        RecommendationRandom.DrawSlot slot = random.peekNextDraw(RecommendationRandom.Stream.QUOTE).next().next();
+
+        assertSameSequence(new SplittableRandom(RecommendationRandom.seedFor("user_42", DAY,
+                RecommendationRandom.Stream.QUOTE, 2)), random.generatorFor(slot));
+    }
+
+    @Test
+    public void bucketFor_isStableAndInRange() {
+        RecommendationRandom today = RecommendationRandom.forReplay("user_42", DAY);
+        RecommendationRandom later = RecommendationRandom.forReplay("user_42", DAY + 30);
+
+        for (int buckets = 1; buckets <= 16; buckets++) {
+            int bucket = today.bucketFor("composer_v2", buckets);
+            assertTrue(bucket >= 0 && bucket < buckets);
+            assertEquals(bucket, later.bucketFor("composer_v2", buckets));
+        }
+        assertEquals(0, today.bucketFor("composer_v2", 0));
+    }
+
+    // ==================== REFERENCE ====================
+
+    private static void assertSameSequence(SplittableRandom expected, SplittableRandom actual) {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected.nextLong(), actual.nextLong());
+        }
+    }
+
+    private static long fnv1a(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(java.nio.charset.StandardCharsets.US_ASCII)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * SplitMix64 finalizer, taken from SplittableRandom itself: a fresh generator returns
+     * mix64(seed + GOLDEN_GAMMA) as its first value
+     */
+    private static long mix64(long z) {
+        return new SplittableRandom(z - GOLDEN_GAMMA).nextLong();
+    }
+}
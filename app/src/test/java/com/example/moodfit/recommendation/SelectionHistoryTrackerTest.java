@@ -0,0 +1,181 @@
+package com.example.moodfit.recommendation;
+
+import com.example.moodfit.models.enums.WorkoutCategory;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * SelectionHistoryTracker: window eviction, repeat handling, category counts and persistence
+ */
+public class SelectionHistoryTrackerTest {
+
+    @Test
+    public void recencyIndex_mostRecentIsZero() {
+        SelectionHistoryTracker tracker = new SelectionHistoryTracker(5);
+        tracker.record("a", WorkoutCategory.CARDIO);
+        tracker.record("b", WorkoutCategory.YOGA);
+        tracker.record("c", WorkoutCategory.HIIT);
+
+        assertEquals(0, tracker.recencyIndexOf("c"));
+        assertEquals(1, tracker.recencyIndexOf("b"));
+        assertEquals(2, tracker.recencyIndexOf("a"));
+        assertEquals(-1, tracker.recencyIndexOf("missing"));
+        assertEquals(3, tracker.size());
+    }
+
+    @Test
+    public void fullWindow_evictsOldestEntry() {
+        SelectionHistoryTracker tracker = new SelectionHistoryTracker(3);
+        tracker.record("a", WorkoutCategory.CARDIO);
+        tracker.record("b", WorkoutCategory.CARDIO);
+        tracker.record("c", WorkoutCategory.STRENGTH);
+        tracker.record("d", WorkoutCategory.STRENGTH);
+
+        assertEquals(3, tracker.size());
+        assertFalse(tracker.contains("a"));
+        assertEquals(-1, tracker.recencyIndexOf("a"));
+        assertEquals(2, tracker.recencyIndexOf("b"));
+        assertEquals(0, tracker.recencyIndexOf("d"));
+        assertEquals(1, tracker.countInCategory(WorkoutCategory.CARDIO));
+        assertEquals(2, tracker.countInCategory(WorkoutCategory.STRENGTH));
+    }
+
+    @Test
+    public void repeatedId_tracksLatestOccurrence() {
+        SelectionHistoryTracker tracker = new SelectionHistoryTracker(4);
+        tracker.record("a", WorkoutCategory.CARDIO);
+        tracker.record("b", WorkoutCategory.YOGA);
+        tracker.record("a", WorkoutCategory.CARDIO);
+
+        // The repeat counts as most recent, not at its first position
+        assertEquals(0, tracker.recencyIndexOf("a"));
+        assertEquals(1, tracker.recencyIndexOf("b"));
+        assertEquals(2, tracker.countInCategory(WorkoutCategory.CARDIO));
+    }
+
+    @Test
+    public void evictingOlderOccurrence_keepsNewerOne() {
+        SelectionHistoryTracker tracker = new SelectionHistoryTracker(3);
+        tracker.record("a", WorkoutCategory.CARDIO);
+        tracker.record("b", WorkoutCategory.YOGA);
+        tracker.record("a", WorkoutCategory.CARDIO);
+        // Evicts the first "a"; the second one is still in the window
+        tracker.record("c", WorkoutCategory.HIIT);
+
+        assertTrue(tracker.contains("a"));
+        assertEquals(1, tracker.recencyIndexOf("a"));
+        assertEquals(1, tracker.countInCategory(WorkoutCategory.CARDIO));
+
+        // Evicts "b", then the remaining "a"
+        tracker.record("d", WorkoutCategory.HIIT);
+        tracker.record("e", WorkoutCategory.HIIT);
+        assertFalse(tracker.contains("a"));
+        assertFalse(tracker.contains("b"));
+        assertEquals(0, tracker.countInCategory(WorkoutCategory.CARDIO));
+        assertEquals(0, tracker.countInCategory(WorkoutCategory.YOGA));
+        assertEquals(3, tracker.countInCategory(WorkoutCategory.HIIT));
+    }
+
+    @Test
+    public void nullArguments_areIgnored() {
+        SelectionHistoryTracker tracker = new SelectionHistoryTracker(2);
+        tracker.record(null, WorkoutCategory.CARDIO);
+        tracker.record("a", null);
+
+        assertTrue(tracker.isEmpty());
+        assertEquals(0, tracker.countInCategory(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroCapacity_isRejected() {
+        new SelectionHistoryTracker(0);
+    }
+
+    @Test
+    public void clear_resetsWindowAndCounts() {
+        SelectionHistoryTracker tracker = new SelectionHistoryTracker(3);
+        tracker.record("a", WorkoutCategory.CARDIO);
+        tracker.record("b", WorkoutCategory.CARDIO);
+        tracker.clear();
+
+        assertTrue(tracker.isEmpty());
+        assertFalse(tracker.contains("a"));
+        assertEquals(0, tracker.countInCategory(WorkoutCategory.CARDIO));
+
+        tracker.record("c", WorkoutCategory.YOGA);
+        assertEquals(0, tracker.recencyIndexOf("c"));
+    }
+
+    @Test
+    public void copy_isIndependent() {
+        SelectionHistoryTracker tracker = new SelectionHistoryTracker(3);
+        tracker.record("a", WorkoutCategory.CARDIO);
+        tracker.record("b", WorkoutCategory.YOGA);
+
+        SelectionHistoryTracker copy = tracker.copy();
+        copy.record("c", WorkoutCategory.HIIT);
+        copy.record("d", WorkoutCategory.HIIT);
+
+        assertEquals(2, tracker.size());
+        assertTrue(tracker.contains("a"));
+        assertFalse(tracker.contains("c"));
+        assertFalse(copy.contains("a"));
+        assertEquals(2, copy.recencyIndexOf("b"));
+    }
+
+    @Test
+    public void encodeDecode_roundTripsWrappedWindow() {
+        SelectionHistoryTracker tracker = new SelectionHistoryTracker(3);
+        tracker.record("a", WorkoutCategory.CARDIO);
+        tracker.record("b", WorkoutCategory.YOGA);
+        tracker.record("c", WorkoutCategory.HIIT);
+        tracker.record("d", WorkoutCategory.BREATHING);
+
+        SelectionHistoryTracker restored = new SelectionHistoryTracker(3);
+        assertTrue(restored.decode(tracker.encode()));
+
+        assertEquals(tracker.encode(), restored.encode());
+        assertEquals(2, restored.recencyIndexOf("b"));
+        assertEquals(0, restored.recencyIndexOf("d"));
+        assertEquals(1, restored.countInCategory(WorkoutCategory.BREATHING));
+    }
+
+    @Test
+    public void decode_intoSmallerWindowKeepsNewestEntries() {
+        SelectionHistoryTracker tracker = new SelectionHistoryTracker(4);
+        tracker.record("a", WorkoutCategory.CARDIO);
+        tracker.record("b", WorkoutCategory.YOGA);
+        tracker.record("c", WorkoutCategory.HIIT);
+
+        SelectionHistoryTracker restored = new SelectionHistoryTracker(2);
+        assertTrue(restored.decode(tracker.encode()));
+
+        assertFalse(restored.contains("a"));
+        assertEquals(1, restored.recencyIndexOf("b"));
+        assertEquals(0, restored.recencyIndexOf("c"));
+    }
+
+    @Test
+    public void decode_rejectsUnknownFormat() {
+        SelectionHistoryTracker tracker = new SelectionHistoryTracker(3);
+        tracker.record("a", WorkoutCategory.CARDIO);
+
+        assertFalse(tracker.decode("a,b,c"));
+        assertTrue(tracker.isEmpty());
+        assertFalse(tracker.decode(null));
+        assertFalse(tracker.decode(""));
+    }
+
+    @Test
+    public void decode_skipsMalformedEntries() {
+        SelectionHistoryTracker tracker = new SelectionHistoryTracker(5);
+        // Empty entry, category ordinal out of range, then a valid entry
+        assertTrue(tracker.decode("1;9x;0"
+                + ";" + WorkoutCategory.YOGA.ordinal() + "yoga_1"));
+
+        assertEquals(1, tracker.size());
+        assertEquals(0, tracker.recencyIndexOf("yoga_1"));
+    }
+}
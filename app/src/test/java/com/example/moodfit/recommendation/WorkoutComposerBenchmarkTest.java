@@ -0,0 +1,111 @@
+package com.example.moodfit.recommendation;
+
+import com.example.moodfit.models.Exercise;
+import com.example.moodfit.models.enums.DifficultyLevel;
+import com.example.moodfit.models.enums.WorkoutCategory;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Per-compose latency over synthetic catalogs of 36 (the bundled catalog), 1k and 10k candidates
+ *
+ * Constraints and weights mirror MoodWorkoutActivity for an intermediate, neutral-mood workout.
+ * Every plan must have unique IDs and repeat exactly for the same seed. Latency is only printed
+ * (mean/p50/p95/max per size); a JVM on a build machine says little about a phone, so it is not
+ * asserted.
+ */
+public class WorkoutComposerBenchmarkTest {
+
+    private static final int[] CATALOG_SIZES = {36, 1_000, 10_000};
+    private static final int WARMUP_RUNS = 50;
+    private static final int MEASURED_RUNS = 200;
+
+    private static final WorkoutCategory[] CATEGORIES = WorkoutCategory.values();
+    private static final DifficultyLevel[] DIFFICULTIES = DifficultyLevel.values();
+
+    @Test
+    public void compose_latencyByCatalogSize() {
+        WorkoutComposer composer = new WorkoutComposer();
+        WorkoutComposer.Constraints constraints = constraints();
+        WorkoutComposer.WeightFunction weights =
+                exercise -> exercise.getDifficulty() == DifficultyLevel.INTERMEDIATE ? 2.0 : 1.0;
+
+        for (int size : CATALOG_SIZES) {
+            List<Exercise> candidates = catalog(size);
+
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                composer.compose(candidates, constraints, weights, i);
+            }
+
+            long[] nanos = new long[MEASURED_RUNS];
+            for (int i = 0; i < MEASURED_RUNS; i++) {
+                long seed = 1000L + i;
+                long startNanos = System.nanoTime();
+                List<Exercise> plan = composer.compose(candidates, constraints, weights, seed);
+                nanos[i] = System.nanoTime() - startNanos;
+
+                assertFalse(size + "/" + seed, plan.isEmpty());
+                assertEquals(size + "/" + seed, plan.size(), new HashSet<>(ids(plan)).size());
+                assertEquals(size + "/" + seed, ids(plan),
+                        ids(composer.compose(candidates, constraints, weights, seed)));
+            }
+
+            System.out.println(String.format("WorkoutComposer %5d candidates: %s",
+                    size, summarize(nanos)));
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private static WorkoutComposer.Constraints constraints() {
+        WorkoutComposer.Constraints constraints = new WorkoutComposer.Constraints();
+        constraints.setExerciseCount(6, 9);
+        constraints.setDifficultyMix(DifficultyLevel.INTERMEDIATE, 0.7f);
+        constraints.setTargetMinutes(80, 15);
+        constraints.setCalorieRange(550, 1100);
+        constraints.addRequiredCategory(WorkoutCategory.STRENGTH);
+        constraints.addRequiredCategory(WorkoutCategory.CARDIO);
+        constraints.addRequiredCategory(WorkoutCategory.FLEXIBILITY);
+        return constraints;
+    }
+
+    /**
+     * Candidates cycling through categories and difficulties, 3-14 minutes and 40-160 kcal each
+     */
+    private static List<Exercise> catalog(int size) {
+        List<Exercise> candidates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String id = "ex_" + i;
+            Exercise exercise = new Exercise(id, "", DIFFICULTIES[(i / 2) % 3], CATEGORIES[i % CATEGORIES.length]);
+            exercise.setExerciseId(id);
+            exercise.setEstimatedDurationMinutes(3 + (i * 5) % 12);
+            exercise.setEstimatedCalories(40 + (i * 13) % 121);
+            candidates.add(exercise);
+        }
+        return candidates;
+    }
+
+    private static List<String> ids(List<Exercise> plan) {
+        List<String> ids = new ArrayList<>();
+        for (Exercise exercise : plan) ids.add(exercise.getExerciseId());
+        return ids;
+    }
+
+    private static String summarize(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long value : sorted) total += value;
+        return String.format("mean %dus p50 %dus p95 %dus max %dus over %d runs",
+                total / sorted.length / 1000, sorted[sorted.length / 2] / 1000,
+                sorted[(int) Math.ceil(sorted.length * 0.95) - 1] / 1000,
+                sorted[sorted.length - 1] / 1000, sorted.length);
+    }
+}
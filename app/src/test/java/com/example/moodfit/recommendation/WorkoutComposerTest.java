@@ -0,0 +1,267 @@
+package com.example.moodfit.recommendation;
+
+import com.example.moodfit.models.Exercise;
+import com.example.moodfit.models.enums.DifficultyLevel;
+import com.example.moodfit.models.enums.WorkoutCategory;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * WorkoutComposer: constraint handling, duration/calorie targets, difficulty mix and ordering
+ */
+public class WorkoutComposerTest {
+
+    private static final WorkoutCategory[] CATEGORIES = WorkoutCategory.values();
+    private static final DifficultyLevel[] DIFFICULTIES = DifficultyLevel.values();
+
+    @Test
+    public void emptyOrNullCandidates_giveEmptyPlan() {
+        WorkoutComposer composer = new WorkoutComposer();
+        WorkoutComposer.Constraints constraints = new WorkoutComposer.Constraints();
+
+        assertTrue(composer.compose(null, constraints, null, 1L).isEmpty());
+        assertTrue(composer.compose(new ArrayList<>(), constraints, null, 1L).isEmpty());
+    }
+
+    @Test
+    public void duplicateIds_appearOnce() {
+        List<Exercise> candidates = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            candidates.add(exercise("same", WorkoutCategory.CARDIO, DifficultyLevel.BEGINNER, 5, 40));
+        }
+        candidates.add(exercise("other", WorkoutCategory.YOGA, DifficultyLevel.BEGINNER, 5, 20));
+
+        WorkoutComposer.Constraints constraints = new WorkoutComposer.Constraints();
+        constraints.setExerciseCount(1, 10);
+        List<Exercise> plan = new WorkoutComposer().compose(candidates, constraints, null, 7L);
+
+        assertEquals(2, plan.size());
+        assertUniqueIds(plan);
+    }
+
+    @Test
+    public void sameSeed_givesSamePlan() {
+        List<Exercise> candidates = catalog(60);
+        WorkoutComposer.Constraints constraints = new WorkoutComposer.Constraints();
+        constraints.setExerciseCount(4, 8);
+        constraints.setTargetMinutes(30, 3);
+        constraints.addRequiredCategory(WorkoutCategory.BREATHING);
+
+        WorkoutComposer composer = new WorkoutComposer();
+        List<Exercise> first = composer.compose(candidates, constraints, null, 42L);
+        List<Exercise> second = composer.compose(candidates, constraints, null, 42L);
+
+        assertEquals(ids(first), ids(second));
+    }
+
+    @Test
+    public void exerciseCount_staysWithinBounds() {
+        List<Exercise> candidates = catalog(80);
+        for (long seed = 0; seed < 50; seed++) {
+            WorkoutComposer.Constraints constraints = new WorkoutComposer.Constraints();
+            constraints.setExerciseCount(3, 6);
+            constraints.setTargetMinutes(200, 0); // Unreachable: pushes toward the maximum
+
+            List<Exercise> plan = new WorkoutComposer().compose(candidates, constraints, null, seed);
+            assertTrue("seed " + seed + ": " + plan.size(), plan.size() >= 3 && plan.size() <= 6);
+            assertUniqueIds(plan);
+        }
+    }
+
+    @Test
+    public void exerciseCount_cappedByPoolSize() {
+        List<Exercise> candidates = catalog(3);
+        WorkoutComposer.Constraints constraints = new WorkoutComposer.Constraints();
+        constraints.setExerciseCount(5, 10);
+
+        assertEquals(3, new WorkoutComposer().compose(candidates, constraints, null, 1L).size());
+    }
+
+    @Test
+    public void requiredCategories_areCoveredEvenWhenRare() {
+        List<Exercise> candidates = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            candidates.add(exercise("cardio_" + i, WorkoutCategory.CARDIO, DifficultyLevel.INTERMEDIATE, 5, 50));
+        }
+        candidates.add(exercise("breathing_only", WorkoutCategory.BREATHING, DifficultyLevel.BEGINNER, 5, 10));
+        candidates.add(exercise("yoga_only", WorkoutCategory.YOGA, DifficultyLevel.BEGINNER, 5, 15));
+
+        for (long seed = 0; seed < 30; seed++) {
+            WorkoutComposer.Constraints constraints = new WorkoutComposer.Constraints();
+            constraints.setExerciseCount(4, 6);
+            constraints.addRequiredCategory(WorkoutCategory.BREATHING);
+            constraints.addRequiredCategory(WorkoutCategory.YOGA);
+
+            Set<WorkoutCategory> covered = new HashSet<>();
+            for (Exercise exercise : new WorkoutComposer().compose(candidates, constraints, null, seed)) {
+                covered.add(exercise.getCategory());
+            }
+            assertTrue("seed " + seed, covered.contains(WorkoutCategory.BREATHING));
+            assertTrue("seed " + seed, covered.contains(WorkoutCategory.YOGA));
+        }
+    }
+
+    @Test
+    public void unreachableRequiredCategory_doesNotBlockPlan() {
+        List<Exercise> candidates = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            candidates.add(exercise("cardio_" + i, WorkoutCategory.CARDIO, DifficultyLevel.BEGINNER, 5, 50));
+        }
+        WorkoutComposer.Constraints constraints = new WorkoutComposer.Constraints();
+        constraints.setExerciseCount(3, 5);
+        constraints.addRequiredCategory(WorkoutCategory.HIIT);
+
+        List<Exercise> plan = new WorkoutComposer().compose(candidates, constraints, null, 3L);
+        assertTrue(plan.size() >= 3 && plan.size() <= 5);
+    }
+
+    @Test
+    public void targetMinutes_metWithinTolerance() {
+        List<Exercise> candidates = catalog(60);
+        for (long seed = 0; seed < 30; seed++) {
+            WorkoutComposer.Constraints constraints = new WorkoutComposer.Constraints();
+            constraints.setExerciseCount(2, 10);
+            constraints.setTargetMinutes(25, 2);
+
+            int minutes = totalMinutes(new WorkoutComposer().compose(candidates, constraints, null, seed));
+            assertTrue("seed " + seed + ": " + minutes + " min", Math.abs(minutes - 25) <= 2);
+        }
+    }
+
+    @Test
+    public void calorieRange_metWhenFeasible() {
+        List<Exercise> candidates = catalog(60);
+        for (long seed = 0; seed < 30; seed++) {
+            WorkoutComposer.Constraints constraints = new WorkoutComposer.Constraints();
+            constraints.setExerciseCount(2, 8);
+            constraints.setCalorieRange(150, 200);
+
+            int calories = totalCalories(new WorkoutComposer().compose(candidates, constraints, null, seed));
+            assertTrue("seed " + seed + ": " + calories + " kcal", calories >= 150 && calories <= 200);
+        }
+    }
+
+    @Test
+    public void difficultyMix_reachesPrimaryShare() {
+        List<Exercise> candidates = catalog(90);
+        for (long seed = 0; seed < 30; seed++) {
+            WorkoutComposer.Constraints constraints = new WorkoutComposer.Constraints();
+            constraints.setExerciseCount(6, 6);
+            constraints.setDifficultyMix(DifficultyLevel.ADVANCED, 0.5f);
+
+            int primary = 0;
+            for (Exercise exercise : new WorkoutComposer().compose(candidates, constraints, null, seed)) {
+                if (exercise.getDifficulty() == DifficultyLevel.ADVANCED) primary++;
+            }
+            assertEquals("seed " + seed, 3, primary);
+        }
+    }
+
+    @Test
+    public void dominantWeight_isAlwaysChosen() {
+        List<Exercise> candidates = catalog(60);
+        final String favourite = candidates.get(17).getExerciseId();
+
+        for (long seed = 0; seed < 30; seed++) {
+            WorkoutComposer.Constraints constraints = new WorkoutComposer.Constraints();
+            constraints.setExerciseCount(4, 4);
+
+            List<Exercise> plan = new WorkoutComposer().compose(candidates, constraints,
+                    exercise -> favourite.equals(exercise.getExerciseId()) ? 1e9 : 1.0, seed);
+            assertTrue("seed " + seed, ids(plan).contains(favourite));
+        }
+    }
+
+    @Test
+    public void plan_isOrderedAsIntensityArch() {
+        // One category, so intensity follows difficulty alone
+        List<Exercise> candidates = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            candidates.add(exercise("strength_" + i, WorkoutCategory.STRENGTH, DIFFICULTIES[i % 3], 5, 40));
+        }
+
+        for (long seed = 0; seed < 30; seed++) {
+            WorkoutComposer.Constraints constraints = new WorkoutComposer.Constraints();
+            constraints.setExerciseCount(7, 7);
+
+            List<Exercise> plan = new WorkoutComposer().compose(candidates, constraints, null, seed);
+            int peak = 0;
+            for (int i = 1; i < plan.size(); i++) {
+                if (level(plan.get(i)) > level(plan.get(peak))) peak = i;
+            }
+            for (int i = 1; i <= peak; i++) {
+                assertTrue("seed " + seed + " rising", level(plan.get(i - 1)) <= level(plan.get(i)));
+            }
+            for (int i = peak + 1; i < plan.size(); i++) {
+                assertTrue("seed " + seed + " falling", level(plan.get(i - 1)) >= level(plan.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void zeroIterations_stillFillsPlan() {
+        List<Exercise> candidates = catalog(40);
+        WorkoutComposer.Constraints constraints = new WorkoutComposer.Constraints();
+        constraints.setExerciseCount(5, 5);
+
+        List<Exercise> plan = new WorkoutComposer(0).compose(candidates, constraints, null, 9L);
+        assertEquals(5, plan.size());
+        assertUniqueIds(plan);
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * Candidates cycling through categories and difficulties, 3-7 minutes and 15-65 kcal each
+     */
+    private static List<Exercise> catalog(int size) {
+        List<Exercise> candidates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            candidates.add(exercise("ex_" + i, CATEGORIES[i % CATEGORIES.length], DIFFICULTIES[(i / 2) % 3],
+                    3 + i % 5, 15 + (i * 7) % 51));
+        }
+        return candidates;
+    }
+
+    private static Exercise exercise(String id, WorkoutCategory category, DifficultyLevel difficulty,
+                                     int minutes, int calories) {
+        Exercise exercise = new Exercise(id, "", difficulty, category);
+        exercise.setExerciseId(id);
+        exercise.setEstimatedDurationMinutes(minutes);
+        exercise.setEstimatedCalories(calories);
+        return exercise;
+    }
+
+    private static List<String> ids(List<Exercise> plan) {
+        List<String> ids = new ArrayList<>();
+        for (Exercise exercise : plan) ids.add(exercise.getExerciseId());
+        return ids;
+    }
+
+    private static void assertUniqueIds(List<Exercise> plan) {
+        assertEquals(plan.size(), new HashSet<>(ids(plan)).size());
+    }
+
+    private static int totalMinutes(List<Exercise> plan) {
+        int total = 0;
+        for (Exercise exercise : plan) total += exercise.getEstimatedDurationMinutes();
+        return total;
+    }
+
+    private static int totalCalories(List<Exercise> plan) {
+        int total = 0;
+        for (Exercise exercise : plan) total += exercise.getEstimatedCalories();
+        return total;
+    }
+
+    private static int level(Exercise exercise) {
+        return exercise.getDifficulty().getLevel();
+    }
+}
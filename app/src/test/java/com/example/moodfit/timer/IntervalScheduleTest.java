@@ -0,0 +1,160 @@
+package com.example.moodfit.timer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * IntervalSchedule: boundary layout, per-second segment lookup, presets and builder limits
+ */
+public class IntervalScheduleTest {
+
+    @Test
+    public void tabata_segmentsLaidOutBackToBack() {
+        IntervalSchedule schedule = IntervalSchedule.tabata(8, 20, 10);
+
+        assertEquals(16, schedule.getSegmentCount());
+        assertEquals(8, schedule.getRounds());
+        assertEquals(240, schedule.getTotalSeconds());
+
+        int expectedStart = 0;
+        for (int i = 0; i < schedule.getSegmentCount(); i++) {
+            IntervalSchedule.Segment segment = schedule.getSegment(i);
+            assertEquals(expectedStart, segment.startSecond);
+            assertEquals(i % 2 == 0 ? IntervalSchedule.Kind.WORK : IntervalSchedule.Kind.REST, segment.kind);
+            assertEquals(i % 2 == 0 ? 20 : 10, segment.seconds);
+            assertEquals(i / 2 + 1, segment.round);
+            expectedStart = segment.getEndSecond();
+        }
+        assertEquals(schedule.getTotalSeconds(), expectedStart);
+    }
+
+    @Test
+    public void segmentIndexAt_boundaries() {
+        IntervalSchedule schedule = IntervalSchedule.tabata(8, 20, 10);
+
+        assertEquals(0, schedule.segmentIndexAt(0));
+        assertEquals(0, schedule.segmentIndexAt(19));
+        assertEquals(1, schedule.segmentIndexAt(20));
+        assertEquals(1, schedule.segmentIndexAt(29));
+        assertEquals(2, schedule.segmentIndexAt(30));
+        assertEquals(15, schedule.segmentIndexAt(239));
+    }
+
+    @Test
+    public void segmentIndexAt_matchesLinearScanEverySecond() {
+        IntervalSchedule schedule = IntervalSchedule.fightGoneBad();
+
+        for (int second = 0; second < schedule.getTotalSeconds(); second++) {
+            int index = schedule.segmentIndexAt(second);
+            IntervalSchedule.Segment segment = schedule.getSegment(index);
+            assertTrue("second " + second, segment.startSecond <= second && second < segment.getEndSecond());
+        }
+    }
+
+    @Test
+    public void segmentIndexAt_clampsOutsideProgram() {
+        IntervalSchedule schedule = IntervalSchedule.tabata(2, 5, 3);
+
+        assertEquals(0, schedule.segmentIndexAt(-10));
+        assertEquals(3, schedule.segmentIndexAt(schedule.getTotalSeconds()));
+        assertEquals(3, schedule.segmentIndexAt(10000));
+    }
+
+    @Test
+    public void secondsLeftInSegment_countsToBoundary() {
+        IntervalSchedule schedule = IntervalSchedule.tabata(8, 20, 10);
+
+        assertEquals(20, schedule.secondsLeftInSegment(0));
+        assertEquals(1, schedule.secondsLeftInSegment(19));
+        assertEquals(10, schedule.secondsLeftInSegment(20));
+        assertEquals(1, schedule.secondsLeftInSegment(29));
+        assertEquals(20, schedule.secondsLeftInSegment(-3));
+        assertEquals(0, schedule.secondsLeftInSegment(240));
+        assertEquals(0, schedule.secondsLeftInSegment(500));
+    }
+
+    @Test
+    public void forExercise_knownPresets() {
+        assertEquals(240, IntervalSchedule.forExercise("Classic Tabata").getTotalSeconds());
+
+        IntervalSchedule walking = IntervalSchedule.forExercise("Tabata Walking");
+        assertEquals(240, walking.getTotalSeconds());
+        assertEquals("Fast walk", walking.getSegment(0).label);
+        assertEquals("Slow walk", walking.getSegment(1).label);
+
+        assertEquals(600, IntervalSchedule.forExercise("EMOM Challenge").getTotalSeconds());
+        assertEquals(1200, IntervalSchedule.forExercise("Death by Burpees").getTotalSeconds());
+        assertEquals(1080, IntervalSchedule.forExercise("Fight Gone Bad").getTotalSeconds());
+    }
+
+    @Test
+    public void forExercise_plainCountdownIsNull() {
+        assertNull(IntervalSchedule.forExercise(null));
+        assertNull(IntervalSchedule.forExercise("Push-ups"));
+        assertNull(IntervalSchedule.forExercise("classic tabata"));
+    }
+
+    @Test
+    public void emom_oneWorkMinutePerRound() {
+        IntervalSchedule schedule = IntervalSchedule.emom(10);
+
+        assertEquals(10, schedule.getSegmentCount());
+        assertEquals(10, schedule.getRounds());
+        for (int i = 0; i < 10; i++) {
+            IntervalSchedule.Segment segment = schedule.getSegment(i);
+            assertEquals(IntervalSchedule.Kind.WORK, segment.kind);
+            assertEquals(60, segment.seconds);
+            assertEquals(i + 1, segment.round);
+            assertEquals("Minute " + (i + 1), segment.label);
+        }
+    }
+
+    @Test
+    public void deathByBurpees_labelsCountUp() {
+        IntervalSchedule schedule = IntervalSchedule.deathByBurpees(20);
+
+        assertEquals(20, schedule.getSegmentCount());
+        assertEquals("1 burpee", schedule.getSegment(0).label);
+        assertEquals("2 burpees", schedule.getSegment(1).label);
+        assertEquals("20 burpees", schedule.getSegment(19).label);
+    }
+
+    @Test
+    public void fightGoneBad_fiveStationsThenRestPerRound() {
+        IntervalSchedule schedule = IntervalSchedule.fightGoneBad();
+
+        assertEquals(18, schedule.getSegmentCount());
+        assertEquals(3, schedule.getRounds());
+        for (int i = 0; i < schedule.getSegmentCount(); i++) {
+            IntervalSchedule.Segment segment = schedule.getSegment(i);
+            assertEquals(i % 6 == 5 ? IntervalSchedule.Kind.REST : IntervalSchedule.Kind.WORK, segment.kind);
+            assertEquals(i / 6 + 1, segment.round);
+        }
+        assertEquals("Wall balls", schedule.getSegment(0).label);
+        assertEquals("Row", schedule.getSegment(4).label);
+    }
+
+    @Test
+    public void builder_segmentsBeforeNextRoundAreRoundOne() {
+        IntervalSchedule schedule = new IntervalSchedule.Builder().work(30, "Warm-up").build();
+
+        assertEquals(1, schedule.getRounds());
+        assertEquals(1, schedule.getSegment(0).round);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void builder_rejectsEmptySegment() {
+        new IntervalSchedule.Builder().work(0, "Nothing");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void builder_rejectsOverlongProgram() {
+        new IntervalSchedule.Builder().work(2 * 60 * 60, "Long").rest(1, "One too many");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void builder_rejectsEmptyProgram() {
+        new IntervalSchedule.Builder().nextRound().build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.moodfit.timer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * IntervalTimer: the event stream for contiguous ticks, skipped seconds, completion and reset
+ */
+public class IntervalTimerTest {
+
+    // 2 x (5s work, 3s rest): segments [0,5) [5,8) [8,13) [13,16)
+    private IntervalTimer timer;
+    private List<String> events;
+
+    @Before
+    public void setUp() {
+        timer = new IntervalTimer(IntervalSchedule.tabata(2, 5, 3));
+        events = new ArrayList<>();
+        timer.setListener((type, segmentIndex, secondsLeft) ->
+                events.add(type + " " + segmentIndex + " " + secondsLeft));
+    }
+
+    @Test
+    public void contiguousTicks_fullEventStream() {
+        tick(0, 16);
+
+        assertEquals(Arrays.asList(
+                "SEGMENT_STARTED 0 5",
+                "COUNTDOWN 0 3", "COUNTDOWN 0 2", "COUNTDOWN 0 1",
+                "SEGMENT_STARTED 1 3",
+                "COUNTDOWN 1 2", "COUNTDOWN 1 1",
+                "SEGMENT_STARTED 2 5",
+                "COUNTDOWN 2 3", "COUNTDOWN 2 2", "COUNTDOWN 2 1",
+                "SEGMENT_STARTED 3 3",
+                "COUNTDOWN 3 2", "COUNTDOWN 3 1",
+                "FINISHED 3 0"), events);
+    }
+
+    @Test
+    public void countdownCues_onlyInLastSeconds() {
+        IntervalTimer longTimer = new IntervalTimer(IntervalSchedule.emom(1));
+        List<Integer> cues = new ArrayList<>();
+        longTimer.setListener((type, segmentIndex, secondsLeft) -> {
+            if (type == IntervalTimer.EventType.COUNTDOWN) cues.add(secondsLeft);
+        });
+
+        for (int second = 0; second < 60; second++) {
+            longTimer.onElapsed(second);
+        }
+
+        assertEquals(Arrays.asList(3, 2, 1), cues);
+        assertEquals(IntervalTimer.COUNTDOWN_CUE_SECONDS, cues.get(0).intValue());
+    }
+
+    @Test
+    public void repeatedSecond_emitsNothing() {
+        timer.onElapsed(0);
+        timer.onElapsed(0);
+        timer.onElapsed(2);
+        timer.onElapsed(2);
+
+        assertEquals(Arrays.asList("SEGMENT_STARTED 0 5"), events);
+    }
+
+    @Test
+    public void skippedSecondsInSegment_noStaleCues() {
+        timer.onElapsed(0);
+        timer.onElapsed(3); // Jumped over 1 and 2: the cue for 3 left is not replayed
+        timer.onElapsed(4);
+
+        assertEquals(Arrays.asList("SEGMENT_STARTED 0 5", "COUNTDOWN 0 1"), events);
+    }
+
+    @Test
+    public void skippedSecondsAcrossSegments_onlySegmentChange() {
+        timer.onElapsed(0);
+        timer.onElapsed(11);
+        timer.onElapsed(12);
+
+        assertEquals(Arrays.asList("SEGMENT_STARTED 0 5", "SEGMENT_STARTED 2 2", "COUNTDOWN 2 1"), events);
+        assertEquals(2, timer.getCurrentSegmentIndex());
+    }
+
+    @Test
+    public void resumeMidProgram_startsWithSegmentChange() {
+        timer.onElapsed(9);
+
+        assertEquals(Arrays.asList("SEGMENT_STARTED 2 4"), events);
+    }
+
+    @Test
+    public void skipPastEnd_finishesOnce() {
+        timer.onElapsed(0);
+        timer.onElapsed(40);
+        timer.onElapsed(41);
+        timer.onElapsed(5);
+
+        assertEquals(Arrays.asList("SEGMENT_STARTED 0 5", "FINISHED 3 0"), events);
+    }
+
+    @Test
+    public void reset_replaysFromStart() {
+        tick(0, 16);
+        events.clear();
+
+        timer.reset();
+        assertEquals(-1, timer.getCurrentSegmentIndex());
+        timer.onElapsed(0);
+
+        assertEquals(Arrays.asList("SEGMENT_STARTED 0 5"), events);
+        assertEquals(0, timer.getCurrentSegmentIndex());
+    }
+
+    @Test
+    public void noListener_stillTracksSegment() {
+        timer.setListener(null);
+        timer.onElapsed(6);
+
+        assertEquals(1, timer.getCurrentSegmentIndex());
+    }
+
+    // ==================== HELPERS ====================
+
+    private void tick(int fromSecond, int toSecond) {
+        for (int second = fromSecond; second <= toSecond; second++) {
+            timer.onElapsed(second);
+        }
+    }
+}
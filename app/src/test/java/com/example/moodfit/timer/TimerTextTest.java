@@ -0,0 +1,69 @@
+package com.example.moodfit.timer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * TimerText: precomputed "MM:SS" labels at their boundaries and beyond the table
+ */
+public class TimerTextTest {
+
+    @Test
+    public void format_boundaries() {
+        assertEquals("00:00", TimerText.format(0));
+        assertEquals("00:01", TimerText.format(1));
+        assertEquals("00:09", TimerText.format(9));
+        assertEquals("00:10", TimerText.format(10));
+        assertEquals("00:59", TimerText.format(59));
+        assertEquals("01:00", TimerText.format(60));
+        assertEquals("01:15", TimerText.format(75));
+        assertEquals("09:59", TimerText.format(599));
+        assertEquals("10:00", TimerText.format(600));
+        assertEquals("59:59", TimerText.format(3599));
+        assertEquals("60:00", TimerText.format(3600));
+    }
+
+    @Test
+    public void format_lastCachedValue() {
+        assertEquals(99 * 60 + 59, TimerText.MAX_CACHED_SECONDS);
+        assertEquals("99:59", TimerText.format(TimerText.MAX_CACHED_SECONDS));
+    }
+
+    @Test
+    public void format_beyondTableWidensMinutes() {
+        assertEquals("100:00", TimerText.format(TimerText.MAX_CACHED_SECONDS + 1));
+        assertEquals("100:05", TimerText.format(6005));
+        assertEquals("1000:00", TimerText.format(60000));
+    }
+
+    @Test
+    public void format_negativeClampsToZero() {
+        assertEquals("00:00", TimerText.format(-1));
+        assertEquals("00:00", TimerText.format(Integer.MIN_VALUE));
+    }
+
+    @Test
+    public void format_matchesStringFormatAcrossTable() {
+        TimerText.prepare(TimerText.MAX_CACHED_SECONDS);
+        for (int seconds = 0; seconds <= TimerText.MAX_CACHED_SECONDS; seconds++) {
+            assertEquals(String.format("%02d:%02d", seconds / 60, seconds % 60), TimerText.format(seconds));
+        }
+    }
+
+    @Test
+    public void format_reusesPreparedLabels() {
+        TimerText.prepare(3599);
+        assertSame(TimerText.format(0), TimerText.format(0));
+        assertSame(TimerText.format(59), TimerText.format(59));
+        assertSame(TimerText.format(60), TimerText.format(60));
+        assertSame(TimerText.format(3599), TimerText.format(3599));
+    }
+
+    @Test
+    public void prepare_toleratesOutOfRangeArguments() {
+        TimerText.prepare(-5);
+        TimerText.prepare(Integer.MAX_VALUE);
+        assertEquals("99:59", TimerText.format(TimerText.MAX_CACHED_SECONDS));
+    }
+}
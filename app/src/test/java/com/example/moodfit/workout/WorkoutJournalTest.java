@@ -0,0 +1,360 @@
+package com.example.moodfit.workout;
+
+import com.example.moodfit.models.Exercise;
+import com.example.moodfit.models.SessionTimeline;
+import com.example.moodfit.models.WorkoutSession;
+import com.example.moodfit.models.enums.DifficultyLevel;
+import com.example.moodfit.models.enums.MoodType;
+import com.example.moodfit.models.enums.WorkoutCategory;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.*;
+
+/**
+ * WorkoutJournal file format: the binary header, record CRCs and sequence numbers, torn tails,
+ * expiry, and replaying the records into the session's timeline
+ */
+public class WorkoutJournalTest {
+
+    private static final int BOOT = 7;
+    private static final long START_ELAPSED = 1_000_000L;
+    private static final long START_WALL = 1_700_000_000_000L;
+    private static final int ESTIMATED_MINUTES = 25;
+
+    // ==================== HEADER ====================
+
+    @Test
+    public void header_layout() throws IOException {
+        ByteBuffer header = WorkoutJournal.encodeHeader(session(3), BOOT, START_ELAPSED, ESTIMATED_MINUTES);
+        byte[] bytes = Arrays.copyOf(header.array(), header.limit());
+
+        ByteBuffer read = ByteBuffer.wrap(bytes);
+        assertEquals(0x4D464A31, read.getInt());
+        assertEquals(BOOT, read.getInt());
+        assertEquals(START_ELAPSED, read.getLong());
+        assertEquals(ESTIMATED_MINUTES, read.getInt());
+        int planLength = read.getInt();
+        assertEquals(bytes.length - 24 - 4, planLength);
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        assertEquals((int) crc.getValue(), read.getInt(bytes.length - 4));
+    }
+
+    @Test
+    public void header_sessionRoundTrip() throws IOException {
+        WorkoutSession original = session(2);
+        Exercise second = original.getExercises().get(1);
+        second.setImageUrl(null);
+        second.setTargetMuscles(Collections.emptyList());
+
+        WorkoutJournal.Recovery recovery = parse(journal(original), 0);
+
+        WorkoutSession session = recovery.session;
+        assertEquals(original.getSessionId(), session.getSessionId());
+        assertEquals("user-1", session.getUserId());
+        assertEquals(START_WALL, session.getStartTime());
+        assertEquals(MoodType.STRESSED, session.getSelectedMood());
+        assertEquals(ESTIMATED_MINUTES, recovery.estimatedMinutes);
+
+        assertEquals(2, session.getExercises().size());
+        Exercise first = session.getExercises().get(0);
+        assertEquals("Exercise 0", first.getName());
+        assertEquals("Do it 0", first.getInstructions());
+        assertEquals(DifficultyLevel.INTERMEDIATE, first.getDifficulty());
+        assertEquals(WorkoutCategory.HIIT, first.getCategory());
+        assertEquals(5, first.getEstimatedDurationMinutes());
+        assertEquals(40, first.getEstimatedCalories());
+        assertTrue(first.isRequiresEquipment());
+        assertEquals("Mat", first.getEquipment());
+        assertEquals(12, first.getRecommendedReps());
+        assertEquals(3, first.getRecommendedSets());
+        assertEquals(Arrays.asList("Legs", "Core"), first.getTargetMuscles());
+        assertEquals(Arrays.asList(MoodType.STRESSED, MoodType.FRUSTRATED), first.getSuitableForMoods());
+
+        Exercise decodedSecond = session.getExercises().get(1);
+        assertNull(decodedSecond.getImageUrl());
+        assertTrue(decodedSecond.getTargetMuscles().isEmpty());
+    }
+
+    @Test
+    public void header_rejected() throws IOException {
+        byte[] good = journal(session(2));
+
+        assertNull(parse(new byte[0], 0));
+        assertNull(parse(Arrays.copyOf(good, 20), 0));
+
+        byte[] badMagic = good.clone();
+        badMagic[0] ^= 1;
+        assertNull(parse(badMagic, 0));
+
+        // Any flipped header byte fails the header CRC
+        byte[] badPlan = good.clone();
+        badPlan[30] ^= 1;
+        assertNull(parse(badPlan, 0));
+
+        byte[] badLength = good.clone();
+        ByteBuffer.wrap(badLength).putInt(20, Integer.MAX_VALUE);
+        assertNull(parse(badLength, 0));
+        ByteBuffer.wrap(badLength).putInt(20, -1);
+        assertNull(parse(badLength, 0));
+
+        // Header cut off before its CRC
+        assertNull(parse(Arrays.copyOf(good, good.length - 2), 0));
+    }
+
+    @Test
+    public void header_withoutExercisesIsNothingToResume() throws IOException {
+        assertNull(parse(journal(session(0)), 0));
+    }
+
+    // ==================== RECORDS ====================
+
+    @Test
+    public void record_layout() {
+        ByteBuffer record = ByteBuffer.allocate(WorkoutJournal.RECORD_SIZE);
+        WorkoutJournal.encodeRecord(record, new CRC32(), SessionTimeline.PAUSE, 200, 123_456, 9);
+
+        assertEquals(WorkoutJournal.RECORD_SIZE, record.remaining());
+        assertEquals(SessionTimeline.PAUSE, record.get(0));
+        assertEquals(200, record.get(1) & 0xFF);
+        assertEquals(123_456, record.getInt(4));
+        assertEquals(9, record.getInt(8));
+
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, 12);
+        assertEquals((int) crc.getValue(), record.getInt(12));
+    }
+
+    @Test
+    public void tornTail_partialRecordDropped() throws IOException {
+        byte[] data = journal(session(2),
+                record(SessionTimeline.EXERCISE_START, 0, 0),
+                record(SessionTimeline.EXERCISE_END, 0, 30_000));
+        byte[] torn = Arrays.copyOf(data, data.length - 5);
+
+        WorkoutJournal.Recovery recovery = parse(torn, 40_000);
+
+        assertEquals(1, recovery.recordCount);
+        assertEquals(data.length - WorkoutJournal.RECORD_SIZE, recovery.validLength);
+        assertTrue(recovery.exerciseInProgress);
+        assertEquals(0, recovery.completedCount);
+    }
+
+    @Test
+    public void tornTail_badCrcDropsRecordAndRest() throws IOException {
+        byte[] data = journal(session(2),
+                record(SessionTimeline.EXERCISE_START, 0, 0),
+                record(SessionTimeline.EXERCISE_END, 0, 30_000),
+                record(WorkoutJournal.ADVANCE, 1, 31_000));
+        int second = data.length - 2 * WorkoutJournal.RECORD_SIZE;
+        data[second + 5] ^= 0x40;
+
+        WorkoutJournal.Recovery recovery = parse(data, 40_000);
+
+        assertEquals(1, recovery.recordCount);
+        assertEquals(second, recovery.validLength);
+        assertEquals(0, recovery.currentIndex);
+        assertEquals(1, recovery.session.getTimeline().getEventCount());
+    }
+
+    @Test
+    public void sequence_gapOrRepeatEndsTheIntactPart() throws IOException {
+        ByteArrayOutputStream out = headerStream(session(2));
+        appendRecord(out, SessionTimeline.EXERCISE_START, 0, 0, 0);
+        appendRecord(out, SessionTimeline.PAUSE, 0, 5_000, 1);
+        // A stale record from an earlier write, with a valid CRC but an old sequence number
+        appendRecord(out, SessionTimeline.RESUME, 0, 8_000, 1);
+        appendRecord(out, SessionTimeline.EXERCISE_END, 0, 20_000, 3);
+
+        WorkoutJournal.Recovery recovery = parse(out.toByteArray(), 30_000);
+
+        assertEquals(2, recovery.recordCount);
+        assertTrue(recovery.exercisePaused);
+    }
+
+    @Test
+    public void sequence_mustStartAtZero() throws IOException {
+        ByteArrayOutputStream out = headerStream(session(2));
+        appendRecord(out, SessionTimeline.EXERCISE_START, 0, 0, 1);
+
+        WorkoutJournal.Recovery recovery = parse(out.toByteArray(), 10_000);
+
+        assertEquals(0, recovery.recordCount);
+        assertFalse(recovery.exerciseInProgress);
+    }
+
+    // ==================== REPLAY ====================
+
+    @Test
+    public void replay_sameBootKeepsMonotonicAnchor() throws IOException {
+        byte[] data = journal(session(3),
+                record(SessionTimeline.EXERCISE_START, 0, 1_000),
+                record(SessionTimeline.PAUSE, 0, 11_000),
+                record(SessionTimeline.RESUME, 0, 16_000),
+                record(SessionTimeline.EXERCISE_END, 0, 41_000),
+                record(WorkoutJournal.ADVANCE, 1, 42_000),
+                record(SessionTimeline.EXERCISE_SKIP, 1, 45_000),
+                record(WorkoutJournal.ADVANCE, 2, 46_000),
+                record(SessionTimeline.EXERCISE_START, 2, 50_000),
+                record(SessionTimeline.PAUSE, 2, 60_000));
+
+        WorkoutJournal.Recovery recovery = parse(data, 70_000);
+
+        assertFalse(recovery.afterReboot);
+        assertEquals(START_ELAPSED, recovery.startElapsed);
+        assertEquals(10_000, recovery.idleMillis);
+        assertEquals(2, recovery.currentIndex);
+        assertEquals(1, recovery.completedCount);
+        assertTrue(recovery.exerciseInProgress);
+        assertTrue(recovery.exercisePaused);
+
+        // ADVANCE is journal-only; the other records become the timeline
+        SessionTimeline timeline = recovery.session.getTimeline();
+        assertEquals(START_ELAPSED, timeline.getStartElapsed());
+        assertEquals(7, timeline.getEventCount());
+        assertEquals(SessionTimeline.EXERCISE_START, timeline.getType(0));
+        assertEquals(1_000, timeline.getOffsetMillis(0));
+        assertEquals(SessionTimeline.EXERCISE_SKIP, timeline.getType(4));
+        assertEquals(1, timeline.getExerciseIndex(4));
+        assertEquals(60_000, timeline.getLengthMillis());
+        assertEquals(35_000, timeline.getExerciseActiveMillis(0));
+        assertTrue(timeline.wasSkipped(1));
+        assertEquals(5_000, timeline.getPausedMillis());
+    }
+
+    @Test
+    public void replay_afterRebootContinuesFromLastEvent() throws IOException {
+        byte[] data = journal(session(2),
+                record(SessionTimeline.EXERCISE_START, 0, 0),
+                record(SessionTimeline.EXERCISE_END, 0, 30_000),
+                record(WorkoutJournal.ADVANCE, 1, 31_000),
+                record(SessionTimeline.EXERCISE_START, 1, 40_000));
+        long nowElapsed = 90_000L;
+
+        WorkoutJournal.Recovery recovery = WorkoutJournal.parse(data, BOOT + 1, nowElapsed, START_WALL + 10 * 60_000);
+
+        assertTrue(recovery.afterReboot);
+        assertEquals(nowElapsed - 40_000, recovery.startElapsed);
+        assertEquals(10 * 60_000 - 40_000, recovery.idleMillis);
+        assertEquals(1, recovery.currentIndex);
+        // The timer's monotonic checkpoint did not survive the reboot
+        assertFalse(recovery.exerciseInProgress);
+
+        SessionTimeline timeline = recovery.session.getTimeline();
+        assertEquals(nowElapsed - 40_000, timeline.getStartElapsed());
+        assertEquals(40_000, timeline.getLengthMillis());
+        assertEquals(30_000, timeline.getExerciseActiveMillis(0));
+    }
+
+    @Test
+    public void replay_finishedWorkoutIsNothingToResume() throws IOException {
+        byte[] data = journal(session(1),
+                record(SessionTimeline.EXERCISE_START, 0, 0),
+                record(SessionTimeline.EXERCISE_END, 0, 30_000),
+                record(SessionTimeline.WORKOUT_END, 0, 31_000));
+
+        assertNull(parse(data, 40_000));
+    }
+
+    @Test
+    public void replay_indexOutsidePlanIsRejected() throws IOException {
+        byte[] data = journal(session(2), record(WorkoutJournal.ADVANCE, 2, 1_000));
+
+        assertNull(parse(data, 2_000));
+    }
+
+    // ==================== EXPIRY ====================
+
+    @Test
+    public void expiry_sameBootMeasuredFromLastEvent() throws IOException {
+        byte[] data = journal(session(2), record(SessionTimeline.EXERCISE_START, 0, 60_000));
+
+        assertNotNull(parse(data, 60_000 + WorkoutJournal.RESUME_WINDOW_MS));
+        assertNull(parse(data, 60_000 + WorkoutJournal.RESUME_WINDOW_MS + 1));
+    }
+
+    @Test
+    public void expiry_afterRebootUsesWallClock() throws IOException {
+        byte[] data = journal(session(2), record(SessionTimeline.EXERCISE_START, 0, 60_000));
+        long lastEventWall = START_WALL + 60_000;
+
+        assertNotNull(WorkoutJournal.parse(data, BOOT + 1, 5_000, lastEventWall + WorkoutJournal.RESUME_WINDOW_MS));
+        assertNull(WorkoutJournal.parse(data, BOOT + 1, 5_000, lastEventWall + WorkoutJournal.RESUME_WINDOW_MS + 1));
+    }
+
+    @Test
+    public void expiry_elapsedClockBehindJournalMeansReboot() throws IOException {
+        // Same boot count reported, but the monotonic clock is behind the journal's start
+        byte[] data = journal(session(2), record(SessionTimeline.EXERCISE_START, 0, 0));
+
+        WorkoutJournal.Recovery recovery = WorkoutJournal.parse(data, BOOT, START_ELAPSED - 1, START_WALL + 1_000);
+
+        assertTrue(recovery.afterReboot);
+        assertFalse(recovery.exerciseInProgress);
+    }
+
+    // ==================== HELPERS ====================
+
+    private static WorkoutJournal.Recovery parse(byte[] data, long sinceStartMillis) throws IOException {
+        return WorkoutJournal.parse(data, BOOT, START_ELAPSED + sinceStartMillis, START_WALL + sinceStartMillis);
+    }
+
+    private static WorkoutSession session(int exerciseCount) {
+        WorkoutSession session = new WorkoutSession("user-1", MoodType.STRESSED);
+        session.setStartTime(START_WALL);
+
+        List<Exercise> exercises = new ArrayList<>();
+        for (int i = 0; i < exerciseCount; i++) {
+            Exercise exercise = new Exercise("Exercise " + i, "About " + i, DifficultyLevel.INTERMEDIATE, WorkoutCategory.HIIT);
+            exercise.setInstructions("Do it " + i);
+            exercise.setEstimatedDurationMinutes(5);
+            exercise.setEstimatedCalories(40);
+            exercise.setImageUrl("https://example.com/" + i + ".gif");
+            exercise.setRequiresEquipment(true);
+            exercise.setEquipment("Mat");
+            exercise.setRecommendedReps(12);
+            exercise.setRecommendedSets(3);
+            exercise.setTargetMuscles(Arrays.asList("Legs", "Core"));
+            exercise.setSuitableForMoods(Arrays.asList(MoodType.STRESSED, MoodType.FRUSTRATED));
+            exercises.add(exercise);
+        }
+        session.setExercises(exercises);
+        return session;
+    }
+
+    private static int[] record(int type, int exerciseIndex, int offsetMs) {
+        return new int[] {type, exerciseIndex, offsetMs};
+    }
+
+    private static byte[] journal(WorkoutSession session, int[]... records) throws IOException {
+        ByteArrayOutputStream out = headerStream(session);
+        for (int i = 0; i < records.length; i++) {
+            appendRecord(out, records[i][0], records[i][1], records[i][2], i);
+        }
+        return out.toByteArray();
+    }
+
+    private static ByteArrayOutputStream headerStream(WorkoutSession session) throws IOException {
+        ByteBuffer header = WorkoutJournal.encodeHeader(session, BOOT, START_ELAPSED, ESTIMATED_MINUTES);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(header.array(), 0, header.limit());
+        return out;
+    }
+
+    private static void appendRecord(ByteArrayOutputStream out, int type, int exerciseIndex, int offsetMs, int sequence) {
+        ByteBuffer record = ByteBuffer.allocate(WorkoutJournal.RECORD_SIZE);
+        WorkoutJournal.encodeRecord(record, new CRC32(), type, exerciseIndex, offsetMs, sequence);
+        out.write(record.array(), 0, record.limit());
+    }
+}